@@ -129,7 +129,8 @@ public class ChangeListPresenter {
         checkNotNull(userId);
         this.pageNumberChangedHandler = pageNumber -> displayChangesForWatches(userId);
         view.clear();
-        GetWatchedEntityChangesAction action = new GetWatchedEntityChangesAction(projectId, userId);
+        PageRequest pageRequest = PageRequest.requestPage(view.getPageNumber());
+        GetWatchedEntityChangesAction action = new GetWatchedEntityChangesAction(projectId, userId, pageRequest);
         dispatch.execute(action,
                          hasBusy,
                          this::fillView);
@@ -47,6 +47,10 @@ public abstract class AbstractResultCachingStrategy<A extends Action<R>, R exten
         handler.handleInvalidationEvent(new ResultCacheInvalidationEvent(getActionClass(), invalidationKeys));
     }
 
+    protected void fireAllResultsInvalidatedEvent() {
+        handler.handleInvalidationEvent(ResultCacheInvalidationEvent.allResults(getActionClass()));
+    }
+
     protected  <T> void registerProjectEventHandler(Event.Type<T> type, T handler) {
         HandlerRegistration reg = eventBus.addHandlerToSource(checkNotNull(type), projectId, checkNotNull(handler));
         handlerRegistrations.add(reg);
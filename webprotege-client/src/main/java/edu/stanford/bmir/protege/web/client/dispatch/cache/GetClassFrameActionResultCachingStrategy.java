@@ -2,13 +2,16 @@ package edu.stanford.bmir.protege.web.client.dispatch.cache;
 
 import com.google.web.bindery.event.shared.EventBus;
 import edu.stanford.bmir.protege.web.shared.dispatch.actions.GetClassFrameAction;
+import edu.stanford.bmir.protege.web.shared.event.BulkChangeEvent;
 import edu.stanford.bmir.protege.web.shared.event.ClassFrameChangedEvent;
 import edu.stanford.bmir.protege.web.shared.frame.GetClassFrameResult;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.stream.Collectors;
 
 /**
  * Author: Matthew Horridge<br>
@@ -42,6 +45,16 @@ public class GetClassFrameActionResultCachingStrategy extends AbstractResultCach
         registerProjectEventHandler(ClassFrameChangedEvent.CLASS_FRAME_CHANGED, event -> {
             fireResultsInvalidatedEvent(event.getEntity());
         });
+        registerProjectEventHandler(BulkChangeEvent.ON_BULK_CHANGE, event -> {
+            if(event.isAllEntitiesChanged()) {
+                fireAllResultsInvalidatedEvent();
+                return;
+            }
+            fireResultsInvalidatedEvent(event.getChangedEntities().stream()
+                                             .filter(OWLEntity::isOWLClass)
+                                             .map(OWLEntity::asOWLClass)
+                                             .collect(Collectors.toList()));
+        });
     }
 
 }
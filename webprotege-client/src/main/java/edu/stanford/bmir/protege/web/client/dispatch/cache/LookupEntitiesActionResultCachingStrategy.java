@@ -82,5 +82,15 @@ public class LookupEntitiesActionResultCachingStrategy extends AbstractResultCac
                 fireResultsInvalidatedEvent(event.getEntity());
             }
         });
+        registerProjectEventHandler(BulkChangeEvent.ON_BULK_CHANGE, new BulkChangeHandler() {
+            @Override
+            public void handleBulkChange(BulkChangeEvent event) {
+                if(event.isAllEntitiesChanged()) {
+                    fireAllResultsInvalidatedEvent();
+                    return;
+                }
+                fireResultsInvalidatedEvent(event.getChangedEntities());
+            }
+        });
     }
 }
@@ -13,6 +13,7 @@ import edu.stanford.bmir.protege.web.shared.dispatch.Result;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -95,6 +96,10 @@ public class ResultCache {
     }
 
     private void removeInvalidResults(ResultCacheInvalidationEvent event) {
+        if(event.isAllResultsInvalidated()) {
+            removeAllResults(event.getActionClass());
+            return;
+        }
         for(Object key : event.getInvalidationKeys()) {
             InvalidationKeyWrapper wrapper = new InvalidationKeyWrapper(event.getActionClass(), key);
             for(Action<?> action : invalidationKey2ActionMap.get(wrapper)) {
@@ -104,6 +109,15 @@ public class ResultCache {
         }
     }
 
+    private void removeAllResults(Class<? extends Action<?>> actionClass) {
+        for(Map.Entry<InvalidationKeyWrapper, Action> entry : new ArrayList<>(invalidationKey2ActionMap.entries())) {
+            if(entry.getKey().actionClass.equals(actionClass)) {
+                GWT.log("[Result Cache] Removing invalid result from cache: " + entry.getValue());
+                resultCache.invalidate(entry.getValue());
+                invalidationKey2ActionMap.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
 
     private static class InvalidationKeyWrapper {
 
@@ -5,6 +5,7 @@ import edu.stanford.bmir.protege.web.shared.dispatch.Action;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -22,9 +23,25 @@ public class ResultCacheInvalidationEvent extends Event<ResultCacheInvalidationE
 
     private Collection<?> invalidationKeys;
 
+    private boolean allResultsInvalidated;
+
     public ResultCacheInvalidationEvent(Class<? extends Action<?>> actionClass, Collection<?> invalidationKeys) {
+        this(actionClass, invalidationKeys, false);
+    }
+
+    private ResultCacheInvalidationEvent(Class<? extends Action<?>> actionClass,
+                                         Collection<?> invalidationKeys,
+                                         boolean allResultsInvalidated) {
         this.actionClass = checkNotNull(actionClass);
         this.invalidationKeys = new ArrayList<Object>(checkNotNull(invalidationKeys));
+        this.allResultsInvalidated = allResultsInvalidated;
+    }
+
+    /**
+     * Creates an event that invalidates every cached result for the specified action class.
+     */
+    public static ResultCacheInvalidationEvent allResults(Class<? extends Action<?>> actionClass) {
+        return new ResultCacheInvalidationEvent(actionClass, Collections.emptyList(), true);
     }
 
     @Override
@@ -44,4 +61,8 @@ public class ResultCacheInvalidationEvent extends Event<ResultCacheInvalidationE
     public Collection<?> getInvalidationKeys() {
         return new ArrayList<Object>(invalidationKeys);
     }
+
+    public boolean isAllResultsInvalidated() {
+        return allResultsInvalidated;
+    }
 }
@@ -14,6 +14,7 @@ import edu.stanford.bmir.protege.web.client.tag.TagListPresenter;
 import edu.stanford.bmir.protege.web.client.ui.ElementalUtil;
 import edu.stanford.bmir.protege.web.client.viz.VizPanePresenter;
 import edu.stanford.bmir.protege.web.shared.dispatch.DispatchService;
+import edu.stanford.bmir.protege.web.shared.event.BulkChangeEvent;
 import edu.stanford.bmir.protege.web.shared.event.ClassFrameChangedEvent;
 import edu.stanford.bmir.protege.web.shared.event.NamedIndividualFrameChangedEvent;
 import edu.stanford.bmir.protege.web.shared.event.WebProtegeEventBus;
@@ -113,6 +114,9 @@ public class EditorPortletPresenter extends AbstractWebProtegePortletPresenter {
         eventBus.addProjectEventHandler(getProjectId(),
                                         NamedIndividualFrameChangedEvent.NAMED_INDIVIDUAL_CHANGED,
                                         this::handleIndividualFrameChangedEvent);
+        eventBus.addProjectEventHandler(getProjectId(),
+                                        BulkChangeEvent.ON_BULK_CHANGE,
+                                        this::handleBulkChangeEvent);
         tagListPresenter.start(view.getTagListViewContainer(), eventBus);
         int editorIndex = getEditorIndex(portletUi);
         view.setVisibleIndex(editorIndex);
@@ -186,6 +190,14 @@ public class EditorPortletPresenter extends AbstractWebProtegePortletPresenter {
         }
     }
 
+    private void handleBulkChangeEvent(BulkChangeEvent event) {
+        getSelectedEntity().ifPresent(entity -> {
+            if(displayedTypes.contains(entity.getEntityType()) && event.isChanged(entity)) {
+                reloadEditorIfNotActive();
+            }
+        });
+    }
+
     private void reloadEditorIfNotActive() {
         for(EditorPanePresenter presenter : panePresenters) {
             if(!presenter.isActive()) {
@@ -7,8 +7,11 @@ import edu.stanford.bmir.protege.web.client.dispatch.DispatchServiceManager;
 import edu.stanford.bmir.protege.web.client.entity.EntityNodeUpdater;
 import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
 import edu.stanford.bmir.protege.web.shared.entity.EntityNodeIndex;
+import edu.stanford.bmir.protege.web.shared.event.BulkChangeEvent;
 import edu.stanford.bmir.protege.web.shared.event.WebProtegeEventBus;
 import edu.stanford.bmir.protege.web.shared.hierarchy.*;
+import edu.stanford.bmir.protege.web.shared.pagination.Page;
+import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.protege.gwt.graphtree.shared.graph.*;
 import org.semanticweb.owlapi.model.OWLEntity;
@@ -18,6 +21,7 @@ import javax.inject.Inject;
 import java.util.*;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.shared.event.BulkChangeEvent.ON_BULK_CHANGE;
 import static edu.stanford.bmir.protege.web.shared.hierarchy.EntityHierarchyChangedEvent.ON_HIERARCHY_CHANGED;
 import static edu.stanford.bmir.protege.web.shared.hierarchy.HierarchyId.CLASS_HIERARCHY;
 import static java.util.Collections.singletonList;
@@ -65,6 +69,132 @@ public class EntityHierarchyModel implements GraphModel<EntityNode, OWLEntity>,
         this.hierarchyId = checkNotNull(hierarchyId);
         hierarchyNodeUpdater.start(eventBus, this);
         eventBus.addProjectEventHandler(projectId, ON_HIERARCHY_CHANGED, this::handleEntityHierarchyChanged);
+        eventBus.addProjectEventHandler(projectId, ON_BULK_CHANGE, this::handleBulkChange);
+    }
+
+    /**
+     * Handles a bulk change by re-fetching the roots and the children of the loaded nodes that were affected
+     * by the change, and then reconciling them with the nodes and edges that have already been loaded.
+     */
+    private void handleBulkChange(BulkChangeEvent event) {
+        Set<OWLEntity> hierarchyEntities = event.getHierarchyEntities(hierarchyId);
+        boolean hierarchyChanged = event.isHierarchyChanged(hierarchyId);
+        Set<OWLEntity> parentsToRefresh = new HashSet<>();
+        if (hierarchyChanged) {
+            parentsToRefresh.addAll(parent2ChildMap.keySet());
+        }
+        for (OWLEntity entity : hierarchyEntities) {
+            if (parent2ChildMap.containsKey(entity)) {
+                parentsToRefresh.add(entity);
+            }
+        }
+        for (Map.Entry<OWLEntity, OWLEntity> edge : parent2ChildMap.entries()) {
+            if (event.isChanged(edge.getValue())) {
+                parentsToRefresh.add(edge.getKey());
+            }
+        }
+        boolean refreshRoots = hierarchyChanged
+                || !hierarchyEntities.isEmpty()
+                || rootNodes.stream().anyMatch(event::isChanged);
+        if (!refreshRoots && parentsToRefresh.isEmpty()) {
+            return;
+        }
+        try {
+            dispatchServiceManager.beginBatch();
+            if (refreshRoots) {
+                dispatchServiceManager.execute(new GetHierarchyRootsAction(projectId, hierarchyId),
+                                               this::reconcileRootNodes);
+            }
+            for (OWLEntity parent : parentsToRefresh) {
+                fetchChildrenForReconciliation(parent, 1, new ArrayList<>());
+            }
+        } finally {
+            dispatchServiceManager.executeCurrentBatch();
+        }
+    }
+
+    /**
+     * Fetches every page of the children of the specified parent, starting at the specified page, and then
+     * reconciles the children with the loaded children.  All of the children are needed so that children that
+     * have been removed can be detected.
+     */
+    private void fetchChildrenForReconciliation(@Nonnull OWLEntity parent,
+                                                int pageNumber,
+                                                @Nonnull List<GraphNode<EntityNode>> children) {
+        PageRequest pageRequest = PageRequest.requestPageWithSize(pageNumber, PageRequest.MAX_PAGE_SIZE);
+        dispatchServiceManager.execute(new GetHierarchyChildrenAction(projectId, parent, hierarchyId, pageRequest),
+                                       result -> {
+                                           Page<GraphNode<EntityNode>> page = result.getChildren();
+                                           children.addAll(page.getPageElements());
+                                           if (page.getPageNumber() < page.getPageCount()) {
+                                               fetchChildrenForReconciliation(parent, pageNumber + 1, children);
+                                           }
+                                           else {
+                                               reconcileChildren(parent, children);
+                                           }
+                                       });
+    }
+
+    private void reconcileRootNodes(GetHierarchyRootsResult result) {
+        List<GraphModelChange<EntityNode>> changes = new ArrayList<>();
+        Set<OWLEntity> roots = new HashSet<>();
+        for (GraphNode<EntityNode> graphNode : result.getRootNodes()) {
+            EntityNode node = graphNode.getUserObject();
+            roots.add(node.getEntity());
+            if (rootNodes.add(node.getEntity())) {
+                changes.add(new AddRootNode<>(graphNode));
+            }
+            else if (!node.equals(nodeCache.get(node.getEntity()))) {
+                changes.add(new UpdateUserObject<>(node));
+            }
+            nodeCache.put(node.getEntity(), node);
+        }
+        for (OWLEntity root : new ArrayList<>(rootNodes)) {
+            EntityNode rootNode = nodeCache.get(root);
+            if (!roots.contains(root) && rootNode != null) {
+                rootNodes.remove(root);
+                changes.add(new RemoveRootNode<>(new GraphNode<>(rootNode)));
+            }
+        }
+        fireGraphModelChanged(changes);
+    }
+
+    private void reconcileChildren(@Nonnull OWLEntity parent, @Nonnull List<GraphNode<EntityNode>> childNodes) {
+        EntityNode parentNode = nodeCache.get(parent);
+        if (parentNode == null) {
+            return;
+        }
+        List<GraphModelChange<EntityNode>> changes = new ArrayList<>();
+        Set<OWLEntity> children = new HashSet<>();
+        for (GraphNode<EntityNode> graphNode : childNodes) {
+            EntityNode node = graphNode.getUserObject();
+            OWLEntity child = node.getEntity();
+            children.add(child);
+            if (parent2ChildMap.put(parent, child)) {
+                changes.add(new AddEdge<>(new GraphEdge<>(new GraphNode<>(parentNode), graphNode)));
+            }
+            else if (!node.equals(nodeCache.get(child))) {
+                changes.add(new UpdateUserObject<>(node));
+            }
+            nodeCache.put(child, node);
+        }
+        for (OWLEntity child : new ArrayList<>(parent2ChildMap.get(parent))) {
+            EntityNode childNode = nodeCache.get(child);
+            if (!children.contains(child) && childNode != null) {
+                parent2ChildMap.remove(parent, child);
+                changes.add(new RemoveEdge<>(new GraphEdge<>(new GraphNode<>(parentNode),
+                                                             new GraphNode<>(childNode))));
+            }
+        }
+        fireGraphModelChanged(changes);
+    }
+
+    private void fireGraphModelChanged(List<GraphModelChange<EntityNode>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        GraphModelChangedEvent<EntityNode> graphModelChangedEvent = new GraphModelChangedEvent<>(changes);
+        handlers.forEach(handler -> handler.handleGraphModelChanged(graphModelChangedEvent));
     }
 
     private void handleEntityHierarchyChanged(EntityHierarchyChangedEvent event) {
@@ -53,6 +53,7 @@ public class OWLEntityDescriptionBrowserPortletPresenter extends AbstractWebProt
         eventBus.addProjectEventHandler(getProjectId(), DataPropertyFrameChangedEvent.TYPE, (DataPropertyFrameChangedEventHandler) event -> handleEntityChange(event.getEntity()));
         eventBus.addProjectEventHandler(getProjectId(), AnnotationPropertyFrameChangedEvent.TYPE, event -> handleEntityChange(event.getEntity()));
         eventBus.addProjectEventHandler(getProjectId(), NamedIndividualFrameChangedEvent.NAMED_INDIVIDUAL_CHANGED, event -> handleEntityChange(event.getEntity()));
+        eventBus.addProjectEventHandler(getProjectId(), BulkChangeEvent.ON_BULK_CHANGE, event -> getSelectedEntity().filter(event::isChanged).ifPresent(this::handleEntityChange));
         eventBus.addProjectEventHandler(getProjectId(), AnnotationPropertyFrameChangedEvent.TYPE, event -> handleEntityChange(event.getEntity()));
         setDisplaySelectedEntityNameAsSubtitle(true);
         handleAfterSetEntity(getSelectedEntity());
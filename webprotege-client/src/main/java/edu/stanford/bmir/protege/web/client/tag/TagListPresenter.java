@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.client.tag;
 import com.google.gwt.user.client.ui.AcceptsOneWidget;
 import edu.stanford.bmir.protege.web.client.dispatch.DispatchServiceManager;
 import edu.stanford.bmir.protege.web.client.match.EntityCriteriaPresenter;
+import edu.stanford.bmir.protege.web.shared.event.BulkChangeEvent;
 import edu.stanford.bmir.protege.web.shared.event.WebProtegeEventBus;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.tag.EntityTagsChangedEvent;
@@ -19,6 +20,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.shared.event.BulkChangeEvent.ON_BULK_CHANGE;
 import static edu.stanford.bmir.protege.web.shared.tag.EntityTagsChangedEvent.ON_ENTITY_TAGS_CHANGED;
 import static java.util.stream.Collectors.toList;
 
@@ -70,6 +72,9 @@ public class TagListPresenter {
         eventBus.addProjectEventHandler(projectId,
                                         ON_ENTITY_TAGS_CHANGED,
                                         this::handleEntityTagsChanged);
+        eventBus.addProjectEventHandler(projectId,
+                                        ON_BULK_CHANGE,
+                                        this::handleBulkChange);
     }
 
     /**
@@ -111,4 +116,10 @@ public class TagListPresenter {
             setTags(event.getTags());
         }
     }
+
+    private void handleBulkChange(@Nonnull BulkChangeEvent event) {
+        // Tag changes are not reported individually for large changes
+        currentEntity.filter(event::isChanged)
+                     .ifPresent(this::setEntity);
+    }
 }
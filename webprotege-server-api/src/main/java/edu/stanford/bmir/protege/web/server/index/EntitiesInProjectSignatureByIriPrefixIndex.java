@@ -0,0 +1,25 @@
+package edu.stanford.bmir.protege.web.server.index;
+
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import java.util.stream.Stream;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@ProjectSingleton
+public interface EntitiesInProjectSignatureByIriPrefixIndex extends Index {
+
+    /**
+     * Gets the entities that are contained in the signature of the project ontologies and
+     * whose IRIs start with the specified prefix.
+     * @param iriPrefix The IRI prefix.  An empty prefix matches every entity in the signature.
+     * @return A stream of distinct entities, ordered by IRI.
+     */
+    @Nonnull
+    Stream<OWLEntity> getEntitiesInSignatureWithIriPrefix(@Nonnull String iriPrefix);
+}
@@ -17,8 +17,20 @@ public interface ProjectSignatureIndex extends Index {
 
     /**
      * Returns a stream of entities that are in the signature of the project ontologies.
-     * @return A stream of entities.  This may contain duplicate entities.
+     * @return A stream of distinct entities.
      */
     @Nonnull
     Stream<OWLEntity> getSignature();
+
+    /**
+     * Determines whether the specified entity is in the signature of the project ontologies.
+     * @param entity The entity
+     * @return true if the entity is in the signature, otherwise false.
+     */
+    boolean containsEntityInSignature(@Nonnull OWLEntity entity);
+
+    /**
+     * Gets the number of distinct entities in the signature of the project ontologies.
+     */
+    int getSignatureSize();
 }
@@ -1,13 +1,10 @@
 package edu.stanford.bmir.protege.web.server.access;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import edu.stanford.bmir.protege.web.shared.access.ActionId;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.access.RoleId;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.mongodb.morphia.Datastore;
-import org.mongodb.morphia.query.CountOptions;
 import org.mongodb.morphia.query.Query;
 import org.mongodb.morphia.query.UpdateOperations;
 
@@ -22,7 +19,6 @@ import java.util.stream.Collectors;
 
 import static edu.stanford.bmir.protege.web.server.access.RoleAssignment.*;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 
 /**
  * Matthew Horridge
@@ -35,7 +31,10 @@ public class AccessManagerImpl implements AccessManager {
 
     private final Datastore datastore;
 
-    private final Cache<AccessManagerCacheKey, Boolean> permissionCache = CacheBuilder.newBuilder().build();
+    private final Object permissionMatrixLock = new Object();
+
+    @Nullable
+    private volatile PermissionMatrix permissionMatrix = null;
 
     /**
      * Constructs an {@link AccessManager} that is backed by MongoDb.
@@ -53,8 +52,6 @@ public class AccessManagerImpl implements AccessManager {
     public void setAssignedRoles(@Nonnull Subject subject,
                                  @Nonnull Resource resource,
                                  @Nonnull Collection<RoleId> roleIds) {
-        invalidateCacheOfrSubjectAndResource(subject, resource);
-
         String userName = toUserName(subject);
         String projectId = toProjectId(resource);
         List<String> assignedRoles = roleIds.stream().map(RoleId::getId).collect(toList());
@@ -67,17 +64,38 @@ public class AccessManagerImpl implements AccessManager {
                                                        actionClosure);
         datastore.delete(withUserAndTarget(subject, resource));
         datastore.save(assignment);
+        getPermissionMatrix().put(userName, projectId, actionClosure);
     }
 
-    private void invalidateCacheOfrSubjectAndResource(@Nonnull Subject subject,
-                                                     @Nonnull Resource resource) {
-        var currentActionClosure = getActionClosure(subject, resource);
-        for(var actionId : currentActionClosure) {
-            var cacheKey = AccessManagerCacheKey.get(subject, resource, actionId);
-            permissionCache.invalidate(cacheKey);
+    /**
+     * Gets the permission matrix, loading it from the action closures of the stored role assignments if
+     * necessary.  The matrix is loaded once, after which it is kept up to date as roles are assigned.
+     */
+    @Nonnull
+    private PermissionMatrix getPermissionMatrix() {
+        var matrix = permissionMatrix;
+        if (matrix != null) {
+            return matrix;
+        }
+        synchronized (permissionMatrixLock) {
+            if (permissionMatrix == null) {
+                permissionMatrix = loadPermissionMatrix();
+            }
+            return permissionMatrix;
         }
     }
 
+    @Nonnull
+    private PermissionMatrix loadPermissionMatrix() {
+        var matrix = new PermissionMatrix();
+        datastore.createQuery(RoleAssignment.class)
+                 .asList()
+                 .forEach(ra -> matrix.put(ra.getUserName().orElse(null),
+                                           ra.getProjectId().orElse(null),
+                                           ra.getActionClosure()));
+        return matrix;
+    }
+
     private List<String> getActionClosure(@Nonnull Collection<RoleId> roleIds) {
         return roleIds.stream()
                       .flatMap(id -> roleOracle.getRoleClosure(id).stream())
@@ -150,27 +168,17 @@ public class AccessManagerImpl implements AccessManager {
     @Nonnull
     @Override
     public Set<ActionId> getActionClosure(@Nonnull Subject subject, @Nonnull Resource resource) {
-        Query<RoleAssignment> query = withUserOrAnyUserAndTarget(subject,
-                                                                 resource);
-        return query.asList()
-                    .stream()
-                    .flatMap(ra -> ra.getActionClosure().stream())
-                    .map(ActionId::new)
-                    .collect(toSet());
+        return getPermissionMatrix().getActionClosure(toUserName(subject),
+                                                 !subject.isGuest(),
+                                                 toProjectId(resource));
     }
 
     @Override
     public boolean hasPermission(@Nonnull Subject subject, @Nonnull Resource resource, @Nonnull ActionId actionId) {
-        var cacheKey = AccessManagerCacheKey.get(subject, resource, actionId);
-        var permission = permissionCache.getIfPresent(cacheKey);
-        if(permission != null && permission.equals(Boolean.TRUE)) {
-            return true;
-        }
-        Query<RoleAssignment> query = withUserOrAnyUserAndTarget(subject, resource)
-                .field(ACTION_CLOSURE).equal(actionId.getId());
-        var hasPermission = query.count(new CountOptions().limit(1)) == 1;
-        permissionCache.put(cacheKey, hasPermission);
-        return hasPermission;
+        return getPermissionMatrix().hasPermission(toUserName(subject),
+                                              !subject.isGuest(),
+                                              toProjectId(resource),
+                                              actionId);
     }
 
     @Override
@@ -200,21 +208,7 @@ public class AccessManagerImpl implements AccessManager {
 
     @Override
     public Collection<Resource> getResourcesAccessibleToSubject(Subject subject, ActionId actionId) {
-        String userName = toUserName(subject);
-        Query<RoleAssignment> query = datastore.createQuery(RoleAssignment.class)
-                                               .field(USER_NAME).equal(userName)
-                                               .field(ACTION_CLOSURE).equal(actionId.getId());
-        return query.asList().stream()
-                    .map(ra -> {
-                        Optional<String> projectId = ra.getProjectId();
-                        if (projectId.isPresent()) {
-                            return new ProjectResource(ProjectId.get(projectId.get()));
-                        }
-                        else {
-                            return ApplicationResource.get();
-                        }
-                    })
-                    .collect(toList());
+        return getPermissionMatrix().getResourcesWithPermission(toUserName(subject), actionId);
     }
 
     @Override
@@ -232,7 +226,9 @@ public class AccessManagerImpl implements AccessManager {
                          .set(RoleAssignment.ROLE_CLOSURE, roleClosure);
                  datastore.update(roleAssignment, updateOperations);
              });
-
+        synchronized (permissionMatrixLock) {
+            permissionMatrix = loadPermissionMatrix();
+        }
     }
 
     /**
@@ -0,0 +1,198 @@
+package edu.stanford.bmir.protege.web.server.access;
+
+import edu.stanford.bmir.protege.web.shared.access.ActionId;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * An in-memory matrix of the actions that subjects may perform on resources.  For each resource
+ * (a project id, or {@code null} for the application) there is one row per user name (or {@code null}
+ * for any signed in user).  Each row holds the action closure of the corresponding role assignment as a
+ * bit set over a dense numbering of action ids.  Both granted and denied permissions are therefore answered
+ * from memory.
+ * </p>
+ */
+class PermissionMatrix {
+
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> actionIndexes = new HashMap<>();
+
+    private final List<String> actionIds = new ArrayList<>();
+
+    /**
+     * Maps project ids (or null for the application) to user names (or null for any signed in user)
+     * to the indexes of the actions in the action closure.
+     */
+    private final Map<String, Map<String, BitSet>> actionsByUserByResource = new HashMap<>();
+
+    /**
+     * Maps user names (or null for any signed in user) to the project ids (or null for the application)
+     * that the user has a role assignment for.
+     */
+    private final Map<String, Set<String>> resourcesByUser = new HashMap<>();
+
+    /**
+     * Replaces the action closure for the specified user and project.
+     * @param userName The user name, or {@code null} for any signed in user.
+     * @param projectId The project id, or {@code null} for the application.
+     * @param actionClosure The action ids in the action closure.  If this is empty then the row is removed.
+     */
+    public void put(@Nullable String userName,
+                    @Nullable String projectId,
+                    @Nonnull Collection<String> actionClosure) {
+        checkNotNull(actionClosure);
+        try {
+            readWriteLock.writeLock().lock();
+            if (actionClosure.isEmpty()) {
+                var actionsByUser = actionsByUserByResource.get(projectId);
+                if (actionsByUser != null) {
+                    actionsByUser.remove(userName);
+                    if (actionsByUser.isEmpty()) {
+                        actionsByUserByResource.remove(projectId);
+                    }
+                }
+                var resources = resourcesByUser.get(userName);
+                if (resources != null) {
+                    resources.remove(projectId);
+                    if (resources.isEmpty()) {
+                        resourcesByUser.remove(userName);
+                    }
+                }
+                return;
+            }
+            var actions = new BitSet();
+            for (var actionId : actionClosure) {
+                actions.set(getOrCreateActionIndex(actionId));
+            }
+            actionsByUserByResource.computeIfAbsent(projectId, k -> new HashMap<>()).put(userName, actions);
+            resourcesByUser.computeIfAbsent(userName, k -> new HashSet<>()).add(projectId);
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determines whether the specified user may perform the specified action on the specified project.
+     * @param userName The user name, or {@code null} for any signed in user.
+     * @param includeAnySignedInUser Whether the row for any signed in user should also be consulted.
+     * @param projectId The project id, or {@code null} for the application.
+     * @param actionId The action id.
+     */
+    public boolean hasPermission(@Nullable String userName,
+                                 boolean includeAnySignedInUser,
+                                 @Nullable String projectId,
+                                 @Nonnull ActionId actionId) {
+        try {
+            readWriteLock.readLock().lock();
+            var actionIndex = actionIndexes.get(actionId.getId());
+            if (actionIndex == null) {
+                return false;
+            }
+            var actionsByUser = actionsByUserByResource.get(projectId);
+            if (actionsByUser == null) {
+                return false;
+            }
+            if (isSet(actionsByUser.get(userName), actionIndex)) {
+                return true;
+            }
+            return includeAnySignedInUser && isSet(actionsByUser.get(null), actionIndex);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the action closure for the specified user and project.
+     * @param userName The user name, or {@code null} for any signed in user.
+     * @param includeAnySignedInUser Whether the row for any signed in user should also be included.
+     * @param projectId The project id, or {@code null} for the application.
+     */
+    @Nonnull
+    public Set<ActionId> getActionClosure(@Nullable String userName,
+                                          boolean includeAnySignedInUser,
+                                          @Nullable String projectId) {
+        try {
+            readWriteLock.readLock().lock();
+            var actionsByUser = actionsByUserByResource.get(projectId);
+            if (actionsByUser == null) {
+                return Collections.emptySet();
+            }
+            var actions = new BitSet();
+            var userActions = actionsByUser.get(userName);
+            if (userActions != null) {
+                actions.or(userActions);
+            }
+            if (includeAnySignedInUser) {
+                var anySignedInUserActions = actionsByUser.get(null);
+                if (anySignedInUserActions != null) {
+                    actions.or(anySignedInUserActions);
+                }
+            }
+            var result = new HashSet<ActionId>();
+            actions.stream().forEach(i -> result.add(new ActionId(actionIds.get(i))));
+            return result;
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the resources for which the specified user has been assigned a role that grants the specified action.
+     * @param userName The user name, or {@code null} for any signed in user.
+     * @param actionId The action id.
+     */
+    @Nonnull
+    public List<Resource> getResourcesWithPermission(@Nullable String userName,
+                                                     @Nonnull ActionId actionId) {
+        try {
+            readWriteLock.readLock().lock();
+            var actionIndex = actionIndexes.get(actionId.getId());
+            var resources = resourcesByUser.get(userName);
+            if (actionIndex == null || resources == null) {
+                return Collections.emptyList();
+            }
+            var result = new ArrayList<Resource>();
+            for (var projectId : resources) {
+                var actions = actionsByUserByResource.get(projectId).get(userName);
+                if (isSet(actions, actionIndex)) {
+                    if (projectId != null) {
+                        result.add(new ProjectResource(ProjectId.get(projectId)));
+                    }
+                    else {
+                        result.add(ApplicationResource.get());
+                    }
+                }
+            }
+            return result;
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    private int getOrCreateActionIndex(@Nonnull String actionId) {
+        var index = actionIndexes.get(actionId);
+        if (index != null) {
+            return index;
+        }
+        var nextIndex = actionIds.size();
+        actionIds.add(actionId);
+        actionIndexes.put(actionId, nextIndex);
+        return nextIndex;
+    }
+
+    private static boolean isSet(@Nullable BitSet actions, int actionIndex) {
+        return actions != null && actions.get(actionIndex);
+    }
+}
@@ -13,6 +13,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 5 Nov 2018
+ * <p>
+ * Database connections are disposed of after every other registered object, so that objects that write to
+ * the database when they are disposed of can do so regardless of the order in which they were registered.
+ * </p>
  */
 @ApplicationSingleton
 public class ApplicationDisposablesManager {
@@ -20,6 +24,8 @@ public class ApplicationDisposablesManager {
     @Nonnull
     private final DisposableObjectManager disposableObjectManager;
 
+    private final DisposableObjectManager databaseConnectionDisposableObjectManager = new DisposableObjectManager();
+
     @Inject
     public ApplicationDisposablesManager(@Nonnull DisposableObjectManager disposableObjectManager) {
         this.disposableObjectManager = checkNotNull(disposableObjectManager);
@@ -29,7 +35,16 @@ public class ApplicationDisposablesManager {
         disposableObjectManager.register(disposable);
     }
 
+    /**
+     * Registers a database connection.  This is disposed of after all of the objects that are registered with
+     * {@link #register(HasDispose)}.
+     */
+    public void registerDatabaseConnection(@Nonnull HasDispose databaseConnection) {
+        databaseConnectionDisposableObjectManager.register(databaseConnection);
+    }
+
     public void dispose() {
         disposableObjectManager.dispose();
+        databaseConnectionDisposableObjectManager.dispose();
     }
 }
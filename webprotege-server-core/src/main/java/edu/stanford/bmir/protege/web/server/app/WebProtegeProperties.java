@@ -147,4 +147,30 @@ public class WebProtegeProperties implements Serializable {
                 });
 
     }
+
+    public int getDownloadGeneratorThreadCount() {
+        return getIntegerOrDefault(DOWNLOAD_GENERATOR_THREADS);
+    }
+
+    /**
+     * Gets the percentage of the maximum heap size that may be used to generate project downloads
+     */
+    public int getDownloadGeneratorMemoryBudgetPercentage() {
+        return getIntegerOrDefault(DOWNLOAD_GENERATOR_MEMORY_BUDGET);
+    }
+
+    /**
+     * Gets the maximum number of changes and entities that may be held in caches derived from project revisions
+     */
+    public int getRevisionCacheBudget() {
+        return getIntegerOrDefault(REVISION_CACHE_BUDGET);
+    }
+
+    private int getIntegerOrDefault(WebProtegePropertyName propertyName) {
+        try {
+            return Integer.parseInt(getRequiredString(propertyName));
+        } catch(NumberFormatException e) {
+            return Integer.parseInt(propertyName.getDefaultValue().orElseThrow());
+        }
+    }
 }
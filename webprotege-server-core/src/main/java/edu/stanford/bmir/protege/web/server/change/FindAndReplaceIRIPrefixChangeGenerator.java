@@ -3,7 +3,7 @@ package edu.stanford.bmir.protege.web.server.change;
 import com.google.auto.factory.AutoFactory;
 import com.google.auto.factory.Provided;
 import edu.stanford.bmir.protege.web.server.entity.EntityRenamer;
-import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriPrefixIndex;
 import edu.stanford.bmir.protege.web.server.owlapi.RenameMap;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLEntity;
@@ -29,7 +29,7 @@ public class FindAndReplaceIRIPrefixChangeGenerator implements ChangeListGenerat
     private final String toPrefix;
 
     @Nonnull
-    private final ProjectSignatureIndex projectSignatureIndex;
+    private final EntitiesInProjectSignatureByIriPrefixIndex iriPrefixIndex;
 
     @Nonnull
     private final EntityRenamer entityRenamer;
@@ -37,11 +37,11 @@ public class FindAndReplaceIRIPrefixChangeGenerator implements ChangeListGenerat
     @AutoFactory
     public FindAndReplaceIRIPrefixChangeGenerator(@Nonnull String fromPrefix,
                                                   @Nonnull String toPrefix,
-                                                  @Provided @Nonnull ProjectSignatureIndex projectSignatureIndex,
+                                                  @Provided @Nonnull EntitiesInProjectSignatureByIriPrefixIndex iriPrefixIndex,
                                                   @Provided @Nonnull EntityRenamer entityRenamer) {
         this.fromPrefix = checkNotNull(fromPrefix);
         this.toPrefix = checkNotNull(toPrefix);
-        this.projectSignatureIndex = checkNotNull(projectSignatureIndex);
+        this.iriPrefixIndex = checkNotNull(iriPrefixIndex);
         this.entityRenamer = checkNotNull(entityRenamer);
     }
 
@@ -49,23 +49,18 @@ public class FindAndReplaceIRIPrefixChangeGenerator implements ChangeListGenerat
     public OntologyChangeList<Collection<OWLEntity>> generateChanges(ChangeGenerationContext context) {
         var builder = OntologyChangeList.<Collection<OWLEntity>>builder();
         var renameMap = new HashMap<OWLEntity, IRI>();
-        projectSignatureIndex.getSignature()
-                             .filter(entity -> !entity.isBuiltIn())
-                             .filter(this::beginsWithFromPrefix)
-                             .forEach(entity -> {
-                                 var iri = entity.getIRI();
-                                 var toIri = IRI.create(toPrefix + iri.subSequence(fromPrefix.length(), iri.length()));
-                                 renameMap.put(entity, toIri);
-                             });
+        iriPrefixIndex.getEntitiesInSignatureWithIriPrefix(fromPrefix)
+                      .filter(entity -> !entity.isBuiltIn())
+                      .forEach(entity -> {
+                          var iri = entity.getIRI();
+                          var toIri = IRI.create(toPrefix + iri.subSequence(fromPrefix.length(), iri.length()));
+                          renameMap.put(entity, toIri);
+                      });
         var changeList = entityRenamer.generateChanges(renameMap);
         builder.addAll(changeList);
         return builder.build(renameMap.keySet());
     }
 
-    private boolean beginsWithFromPrefix(OWLEntity entity) {
-        return entity.getIRI().toString().startsWith(fromPrefix);
-    }
-
     @Override
     public Collection<OWLEntity> getRenamedResult(Collection<OWLEntity> result, RenameMap renameMap) {
         return result;
@@ -1,6 +1,5 @@
 package edu.stanford.bmir.protege.web.server.change;
 
-import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
@@ -52,8 +51,7 @@ public class GetWatchedEntityChangesActionHandler extends AbstractProjectActionH
     @Override
     public GetWatchedEntityChangesResult execute(@Nonnull GetWatchedEntityChangesAction action, @Nonnull ExecutionContext executionContext) {
         Set<Watch> watches = watchManager.getWatches(action.getUserId());
-        ImmutableList<ProjectChange> changes = watchedChangesManager.getProjectChangesForWatches(watches);
-        Page<ProjectChange> page = new Page<>(1, 1, changes, changes.size());
+        Page<ProjectChange> page = watchedChangesManager.getProjectChangesForWatches(watches, action.getPageRequest());
         return new GetWatchedEntityChangesResult(page);
     }
 
@@ -2,15 +2,17 @@ package edu.stanford.bmir.protege.web.server.crud.obo;
 
 import com.google.auto.factory.AutoFactory;
 import com.google.auto.factory.Provided;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
 import edu.stanford.bmir.protege.web.server.change.OntologyChangeList;
 import edu.stanford.bmir.protege.web.server.crud.EntityCrudContext;
 import edu.stanford.bmir.protege.web.server.crud.EntityCrudKitHandler;
 import edu.stanford.bmir.protege.web.server.crud.EntityIriPrefixResolver;
 import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
 import edu.stanford.bmir.protege.web.shared.crud.EntityCrudKitId;
 import edu.stanford.bmir.protege.web.shared.crud.EntityCrudKitPrefixSettings;
 import edu.stanford.bmir.protege.web.shared.crud.EntityCrudKitSettings;
@@ -18,21 +20,30 @@ import edu.stanford.bmir.protege.web.shared.crud.EntityShortForm;
 import edu.stanford.bmir.protege.web.shared.crud.oboid.OBOIdSuffixKit;
 import edu.stanford.bmir.protege.web.shared.crud.oboid.OboIdSuffixSettings;
 import edu.stanford.bmir.protege.web.shared.crud.oboid.UserIdRange;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.shortform.AnnotationAssertionDictionaryLanguage;
 import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
 import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguageVisitor;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -44,13 +55,28 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class OBOIdSuffixEntityCrudKitHandler implements EntityCrudKitHandler<OboIdSuffixSettings, OBOIdSession> {
 
+    private static final Logger logger = LoggerFactory.getLogger(OBOIdSuffixEntityCrudKitHandler.class);
+
+    /**
+     * The id of the range that is used by users that do not have their own range
+     */
+    private static final String DEFAULT_RANGE_ID = "";
+
+    /**
+     * The number of ids that are allocated from the high water mark at a time.  Ids in a block that are not
+     * used before the handler is discarded are skipped.
+     */
+    private static final int BLOCK_SIZE = 20;
+
+    /**
+     * The maximum number of digits in an id that can be parsed to a long
+     */
+    private static final int MAX_ID_DIGITS = 18;
 
     private static final IRI CREATED_BY = IRI.create("http://www.geneontology.org/formats/oboInOwl#created_by");
 
     private static final IRI CREATION_DATE = IRI.create("http://www.geneontology.org/formats/oboInOwl#creation_date");
 
-    private long currentId = 0;
-
     private EntityCrudKitPrefixSettings prefixSettings;
 
     private OboIdSuffixSettings suffixSettings;
@@ -58,34 +84,52 @@ public class OBOIdSuffixEntityCrudKitHandler implements EntityCrudKitHandler<Obo
     @Nonnull
     private final OWLDataFactory dataFactory;
 
-    private final Map<UserId, Long> userId2CurrentIdMap = Maps.newHashMap();
-
     private final Map<UserId, UserIdRange> userId2RangeEndMap;
 
+    private final Map<String, IdBlock> rangeId2IdBlockMap = new ConcurrentHashMap<>();
+
     @Nonnull
     private final EntitiesInProjectSignatureByIriIndex projectSignatureIndex;
 
     @Nonnull
     private final EntityIriPrefixResolver entityIriPrefixResolver;
 
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final ProjectSignatureIndex signatureIndex;
+
+    @Nonnull
+    private final OboIdHighWaterMarkRepository highWaterMarkRepository;
+
+    @Nonnull
+    private final NumberFormat numberFormat;
+
     @AutoFactory
     public OBOIdSuffixEntityCrudKitHandler(@Nonnull EntityCrudKitPrefixSettings prefixSettings,
                                            @Nonnull OboIdSuffixSettings suffixSettings,
                                            @Provided @Nonnull OWLDataFactory dataFactory,
                                            @Provided @Nonnull EntitiesInProjectSignatureByIriIndex projectSignatureIndex,
-                                           @Provided @Nonnull EntityIriPrefixResolver entityIriPrefixResolver) {
+                                           @Provided @Nonnull EntityIriPrefixResolver entityIriPrefixResolver,
+                                           @Provided @Nonnull ProjectId projectId,
+                                           @Provided @Nonnull ProjectSignatureIndex signatureIndex,
+                                           @Provided @Nonnull OboIdHighWaterMarkRepository highWaterMarkRepository) {
         this.prefixSettings = checkNotNull(prefixSettings);
         this.suffixSettings = checkNotNull(suffixSettings);
         this.dataFactory = dataFactory;
         this.projectSignatureIndex = projectSignatureIndex;
         this.entityIriPrefixResolver = entityIriPrefixResolver;
+        this.projectId = checkNotNull(projectId);
+        this.signatureIndex = checkNotNull(signatureIndex);
+        this.highWaterMarkRepository = checkNotNull(highWaterMarkRepository);
 
         ImmutableMap.Builder<UserId, UserIdRange> builder = ImmutableMap.builder();
         for(UserIdRange range : suffixSettings.getUserIdRanges()) {
-            userId2CurrentIdMap.put(range.getUserId(), range.getStart());
             builder.put(range.getUserId(), range);
         }
         userId2RangeEndMap = builder.build();
+        this.numberFormat = new DecimalFormat("0".repeat(suffixSettings.getTotalDigits()));
     }
 
     @Override
@@ -158,48 +202,99 @@ public class OBOIdSuffixEntityCrudKitHandler implements EntityCrudKitHandler<Obo
         return entity;
     }
 
-
-
-    private synchronized IRI getNextIRI(OBOIdSession session, UserId userId, ImmutableList<OWLEntity> parents
-    ) {
-        StringBuilder formatStringBuilder = new StringBuilder();
-        for (int i = 0; i < suffixSettings.getTotalDigits(); i++) {
-            formatStringBuilder.append("0");
-        }
-        NumberFormat numberFormat = new DecimalFormat(formatStringBuilder.toString());
-        long currentId = getCurrentId(userId);
+    /**
+     * Gets the next free IRI.  Ids are taken from blocks that are allocated from the persisted high water mark
+     * for the user's range, so no lock is held while an id is taken.
+     */
+    private IRI getNextIRI(OBOIdSession session, UserId userId, ImmutableList<OWLEntity> parents) {
+        var userIdRange = userId2RangeEndMap.get(userId);
+        var rangeId = userIdRange != null ? userId.getUserName() : DEFAULT_RANGE_ID;
+        var idBlock = rangeId2IdBlockMap.computeIfAbsent(rangeId, id -> new IdBlock(id, userIdRange));
+        var iriPrefix = entityIriPrefixResolver.getIriPrefix(prefixSettings, parents);
         while (true) {
-            currentId++;
-            if(!session.isSessionId(currentId)) {
-                String shortName = numberFormat.format(currentId);
-                var iriPrefix = entityIriPrefixResolver.getIriPrefix(prefixSettings, parents);
+            long nextId = idBlock.nextId();
+            if(!session.isSessionId(nextId)) {
+                String shortName = formatId(nextId);
                 IRI iri = IRI.create(iriPrefix + shortName);
                 if (projectSignatureIndex.getEntitiesInSignature(iri).limit(1).count() == 0) {
-                    session.addSessionId(currentId);
-                    setCurrentId(userId, currentId);
+                    session.addSessionId(nextId);
                     return iri;
                 }
             }
         }
     }
 
-    private long getCurrentId(UserId userId) {
-        Long currentIdForUser = userId2CurrentIdMap.get(userId);
-        return Objects.requireNonNullElse(currentIdForUser, currentId);
+    private String formatId(long id) {
+        // DecimalFormat is not thread safe
+        synchronized (numberFormat) {
+            return numberFormat.format(id);
+        }
+    }
+
+    /**
+     * Finds the highest id that is used in the project signature and that is in the specified range.  Only
+     * IRIs that consist of one of the configured IRI prefixes followed by an id are considered, so that the ids
+     * of imported entities, for example BFO_0000001, do not push the high water mark past the project's ids.
+     * This is only used when no high water mark has been stored for the range, for example for projects that
+     * were created before high water marks were stored.
+     */
+    private long getHighestUsedId(@Nullable UserIdRange userIdRange) {
+        var totalDigits = suffixSettings.getTotalDigits();
+        var userIdRanges = suffixSettings.getUserIdRanges();
+        var iriPrefixes = getIriPrefixes();
+        return signatureIndex.getSignature()
+                             .map(entity -> entity.getIRI().toString())
+                             .mapToLong(iri -> parseId(iri, iriPrefixes, totalDigits))
+                             .filter(id -> id > 0)
+                             .filter(id -> {
+                                 if(userIdRange != null) {
+                                     return userIdRange.getStart() <= id && id <= userIdRange.getEnd();
+                                 }
+                                 return userIdRanges.stream()
+                                                    .noneMatch(r -> r.getStart() <= id && id <= r.getEnd());
+                             })
+                             .max()
+                             .orElse(0);
     }
 
-    private void setCurrentId(UserId userId, long currentId) {
-        if (userId2CurrentIdMap.containsKey(userId)) {
-            UserIdRange userIdRange = userId2RangeEndMap.get(userId);
-            long limitForUser = userIdRange.getEnd();
-            if(currentId > limitForUser) {
-                throw new CannotGenerateFreshEntityIdForUserException(userIdRange);
+    /**
+     * Gets the IRI prefixes that ids are appended to, which are the default prefix and any conditional prefixes.
+     */
+    private ImmutableSet<String> getIriPrefixes() {
+        var iriPrefixes = ImmutableSet.<String>builder();
+        iriPrefixes.add(prefixSettings.getIRIPrefix());
+        prefixSettings.getConditionalIriPrefixes()
+                      .forEach(conditionalPrefix -> iriPrefixes.add(conditionalPrefix.getIriPrefix()));
+        return iriPrefixes.build();
+    }
+
+    /**
+     * Parses the id in an IRI that consists of one of the specified prefixes followed by an id.
+     * @return The id, or -1 if the IRI does not consist of one of the prefixes followed by at least the
+     * specified number of digits.
+     */
+    @VisibleForTesting
+    static long parseId(@Nonnull String iri, @Nonnull Collection<String> iriPrefixes, int totalDigits) {
+        long id = -1;
+        for(String iriPrefix : iriPrefixes) {
+            if(iri.startsWith(iriPrefix)) {
+                id = Math.max(id, parseDigits(iri, iriPrefix.length(), totalDigits));
             }
-            userId2CurrentIdMap.put(userId, currentId);
         }
-        else {
-            this.currentId = currentId;
+        return id;
+    }
+
+    private static long parseDigits(@Nonnull String iri, int start, int totalDigits) {
+        int digits = iri.length() - start;
+        if(digits == 0 || digits < totalDigits || digits > MAX_ID_DIGITS) {
+            return -1;
         }
+        for(int i = start; i < iri.length(); i++) {
+            if(!Character.isDigit(iri.charAt(i))) {
+                return -1;
+            }
+        }
+        return Long.parseLong(iri.substring(start));
     }
 
     private OWLLiteral getLabellingLiteral(EntityShortForm shortForm,
@@ -208,4 +303,118 @@ public class OBOIdSuffixEntityCrudKitHandler implements EntityCrudKitHandler<Obo
         DictionaryLanguage dictionaryLanguage = context.getDictionaryLanguage();
         return dataFactory.getOWLLiteral(shortForm.getShortForm(), langTag.orElse(dictionaryLanguage.getLang()));
     }
+
+    /**
+     * The blocks of ids that are allocated from the high water mark of a range.  Ids are taken from the current
+     * block without locking.  When half of the current block has been taken the thread that takes the id at the
+     * half way point allocates the next block, so that the round trips to the high water mark repository are
+     * usually made without holding the lock that is taken to swap in the next block.
+     */
+    private class IdBlock {
+
+        private final String rangeId;
+
+        @Nullable
+        private final UserIdRange userIdRange;
+
+        private volatile Block currentBlock = new Block(0, -1);
+
+        private final AtomicReference<CompletableFuture<Block>> nextBlock = new AtomicReference<>();
+
+        private volatile boolean initialised = false;
+
+        private IdBlock(@Nonnull String rangeId, @Nullable UserIdRange userIdRange) {
+            this.rangeId = checkNotNull(rangeId);
+            this.userIdRange = userIdRange;
+        }
+
+        private long nextId() {
+            while(true) {
+                var block = currentBlock;
+                long id = block.nextId.getAndIncrement();
+                if(id <= block.lastId) {
+                    if(id == block.prefetchId) {
+                        prefetch();
+                    }
+                    return id;
+                }
+                synchronized (this) {
+                    if(currentBlock == block) {
+                        currentBlock = takeNextBlock();
+                    }
+                }
+            }
+        }
+
+        private void prefetch() {
+            var future = new CompletableFuture<Block>();
+            if(!nextBlock.compareAndSet(null, future)) {
+                return;
+            }
+            try {
+                future.complete(allocate());
+            } catch(RuntimeException e) {
+                // Rethrown by the thread that takes the next block
+                future.completeExceptionally(e);
+            }
+        }
+
+        private Block takeNextBlock() {
+            var future = nextBlock.getAndSet(null);
+            if(future == null) {
+                return allocate();
+            }
+            try {
+                return future.join();
+            } catch(CompletionException e) {
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        private Block allocate() {
+            long floor = userIdRange != null ? userIdRange.getStart() : 0;
+            if(!initialised) {
+                if(highWaterMarkRepository.getHighWaterMark(projectId, rangeId).isEmpty()) {
+                    floor = Math.max(floor, getHighestUsedId(userIdRange));
+                    logger.info("{} Initialised OBO id high water mark for range \"{}\" to {}",
+                                projectId, rangeId, floor);
+                }
+                initialised = true;
+            }
+            long highWaterMark = highWaterMarkRepository.allocateBlock(projectId, rangeId, floor, BLOCK_SIZE);
+            long firstId = highWaterMark - BLOCK_SIZE + 1;
+            long lastIdInBlock = highWaterMark;
+            if(userIdRange != null) {
+                if(firstId > userIdRange.getEnd()) {
+                    throw new CannotGenerateFreshEntityIdForUserException(userIdRange);
+                }
+                lastIdInBlock = Math.min(lastIdInBlock, userIdRange.getEnd());
+            }
+            return new Block(firstId, lastIdInBlock);
+        }
+    }
+
+    /**
+     * The ids from first id to last id inclusive.
+     */
+    private static class Block {
+
+        private final AtomicLong nextId;
+
+        private final long lastId;
+
+        /**
+         * The id that triggers the allocation of the next block when it is taken
+         */
+        private final long prefetchId;
+
+        private Block(long firstId, long lastId) {
+            this.nextId = new AtomicLong(firstId);
+            this.lastId = lastId;
+            this.prefetchId = firstId + (lastId - firstId) / 2;
+        }
+    }
 }
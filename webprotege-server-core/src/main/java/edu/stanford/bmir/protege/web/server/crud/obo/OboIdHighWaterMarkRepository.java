@@ -0,0 +1,41 @@
+package edu.stanford.bmir.protege.web.server.crud.obo;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Stores the highest OBO id that has been allocated for each id range in a project.
+ * </p>
+ */
+public interface OboIdHighWaterMarkRepository {
+
+    /**
+     * Gets the high water mark for the specified range.
+     * @param projectId The project
+     * @param rangeId The range id
+     * @return The high water mark, or empty if no ids have been allocated from the range.
+     */
+    @Nonnull
+    Optional<Long> getHighWaterMark(@Nonnull ProjectId projectId,
+                                    @Nonnull String rangeId);
+
+    /**
+     * Atomically allocates a block of ids from the specified range.  The high water mark is first raised to at
+     * least the specified floor and it is then increased by the block size.
+     * @param projectId The project
+     * @param rangeId The range id
+     * @param floor The minimum high water mark before the block is allocated
+     * @param blockSize The number of ids in the block
+     * @return The new high water mark, which is the last id in the allocated block.
+     */
+    long allocateBlock(@Nonnull ProjectId projectId,
+                       @Nonnull String rangeId,
+                       long floor,
+                       int blockSize);
+}
@@ -0,0 +1,98 @@
+package edu.stanford.bmir.protege.web.server.crud.obo;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
+import edu.stanford.bmir.protege.web.server.persistence.Repository;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Optional;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class OboIdHighWaterMarkRepositoryImpl implements OboIdHighWaterMarkRepository, Repository {
+
+    public static final String COLLECTION_NAME = "OboIdHighWaterMarks";
+
+    public static final String PROJECT_ID = "projectId";
+
+    public static final String RANGE_ID = "rangeId";
+
+    public static final String HIGH_WATER_MARK = "highWaterMark";
+
+    private final MongoCollection<Document> collection;
+
+    @Inject
+    public OboIdHighWaterMarkRepositoryImpl(@Nonnull MongoDatabase database) {
+        this.collection = database.getCollection(COLLECTION_NAME);
+    }
+
+    @Override
+    public void ensureIndexes() {
+        collection.createIndex(new Document()
+                                       .append(PROJECT_ID, 1)
+                                       .append(RANGE_ID, 1),
+                               new IndexOptions().unique(true));
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Long> getHighWaterMark(@Nonnull ProjectId projectId,
+                                           @Nonnull String rangeId) {
+        var document = collection.find(getFilter(projectId, rangeId)).first();
+        if(document == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(document.getLong(HIGH_WATER_MARK));
+    }
+
+    @Override
+    public long allocateBlock(@Nonnull ProjectId projectId,
+                              @Nonnull String rangeId,
+                              long floor,
+                              int blockSize) {
+        var filter = getFilter(projectId, rangeId);
+        raiseToFloor(filter, floor);
+        var document = collection.findOneAndUpdate(filter,
+                                                   new Document("$inc", new Document(HIGH_WATER_MARK, (long) blockSize)),
+                                                   new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+        if(document == null) {
+            throw new IllegalStateException("High water mark for range " + rangeId + " is missing");
+        }
+        return document.getLong(HIGH_WATER_MARK);
+    }
+
+    private void raiseToFloor(@Nonnull Bson filter, long floor) {
+        var update = new Document("$max", new Document(HIGH_WATER_MARK, floor));
+        try {
+            collection.updateOne(filter, update, new UpdateOptions().upsert(true));
+        } catch (MongoWriteException e) {
+            if(e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            // A concurrent first allocation inserted the document between our match and our insert.
+            // The document now exists, so the update will not upsert again.
+            collection.updateOne(filter, update);
+        }
+    }
+
+    private static Bson getFilter(@Nonnull ProjectId projectId, @Nonnull String rangeId) {
+        return and(eq(PROJECT_ID, projectId.getId()),
+                   eq(RANGE_ID, rangeId));
+    }
+}
@@ -0,0 +1,20 @@
+package edu.stanford.bmir.protege.web.server.dispatch.impl;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ *     Qualifies the executor service that is used to concurrently execute
+ *     the read-only actions in a batch action.
+ * </p>
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BatchActionExecutor {
+
+}
@@ -15,6 +15,14 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -37,13 +45,18 @@ public class DispatchServiceExecutorImpl implements DispatchServiceExecutor {
     @Nonnull
     private final UserInSessionFactory userInSessionFactory;
 
+    @Nonnull
+    private final ExecutorService batchActionExecutor;
+
     @Inject
     public DispatchServiceExecutorImpl(@Nonnull ApplicationActionHandlerRegistry handlerRegistry,
                                        @Nonnull ProjectManager projectManager,
-                                       @Nonnull UserInSessionFactory userInSessionFactory) {
+                                       @Nonnull UserInSessionFactory userInSessionFactory,
+                                       @Nonnull @BatchActionExecutor ExecutorService batchActionExecutor) {
         this.handlerRegistry = checkNotNull(handlerRegistry);
         this.projectManager = checkNotNull(projectManager);
         this.userInSessionFactory = userInSessionFactory;
+        this.batchActionExecutor = checkNotNull(batchActionExecutor);
     }
 
     /**
@@ -90,25 +103,91 @@ public class DispatchServiceExecutorImpl implements DispatchServiceExecutor {
         }
     }
 
+    /**
+     * Executes the actions in a batch.  Consecutive {@link ReadOnlyAction}s are executed concurrently
+     * with each other.  Any other action acts as a barrier: it is only executed once all of the actions
+     * that precede it have completed, and actions that follow it are only executed once it has completed.
+     * The results are returned in the same order as the actions in the batch.
+     */
     private DispatchServiceResultContainer execBatchAction(BatchAction batchAction, RequestContext requestContext, ExecutionContext executionContext) {
-        ImmutableList.Builder<ActionExecutionResult> executionResultBuilder = ImmutableList.builder();
-        for (Action<?> action : batchAction.getActions()) {
-            ActionExecutionResult executionResult;
-            try {
-                DispatchServiceResultContainer container = execAction(action, requestContext, executionContext);
-                Result result = container.getResult();
-                executionResult = ActionExecutionResult.get(new DispatchServiceResultContainer(result));
-            } catch (ActionExecutionException e) {
-                executionResult = ActionExecutionResult.get(e);
-            } catch (PermissionDeniedException e) {
-                executionResult = ActionExecutionResult.get(e);
+        ImmutableList<Action<?>> actions = batchAction.getActions();
+        ActionExecutionResult[] executionResults = new ActionExecutionResult[actions.size()];
+        List<Integer> readOnlyActionIndexes = new ArrayList<>();
+        for (int i = 0; i < actions.size(); i++) {
+            Action<?> action = actions.get(i);
+            if (action instanceof ReadOnlyAction) {
+                readOnlyActionIndexes.add(i);
+            }
+            else {
+                execReadOnlyBatchedActions(actions, readOnlyActionIndexes, executionResults, requestContext, executionContext);
+                readOnlyActionIndexes.clear();
+                executionResults[i] = execBatchedAction(action, requestContext, executionContext);
             }
-            executionResultBuilder.add(executionResult);
         }
-        ImmutableList<ActionExecutionResult> results = executionResultBuilder.build();
+        execReadOnlyBatchedActions(actions, readOnlyActionIndexes, executionResults, requestContext, executionContext);
+        ImmutableList<ActionExecutionResult> results = ImmutableList.copyOf(executionResults);
         return new DispatchServiceResultContainer(BatchResult.get(results));
     }
 
+    private void execReadOnlyBatchedActions(@Nonnull ImmutableList<Action<?>> actions,
+                                            @Nonnull List<Integer> actionIndexes,
+                                            @Nonnull ActionExecutionResult[] executionResults,
+                                            @Nonnull RequestContext requestContext,
+                                            @Nonnull ExecutionContext executionContext) {
+        if (actionIndexes.isEmpty()) {
+            return;
+        }
+        // The first action is executed on the calling thread.  The remaining actions
+        // are handed off to the batch executor.  If the executor is saturated then
+        // actions are executed on the calling thread.
+        Map<Integer, Future<ActionExecutionResult>> futures = new LinkedHashMap<>();
+        for (int index : actionIndexes.subList(1, actionIndexes.size())) {
+            Action<?> action = actions.get(index);
+            try {
+                futures.put(index, batchActionExecutor.submit(() -> execBatchedAction(action, requestContext, executionContext)));
+            } catch (RejectedExecutionException e) {
+                executionResults[index] = execBatchedAction(action, requestContext, executionContext);
+            }
+        }
+        int firstIndex = actionIndexes.get(0);
+        executionResults[firstIndex] = execBatchedAction(actions.get(firstIndex), requestContext, executionContext);
+        for (Map.Entry<Integer, Future<ActionExecutionResult>> entry : futures.entrySet()) {
+            executionResults[entry.getKey()] = getBatchedActionResult(entry.getValue());
+        }
+    }
+
+    private static ActionExecutionResult getBatchedActionResult(@Nonnull Future<ActionExecutionResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ActionExecutionResult.get(new ActionExecutionException(e));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return ActionExecutionResult.get(new ActionExecutionException(cause));
+        }
+    }
+
+    private ActionExecutionResult execBatchedAction(@Nonnull Action<?> action,
+                                                    @Nonnull RequestContext requestContext,
+                                                    @Nonnull ExecutionContext executionContext) {
+        try {
+            DispatchServiceResultContainer container = execAction(action, requestContext, executionContext);
+            Result result = container.getResult();
+            return ActionExecutionResult.get(new DispatchServiceResultContainer(result));
+        } catch (ActionExecutionException e) {
+            return ActionExecutionResult.get(e);
+        } catch (PermissionDeniedException e) {
+            return ActionExecutionResult.get(e);
+        }
+    }
+
     private <A extends Action<R>, R extends Result> DispatchServiceResultContainer execAction(A action, RequestContext requestContext, ExecutionContext executionContext) {
         final ActionHandler<A, R> actionHandler;
         final Thread thread = Thread.currentThread();
@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.download;
 
 import com.google.auto.factory.AutoFactory;
 import com.google.auto.factory.Provided;
+import com.google.common.annotations.VisibleForTesting;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.server.util.MemoryMonitor;
@@ -12,15 +13,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 14 Apr 2017
+ * <p>
+ * Generates a project download and writes it to the download cache.  The download is written to a temporary
+ * file that is moved into the cache once the download is complete, so that an incomplete download is never
+ * served from the cache.  The progress of the download is recorded in an {@link InProgressDownload}, if one is
+ * supplied, so that clients can read the download as it is generated.
+ * </p>
  */
 class CreateDownloadTask implements Callable<Void> {
 
@@ -47,6 +59,9 @@ class CreateDownloadTask implements Callable<Void> {
     @Nonnull
     private final Path downloadPath;
 
+    @Nullable
+    private final InProgressDownload inProgressDownload;
+
     @Nonnull
     private final ProjectDownloaderFactory projectDownloaderFactory;
 
@@ -58,6 +73,7 @@ class CreateDownloadTask implements Callable<Void> {
                               @Nonnull RevisionNumber revisionNumber,
                               @Nonnull DownloadFormat format,
                               @Nonnull Path destinationPath,
+                              @Nullable InProgressDownload inProgressDownload,
                               @Provided @Nonnull ProjectDownloaderFactory projectDownloaderFactory) {
         this.projectManager = projectManager;
         this.projectId = projectId;
@@ -66,18 +82,34 @@ class CreateDownloadTask implements Callable<Void> {
         this.revisionNumber = revisionNumber;
         this.format = format;
         this.downloadPath = destinationPath;
+        this.inProgressDownload = inProgressDownload;
         this.projectDownloaderFactory = projectDownloaderFactory;
     }
 
     @Override
     public Void call() throws Exception {
+        try {
+            createDownload();
+            if(inProgressDownload != null) {
+                inProgressDownload.complete();
+            }
+            return null;
+        } catch (Throwable t) {
+            if(inProgressDownload != null) {
+                inProgressDownload.failed(t);
+            }
+            throw t;
+        }
+    }
+
+    private void createDownload() throws IOException {
         logger.info("{} {} Processing download request", projectId, userId);
         if(Files.exists(downloadPath)) {
             logger.info("{} {} Project download already exists.  Not recreating download. ({})",
                         projectId,
                         userId,
                         downloadPath.toAbsolutePath());
-            return null;
+            return;
         }
         logger.info("{} {} Creating project download", projectId, userId);
         MemoryMonitor memoryMonitor = new MemoryMonitor(logger);
@@ -90,13 +122,41 @@ class CreateDownloadTask implements Callable<Void> {
                                                                        format,
                                                                        revisionManager);
         logger.info("{} {} Writing download to file: {}", projectId, userId, downloadPath);
-        Files.createDirectories(downloadPath.getParent());
-        try (BufferedOutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(downloadPath))) {
-            downloader.writeProject(outputStream);
-        }
+        writeDownload(downloadPath, inProgressDownload, downloader::writeProject);
         double sizeInMB = Files.size(downloadPath) / (1024.0 * 1024);
         logger.info("{} {} Finished creating download ({} MB)", projectId, userId, String.format("%.4f", sizeInMB));
         memoryMonitor.monitorMemoryUsage();
-        return null;
+    }
+
+    /**
+     * Writes a download to a temporary file and then atomically moves the file to the download path, so that
+     * an incomplete download is never visible at the download path.  The temporary file is deleted if the
+     * download cannot be written.
+     * @param downloadPath The path of the download.
+     * @param inProgressDownload The in progress download that records the temporary file, if any.
+     * @param writer The writer that writes the download.
+     */
+    @VisibleForTesting
+    static void writeDownload(@Nonnull Path downloadPath,
+                              @Nullable InProgressDownload inProgressDownload,
+                              @Nonnull DownloadWriter writer) throws IOException {
+        Files.createDirectories(downloadPath.getParent());
+        var tempPath = downloadPath.resolveSibling(downloadPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempPath))) {
+                if(inProgressDownload != null) {
+                    inProgressDownload.writing(tempPath);
+                }
+                writer.write(outputStream);
+            }
+            Files.move(tempPath, downloadPath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    interface DownloadWriter {
+
+        void write(@Nonnull OutputStream outputStream) throws IOException;
     }
 }
@@ -0,0 +1,240 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Schedules the generation of project downloads.  Downloads are started as long as the sum of the estimated
+ * memory requirements of the running downloads stays within a memory budget, and as long as the number of
+ * running downloads does not exceed the number of generator threads.  A download whose estimate exceeds the
+ * whole budget is treated as needing the whole budget, so that it runs on its own.  Waiting downloads are queued
+ * per project and the projects are served in turn so that a project with many pending downloads cannot hold up
+ * the downloads of other projects.
+ * </p>
+ */
+@ApplicationSingleton
+public class DownloadGenerationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownloadGenerationScheduler.class);
+
+    @Nonnull
+    private final ExecutorService downloadGeneratorExecutor;
+
+    private final int maxRunningDownloads;
+
+    private final long memoryBudget;
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Waiting downloads, by project, in the order in which the projects will be served
+     */
+    private final Map<ProjectId, ArrayDeque<ScheduledDownload>> waitingDownloads = new LinkedHashMap<>();
+
+    private int runningDownloads = 0;
+
+    private long reservedMemory = 0;
+
+    @Inject
+    public DownloadGenerationScheduler(@Nonnull @DownloadGeneratorExecutor ExecutorService downloadGeneratorExecutor,
+                                       @DownloadGeneratorThreadCount int maxRunningDownloads,
+                                       @DownloadGeneratorMemoryBudget long memoryBudget) {
+        checkArgument(maxRunningDownloads > 0);
+        checkArgument(memoryBudget > 0);
+        this.downloadGeneratorExecutor = checkNotNull(downloadGeneratorExecutor);
+        this.maxRunningDownloads = maxRunningDownloads;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Schedules a download generation task
+     * @param projectId The project that the download is for
+     * @param estimatedMemory The estimated number of bytes of heap that the task will use
+     * @param task The task that generates the download
+     * @return The scheduled download, which can be used to wait for completion and to find out the position of
+     * the download in the queue.
+     */
+    @Nonnull
+    public ScheduledDownload submit(@Nonnull ProjectId projectId,
+                                    long estimatedMemory,
+                                    @Nonnull Callable<?> task) {
+        var download = new ScheduledDownload(checkNotNull(projectId),
+                                             Math.min(Math.max(estimatedMemory, 0), memoryBudget),
+                                             checkNotNull(task));
+        try {
+            lock.lock();
+            waitingDownloads.computeIfAbsent(projectId, id -> new ArrayDeque<>()).add(download);
+            startWaitingDownloads();
+        } finally {
+            lock.unlock();
+        }
+        return download;
+    }
+
+    private void startWaitingDownloads() {
+        while(!waitingDownloads.isEmpty() && runningDownloads < maxRunningDownloads) {
+            var iterator = waitingDownloads.entrySet().iterator();
+            var nextProjectEntry = iterator.next();
+            var projectDownloads = nextProjectEntry.getValue();
+            var download = projectDownloads.peek();
+            if(runningDownloads > 0 && reservedMemory + download.getEstimatedMemory() > memoryBudget) {
+                // Wait for running downloads to finish rather than letting smaller downloads overtake this one
+                return;
+            }
+            projectDownloads.poll();
+            iterator.remove();
+            if(!projectDownloads.isEmpty()) {
+                // Move the project to the back of the line
+                waitingDownloads.put(nextProjectEntry.getKey(), projectDownloads);
+            }
+            start(download);
+        }
+    }
+
+    private void start(@Nonnull ScheduledDownload download) {
+        runningDownloads++;
+        reservedMemory += download.getEstimatedMemory();
+        download.started = true;
+        logger.info("{} Starting download generation (estimated memory: {} MB, running: {}, reserved: {} MB)",
+                    download.getProjectId(),
+                    toMB(download.getEstimatedMemory()),
+                    runningDownloads,
+                    toMB(reservedMemory));
+        try {
+            downloadGeneratorExecutor.submit(() -> run(download));
+        } catch(RejectedExecutionException e) {
+            finished(download);
+            download.future.completeExceptionally(e);
+        }
+    }
+
+    private void run(@Nonnull ScheduledDownload download) {
+        try {
+            download.task.call();
+            download.future.complete(null);
+        } catch(Throwable t) {
+            download.future.completeExceptionally(t);
+        } finally {
+            try {
+                lock.lock();
+                finished(download);
+                startWaitingDownloads();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void finished(@Nonnull ScheduledDownload download) {
+        runningDownloads--;
+        reservedMemory -= download.getEstimatedMemory();
+    }
+
+    /**
+     * Gets the position of the specified download in the queue.
+     * @return The number of waiting downloads that will be started before the specified download, plus one, or
+     * zero if the download has been started.
+     */
+    public int getQueuePosition(@Nonnull ScheduledDownload download) {
+        try {
+            lock.lock();
+            if(download.started) {
+                return 0;
+            }
+            var projectDownloads = waitingDownloads.get(download.getProjectId());
+            if(projectDownloads == null) {
+                return 0;
+            }
+            // Projects are served in turn, so the download is reached in round number indexInProject
+            int indexInProject = 0;
+            for(var projectDownload : projectDownloads) {
+                if(projectDownload == download) {
+                    break;
+                }
+                indexInProject++;
+            }
+            int ahead = 0;
+            boolean beforeProject = true;
+            for(var entry : waitingDownloads.entrySet()) {
+                if(entry.getKey().equals(download.getProjectId())) {
+                    beforeProject = false;
+                }
+                int waiting = entry.getValue().size();
+                ahead += Math.min(waiting, indexInProject);
+                if(beforeProject && waiting > indexInProject) {
+                    ahead++;
+                }
+            }
+            return ahead + 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long toMB(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    /**
+     * A download that has been submitted for generation
+     */
+    public static class ScheduledDownload {
+
+        private final ProjectId projectId;
+
+        private final long estimatedMemory;
+
+        private final Callable<?> task;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        /**
+         * Guarded by the scheduler lock
+         */
+        private boolean started = false;
+
+        private ScheduledDownload(ProjectId projectId, long estimatedMemory, Callable<?> task) {
+            this.projectId = projectId;
+            this.estimatedMemory = estimatedMemory;
+            this.task = task;
+        }
+
+        @Nonnull
+        public ProjectId getProjectId() {
+            return projectId;
+        }
+
+        public long getEstimatedMemory() {
+            return estimatedMemory;
+        }
+
+        /**
+         * Gets a future that completes when the download has been generated
+         */
+        @Nonnull
+        public CompletableFuture<Void> getFuture() {
+            return future;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Qualifies the number of bytes of heap that may be used, in total, to generate project downloads.
+ * </p>
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DownloadGeneratorMemoryBudget {
+
+}
@@ -0,0 +1,45 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Estimates the amount of heap that is needed to generate a download of a project.  The estimate is based
+ * on the size of the project's change history, which is replayed to produce the ontologies for the download.
+ * </p>
+ */
+public class DownloadMemoryEstimator {
+
+    /**
+     * The approximate ratio of the in-memory size of ontologies to the size of the binary change history
+     */
+    private static final long HEAP_BYTES_PER_CHANGE_HISTORY_BYTE = 10;
+
+    private static final long MINIMUM_ESTIMATE_BYTES = 16 * 1024 * 1024;
+
+    @Nonnull
+    private final ChangeHistoryFileFactory changeHistoryFileFactory;
+
+    @Inject
+    public DownloadMemoryEstimator(@Nonnull ChangeHistoryFileFactory changeHistoryFileFactory) {
+        this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
+    }
+
+    /**
+     * Gets the estimated number of bytes of heap that are needed to generate a download of the specified project.
+     */
+    public long getEstimatedMemory(@Nonnull ProjectId projectId) {
+        var changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
+        var changeHistorySize = changeHistoryFile.length();
+        return Math.max(MINIMUM_ESTIMATE_BYTES, changeHistorySize * HEAP_BYTES_PER_CHANGE_HISTORY_BYTE);
+    }
+}
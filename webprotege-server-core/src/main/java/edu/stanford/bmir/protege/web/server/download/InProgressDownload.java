@@ -0,0 +1,184 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * A download that is being generated.  The download is written to a temporary file that is moved into the
+ * download cache once it is complete.  Clients read the download from the file while it is being written, so
+ * they do not have to wait for the download to be complete, and a slow client does not hold up the generation
+ * of the download.  Any number of clients can read the same download.
+ * </p>
+ */
+public class InProgressDownload {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The time that a reader waits for more of the download to be written before it checks again
+     */
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private enum State {
+        WAITING,
+        WRITING,
+        COMPLETE,
+        FAILED
+    }
+
+    @Nonnull
+    private final Path downloadPath;
+
+    private State state = State.WAITING;
+
+    @Nullable
+    private Path tempPath;
+
+    @Nullable
+    private Throwable failure;
+
+    /**
+     * Creates an {@link InProgressDownload}.
+     * @param downloadPath The path that the download is moved to once it is complete.
+     */
+    public InProgressDownload(@Nonnull Path downloadPath) {
+        this.downloadPath = checkNotNull(downloadPath);
+    }
+
+    @Nonnull
+    public Path getDownloadPath() {
+        return downloadPath;
+    }
+
+    /**
+     * Records that the download has started to be written to the specified temporary file
+     */
+    public synchronized void writing(@Nonnull Path tempPath) {
+        this.tempPath = checkNotNull(tempPath);
+        state = State.WRITING;
+        notifyAll();
+    }
+
+    /**
+     * Records that the download is complete and that it has been moved to the download path
+     */
+    public synchronized void complete() {
+        state = State.COMPLETE;
+        notifyAll();
+    }
+
+    /**
+     * Records that the download could not be generated
+     */
+    public synchronized void failed(@Nonnull Throwable failure) {
+        if(state == State.COMPLETE) {
+            return;
+        }
+        this.failure = checkNotNull(failure);
+        state = State.FAILED;
+        notifyAll();
+    }
+
+    /**
+     * Waits for the download to start being written.
+     * @param timeoutMs The maximum time to wait, in milliseconds.
+     * @return true if the download has started being written, has been completed or has failed, otherwise false.
+     */
+    public synchronized boolean awaitStarted(long timeoutMs) throws InterruptedException {
+        if(state == State.WAITING) {
+            wait(timeoutMs);
+        }
+        return state != State.WAITING;
+    }
+
+    /**
+     * Copies the download to the specified output stream as it is written.  This returns once the whole download
+     * has been copied.
+     * @param outputStream The output stream.  This is not closed.
+     * @throws IOException if the download could not be generated, or if it could not be copied to the output
+     * stream.  The output stream may have been partially written to.
+     */
+    public void transferTo(@Nonnull OutputStream outputStream) throws IOException, InterruptedException {
+        try (var inputStream = open()) {
+            var buffer = new byte[BUFFER_SIZE];
+            var complete = false;
+            while(true) {
+                var read = inputStream.read(buffer);
+                if(read > 0) {
+                    outputStream.write(buffer, 0, read);
+                }
+                else if(complete) {
+                    // Everything that was written before the download was completed has been read
+                    break;
+                }
+                else {
+                    outputStream.flush();
+                    complete = awaitMoreWritten();
+                }
+            }
+            outputStream.flush();
+        }
+    }
+
+    private InputStream open() throws IOException, InterruptedException {
+        while(true) {
+            Path path;
+            synchronized (this) {
+                while(state == State.WAITING) {
+                    wait();
+                }
+                checkNotFailed();
+                path = state == State.COMPLETE ? downloadPath : tempPath;
+            }
+            try {
+                // The file can still be read after it is moved to the download path, because it is already open
+                return Files.newInputStream(path);
+            } catch (NoSuchFileException e) {
+                if(path.equals(downloadPath)) {
+                    throw e;
+                }
+            }
+            try {
+                // The temporary file was moved to the download path before it could be opened
+                return Files.newInputStream(downloadPath);
+            } catch (NoSuchFileException e) {
+                // The temporary file was deleted because the download failed.  Wait for the failure to be recorded.
+                synchronized (this) {
+                    if(state == State.WRITING) {
+                        wait(POLL_INTERVAL_MS);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for more of the download to be written.
+     * @return true if the download is complete.
+     */
+    private synchronized boolean awaitMoreWritten() throws IOException, InterruptedException {
+        if(state == State.WRITING) {
+            wait(POLL_INTERVAL_MS);
+        }
+        checkNotFailed();
+        return state == State.COMPLETE;
+    }
+
+    private void checkNotFailed() throws IOException {
+        if(state == State.FAILED) {
+            throw new IOException("The download could not be generated", failure);
+        }
+    }
+}
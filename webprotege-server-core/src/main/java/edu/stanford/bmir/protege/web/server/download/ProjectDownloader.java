@@ -19,6 +19,9 @@ import javax.inject.Inject;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -80,11 +83,10 @@ public class ProjectDownloader {
     public void writeProject(OutputStream outputStream) throws IOException {
         try {
             exportProjectRevision(fileName, revision, outputStream, format);
-
         } catch(OWLOntologyStorageException e) {
-            e.printStackTrace();
+            // Fail the download rather than caching an incomplete zip
+            throw new IOException("Could not write ontology to download: " + e.getMessage(), e);
         }
-
     }
 
     private void exportProjectRevision(@Nonnull String projectDisplayName,
@@ -105,19 +107,28 @@ public class ProjectDownloader {
             String baseFolder = projectDisplayName.replace(" ", "-") + "-ontologies-" + format.getExtension();
             baseFolder = baseFolder.toLowerCase();
             baseFolder = baseFolder + "-REVISION-" + (revisionNumber.isHead() ? "HEAD" : revisionNumber.getValue());
-            for(var ontology : manager.getOntologies()) {
-                var documentFormat = format.getDocumentFormat();
-                if(documentFormat.isPrefixOWLOntologyFormat()) {
-                    var prefixDocumentFormat = documentFormat.asPrefixOWLOntologyFormat();
-                    Map<String, String> prefixes = prefixDeclarationsStore.find(projectId).getPrefixes();
-                    prefixes.forEach(prefixDocumentFormat::setPrefix);
-                }
+            var documentFormat = format.getDocumentFormat();
+            if(documentFormat.isPrefixOWLOntologyFormat()) {
+                var prefixDocumentFormat = documentFormat.asPrefixOWLOntologyFormat();
+                Map<String, String> prefixes = prefixDeclarationsStore.find(projectId).getPrefixes();
+                prefixes.forEach(prefixDocumentFormat::setPrefix);
+            }
+            // Each ontology is written straight into the zip stream, which is sent on as it fills, and is then
+            // discarded, unless an ontology that has yet to be written imports it, so that the memory held
+            // by the manager shrinks as the download progresses
+            var unwrittenOntologies = new ArrayList<>(manager.getOntologies());
+            var writtenOntologies = new ArrayList<OWLOntology>();
+            while(!unwrittenOntologies.isEmpty()) {
+                var ontology = unwrittenOntologies.remove(0);
                 var ontologyShortForm = getOntologyShortForm(ontology);
                 var ontologyDocumentFileName = ontologyShortForm.replace(":", "_");
                 ZipEntry zipEntry = new ZipEntry(baseFolder + "/" + ontologyDocumentFileName + "." + format.getExtension());
                 zipOutputStream.putNextEntry(zipEntry);
-                ontology.getOWLOntologyManager().saveOntology(ontology, documentFormat, zipOutputStream);
+                manager.saveOntology(ontology, documentFormat, zipOutputStream);
                 zipOutputStream.closeEntry();
+                zipOutputStream.flush();
+                writtenOntologies.add(ontology);
+                discardWrittenOntologies(manager, writtenOntologies, unwrittenOntologies);
                 logMemoryUsage();
             }
             zipOutputStream.finish();
@@ -125,6 +136,22 @@ public class ProjectDownloader {
         }
     }
 
+    private static void discardWrittenOntologies(@Nonnull OWLOntologyManager manager,
+                                                 @Nonnull List<OWLOntology> writtenOntologies,
+                                                 @Nonnull List<OWLOntology> unwrittenOntologies) {
+        var stillImported = new HashSet<OWLOntology>();
+        for(var unwrittenOntology : unwrittenOntologies) {
+            stillImported.addAll(manager.getImportsClosure(unwrittenOntology));
+        }
+        for(var iterator = writtenOntologies.iterator(); iterator.hasNext(); ) {
+            var writtenOntology = iterator.next();
+            if(!stillImported.contains(writtenOntology)) {
+                manager.removeOntology(writtenOntology);
+                iterator.remove();
+            }
+        }
+    }
+
     private void logMemoryUsage() {
         MemoryMonitor memoryMonitor = new MemoryMonitor(logger);
         memoryMonitor.monitorMemoryUsage();
@@ -0,0 +1,202 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.change.ChangeApplicationResult;
+import edu.stanford.bmir.protege.web.server.change.HasGetChangeSubjects;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriIndex;
+import edu.stanford.bmir.protege.web.server.mansyntax.render.DeprecatedEntityChecker;
+import edu.stanford.bmir.protege.web.server.revision.HasGetRevisionSummary;
+import edu.stanford.bmir.protege.web.server.revision.Revision;
+import edu.stanford.bmir.protege.web.server.tag.TagsManager;
+import edu.stanford.bmir.protege.web.shared.event.BulkChangeEvent;
+import edu.stanford.bmir.protege.web.shared.event.EntityDeprecatedChangedEvent;
+import edu.stanford.bmir.protege.web.shared.event.OntologyFrameChangedEvent;
+import edu.stanford.bmir.protege.web.shared.event.ProjectChangedEvent;
+import edu.stanford.bmir.protege.web.shared.event.ProjectEvent;
+import edu.stanford.bmir.protege.web.shared.hierarchy.HierarchyId;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.tag.EntityTagsChangedEvent;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.shared.hierarchy.HierarchyId.*;
+import static org.semanticweb.owlapi.model.AxiomType.ANNOTATION_ASSERTION;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Computes a {@link BulkChangeEvent} directly from a list of applied changes.  Unlike the other event
+ * translators, this does not need to look at the state of the project before the changes were applied, and
+ * it does not compute any hierarchy edges.
+ * </p>
+ * <p>
+ * The bulk change event is sent to every client that has the project open, so the number of entities that it
+ * lists is capped.  The cheap per-project events, ontology frame changed events, are still generated, along with
+ * deprecation and tag events for a capped number of entities.  Clients re-fetch the state of any other
+ * entities that were affected by the bulk change.
+ * </p>
+ */
+public class BulkChangeEventComputer {
+
+    /**
+     * The maximum number of entities that are listed in a bulk change event, in total and for each hierarchy.
+     */
+    static final int MAX_LISTED_ENTITIES = 1000;
+
+    /**
+     * The maximum number of per-entity events that are generated alongside a bulk change event, and the
+     * maximum number of entities that are listed in the project changed event.
+     */
+    static final int MAX_ENTITY_EVENTS = 200;
+
+    private static final ImmutableMap<EntityType<?>, HierarchyId> HIERARCHY_BY_TYPE = ImmutableMap.of(
+            EntityType.CLASS, CLASS_HIERARCHY,
+            EntityType.OBJECT_PROPERTY, OBJECT_PROPERTY_HIERARCHY,
+            EntityType.DATA_PROPERTY, DATA_PROPERTY_HIERARCHY,
+            EntityType.ANNOTATION_PROPERTY, ANNOTATION_PROPERTY_HIERARCHY
+    );
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final HasGetChangeSubjects changeSubjectsProvider;
+
+    @Nonnull
+    private final HasGetRevisionSummary hasGetRevisionSummary;
+
+    @Nonnull
+    private final ChangedEntitiesDataExtractor changedEntitiesDataExtractor;
+
+    @Nonnull
+    private final EntitiesInProjectSignatureByIriIndex entitiesByIri;
+
+    @Nonnull
+    private final DeprecatedEntityChecker deprecatedEntityChecker;
+
+    @Nonnull
+    private final TagsManager tagsManager;
+
+    @Inject
+    public BulkChangeEventComputer(@Nonnull ProjectId projectId,
+                                   @Nonnull HasGetChangeSubjects changeSubjectsProvider,
+                                   @Nonnull HasGetRevisionSummary hasGetRevisionSummary,
+                                   @Nonnull ChangedEntitiesDataExtractor changedEntitiesDataExtractor,
+                                   @Nonnull EntitiesInProjectSignatureByIriIndex entitiesByIri,
+                                   @Nonnull DeprecatedEntityChecker deprecatedEntityChecker,
+                                   @Nonnull TagsManager tagsManager) {
+        this.projectId = checkNotNull(projectId);
+        this.changeSubjectsProvider = checkNotNull(changeSubjectsProvider);
+        this.hasGetRevisionSummary = checkNotNull(hasGetRevisionSummary);
+        this.changedEntitiesDataExtractor = checkNotNull(changedEntitiesDataExtractor);
+        this.entitiesByIri = checkNotNull(entitiesByIri);
+        this.deprecatedEntityChecker = checkNotNull(deprecatedEntityChecker);
+        this.tagsManager = checkNotNull(tagsManager);
+    }
+
+    /**
+     * Translates the applied changes into a bulk change event, followed by the ontology frame changed,
+     * deprecation and tag events for the changes, and a project changed event if there is a summary for
+     * the revision.
+     */
+    public void translateOntologyChanges(@Nonnull Revision revision,
+                                         @Nonnull ChangeApplicationResult<?> changes,
+                                         @Nonnull List<ProjectEvent<?>> projectEventList) {
+        var changedEntities = new LinkedHashSet<OWLEntity>();
+        var allEntitiesChanged = false;
+        var hierarchyEntities = new HashMap<HierarchyId, Set<OWLEntity>>();
+        var changedHierarchies = new HashSet<HierarchyId>();
+        var changedOntologies = new LinkedHashSet<OWLOntologyID>();
+        var deprecationSubjects = new LinkedHashSet<IRI>();
+        for(var change : changes.getChangeList()) {
+            if(!change.isAxiomChange()) {
+                changedOntologies.add(change.getOntologyId());
+            }
+            else if(isDeprecationChange(change)) {
+                var subject = ((OWLAnnotationAssertionAxiom) change.getAxiomOrThrow()).getSubject();
+                if(subject instanceof IRI) {
+                    deprecationSubjects.add((IRI) subject);
+                }
+            }
+            if(!allEntitiesChanged) {
+                changedEntities.addAll(changeSubjectsProvider.getChangeSubjects(change));
+                if(changedEntities.size() > MAX_LISTED_ENTITIES) {
+                    allEntitiesChanged = true;
+                    changedEntities.clear();
+                }
+            }
+            for(var entity : change.getSignature()) {
+                var hierarchyId = HIERARCHY_BY_TYPE.get(entity.getEntityType());
+                if(hierarchyId != null && !changedHierarchies.contains(hierarchyId)) {
+                    var entities = hierarchyEntities.computeIfAbsent(hierarchyId, id -> new HashSet<>());
+                    entities.add(entity);
+                    if(entities.size() > MAX_LISTED_ENTITIES) {
+                        changedHierarchies.add(hierarchyId);
+                        hierarchyEntities.remove(hierarchyId);
+                    }
+                }
+            }
+        }
+        var revisionNumber = revision.getRevisionNumber();
+        projectEventList.add(new BulkChangeEvent(projectId,
+                                                 revision.getUserId(),
+                                                 revisionNumber,
+                                                 ImmutableSet.copyOf(changedEntities),
+                                                 allEntitiesChanged,
+                                                 toImmutableMap(hierarchyEntities),
+                                                 ImmutableSet.copyOf(changedHierarchies)));
+        changedOntologies.forEach(ontologyId -> projectEventList.add(new OntologyFrameChangedEvent(ontologyId, projectId)));
+        addEntityDeprecatedChangedEvents(deprecationSubjects, projectEventList);
+        if(!allEntitiesChanged && changedEntities.size() <= MAX_ENTITY_EVENTS) {
+            // The tags before the changes are not known, so the current tags are posted for every changed entity
+            changedEntities.forEach(entity -> projectEventList.add(new EntityTagsChangedEvent(projectId,
+                                                                                              entity,
+                                                                                              tagsManager.getTags(entity))));
+        }
+        hasGetRevisionSummary.getRevisionSummary(revisionNumber)
+                             .map(summary -> new ProjectChangedEvent(projectId,
+                                                                     summary,
+                                                                     changedEntitiesDataExtractor.getChangedEntitiesData(changes.getSubject(),
+                                                                                                                         MAX_ENTITY_EVENTS)))
+                             .ifPresent(projectEventList::add);
+    }
+
+    private static boolean isDeprecationChange(@Nonnull OntologyChange change) {
+        return change.isChangeFor(ANNOTATION_ASSERTION)
+                && ((OWLAnnotationAssertionAxiom) change.getAxiomOrThrow()).getProperty().isDeprecated();
+    }
+
+    private void addEntityDeprecatedChangedEvents(@Nonnull Set<IRI> deprecationSubjects,
+                                                  @Nonnull List<ProjectEvent<?>> projectEventList) {
+        deprecationSubjects.stream()
+                           .flatMap(entitiesByIri::getEntitiesInSignature)
+                           .limit(MAX_ENTITY_EVENTS)
+                           .map(entity -> new EntityDeprecatedChangedEvent(projectId,
+                                                                           entity,
+                                                                           deprecatedEntityChecker.isDeprecated(entity)))
+                           .forEach(projectEventList::add);
+    }
+
+    private static ImmutableMap<HierarchyId, ImmutableSet<OWLEntity>> toImmutableMap(Map<HierarchyId, Set<OWLEntity>> map) {
+        var builder = ImmutableMap.<HierarchyId, ImmutableSet<OWLEntity>>builder();
+        map.forEach((hierarchyId, entities) -> builder.put(hierarchyId, ImmutableSet.copyOf(entities)));
+        return builder.build();
+    }
+}
@@ -0,0 +1,74 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
+import edu.stanford.bmir.protege.web.shared.entity.OWLEntityData;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Extracts the rendered entities that are listed in a {@link edu.stanford.bmir.protege.web.shared.event.ProjectChangedEvent}
+ * from the subject of a change.  The subject may be an entity, entity data, or a collection of entities.  Entities
+ * that are no longer in the signature of the project are not listed.
+ * </p>
+ */
+public class ChangedEntitiesDataExtractor {
+
+    @Nonnull
+    private final RenderingManager renderingManager;
+
+    @Nonnull
+    private final EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex;
+
+    @Inject
+    public ChangedEntitiesDataExtractor(@Nonnull RenderingManager renderingManager,
+                                        @Nonnull EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex) {
+        this.renderingManager = checkNotNull(renderingManager);
+        this.entitiesInProjectSignatureIndex = checkNotNull(entitiesInProjectSignatureIndex);
+    }
+
+    /**
+     * Gets the rendered entities for the specified change subject.
+     * @param subject The subject of the change, which may be null.
+     * @param limit The maximum number of entities to render.
+     * @return The rendered entities.
+     */
+    @Nonnull
+    public Set<OWLEntityData> getChangedEntitiesData(@Nullable Object subject, int limit) {
+        var changedEntitiesData = new LinkedHashSet<OWLEntityData>();
+        if(subject instanceof OWLEntity) {
+            var entity = (OWLEntity) subject;
+            if(entitiesInProjectSignatureIndex.containsEntityInSignature(entity)) {
+                changedEntitiesData.add(renderingManager.getRendering(entity));
+            }
+        }
+        else if(subject instanceof OWLEntityData) {
+            var entityData = (OWLEntityData) subject;
+            if(entitiesInProjectSignatureIndex.containsEntityInSignature(entityData.getEntity())) {
+                changedEntitiesData.add(entityData);
+            }
+        }
+        else if(subject instanceof Collection) {
+            var collection = (Collection<?>) subject;
+            collection.stream()
+                      .filter(element -> element instanceof OWLEntity)
+                      .map(element -> (OWLEntity) element)
+                      .filter(entitiesInProjectSignatureIndex::containsEntityInSignature)
+                      .limit(limit)
+                      .forEach(entity -> changedEntitiesData.add(renderingManager.getRendering(entity)));
+        }
+        return changedEntitiesData;
+    }
+}
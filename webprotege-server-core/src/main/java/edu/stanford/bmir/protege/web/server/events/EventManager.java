@@ -32,9 +32,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @ProjectSingleton
 public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, HasPostEvents<E> {
 
-
-    private static final int EVENT_LIST_SIZE_LIMIT = 200;
-
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     private final Lock readLock = lock.readLock();
@@ -96,10 +93,6 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
      * @throws NullPointerException if {@code events} is {@code null}.
      */
     public EventTag postEvents(List<E> events) {
-        if(events.size() > EVENT_LIST_SIZE_LIMIT) {
-            // Just don't bother
-            return currentTag;
-        }
         try {
             writeLock.lock();
             currentTag = currentTag.next();
@@ -0,0 +1,210 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Runs the tasks of one event translation for a project.  The calling thread runs the tasks itself, and
+ * threads of the shared event translation pool help out when they are free.  A task is only ever waited for
+ * once it has started running, so a project never waits behind translations for other projects that are
+ * queued on the shared pool.  The time budget of a task is measured from when the task starts, and it applies
+ * in the same way whichever thread runs the task.
+ * </p>
+ * <p>
+ * Tasks that overrun their budget are cancelled.  A task that ignores the interrupt keeps its pool thread,
+ * so while the project has such a task running its tasks are run on the calling thread only.
+ * </p>
+ */
+@ProjectSingleton
+public class EventTranslationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventTranslationRunner.class);
+
+    /**
+     * Specifies that tasks have no time budget
+     */
+    public static final long NO_BUDGET = -1;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final ExecutorService eventTranslationService;
+
+    /**
+     * The number of this project's cancelled tasks that are still running on pool threads
+     */
+    private final AtomicInteger abandonedTaskCount = new AtomicInteger();
+
+    @Inject
+    public EventTranslationRunner(@Nonnull ProjectId projectId,
+                                  @Nonnull @EventTranslationService ExecutorService eventTranslationService) {
+        this.projectId = checkNotNull(projectId);
+        this.eventTranslationService = checkNotNull(eventTranslationService);
+    }
+
+    /**
+     * Runs the specified tasks and waits for them to complete.
+     * @param tasks The tasks to run.
+     * @param budgetMs The time, in milliseconds, that each task has to complete once it has started, or
+     *                 {@link #NO_BUDGET}.
+     * @return The completed futures for the tasks, in task order, or empty if a task did not complete within
+     * its budget.
+     */
+    @Nonnull
+    public <T> Optional<List<Future<T>>> runAll(@Nonnull List<Callable<T>> tasks, long budgetMs) {
+        var runnableTasks = new ArrayList<RunnableTask<T>>(tasks.size());
+        for(var task : tasks) {
+            runnableTasks.add(new RunnableTask<>(task));
+        }
+        requestHelp(runnableTasks);
+        runUnclaimedTasks(runnableTasks);
+        var budgetNanos = budgetMs == NO_BUDGET ? NO_BUDGET : TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        for(var task : runnableTasks) {
+            if(!awaitCompletion(task, budgetNanos)) {
+                abandon(runnableTasks);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new ArrayList<Future<T>>(runnableTasks));
+    }
+
+    private <T> void requestHelp(List<RunnableTask<T>> tasks) {
+        if(abandonedTaskCount.get() > 0) {
+            logger.debug("{} Running event translation on the calling thread because {} abandoned tasks are still running",
+                         projectId,
+                         abandonedTaskCount.get());
+            return;
+        }
+        // The calling thread runs at least one of the tasks
+        for(int i = 1; i < tasks.size(); i++) {
+            try {
+                eventTranslationService.execute(() -> runUnclaimedTasks(tasks));
+            } catch(RejectedExecutionException e) {
+                // Shutting down.  The calling thread runs the remaining tasks.
+                return;
+            }
+        }
+    }
+
+    private <T> void runUnclaimedTasks(List<RunnableTask<T>> tasks) {
+        for(var task : tasks) {
+            if(task.claim()) {
+                task.run();
+                if(task.finish()) {
+                    abandonedTaskCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for a task that has been claimed, and therefore started, to complete.
+     * @return true if the task completed within its budget, otherwise false.
+     */
+    private static boolean awaitCompletion(RunnableTask<?> task, long budgetNanos) {
+        try {
+            if(budgetNanos == NO_BUDGET) {
+                Uninterruptibles.getUninterruptibly(task);
+                return true;
+            }
+            var remainingNanos = budgetNanos - task.getElapsedNanos();
+            Uninterruptibles.getUninterruptibly(task, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch(ExecutionException | CancellationException e) {
+            // Completed, with the failure held by the future
+        } catch(TimeoutException e) {
+            return false;
+        }
+        return task.getElapsedNanos() <= budgetNanos;
+    }
+
+    private <T> void abandon(List<RunnableTask<T>> tasks) {
+        for(var task : tasks) {
+            if(task.cancel(true) && task.abandon()) {
+                abandonedTaskCount.incrementAndGet();
+            }
+        }
+    }
+
+    private static class RunnableTask<T> extends FutureTask<T> {
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private volatile long startNanos;
+
+        private volatile long endNanos;
+
+        private boolean finished = false;
+
+        private boolean abandoned = false;
+
+        private RunnableTask(@Nonnull Callable<T> callable) {
+            super(callable);
+        }
+
+        private boolean claim() {
+            if(!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            startNanos = System.nanoTime();
+            return true;
+        }
+
+        @Override
+        protected void done() {
+            endNanos = System.nanoTime();
+        }
+
+        /**
+         * Gets the time that the task has been running for, or ran for if it has completed.
+         */
+        private long getElapsedNanos() {
+            var start = startNanos;
+            if(start == 0) {
+                // Claimed by a pool thread that has not yet recorded the start time
+                return 0;
+            }
+            var end = endNanos;
+            return (end != 0 ? end : System.nanoTime()) - start;
+        }
+
+        /**
+         * Marks the task as finished running.
+         * @return true if the task was abandoned while it was running.
+         */
+        private synchronized boolean finish() {
+            finished = true;
+            return abandoned;
+        }
+
+        /**
+         * Marks the task as abandoned.
+         * @return true if the task is still running.
+         */
+        private synchronized boolean abandon() {
+            if(finished) {
+                return false;
+            }
+            abandoned = true;
+            return true;
+        }
+    }
+}
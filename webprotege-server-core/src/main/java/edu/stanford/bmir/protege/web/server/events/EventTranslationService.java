@@ -0,0 +1,19 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Qualifies the executor that runs {@link EventTranslator}s in parallel.
+ * </p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Qualifier
+public @interface EventTranslationService {
+
+}
@@ -1,38 +1,218 @@
 package edu.stanford.bmir.protege.web.server.events;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
 import edu.stanford.bmir.protege.web.server.change.ChangeApplicationResult;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.shared.event.ProjectEvent;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 22/05/15
+ * <p>
+ * Runs the event translators for a set of changes.  The translators are independent of each other
+ * so they are run in parallel, and the events that they generate are concatenated in translator order.
+ * Change sets that are too large to translate in reasonable time, or translations that overrun their
+ * time budget, are reported with a single bulk change event instead.  The translators are run by the project's
+ * {@link EventTranslationRunner}, so the budget of each translator starts when the translator starts.
+ * </p>
  */
 public class EventTranslatorManager {
 
-    private Collection<EventTranslator> eventTranslators;
+    private static final Logger logger = LoggerFactory.getLogger(EventTranslatorManager.class);
+
+    /**
+     * The number of submitted changes above which the event translators are bypassed and a single
+     * bulk change event is generated instead.
+     */
+    private static final int BULK_CHANGE_THRESHOLD = 200;
+
+    /**
+     * The total size of the signatures of the submitted changes above which the event translators
+     * are bypassed.  This catches small numbers of changes that touch large numbers of entities.
+     */
+    private static final int BULK_CHANGE_SIGNATURE_THRESHOLD = 2000;
+
+    /**
+     * The number of translated events above which the events are replaced by a bulk change event
+     */
+    private static final int EVENT_LIST_SIZE_LIMIT = 200;
+
+    /**
+     * The time that the translators have to translate the applied changes before they are abandoned
+     * in favour of a bulk change event
+     */
+    private static final long TRANSLATION_TIME_BUDGET_MS = 5_000;
+
+    private final ImmutableList<EventTranslator> eventTranslators;
+
+    @Nonnull
+    private final BulkChangeEventComputer bulkChangeEventComputer;
+
+    @Nonnull
+    private final EventTranslationRunner eventTranslationRunner;
+
+    private final long translationTimeBudgetMs;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    private boolean bulkChange = false;
 
     @Inject
-    public EventTranslatorManager(Set<EventTranslator> eventTranslators) {
-        this.eventTranslators = eventTranslators;
+    public EventTranslatorManager(@Nonnull Set<EventTranslator> eventTranslators,
+                                  @Nonnull BulkChangeEventComputer bulkChangeEventComputer,
+                                  @Nonnull EventTranslationRunner eventTranslationRunner,
+                                  @Nonnull ProjectId projectId) {
+        this(eventTranslators, bulkChangeEventComputer, eventTranslationRunner, projectId, TRANSLATION_TIME_BUDGET_MS);
+    }
+
+    EventTranslatorManager(@Nonnull Collection<EventTranslator> eventTranslators,
+                           @Nonnull BulkChangeEventComputer bulkChangeEventComputer,
+                           @Nonnull EventTranslationRunner eventTranslationRunner,
+                           @Nonnull ProjectId projectId,
+                           long translationTimeBudgetMs) {
+        this.eventTranslators = ImmutableList.copyOf(eventTranslators);
+        this.bulkChangeEventComputer = checkNotNull(bulkChangeEventComputer);
+        this.eventTranslationRunner = checkNotNull(eventTranslationRunner);
+        this.projectId = checkNotNull(projectId);
+        this.translationTimeBudgetMs = translationTimeBudgetMs;
     }
 
     public void prepareForOntologyChanges(List<OntologyChange> submittedChanges) {
+        bulkChange = isBulkChange(submittedChanges);
+        if(bulkChange) {
+            logger.info("{} Generating a bulk change event for {} changes", projectId, submittedChanges.size());
+            return;
+        }
+        var tasks = new ArrayList<Callable<List<ProjectEvent<?>>>>();
         for(EventTranslator eventTranslator : eventTranslators) {
-            eventTranslator.prepareForOntologyChanges(submittedChanges);
+            tasks.add(timed(eventTranslator, "Prepared", () -> {
+                eventTranslator.prepareForOntologyChanges(submittedChanges);
+                return ImmutableList.of();
+            }));
         }
+        // Preparation reads the state of the project before the changes are applied, so we must
+        // wait for every translator to finish
+        runAll(tasks, EventTranslationRunner.NO_BUDGET);
+    }
+
+    private static boolean isBulkChange(List<OntologyChange> submittedChanges) {
+        if(submittedChanges.size() > BULK_CHANGE_THRESHOLD) {
+            return true;
+        }
+        var signatureSize = 0;
+        for(var change : submittedChanges) {
+            signatureSize += change.getSignature().size();
+            if(signatureSize > BULK_CHANGE_SIGNATURE_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void translateOntologyChanges(Revision revision, ChangeApplicationResult<?> appliedChanges, List<ProjectEvent<?>> projectEventList) {
+        if(bulkChange) {
+            bulkChangeEventComputer.translateOntologyChanges(revision, appliedChanges, projectEventList);
+            return;
+        }
+        var stopwatch = Stopwatch.createStarted();
+        var tasks = new ArrayList<Callable<List<ProjectEvent<?>>>>();
         for(EventTranslator eventTranslator : eventTranslators) {
-            eventTranslator.translateOntologyChanges(revision, appliedChanges, projectEventList);
+            tasks.add(timed(eventTranslator, "Translated", () -> {
+                var translatorEvents = new ArrayList<ProjectEvent<?>>();
+                eventTranslator.translateOntologyChanges(revision, appliedChanges, translatorEvents);
+                return translatorEvents;
+            }));
+        }
+        var results = runAll(tasks, translationTimeBudgetMs);
+        if(results == null) {
+            logger.info("{} Event translation exceeded its budget of {} ms.  Generating a bulk change event.",
+                        projectId,
+                        translationTimeBudgetMs);
+            bulkChangeEventComputer.translateOntologyChanges(revision, appliedChanges, projectEventList);
+            return;
+        }
+        var eventCount = results.stream().mapToInt(List::size).sum();
+        if(eventCount > EVENT_LIST_SIZE_LIMIT) {
+            bulkChangeEventComputer.translateOntologyChanges(revision, appliedChanges, projectEventList);
+        }
+        else {
+            results.forEach(projectEventList::addAll);
+        }
+        stopwatch.stop();
+        logger.debug("{} Translated changes into {} events in {} ms",
+                     projectId,
+                     eventCount,
+                     stopwatch.elapsed().toMillis());
+    }
+
+    private Callable<List<ProjectEvent<?>>> timed(@Nonnull EventTranslator eventTranslator,
+                                                  @Nonnull String operation,
+                                                  @Nonnull Callable<List<ProjectEvent<?>>> task) {
+        return () -> {
+            var stopwatch = Stopwatch.createStarted();
+            var events = task.call();
+            stopwatch.stop();
+            logger.debug("{}    {} changes with {} in {} ms",
+                         projectId,
+                         operation,
+                         eventTranslator.getClass().getSimpleName(),
+                         stopwatch.elapsed().toMillis());
+            return events;
+        };
+    }
+
+    /**
+     * Runs the specified tasks and gets their results in task order.  The result of a task that fails is
+     * logged and treated as empty.
+     * @param budgetMs The time within which each task must complete once it has started, or
+     *                 {@link EventTranslationRunner#NO_BUDGET}
+     * @return The results or null if a task did not complete within the budget
+     */
+    private List<List<ProjectEvent<?>>> runAll(@Nonnull List<Callable<List<ProjectEvent<?>>>> tasks,
+                                               long budgetMs) {
+        var futures = eventTranslationRunner.runAll(tasks, budgetMs);
+        if(futures.isEmpty()) {
+            return null;
+        }
+        var results = new ArrayList<List<ProjectEvent<?>>>(tasks.size());
+        for(int i = 0; i < tasks.size(); i++) {
+            results.add(getResult(eventTranslators.get(i), futures.get().get(i)));
+        }
+        return results;
+    }
+
+    private List<ProjectEvent<?>> getResult(@Nonnull EventTranslator eventTranslator,
+                                            @Nonnull Future<List<ProjectEvent<?>>> future) {
+        try {
+            // The future has already completed
+            return Futures.getDone(future);
+        } catch(ExecutionException e) {
+            logger.error("{} Error translating changes with {}: {}",
+                         projectId,
+                         eventTranslator.getClass().getSimpleName(),
+                         e.getCause().getMessage(),
+                         e.getCause());
+            return ImmutableList.of();
         }
     }
 }
@@ -2,11 +2,8 @@ package edu.stanford.bmir.protege.web.server.events;
 
 import edu.stanford.bmir.protege.web.server.change.*;
 import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriIndex;
-import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureIndex;
-import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
 import edu.stanford.bmir.protege.web.server.revision.HasGetRevisionSummary;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
-import edu.stanford.bmir.protege.web.shared.entity.OWLEntityData;
 import edu.stanford.bmir.protege.web.shared.event.*;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.semanticweb.owlapi.model.*;
@@ -31,7 +28,7 @@ public class HighLevelEventGenerator implements EventTranslator {
     private final ProjectId projectId;
 
     @Nonnull
-    private final RenderingManager renderingManager;
+    private final ChangedEntitiesDataExtractor changedEntitiesDataExtractor;
 
     @Nonnull
     private final HasGetRevisionSummary hasGetRevisionSummary;
@@ -39,20 +36,15 @@ public class HighLevelEventGenerator implements EventTranslator {
     @Nonnull
     private final EntitiesInProjectSignatureByIriIndex entitiesByIri;
 
-    @Nonnull
-    private final EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex;
-
     @Inject
     public HighLevelEventGenerator(@Nonnull ProjectId projectId,
-                                   @Nonnull RenderingManager renderingManager,
+                                   @Nonnull ChangedEntitiesDataExtractor changedEntitiesDataExtractor,
                                    @Nonnull EntitiesInProjectSignatureByIriIndex entitiesByIri,
-                                   @Nonnull HasGetRevisionSummary hasGetRevisionSummary,
-                                   @Nonnull EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex) {
+                                   @Nonnull HasGetRevisionSummary hasGetRevisionSummary) {
         this.projectId = checkNotNull(projectId);
-        this.renderingManager = checkNotNull(renderingManager);
+        this.changedEntitiesDataExtractor = checkNotNull(changedEntitiesDataExtractor);
         this.entitiesByIri = checkNotNull(entitiesByIri);
         this.hasGetRevisionSummary = checkNotNull(hasGetRevisionSummary);
-        this.entitiesInProjectSignatureIndex = checkNotNull(entitiesInProjectSignatureIndex);
     }
 
     @Override
@@ -118,29 +110,8 @@ public class HighLevelEventGenerator implements EventTranslator {
                }));
 
 
-        var changedEntitiesData = new HashSet<OWLEntityData>();
-        var subject = changes.getSubject();
-        if(subject instanceof OWLEntity) {
-            var entity = (OWLEntity) subject;
-            if(entitiesInProjectSignatureIndex.containsEntityInSignature(entity)) {
-                changedEntitiesData.add(renderingManager.getRendering(entity));
-            }
-        }
-        else if(subject instanceof OWLEntityData) {
-            var entityData = (OWLEntityData) subject;
-            if(entitiesInProjectSignatureIndex.containsEntityInSignature(entityData.getEntity())) {
-                changedEntitiesData.add(entityData);
-            }
-        }
-        else if(subject instanceof Collection) {
-            var collection = (Collection<?>) subject;
-            collection.stream()
-                      .filter(element -> element instanceof OWLEntity)
-                      .map(element -> (OWLEntity) element)
-                      .filter(entitiesInProjectSignatureIndex::containsEntityInSignature)
-                      .forEach(entity -> changedEntitiesData.add(renderingManager.getRendering(entity)));
-
-        }
+        var changedEntitiesData = changedEntitiesDataExtractor.getChangedEntitiesData(changes.getSubject(),
+                                                                                      Integer.MAX_VALUE);
         var revisionSummary = hasGetRevisionSummary.getRevisionSummary(revision.getRevisionNumber());
         if(revisionSummary.isPresent()) {
             var event = new ProjectChangedEvent(projectId, revisionSummary.get(), changedEntitiesData);
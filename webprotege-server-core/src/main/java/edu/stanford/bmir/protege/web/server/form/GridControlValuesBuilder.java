@@ -21,8 +21,10 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -126,16 +128,19 @@ public class GridControlValuesBuilder {
                                                               formFieldId,
                                                               FormPageRequest.SourceType.GRID_CONTROL);
         var comparator = comparatorFactory.get(descriptor, Optional.empty());
-
+        // Only the cells that rows are sorted or filtered on are needed for every row.  The remaining
+        // cells are only generated for the rows on the requested page.
+        var keyColumnIndexes = getKeyColumnIndexes(descriptor);
         var rowsPage = subjects.stream()
                                .map(this::toEntityFormSubject)
                                .filter(Objects::nonNull)
-                               .map(entity -> toGridRow(entity, descriptor, depth))
+                               .map(entity -> toPartialGridRow(entity, descriptor, keyColumnIndexes, depth))
                                .filter(row -> !row.containsFilteredEmptyCells())
                                .sorted(comparator)
                                .collect(PageCollector.toPage(pageRequest.getPageNumber(),
                                                              pageRequest.getPageSize()))
-                               .orElse(Page.emptyPage());
+                               .orElse(Page.emptyPage())
+                               .transform(row -> toCompleteGridRow(row, descriptor, keyColumnIndexes, depth));
         var orderings = formRegionOrderingIndex.getOrderings();
         if (orderings.isEmpty()) {
             orderings = descriptor.getColumns()
@@ -155,32 +160,89 @@ public class GridControlValuesBuilder {
     }
 
     /**
-     * Generate a row of a grid for the specified row subject
+     * Gets the indexes of the top level columns that are needed to sort and filter rows.  These are
+     * the columns that are ordered on (or the first column if there are no orderings), and the columns
+     * whose cells may be filtered empty.
+     */
+    @Nonnull
+    private Set<Integer> getKeyColumnIndexes(@Nonnull GridControlDescriptor descriptor) {
+        var keyColumnIndexes = new HashSet<Integer>();
+        keyColumnIndexes.add(0);
+        var leafColumnToTopLevelColumnMap = descriptor.getLeafColumnToTopLevelColumnMap();
+        formRegionOrderingIndex.getOrderings()
+                               .stream()
+                               .map(FormRegionOrdering::getRegionId)
+                               .filter(GridColumnId.class::isInstance)
+                               .map(GridColumnId.class::cast)
+                               .map(leafColumnToTopLevelColumnMap::get)
+                               .filter(Objects::nonNull)
+                               .map(descriptor::getColumnIndex)
+                               .filter(columnIndex -> columnIndex != -1)
+                               .forEach(keyColumnIndexes::add);
+        var columns = descriptor.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            var combinedFilterState = getCombinedFilterState(getFilterState(columns.get(i)));
+            if (combinedFilterState.equals(FilterState.FILTERED)) {
+                keyColumnIndexes.add(i);
+            }
+        }
+        return keyColumnIndexes;
+    }
+
+    /**
+     * Generate a row of a grid for the specified row subject that only contains the cells for the specified
+     * key columns.  Other cells are empty and unfiltered.
      *
      * @param rowSubject            The row subject
      * @param gridControlDescriptor The grid control descriptor
-     * @return null if there is no row for the specified subject (because it is filtered out)
+     * @param keyColumnIndexes      The indexes of the columns whose cells should be generated
      */
     @Nonnull
-    private GridRowDataDto toGridRow(OWLEntityData rowSubject,
-                                     GridControlDescriptor gridControlDescriptor,
-                                     int depth) {
+    private GridRowDataDto toPartialGridRow(OWLEntityData rowSubject,
+                                            GridControlDescriptor gridControlDescriptor,
+                                            Set<Integer> keyColumnIndexes,
+                                            int depth) {
         var columnDescriptors = gridControlDescriptor.getColumns();
         var formSubject = FormEntitySubjectDto.get(rowSubject);
-        // To Cells
-        var cellData = toGridRowCells(rowSubject,
-                                      columnDescriptors,
-                                      depth);
-        return GridRowDataDto.get(formSubject, cellData);
+        var cellData = ImmutableList.<GridCellDataDto>builder();
+        for (int i = 0; i < columnDescriptors.size(); i++) {
+            var columnDescriptor = columnDescriptors.get(i);
+            if (keyColumnIndexes.contains(i)) {
+                cellData.add(toGridCellData(rowSubject, depth, columnDescriptor));
+            }
+            else {
+                cellData.add(GridCellDataDto.get(columnDescriptor.getId(), Page.emptyPage(), FilterState.UNFILTERED));
+            }
+        }
+        return GridRowDataDto.get(formSubject, cellData.build());
     }
 
+    /**
+     * Generates the cells of the non-key columns for a row that was generated by
+     * {@link #toPartialGridRow(OWLEntityData, GridControlDescriptor, Set, int)}
+     */
     @Nonnull
-    private ImmutableList<GridCellDataDto> toGridRowCells(OWLEntityData rowSubject,
-                                                          @Nonnull ImmutableList<GridColumnDescriptor> columnDescriptors,
-                                                          int depth) {
-        return columnDescriptors.stream()
-                                .map(cd -> toGridCellData(rowSubject, depth, cd))
-                                .collect(toImmutableList());
+    private GridRowDataDto toCompleteGridRow(GridRowDataDto partialRow,
+                                             GridControlDescriptor gridControlDescriptor,
+                                             Set<Integer> keyColumnIndexes,
+                                             int depth) {
+        var columnDescriptors = gridControlDescriptor.getColumns();
+        if (keyColumnIndexes.size() == columnDescriptors.size()) {
+            return partialRow;
+        }
+        var formSubject = (FormEntitySubjectDto) partialRow.getSubject().orElseThrow();
+        var rowSubject = formSubject.getEntityData();
+        var partialCells = partialRow.getCells();
+        var cellData = ImmutableList.<GridCellDataDto>builder();
+        for (int i = 0; i < columnDescriptors.size(); i++) {
+            if (keyColumnIndexes.contains(i)) {
+                cellData.add(partialCells.get(i));
+            }
+            else {
+                cellData.add(toGridCellData(rowSubject, depth, columnDescriptors.get(i)));
+            }
+        }
+        return GridRowDataDto.get(formSubject, cellData.build());
     }
 
     private GridCellDataDto toGridCellData(OWLEntityData rowSubject, int depth, GridColumnDescriptor columnDescriptor) {
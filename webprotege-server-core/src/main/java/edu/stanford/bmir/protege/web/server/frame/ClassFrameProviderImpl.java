@@ -8,6 +8,10 @@ import org.semanticweb.owlapi.model.OWLClass;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.shared.frame.ClassFrameTranslationOptions.AncestorsTreatment.EXCLUDE_ANCESTORS;
+import static edu.stanford.bmir.protege.web.shared.frame.RelationshipTranslationOptions.RelationshipMinification.NON_MINIMIZED_RELATIONSHIPS;
+
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
@@ -18,16 +22,27 @@ public class ClassFrameProviderImpl implements ClassFrameProvider {
     @Nonnull
     private final Class2ClassFrameTranslatorFactory translatorFactory;
 
+    @Nonnull
+    private final FrameCache frameCache;
+
     @Inject
-    public ClassFrameProviderImpl(@Nonnull Class2ClassFrameTranslatorFactory classFrameTranslatorFactory) {
+    public ClassFrameProviderImpl(@Nonnull Class2ClassFrameTranslatorFactory classFrameTranslatorFactory,
+                                  @Nonnull FrameCache frameCache) {
         this.translatorFactory = classFrameTranslatorFactory;
+        this.frameCache = checkNotNull(frameCache);
     }
 
     @Nonnull
     @Override
     public PlainClassFrame getFrame(@Nonnull OWLClass subject,
                                     @Nonnull ClassFrameTranslationOptions options) {
-        var translator = translatorFactory.create(options);
-        return translator.getFrame(subject);
+        // Frames that include ancestors or minimized relationships depend upon the class hierarchy
+        var dependsOnlyOnSubject = options.getAncestorsTreatment() == EXCLUDE_ANCESTORS
+                && options.getRelationshipTranslationOptions()
+                          .getRelationshipMinification() == NON_MINIMIZED_RELATIONSHIPS;
+        return frameCache.getFrame(subject, options, dependsOnlyOnSubject, () -> {
+            var translator = translatorFactory.create(options);
+            return translator.getFrame(subject);
+        });
     }
 }
@@ -0,0 +1,231 @@
+package edu.stanford.bmir.protege.web.server.frame;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.change.HasGetChangeSubjects;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * A per-project cache of plain frames keyed by subject and translation options.  Each cached frame records the
+ * entities that it depends upon.  When changes are applied to the project, frames whose dependencies are
+ * mentioned by the changes are removed.  Frames that depend upon more than their recorded dependencies, for
+ * example frames that include ancestors or minimized property values, are removed whenever the axioms in the
+ * project change.
+ * </p>
+ */
+@ProjectSingleton
+public class FrameCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FrameCache.class);
+
+    private static final int MAXIMUM_SIZE = 5000;
+
+    @Nonnull
+    private final HasGetChangeSubjects changeSubjectsProvider;
+
+    private final Cache<Key, CachedFrame> cache = CacheBuilder.newBuilder()
+                                                              .maximumSize(MAXIMUM_SIZE)
+                                                              .recordStats()
+                                                              .build();
+
+    private final Object generationLock = new Object();
+
+    /**
+     * Incremented each time changes are handled.  A frame is only cached if no changes were handled while it
+     * was being computed.
+     */
+    private long generation = 0;
+
+    @Inject
+    public FrameCache(@Nonnull HasGetChangeSubjects changeSubjectsProvider) {
+        this.changeSubjectsProvider = checkNotNull(changeSubjectsProvider);
+    }
+
+    /**
+     * Gets a frame, computing it and caching it if necessary.
+     * @param subject The frame subject
+     * @param options The options used to compute the frame.  These must implement equals and hashCode.
+     * @param dependsOnlyOnSubject true if the frame depends only upon the axioms about its subject and the
+     *                             additional dependencies, otherwise false.
+     * @param frameSupplier A supplier that computes the frame.
+     * @param additionalDependencies A function that extracts the additional entities that the frame depends upon
+     *                               from the computed frame.
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public <F> F getFrame(@Nonnull OWLEntity subject,
+                          @Nonnull Object options,
+                          boolean dependsOnlyOnSubject,
+                          @Nonnull Supplier<F> frameSupplier,
+                          @Nonnull Function<F, Stream<? extends OWLEntity>> additionalDependencies) {
+        var key = new Key(subject, options);
+        var cached = cache.getIfPresent(key);
+        if(cached != null) {
+            return (F) cached.getFrame();
+        }
+        long startGeneration;
+        synchronized (generationLock) {
+            startGeneration = generation;
+        }
+        var frame = frameSupplier.get();
+        var dependencies = Stream.concat(Stream.of(subject), additionalDependencies.apply(frame))
+                                 .map(OWLEntity::getIRI)
+                                 .collect(ImmutableSet.toImmutableSet());
+        synchronized (generationLock) {
+            if(startGeneration == generation) {
+                cache.put(key, new CachedFrame(frame, dependencies, dependsOnlyOnSubject));
+            }
+        }
+        return frame;
+    }
+
+    @Nonnull
+    public <F> F getFrame(@Nonnull OWLEntity subject,
+                          @Nonnull Object options,
+                          boolean dependsOnlyOnSubject,
+                          @Nonnull Supplier<F> frameSupplier) {
+        return getFrame(subject, options, dependsOnlyOnSubject, frameSupplier, frame -> Stream.empty());
+    }
+
+    /**
+     * Removes the frames that are affected by the specified changes.  This should be called after the
+     * indexes and hierarchies have been updated.
+     */
+    public void handleChanges(@Nonnull List<OntologyChange> changes) {
+        var affectedIris = new HashSet<IRI>();
+        var axiomsChanged = false;
+        var nonAxiomChanges = false;
+        for(var change : changes) {
+            if(change.isAxiomChange()) {
+                axiomsChanged = true;
+                var axiom = change.getAxiomOrThrow();
+                if(axiom instanceof OWLAnnotationAssertionAxiom) {
+                    var subject = ((OWLAnnotationAssertionAxiom) axiom).getSubject();
+                    if(subject instanceof IRI) {
+                        affectedIris.add((IRI) subject);
+                    }
+                }
+            }
+            else {
+                nonAxiomChanges = true;
+            }
+            change.getSignature().forEach(entity -> affectedIris.add(entity.getIRI()));
+            changeSubjectsProvider.getChangeSubjects(change).forEach(entity -> affectedIris.add(entity.getIRI()));
+        }
+        var clearAll = nonAxiomChanges;
+        var clearNonLocal = axiomsChanged;
+        synchronized (generationLock) {
+            generation++;
+            if(clearAll) {
+                cache.invalidateAll();
+            }
+            else {
+                cache.asMap()
+                     .values()
+                     .removeIf(cachedFrame -> (clearNonLocal && !cachedFrame.isDependsOnlyOnSubject())
+                             || cachedFrame.isAffectedBy(affectedIris));
+            }
+        }
+        if(logger.isDebugEnabled()) {
+            var stats = getStats();
+            logger.debug("Frame cache: {} frames, hit rate {}, {} hits, {} misses",
+                         cache.size(),
+                         String.format("%.2f", stats.hitRate()),
+                         stats.hitCount(),
+                         stats.missCount());
+        }
+    }
+
+    /**
+     * Gets the hit and miss statistics for this cache.
+     */
+    @Nonnull
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    private static final class Key {
+
+        private final OWLEntity subject;
+
+        private final Object options;
+
+        private Key(@Nonnull OWLEntity subject, @Nonnull Object options) {
+            this.subject = checkNotNull(subject);
+            this.options = checkNotNull(options);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return subject.equals(other.subject) && options.equals(other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subject, options);
+        }
+    }
+
+    private static final class CachedFrame {
+
+        private final Object frame;
+
+        private final Set<IRI> dependencies;
+
+        private final boolean dependsOnlyOnSubject;
+
+        private CachedFrame(@Nonnull Object frame,
+                            @Nonnull Set<IRI> dependencies,
+                            boolean dependsOnlyOnSubject) {
+            this.frame = frame;
+            this.dependencies = dependencies;
+            this.dependsOnlyOnSubject = dependsOnlyOnSubject;
+        }
+
+        private Object getFrame() {
+            return frame;
+        }
+
+        private boolean isDependsOnlyOnSubject() {
+            return dependsOnlyOnSubject;
+        }
+
+        private boolean isAffectedBy(@Nonnull Set<IRI> affectedIris) {
+            for(var dependency : dependencies) {
+                if(affectedIris.contains(dependency)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
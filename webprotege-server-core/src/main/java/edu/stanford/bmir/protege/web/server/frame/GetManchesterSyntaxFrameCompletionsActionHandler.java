@@ -11,7 +11,7 @@ import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
 import edu.stanford.bmir.protege.web.server.mansyntax.ManchesterSyntaxFrameParser;
 import edu.stanford.bmir.protege.web.server.renderer.ManchesterSyntaxKeywords;
-import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
+import edu.stanford.bmir.protege.web.server.shortform.ShortFormPrefixIndex;
 import edu.stanford.bmir.protege.web.server.shortform.WebProtegeOntologyIRIShortFormProvider;
 import edu.stanford.bmir.protege.web.shared.frame.GetManchesterSyntaxFrameCompletionsAction;
 import edu.stanford.bmir.protege.web.shared.frame.GetManchesterSyntaxFrameCompletionsResult;
@@ -27,9 +27,7 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import java.util.*;
 
-import static edu.stanford.bmir.protege.web.server.shortform.SearchString.parseSearchString;
 import static edu.stanford.bmir.protege.web.server.shortform.ShortFormQuotingUtils.getQuotedShortForm;
-import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
 
@@ -48,7 +46,7 @@ public class GetManchesterSyntaxFrameCompletionsActionHandler
     private final ManchesterSyntaxKeywords syntaxStyles = new ManchesterSyntaxKeywords();
 
     @Nonnull
-    private final DictionaryManager dictionaryManager;
+    private final ShortFormPrefixIndex shortFormPrefixIndex;
 
     @Nonnull
     private final WebProtegeOntologyIRIShortFormProvider ontologyIRIShortFormProvider;
@@ -59,12 +57,12 @@ public class GetManchesterSyntaxFrameCompletionsActionHandler
     @Inject
     public GetManchesterSyntaxFrameCompletionsActionHandler(@Nonnull AccessManager accessManager,
                                                             @Nonnull ProjectOntologiesIndex projectOntologiesIndex,
-                                                            @Nonnull DictionaryManager dictionaryManager,
+                                                            @Nonnull ShortFormPrefixIndex shortFormPrefixIndex,
                                                             @Nonnull WebProtegeOntologyIRIShortFormProvider ontologyIRIShortFormProvider,
                                                             @Nonnull Provider<ManchesterSyntaxFrameParser> manchesterSyntaxFrameParserProvider) {
         super(accessManager);
         this.projectOntologiesIndex = projectOntologiesIndex;
-        this.dictionaryManager = dictionaryManager;
+        this.shortFormPrefixIndex = shortFormPrefixIndex;
         this.ontologyIRIShortFormProvider = ontologyIRIShortFormProvider;
         this.manchesterSyntaxFrameParserProvider = manchesterSyntaxFrameParserProvider;
     }
@@ -125,35 +123,28 @@ public class GetManchesterSyntaxFrameCompletionsActionHandler
         EntityNameMatcher entityNameMatcher = new EntityNameMatcher(lastWordPrefix);
 
         Set<OWLEntity> candidateEntities = new HashSet<>();
-        throw new RuntimeException();
-//        return dictionaryManager.getShortFormsContaining(singletonList(parseSearchString(lastWordPrefix)),
-//                                                         expectedEntityTypes)
-//                                // Don't show duplicate entities with different short forms.
-//                                .filter(match -> !candidateEntities.contains(match.getEntity()))
-//                                .peek(match -> candidateEntities.add(match.getEntity()))
-//                                // This is a bit arbitrary - however, the user will need to type more characters
-//                                // to find the match they want in any case, because we only display around 20
-//                                // choices in the auto completer box.  Note that we will process up to this
-//                                // limit as we perform a sort further down in this pipeline.
-//                                .limit(SEARCH_LIMIT)
-//                                // Map to an AutoCompletionChoice because this allows proper sorting for
-//                                // better results
-//                                .map(match -> {
-//                                    String shortForm = match.getShortForm();
-//                                    Optional<EntityNameMatchResult> matchResult = entityNameMatcher.findIn(shortForm);
-//                                    return matchResult.map(mr -> {
-//                                        String quotedShortForm = getQuotedShortForm(shortForm);
-//                                        AutoCompletionChoice choice = new AutoCompletionChoice(quotedShortForm,
-//                                                                                               shortForm, "",
-//                                                                                               fromPos, toPos);
-//                                        return new AutoCompletionMatch(matchResult.get(), choice);
-//                                    }).orElse(null);
-//                                })
-//                                .filter(Objects::nonNull)
-//                                .sorted()
-//                                .limit(action.getEntityTypeSuggestLimit())
-//                                .map(AutoCompletionMatch::getAutoCompletionChoice)
-//                                .collect(toList());
+        return shortFormPrefixIndex.getShortFormsWithPrefix(lastWordPrefix, expectedEntityTypes, SEARCH_LIMIT)
+                                   .stream()
+                                   // Don't show duplicate entities with different short forms.
+                                   .filter(match -> candidateEntities.add(match.getEntity()))
+                                   // Map to an AutoCompletionChoice because this allows proper sorting for
+                                   // better results
+                                   .map(match -> {
+                                       String shortForm = match.getShortForm();
+                                       Optional<EntityNameMatchResult> matchResult = entityNameMatcher.findIn(shortForm);
+                                       return matchResult.map(mr -> {
+                                           String quotedShortForm = getQuotedShortForm(shortForm);
+                                           AutoCompletionChoice choice = new AutoCompletionChoice(quotedShortForm,
+                                                                                                  shortForm, "",
+                                                                                                  fromPos, toPos);
+                                           return new AutoCompletionMatch(mr, choice);
+                                       }).orElse(null);
+                                   })
+                                   .filter(Objects::nonNull)
+                                   .sorted()
+                                   .limit(action.getEntityTypeSuggestLimit())
+                                   .map(AutoCompletionMatch::getAutoCompletionChoice)
+                                   .collect(toList());
     }
 
     private List<AutoCompletionChoice> getNameOntologyAutocompletionChoices(ParserException e,
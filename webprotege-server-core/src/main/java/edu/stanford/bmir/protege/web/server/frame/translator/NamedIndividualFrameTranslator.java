@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.server.frame.translator;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
 import edu.stanford.bmir.protege.web.server.frame.ClassFrameProvider;
+import edu.stanford.bmir.protege.web.server.frame.FrameCache;
 import edu.stanford.bmir.protege.web.server.frame.Mode;
 import edu.stanford.bmir.protege.web.server.frame.PropertyValueMinimiser;
 import edu.stanford.bmir.protege.web.server.index.*;
@@ -13,6 +14,7 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -46,6 +48,9 @@ public class NamedIndividualFrameTranslator {
     @Nonnull
     private final OWLDataFactory dataFactory;
 
+    @Nonnull
+    private final FrameCache frameCache;
+
     private boolean minimizePropertyValues = false;
 
     @Inject
@@ -54,24 +59,32 @@ public class NamedIndividualFrameTranslator {
                                           @Nonnull ClassFrameProvider classFrameProvider,
                                           @Nonnull Provider<AxiomPropertyValueTranslator> axiomPropertyValueTranslatorProvider,
                                           @Nonnull PropertyValue2AxiomTranslator propertyValue2AxiomTranslator,
-                                          @Nonnull OWLDataFactory dataFactory) {
+                                          @Nonnull OWLDataFactory dataFactory,
+                                          @Nonnull FrameCache frameCache) {
         this.namedIndividualFrameAxiomIndex = namedIndividualFrameAxiomIndex;
         this.propertyValueMinimiser = checkNotNull(propertyValueMinimiser);
         this.axiomPropertyValueTranslatorProvider = checkNotNull(axiomPropertyValueTranslatorProvider);
         this.classFrameProvider = checkNotNull(classFrameProvider);
         this.propertyValue2AxiomTranslator = checkNotNull(propertyValue2AxiomTranslator);
         this.dataFactory = checkNotNull(dataFactory);
+        this.frameCache = checkNotNull(frameCache);
     }
 
     @Nonnull
     public PlainNamedIndividualFrame getFrame(@Nonnull OWLNamedIndividual subject) {
-        return translateToNamedIndividualFrame(subject, true);
+        return getFrame(subject, true);
     }
 
     @Nonnull
     public PlainNamedIndividualFrame getFrame(@Nonnull OWLNamedIndividual subject,
                                          boolean includeDerivedInformation) {
-        return translateToNamedIndividualFrame(subject, includeDerivedInformation);
+        var minimize = minimizePropertyValues;
+        // Derived information comes from the frames of the types.  Minimization depends upon the hierarchies.
+        return frameCache.getFrame(subject,
+                                   List.of(includeDerivedInformation, minimize),
+                                   !minimize,
+                                   () -> translateToNamedIndividualFrame(subject, includeDerivedInformation, minimize),
+                                   frame -> includeDerivedInformation ? frame.getParents().stream() : Stream.empty());
     }
 
     public void setMinimizePropertyValues(boolean mimimizePropertyValues) {
@@ -79,7 +92,8 @@ public class NamedIndividualFrameTranslator {
     }
 
     private PlainNamedIndividualFrame translateToNamedIndividualFrame(OWLNamedIndividual subjectindividual,
-                                                                 boolean includeDerived) {
+                                                                 boolean includeDerived,
+                                                                 boolean minimize) {
 
         var relevantAxioms = namedIndividualFrameAxiomIndex.getNamedIndividualFrameAxioms(subjectindividual);
 
@@ -121,7 +135,7 @@ public class NamedIndividualFrameTranslator {
                 .collect(toImmutableList());
 
         var propertyValuesMin = ImmutableSet.copyOf(propertyValues);
-        if(minimizePropertyValues) {
+        if(minimize) {
             propertyValuesMin = propertyValueMinimiser.minimisePropertyValues(propertyValues)
                                                       .collect(toImmutableSet());
         }
@@ -8,7 +8,6 @@ import edu.stanford.bmir.protege.web.server.owlapi.ProjectAnnotationAssertionAxi
 import edu.stanford.bmir.protege.web.server.project.DefaultOntologyIdManager;
 import edu.stanford.bmir.protege.web.server.project.DefaultOntologyIdManagerImpl;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
-import edu.stanford.bmir.protege.web.server.shortform.DeprecatedEntitiesByEntityIndexLuceneImpl;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 
 import javax.annotation.Nonnull;
@@ -112,7 +111,7 @@ public class IndexModule {
     }
 
     @Provides
-    DeprecatedEntitiesByEntityIndex provideDeprecatedEntitiesByEntityIndex(DeprecatedEntitiesByEntityIndexLuceneImpl impl) {
+    DeprecatedEntitiesByEntityIndex provideDeprecatedEntitiesByEntityIndex(DeprecatedEntitiesByEntityIndexImpl impl) {
         return impl;
     }
 
@@ -154,6 +153,18 @@ public class IndexModule {
         return impl;
     }
 
+    @Provides
+    EntitiesInProjectSignatureByIriPrefixIndex provideEntitiesInProjectSignatureByIriPrefixIndex(
+            ProjectSignatureIndexImpl impl) {
+        return impl;
+    }
+
+    @Provides
+    @IntoSet
+    public UpdatableIndex provideProjectSignatureIndexImplIntoSet(ProjectSignatureIndexImpl impl) {
+        return impl;
+    }
+
     @Provides
     EntitiesInProjectSignatureIndex provideEntitiesInProjectSignatureIndexImpl(EntitiesInProjectSignatureIndexImpl impl) {
         return impl;
@@ -370,6 +381,12 @@ public class IndexModule {
         return impl;
     }
 
+    @Provides
+    @IntoSet
+    public UpdatableIndex provideDeprecatedEntitiesByEntityIndexImplIntoSet(DeprecatedEntitiesByEntityIndexImpl impl) {
+        return impl;
+    }
+
     @Provides
     @IntoSet
     public UpdatableIndex provideDifferentIndividualsAxiomsIndexImplIntoSet(DifferentIndividualsAxiomsIndexImpl impl) {
@@ -1,16 +1,18 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
-import edu.stanford.bmir.protege.web.server.index.*;
-import edu.stanford.bmir.protege.web.server.shortform.LuceneIndex;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import edu.stanford.bmir.protege.web.server.change.AxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.index.DeprecatedEntitiesByEntityIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
-import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.Collection;
-import java.util.List;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -18,35 +20,54 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 2019-08-15
+ * <p>
+ * An in-memory index of deprecated entities.  The index counts, for each IRI, the number of
+ * owl:deprecated "true" annotation assertions that have the IRI as their subject across all
+ * project ontologies.  An entity is deprecated if its IRI has a non-zero count, so lookups
+ * are a single hash probe.
+ * </p>
  */
 @ProjectSingleton
-public class DeprecatedEntitiesByEntityIndexImpl implements DeprecatedEntitiesByEntityIndex, DependentIndex {
+public class DeprecatedEntitiesByEntityIndexImpl implements DeprecatedEntitiesByEntityIndex, UpdatableIndex {
 
-    @Nonnull
-    private final ProjectOntologiesIndex projectOntologiesIndex;
+    private final AxiomChangeHandler axiomChangeHandler = new AxiomChangeHandler();
 
-    @Nonnull
-    private final AnnotationAssertionAxiomsBySubjectIndex annotationAssertionsIndex;
+    private final Multiset<IRI> deprecatedIris = ConcurrentHashMultiset.create();
 
     @Inject
-    public DeprecatedEntitiesByEntityIndexImpl(@Nonnull ProjectOntologiesIndex projectOntologiesIndex,
-                                               @Nonnull AnnotationAssertionAxiomsBySubjectIndex annotationAssertionsIndex) {
-        this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
-        this.annotationAssertionsIndex = checkNotNull(annotationAssertionsIndex);
+    public DeprecatedEntitiesByEntityIndexImpl() {
+        axiomChangeHandler.setAxiomChangeConsumer(this::handleAxiomChange);
     }
 
-
-    @Nonnull
     @Override
-    public Collection<Index> getDependencies() {
-        return List.of(projectOntologiesIndex, annotationAssertionsIndex);
+    public boolean isDeprecated(@Nonnull OWLEntity entity) {
+        checkNotNull(entity);
+        return deprecatedIris.contains(entity.getIRI());
     }
 
     @Override
-    public boolean isDeprecated(@Nonnull OWLEntity entity) {
-        return projectOntologiesIndex
-                .getOntologyIds()
-                .flatMap(ontId -> annotationAssertionsIndex.getAxiomsForSubject(entity.getIRI(), ontId))
-                .anyMatch(OWLAnnotationAssertionAxiom::isDeprecatedIRIAssertion);
+    public synchronized void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
+        axiomChangeHandler.handleOntologyChanges(changes);
+    }
+
+    private void handleAxiomChange(@Nonnull AxiomChange change) {
+        var axiom = change.getAxiom();
+        if(!(axiom instanceof OWLAnnotationAssertionAxiom)) {
+            return;
+        }
+        var annotationAssertion = (OWLAnnotationAssertionAxiom) axiom;
+        if(!annotationAssertion.isDeprecatedIRIAssertion()) {
+            return;
+        }
+        var subject = annotationAssertion.getSubject();
+        if(!(subject instanceof IRI)) {
+            return;
+        }
+        if(change.isAddAxiom()) {
+            deprecatedIris.add((IRI) subject);
+        }
+        else {
+            deprecatedIris.remove(subject);
+        }
     }
 }
@@ -3,12 +3,12 @@ package edu.stanford.bmir.protege.web.server.index.impl;
 import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
 import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProviderImpl;
 import edu.stanford.bmir.protege.web.server.index.*;
-import edu.stanford.bmir.protege.web.server.individuals.IndividualRendering;
+import edu.stanford.bmir.protege.web.server.individuals.RenderingOrderedIndividuals;
+import edu.stanford.bmir.protege.web.server.individuals.RenderingOrderedIndividualsIndex;
 import edu.stanford.bmir.protege.web.server.index.IndividualsQueryResult;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
 import edu.stanford.bmir.protege.web.server.shortform.Scanner;
 import edu.stanford.bmir.protege.web.server.shortform.SearchString;
-import edu.stanford.bmir.protege.web.server.util.Counter;
 import edu.stanford.bmir.protege.web.shared.DataFactory;
 import edu.stanford.bmir.protege.web.shared.individuals.InstanceRetrievalMode;
 import edu.stanford.bmir.protege.web.shared.pagination.Page;
@@ -27,7 +27,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.server.pagination.PageCollector.toPage;
 import static edu.stanford.bmir.protege.web.shared.individuals.InstanceRetrievalMode.ALL_INSTANCES;
 import static edu.stanford.bmir.protege.web.shared.individuals.InstanceRetrievalMode.DIRECT_INSTANCES;
-import static java.util.stream.Collectors.toList;
 
 /**
  * Matthew Horridge
@@ -54,19 +53,24 @@ public class IndividualsIndexImpl implements IndividualsIndex, DependentIndex {
     @Nonnull
     private final IndividualsByTypeIndex individualsByTypeIndex;
 
+    @Nonnull
+    private final RenderingOrderedIndividualsIndex renderingOrderedIndividualsIndex;
+
     @Inject
     public IndividualsIndexImpl(@Nonnull ProjectOntologiesIndex projectOntologiesIndex,
                                 @Nonnull ClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividual,
                                 @Nonnull DictionaryManager dictionaryManager,
                                 @Nonnull ClassHierarchyProvider classHierarchyProvider,
                                 @Nonnull OWLDataFactory dataFactory,
-                                @Nonnull IndividualsByTypeIndex individualsByTypeIndex) {
+                                @Nonnull IndividualsByTypeIndex individualsByTypeIndex,
+                                @Nonnull RenderingOrderedIndividualsIndex renderingOrderedIndividualsIndex) {
         this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
         this.classAssertionAxiomsByIndividual = checkNotNull(classAssertionAxiomsByIndividual);
         this.dictionaryManager = checkNotNull(dictionaryManager);
         this.classHierarchyProvider = checkNotNull(classHierarchyProvider);
         this.dataFactory = checkNotNull(dataFactory);
         this.individualsByTypeIndex = checkNotNull(individualsByTypeIndex);
+        this.renderingOrderedIndividualsIndex = checkNotNull(renderingOrderedIndividualsIndex);
     }
 
     @Nonnull
@@ -92,37 +96,30 @@ public class IndividualsIndexImpl implements IndividualsIndex, DependentIndex {
                                                  @Nonnull String search,
                                                  @Nonnull PageRequest pageRequest) {
         List<SearchString> searchStrings = SearchString.parseMultiWordSearchString(search);
-        Counter counter = new Counter();
-        Optional<Page<OWLNamedIndividual>> page = getIndividualsMatching(type, mode)
-                .peek(ind -> counter.increment())
-                .filter(ind -> matchesSearchStrings(ind, searchStrings))
-                .map(this::toIndividualRendering)
-                .sorted()
-                .map(IndividualRendering::getIndividual)
-                .collect(toPage(pageRequest.getPageNumber(),
-                                pageRequest.getPageSize()));
-
-        return IndividualsQueryResult.get(page.orElse(Page.emptyPage()),
-                                          counter.getCounter(),
-                                          type,
-                                          mode);
-    }
-
-    /**
-     * Returns a stream of distinct individuals that match the specified parameters.
-     */
-    private Stream<OWLNamedIndividual> getIndividualsMatching(@Nonnull OWLClass type,
-                                                              @Nonnull InstanceRetrievalMode mode) {
-        return individualsByTypeIndex.getIndividualsByType(type, mode);
+        return renderingOrderedIndividualsIndex.getOrderedIndividuals(type, mode, individuals -> {
+            Optional<Page<OWLNamedIndividual>> page;
+            if(searchStrings.isEmpty()) {
+                // The individuals are already in order so the page can be retrieved directly
+                page = individuals.getPage(pageRequest.getPageNumber(),
+                                           pageRequest.getPageSize());
+            }
+            else {
+                page = individuals.getEntries()
+                                  .filter(entry -> matchesSearchStrings(entry, searchStrings))
+                                  .map(RenderingOrderedIndividuals.Entry::getIndividual)
+                                  .collect(toPage(pageRequest.getPageNumber(),
+                                                  pageRequest.getPageSize()));
+            }
+            return IndividualsQueryResult.get(page.orElse(Page.emptyPage()),
+                                              individuals.size(),
+                                              type,
+                                              mode);
+        });
     }
 
-    private boolean matchesSearchStrings(@Nonnull OWLNamedIndividual i,
-                                         @Nonnull List<SearchString> searchStrings) {
-        if(searchStrings.isEmpty()) {
-            return true;
-        }
-        String shortForm = dictionaryManager.getShortForm(i);
-        Scanner scanner = new Scanner(shortForm, shortForm.toLowerCase());
+    private static boolean matchesSearchStrings(@Nonnull RenderingOrderedIndividuals.Entry entry,
+                                                @Nonnull List<SearchString> searchStrings) {
+        Scanner scanner = new Scanner(entry.getShortForm(), entry.getLowerCaseShortForm());
         for(SearchString searchString : searchStrings) {
             int index = scanner.indexOf(searchString, 0);
             if(index == -1) {
@@ -132,12 +129,6 @@ public class IndividualsIndexImpl implements IndividualsIndex, DependentIndex {
         return true;
     }
 
-    private IndividualRendering toIndividualRendering(OWLNamedIndividual ind) {
-        return new IndividualRendering(ind,
-                                       dictionaryManager.getShortForm(ind)
-                                                        .toLowerCase());
-    }
-
     @Nonnull
     @Override
     public IndividualsQueryResult getIndividualsPageContaining(@Nonnull OWLNamedIndividual individual,
@@ -206,27 +197,22 @@ public class IndividualsIndexImpl implements IndividualsIndex, DependentIndex {
             }
         }
 
-        List<OWLNamedIndividual> individuals = getIndividualsMatching(actualType, actualMode).collect(toList());
-        int individualIndex = individuals.indexOf(individual);
-        Page<OWLNamedIndividual> page;
-        if(individualIndex == -1) {
-            page = Page.emptyPage();
-        }
-        else {
-            int pageNumber = (individualIndex / pageSize) + 1;
-            int pageCount = (individuals.size() / pageSize) + 1;
-            int pageStartIndex = (individualIndex / pageSize) * pageSize;
-            int pageEndIndex = Math.min(pageStartIndex + pageSize, individuals.size());
-            page = new Page<>(pageNumber,
-                              pageCount,
-                              individuals.subList(pageStartIndex,
-                                                  pageEndIndex),
-                              individuals.size());
-        }
-        return IndividualsQueryResult.get(page,
-                                          individuals.size(),
-                                          actualType,
-                                          actualMode);
+        OWLClass theActualType = actualType;
+        return renderingOrderedIndividualsIndex.getOrderedIndividuals(actualType, actualMode, individuals -> {
+            int individualIndex = individuals.indexOf(individual);
+            Page<OWLNamedIndividual> page;
+            if(individualIndex == -1) {
+                page = Page.emptyPage();
+            }
+            else {
+                int pageNumber = (individualIndex / pageSize) + 1;
+                page = individuals.getPage(pageNumber, pageSize).orElse(Page.emptyPage());
+            }
+            return IndividualsQueryResult.get(page,
+                                              individuals.size(),
+                                              theActualType,
+                                              actualMode);
+        });
     }
 
     @Nonnull
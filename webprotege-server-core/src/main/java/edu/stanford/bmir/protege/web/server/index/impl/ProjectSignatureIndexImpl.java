@@ -1,13 +1,22 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
-import edu.stanford.bmir.protege.web.server.index.*;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriPrefixIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
-import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.*;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -16,33 +25,164 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 2019-08-15
+ * <p>
+ * Maintains the project signature incrementally.  For each IRI, the number of axioms, in any of the project
+ * ontologies, that reference the IRI is counted for each entity type, and an entity leaves the signature when
+ * its count drops to zero.  This single structure answers full signature reads, membership tests and IRI prefix
+ * queries.  It is held in IRI order so that prefix queries only visit the entities that match, and it is keyed
+ * on the IRI objects themselves, which share their namespace strings with the IRIs held by the axioms.
+ * </p>
+ * <p>
+ * Changes are applied one entry at a time, so no snapshot of the signature has to be rebuilt after an edit.
+ * Readers do not take a lock.  They see each IRI either before or after a change is applied to it.
+ * </p>
  */
 @ProjectSingleton
-public class ProjectSignatureIndexImpl implements ProjectSignatureIndex, DependentIndex {
+public class ProjectSignatureIndexImpl implements ProjectSignatureIndex, EntitiesInProjectSignatureByIriPrefixIndex, UpdatableIndex {
 
-    @Nonnull
-    private final ProjectOntologiesIndex projectOntologiesIndex;
+    private static final List<EntityType<?>> ENTITY_TYPES = EntityType.values();
+
+    private final Lock writeLock = new ReentrantLock();
+
+    private final AxiomChangeHandler axiomChangeHandler = new AxiomChangeHandler();
+
+    /**
+     * Maps IRIs to reference counts, which are indexed by the position of the entity type in ENTITY_TYPES.
+     * The count arrays are never modified once they are in the map.  They are replaced instead, so that
+     * readers never see a partially applied change.
+     */
+    private final ConcurrentNavigableMap<IRI, int[]> referenceCounts = new ConcurrentSkipListMap<>(CharSequence::compare);
+
+    private volatile int signatureSize = 0;
 
     @Nonnull
-    private final OntologySignatureIndex ontologySignatureIndex;
+    private final OWLEntityProvider entityProvider;
 
     @Inject
-    public ProjectSignatureIndexImpl(@Nonnull ProjectOntologiesIndex projectOntologiesIndex,
-                                     @Nonnull OntologySignatureIndex ontologySignatureIndex) {
-        this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
-        this.ontologySignatureIndex = checkNotNull(ontologySignatureIndex);
+    public ProjectSignatureIndexImpl(@Nonnull OWLEntityProvider entityProvider) {
+        this.entityProvider = checkNotNull(entityProvider);
+        axiomChangeHandler.setAddAxiomChangeConsumer(change -> updateReferenceCounts(change, 1));
+        axiomChangeHandler.setRemoveAxiomChangeConsumer(change -> updateReferenceCounts(change, -1));
+    }
+
+    private void updateReferenceCounts(@Nonnull AxiomChange change, int delta) {
+        for(var entity : change.getAxiom().getSignature()) {
+            var iri = entity.getIRI();
+            var currentCounts = referenceCounts.get(iri);
+            if(currentCounts == null && delta < 0) {
+                continue;
+            }
+            var counts = currentCounts == null ? new int[ENTITY_TYPES.size()] : currentCounts.clone();
+            var typeIndex = ENTITY_TYPES.indexOf(entity.getEntityType());
+            var previousCount = counts[typeIndex];
+            counts[typeIndex] = Math.max(0, previousCount + delta);
+            if(previousCount == 0 && counts[typeIndex] > 0) {
+                signatureSize++;
+            }
+            else if(previousCount > 0 && counts[typeIndex] == 0) {
+                signatureSize--;
+            }
+            if(isZero(counts)) {
+                referenceCounts.remove(iri);
+            }
+            else {
+                referenceCounts.put(iri, counts);
+            }
+        }
+    }
+
+    private static boolean isZero(int[] counts) {
+        for(int count : counts) {
+            if(count != 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Nonnull
     @Override
-    public Collection<Index> getDependencies() {
-        return List.of(projectOntologiesIndex, ontologySignatureIndex);
+    public Stream<OWLEntity> getSignature() {
+        return getEntities(referenceCounts);
+    }
+
+    @Override
+    public boolean containsEntityInSignature(@Nonnull OWLEntity entity) {
+        checkNotNull(entity);
+        var counts = referenceCounts.get(entity.getIRI());
+        return counts != null && counts[ENTITY_TYPES.indexOf(entity.getEntityType())] > 0;
+    }
+
+    @Override
+    public int getSignatureSize() {
+        return signatureSize;
     }
 
     @Nonnull
     @Override
-    public Stream<OWLEntity> getSignature() {
-        return projectOntologiesIndex.getOntologyIds()
-                .flatMap(ontologySignatureIndex::getEntitiesInSignature);
+    public Stream<OWLEntity> getEntitiesInSignatureWithIriPrefix(@Nonnull String iriPrefix) {
+        checkNotNull(iriPrefix);
+        if(iriPrefix.isEmpty()) {
+            return getSignature();
+        }
+        var candidates = referenceCounts.tailMap(IRI.create(iriPrefix), true);
+        return getEntities(candidates).takeWhile(entity -> startsWith(entity.getIRI(), iriPrefix));
+    }
+
+    private Stream<OWLEntity> getEntities(@Nonnull Map<IRI, int[]> referenceCounts) {
+        return referenceCounts.entrySet()
+                              .stream()
+                              .flatMap(entry -> {
+                                  var counts = entry.getValue();
+                                  return IntStream.range(0, counts.length)
+                                                  .filter(i -> counts[i] > 0)
+                                                  .mapToObj(i -> getEntity(ENTITY_TYPES.get(i), entry.getKey()));
+                              });
+    }
+
+    private static boolean startsWith(@Nonnull CharSequence iri, @Nonnull String prefix) {
+        if(iri.length() < prefix.length()) {
+            return false;
+        }
+        for(int i = 0; i < prefix.length(); i++) {
+            if(iri.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private OWLEntity getEntity(@Nonnull EntityType<?> type, @Nonnull IRI iri) {
+        if(type.equals(EntityType.CLASS)) {
+            return entityProvider.getOWLClass(iri);
+        }
+        else if(type.equals(EntityType.OBJECT_PROPERTY)) {
+            return entityProvider.getOWLObjectProperty(iri);
+        }
+        else if(type.equals(EntityType.DATA_PROPERTY)) {
+            return entityProvider.getOWLDataProperty(iri);
+        }
+        else if(type.equals(EntityType.ANNOTATION_PROPERTY)) {
+            return entityProvider.getOWLAnnotationProperty(iri);
+        }
+        else if(type.equals(EntityType.NAMED_INDIVIDUAL)) {
+            return entityProvider.getOWLNamedIndividual(iri);
+        }
+        else if(type.equals(EntityType.DATATYPE)) {
+            return entityProvider.getOWLDatatype(iri);
+        }
+        else {
+            throw new RuntimeException("Unsupported Entity Type: " + type);
+        }
+    }
+
+    @Override
+    public void applyChanges(@Nonnull ImmutableList<OntologyChange> changes) {
+        try {
+            writeLock.lock();
+            axiomChangeHandler.handleOntologyChanges(changes);
+        } finally {
+            writeLock.unlock();
+        }
     }
 }
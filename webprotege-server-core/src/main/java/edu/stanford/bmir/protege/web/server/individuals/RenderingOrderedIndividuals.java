@@ -0,0 +1,395 @@
+package edu.stanford.bmir.protege.web.server.individuals;
+
+import edu.stanford.bmir.protege.web.shared.pagination.Page;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.server.util.AlphaNumericStringComparator.alphaNumerically;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * A set of individuals that is ordered by the lower-cased renderings of the individuals.  The individuals
+ * are held in an order statistic tree (a treap whose nodes record the sizes of their subtrees), so that
+ * individuals can be added and removed in logarithmic time, a page can be retrieved by position and the
+ * position of an individual can be found without scanning.  Individuals with the same rendering are
+ * ordered by IRI.
+ * </p>
+ * <p>
+ * The nodes of the tree are never modified.  Adding or removing an individual copies the nodes on the path
+ * to the changed node, so a {@link #snapshot()} can be taken in constant time and read by other threads
+ * while this set continues to be modified.
+ * </p>
+ * This class is not thread safe, apart from its snapshots, which are immutable.
+ */
+public class RenderingOrderedIndividuals {
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::getLowerCaseShortForm,
+                                                                              alphaNumerically())
+                                                                    .thenComparing(entry -> entry.getIndividual()
+                                                                                                 .getIRI()
+                                                                                                 .toString());
+
+    /**
+     * The current entries of the individuals.  This is shared with snapshots, which only use it as a hint
+     * when finding the position of an individual, so it is a concurrent map.
+     */
+    private final Map<OWLNamedIndividual, Entry> entriesByIndividual;
+
+    private final boolean snapshot;
+
+    @Nullable
+    private Node root;
+
+    public RenderingOrderedIndividuals() {
+        this(new ConcurrentHashMap<>(), null, false);
+    }
+
+    private RenderingOrderedIndividuals(@Nonnull Map<OWLNamedIndividual, Entry> entriesByIndividual,
+                                        @Nullable Node root,
+                                        boolean snapshot) {
+        this.entriesByIndividual = entriesByIndividual;
+        this.root = root;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Gets an immutable snapshot of the individuals.  The snapshot is not affected by later changes to
+     * this set and it may be read by any thread.
+     */
+    @Nonnull
+    public RenderingOrderedIndividuals snapshot() {
+        if(snapshot) {
+            return this;
+        }
+        return new RenderingOrderedIndividuals(entriesByIndividual, root, true);
+    }
+
+    /**
+     * Adds the specified individual with the specified short form, or moves it to its new position if it
+     * is already present with a different short form.
+     */
+    public void put(@Nonnull OWLNamedIndividual individual, @Nonnull String shortForm) {
+        checkMutable();
+        var existing = entriesByIndividual.get(individual);
+        if(existing != null) {
+            if(existing.getShortForm().equals(shortForm)) {
+                return;
+            }
+            remove(individual);
+        }
+        var entry = new Entry(individual, shortForm);
+        root = insert(root, entry, ThreadLocalRandom.current().nextInt());
+        entriesByIndividual.put(individual, entry);
+    }
+
+    /**
+     * Adds all of the specified individuals.
+     * @param shortForms A map from individuals to their short forms.  Individuals that are already present
+     *                   are ignored.
+     */
+    public void putAll(@Nonnull Map<OWLNamedIndividual, String> shortForms) {
+        checkMutable();
+        shortForms.forEach((individual, shortForm) -> {
+            if(!entriesByIndividual.containsKey(individual)) {
+                put(individual, shortForm);
+            }
+        });
+    }
+
+    public void remove(@Nonnull OWLNamedIndividual individual) {
+        checkMutable();
+        var entry = entriesByIndividual.remove(individual);
+        if(entry == null) {
+            return;
+        }
+        root = delete(root, entry);
+    }
+
+    private void checkMutable() {
+        if(snapshot) {
+            throw new UnsupportedOperationException("Snapshots cannot be modified");
+        }
+    }
+
+    public boolean contains(@Nonnull OWLNamedIndividual individual) {
+        return indexOf(individual) != -1;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Gets the zero based position of the specified individual.
+     * @return The position, or -1 if the individual is not present.
+     */
+    public int indexOf(@Nonnull OWLNamedIndividual individual) {
+        var entry = entriesByIndividual.get(individual);
+        if(entry != null) {
+            var position = indexOf(entry);
+            if(position != -1 || !snapshot) {
+                return position;
+            }
+        }
+        else if(!snapshot) {
+            return -1;
+        }
+        // The individual has been added, removed or re-rendered since this snapshot was taken, so its
+        // entry in this snapshot is not known
+        var position = 0;
+        var iterator = new EntryIterator(root, 0);
+        while(iterator.hasNext()) {
+            if(iterator.next().getIndividual().equals(individual)) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    private int indexOf(@Nonnull Entry entry) {
+        var position = 0;
+        var node = root;
+        while(node != null) {
+            var diff = ENTRY_ORDER.compare(entry, node.entry);
+            if(diff < 0) {
+                node = node.left;
+            }
+            else if(diff > 0) {
+                position += size(node.left) + 1;
+                node = node.right;
+            }
+            else {
+                return position + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the specified page of individuals.
+     * @param pageNumber The page number (one based)
+     * @param pageSize The page size
+     * @return The page, or empty if the page number is beyond the last page.
+     */
+    @Nonnull
+    public Optional<Page<OWLNamedIndividual>> getPage(int pageNumber, int pageSize) {
+        var size = size();
+        var pageCount = (size / pageSize) + (size % pageSize == 0 ? 0 : 1);
+        if(pageNumber > pageCount) {
+            return Optional.empty();
+        }
+        var fromIndex = (pageNumber - 1) * pageSize;
+        var toIndex = Math.min(fromIndex + pageSize, size);
+        var pageElements = new ArrayList<OWLNamedIndividual>(toIndex - fromIndex);
+        var iterator = new EntryIterator(root, fromIndex);
+        for(int i = fromIndex; i < toIndex; i++) {
+            pageElements.add(iterator.next().getIndividual());
+        }
+        return Optional.of(new Page<>(pageNumber, pageCount, pageElements, size));
+    }
+
+    /**
+     * Gets the entries in order.  The stream is not affected by changes that are made to this set after
+     * the stream is created.
+     */
+    @Nonnull
+    public Stream<Entry> getEntries() {
+        var spliterator = Spliterators.spliterator(new EntryIterator(root, 0),
+                                                   size(),
+                                                   Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private static int size(@Nullable Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node insert(@Nullable Node node, @Nonnull Entry entry, int priority) {
+        if(node == null) {
+            return new Node(entry, priority, null, null);
+        }
+        if(priority > node.priority) {
+            var split = split(node, entry);
+            return new Node(entry, priority, split[0], split[1]);
+        }
+        if(ENTRY_ORDER.compare(entry, node.entry) < 0) {
+            return node.withLeft(insert(node.left, entry, priority));
+        }
+        else {
+            return node.withRight(insert(node.right, entry, priority));
+        }
+    }
+
+    /**
+     * Splits the specified tree into the nodes that are before the specified entry and the nodes that are after it.
+     */
+    private static Node[] split(@Nullable Node node, @Nonnull Entry entry) {
+        if(node == null) {
+            return new Node[]{null, null};
+        }
+        if(ENTRY_ORDER.compare(node.entry, entry) < 0) {
+            var split = split(node.right, entry);
+            split[0] = node.withRight(split[0]);
+            return split;
+        }
+        else {
+            var split = split(node.left, entry);
+            split[1] = node.withLeft(split[1]);
+            return split;
+        }
+    }
+
+    private static Node delete(@Nullable Node node, @Nonnull Entry entry) {
+        if(node == null) {
+            return null;
+        }
+        var diff = ENTRY_ORDER.compare(entry, node.entry);
+        if(diff < 0) {
+            return node.withLeft(delete(node.left, entry));
+        }
+        else if(diff > 0) {
+            return node.withRight(delete(node.right, entry));
+        }
+        else {
+            return merge(node.left, node.right);
+        }
+    }
+
+    /**
+     * Merges two trees where every node in the left tree is before every node in the right tree.
+     */
+    private static Node merge(@Nullable Node left, @Nullable Node right) {
+        if(left == null) {
+            return right;
+        }
+        if(right == null) {
+            return left;
+        }
+        if(left.priority > right.priority) {
+            return left.withRight(merge(left.right, right));
+        }
+        else {
+            return right.withLeft(merge(left, right.left));
+        }
+    }
+
+    private static class Node {
+
+        private final Entry entry;
+
+        private final int priority;
+
+        private final int size;
+
+        @Nullable
+        private final Node left;
+
+        @Nullable
+        private final Node right;
+
+        private Node(@Nonnull Entry entry, int priority, @Nullable Node left, @Nullable Node right) {
+            this.entry = entry;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        private Node withLeft(@Nullable Node left) {
+            return new Node(entry, priority, left, right);
+        }
+
+        private Node withRight(@Nullable Node right) {
+            return new Node(entry, priority, left, right);
+        }
+    }
+
+    /**
+     * Iterates over the entries in order, starting at a specified position.
+     */
+    private static class EntryIterator implements Iterator<Entry> {
+
+        private final Deque<Node> path = new ArrayDeque<>();
+
+        private EntryIterator(@Nullable Node root, int fromIndex) {
+            var node = root;
+            var remaining = fromIndex;
+            while(node != null) {
+                var leftSize = size(node.left);
+                if(remaining < leftSize) {
+                    path.push(node);
+                    node = node.left;
+                }
+                else if(remaining > leftSize) {
+                    remaining -= leftSize + 1;
+                    node = node.right;
+                }
+                else {
+                    path.push(node);
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Entry next() {
+            if(path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            var node = path.pop();
+            var next = node.right;
+            while(next != null) {
+                path.push(next);
+                next = next.left;
+            }
+            return node.entry;
+        }
+    }
+
+    public static class Entry {
+
+        private final OWLNamedIndividual individual;
+
+        private final String shortForm;
+
+        private final String lowerCaseShortForm;
+
+        private Entry(@Nonnull OWLNamedIndividual individual, @Nonnull String shortForm) {
+            this.individual = checkNotNull(individual);
+            this.shortForm = checkNotNull(shortForm);
+            this.lowerCaseShortForm = shortForm.toLowerCase();
+        }
+
+        @Nonnull
+        public OWLNamedIndividual getIndividual() {
+            return individual;
+        }
+
+        @Nonnull
+        public String getShortForm() {
+            return shortForm;
+        }
+
+        @Nonnull
+        public String getLowerCaseShortForm() {
+            return lowerCaseShortForm;
+        }
+    }
+}
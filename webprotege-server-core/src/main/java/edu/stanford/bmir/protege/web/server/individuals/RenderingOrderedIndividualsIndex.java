@@ -0,0 +1,314 @@
+package edu.stanford.bmir.protege.web.server.individuals;
+
+import edu.stanford.bmir.protege.web.server.change.HasGetChangeSubjects;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByClassIndex;
+import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByIndividualIndex;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.server.index.IndividualsByTypeIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
+import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
+import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
+import edu.stanford.bmir.protege.web.shared.individuals.InstanceRetrievalMode;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.shared.individuals.InstanceRetrievalMode.ALL_INSTANCES;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Caches the individuals of recently requested types in order of their renderings.  The cached lists are
+ * maintained incrementally as changes are applied to the project, so that paging through the individuals of
+ * a type does not require every individual to be rendered and sorted on each request.
+ * </p>
+ */
+@ProjectSingleton
+public class RenderingOrderedIndividualsIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderingOrderedIndividualsIndex.class);
+
+    /**
+     * The maximum number of types, per retrieval mode, for which the ordered individuals are cached.
+     */
+    private static final int MAX_CACHED_TYPES = 64;
+
+    /**
+     * The number of times that the individuals of a type are built before they are used without being cached.
+     */
+    private static final int MAX_BUILD_ATTEMPTS = 3;
+
+    @Nonnull
+    private final IndividualsByTypeIndex individualsByTypeIndex;
+
+    @Nonnull
+    private final ProjectOntologiesIndex projectOntologiesIndex;
+
+    @Nonnull
+    private final ClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividual;
+
+    @Nonnull
+    private final ClassAssertionAxiomsByClassIndex classAssertionAxiomsByClass;
+
+    @Nonnull
+    private final EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex;
+
+    @Nonnull
+    private final ClassHierarchyProvider classHierarchyProvider;
+
+    @Nonnull
+    private final DictionaryManager dictionaryManager;
+
+    @Nonnull
+    private final LanguageManager languageManager;
+
+    @Nonnull
+    private final HasGetChangeSubjects changeSubjectsProvider;
+
+    private final Map<InstanceRetrievalMode, Map<OWLClass, CachedIndividuals>> cache = new EnumMap<>(
+            InstanceRetrievalMode.class);
+
+    private List<DictionaryLanguage> cachedLanguages = Collections.emptyList();
+
+    /**
+     * Incremented whenever changes are handled or the cache is cleared, so that individuals that were built
+     * without holding the lock can be checked for staleness before they are cached
+     */
+    private long generation = 0;
+
+    @Inject
+    public RenderingOrderedIndividualsIndex(@Nonnull IndividualsByTypeIndex individualsByTypeIndex,
+                                            @Nonnull ProjectOntologiesIndex projectOntologiesIndex,
+                                            @Nonnull ClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividual,
+                                            @Nonnull ClassAssertionAxiomsByClassIndex classAssertionAxiomsByClass,
+                                            @Nonnull EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex,
+                                            @Nonnull ClassHierarchyProvider classHierarchyProvider,
+                                            @Nonnull DictionaryManager dictionaryManager,
+                                            @Nonnull LanguageManager languageManager,
+                                            @Nonnull HasGetChangeSubjects changeSubjectsProvider) {
+        this.individualsByTypeIndex = checkNotNull(individualsByTypeIndex);
+        this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
+        this.classAssertionAxiomsByIndividual = checkNotNull(classAssertionAxiomsByIndividual);
+        this.classAssertionAxiomsByClass = checkNotNull(classAssertionAxiomsByClass);
+        this.entitiesInProjectSignatureIndex = checkNotNull(entitiesInProjectSignatureIndex);
+        this.classHierarchyProvider = checkNotNull(classHierarchyProvider);
+        this.dictionaryManager = checkNotNull(dictionaryManager);
+        this.languageManager = checkNotNull(languageManager);
+        this.changeSubjectsProvider = checkNotNull(changeSubjectsProvider);
+    }
+
+    /**
+     * Applies the specified function to a snapshot of the rendering ordered individuals of the specified type.
+     * The function is applied without holding the lock on this index.
+     * @param type The type
+     * @param mode The retrieval mode
+     * @param function The function to apply
+     * @return The result of the function
+     */
+    public <T> T getOrderedIndividuals(@Nonnull OWLClass type,
+                                       @Nonnull InstanceRetrievalMode mode,
+                                       @Nonnull Function<RenderingOrderedIndividuals, T> function) {
+        checkNotNull(type);
+        checkNotNull(mode);
+        return function.apply(getSnapshot(type, mode));
+    }
+
+    private RenderingOrderedIndividuals getSnapshot(@Nonnull OWLClass type,
+                                                    @Nonnull InstanceRetrievalMode mode) {
+        for(int attempt = 1; ; attempt++) {
+            long expectedGeneration;
+            synchronized (this) {
+                checkLanguages();
+                var cached = cache.computeIfAbsent(mode, m -> createCachedByType()).get(type);
+                if(cached != null) {
+                    return cached.individuals.snapshot();
+                }
+                expectedGeneration = generation;
+            }
+            // Rendering and sorting every individual of a type is expensive, so it is done without holding the
+            // lock, which changes are handled under.  The result is only cached if no changes were handled in
+            // the meantime.
+            var built = createCachedIndividuals(type, mode);
+            synchronized (this) {
+                checkLanguages();
+                if(generation == expectedGeneration) {
+                    var cachedByType = cache.computeIfAbsent(mode, m -> createCachedByType());
+                    // Another request for the same type may have got here first
+                    var cached = cachedByType.putIfAbsent(type, built);
+                    return (cached != null ? cached : built).individuals.snapshot();
+                }
+            }
+            if(attempt == MAX_BUILD_ATTEMPTS) {
+                // Changes keep arriving while the individuals are built.  The individuals that were built are
+                // at most as stale as a cached snapshot would be, so they are used without being cached.
+                logger.info("Could not cache ordered individuals of {} after {} attempts", type, attempt);
+                return built.individuals.snapshot();
+            }
+        }
+    }
+
+    /**
+     * Updates the cached individuals in response to the specified changes.  This should be called once the
+     * indexes, the dictionaries and the class hierarchy have been updated.
+     */
+    public synchronized void handleChanges(@Nonnull List<OntologyChange> changes) {
+        generation++;
+        if(cache.isEmpty()) {
+            return;
+        }
+        checkLanguages();
+        if(changes.stream().anyMatch(RenderingOrderedIndividualsIndex::isClassHierarchyChange)) {
+            // The descendants that the instances of a type were computed from may no longer be valid
+            var allInstancesByType = cache.get(ALL_INSTANCES);
+            if(allInstancesByType != null) {
+                allInstancesByType.keySet().removeIf(type -> !type.isOWLThing());
+            }
+        }
+        var affectedIndividuals = Stream.concat(
+                changes.stream().flatMap(chg -> chg.getSignature().stream()),
+                changes.stream().flatMap(chg -> changeSubjectsProvider.getChangeSubjects(chg).stream()))
+                                        .filter(OWLEntity::isOWLNamedIndividual)
+                                        .map(OWLEntity::asOWLNamedIndividual)
+                                        .collect(toSet());
+        if(affectedIndividuals.isEmpty()) {
+            return;
+        }
+        for(var individual : affectedIndividuals) {
+            var inSignature = entitiesInProjectSignatureIndex.containsEntityInSignature(individual);
+            var types = getTypes(individual);
+            var shortForm = inSignature ? dictionaryManager.getShortForm(individual) : null;
+            cache.forEach((mode, cachedByType) -> cachedByType.forEach((type, cached) -> {
+                if(inSignature && cached.isInstance(individual, types)) {
+                    cached.individuals.put(individual, shortForm);
+                }
+                else {
+                    cached.individuals.remove(individual);
+                }
+            }));
+        }
+    }
+
+    private void checkLanguages() {
+        var languages = languageManager.getLanguages();
+        if(!languages.equals(cachedLanguages)) {
+            if(!cache.isEmpty()) {
+                logger.info("Languages have changed.  Clearing rendering ordered individuals.");
+            }
+            cache.clear();
+            cachedLanguages = languages;
+            generation++;
+        }
+    }
+
+    private Set<OWLClassExpression> getTypes(@Nonnull OWLNamedIndividual individual) {
+        return projectOntologiesIndex.getOntologyIds()
+                                     .flatMap(ontId -> classAssertionAxiomsByIndividual.getClassAssertionAxioms(
+                                             individual,
+                                             ontId))
+                                     .map(OWLClassAssertionAxiom::getClassExpression)
+                                     .collect(toSet());
+    }
+
+    private CachedIndividuals createCachedIndividuals(@Nonnull OWLClass type,
+                                                      @Nonnull InstanceRetrievalMode mode) {
+        Set<OWLClass> types;
+        if(type.isOWLThing()) {
+            types = Set.of(type);
+        }
+        else if(mode == ALL_INSTANCES) {
+            types = new HashSet<>(classHierarchyProvider.getDescendants(type));
+            types.add(type);
+        }
+        else {
+            types = Set.of(type);
+        }
+        Stream<OWLNamedIndividual> instances;
+        if(type.isOWLThing()) {
+            instances = individualsByTypeIndex.getIndividualsByType(type, mode);
+        }
+        else {
+            // The individuals are collected from the types directly, rather than from the individuals by type
+            // index, because that index renders and sorts the individuals, and they are rendered and sorted here
+            instances = types.stream()
+                             .flatMap(t -> projectOntologiesIndex.getOntologyIds()
+                                                                 .flatMap(ontId -> classAssertionAxiomsByClass.getClassAssertionAxioms(t, ontId)))
+                             .map(OWLClassAssertionAxiom::getIndividual)
+                             .filter(OWLIndividual::isNamed)
+                             .map(OWLIndividual::asOWLNamedIndividual);
+        }
+        var individuals = new RenderingOrderedIndividuals();
+        instances.distinct()
+                 .forEach(individual -> individuals.put(individual, dictionaryManager.getShortForm(individual)));
+        return new CachedIndividuals(type, mode, types, individuals);
+    }
+
+    private static boolean isClassHierarchyChange(@Nonnull OntologyChange change) {
+        return change.isChangeFor(AxiomType.SUBCLASS_OF) || change.isChangeFor(AxiomType.EQUIVALENT_CLASSES);
+    }
+
+    private static Map<OWLClass, CachedIndividuals> createCachedByType() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OWLClass, CachedIndividuals> eldest) {
+                return size() > MAX_CACHED_TYPES;
+            }
+        };
+    }
+
+    private static class CachedIndividuals {
+
+        private final OWLClass type;
+
+        private final InstanceRetrievalMode mode;
+
+        /**
+         * The type plus, for all instances retrieval, the descendants of the type at the time that the
+         * individuals were retrieved.
+         */
+        private final Set<OWLClass> types;
+
+        private final RenderingOrderedIndividuals individuals;
+
+        private CachedIndividuals(@Nonnull OWLClass type,
+                                  @Nonnull InstanceRetrievalMode mode,
+                                  @Nonnull Set<OWLClass> types,
+                                  @Nonnull RenderingOrderedIndividuals individuals) {
+            this.type = type;
+            this.mode = mode;
+            this.types = types;
+            this.individuals = individuals;
+        }
+
+        /**
+         * Determines whether an individual that is in the project signature and that has the specified
+         * asserted types belongs in this list of individuals.
+         */
+        private boolean isInstance(@Nonnull OWLNamedIndividual individual,
+                                   @Nonnull Set<OWLClassExpression> assertedTypes) {
+            if(type.isOWLThing()) {
+                if(mode == ALL_INSTANCES) {
+                    return true;
+                }
+                return assertedTypes.isEmpty() || assertedTypes.contains(type);
+            }
+            return assertedTypes.stream()
+                                .filter(OWLClassExpression::isNamed)
+                                .map(OWLClassExpression::asOWLClass)
+                                .anyMatch(types::contains);
+        }
+    }
+}
@@ -20,12 +20,18 @@ import edu.stanford.bmir.protege.web.server.change.OntologyChangeRecordTranslato
 import edu.stanford.bmir.protege.web.server.change.OntologyChangeRecordTranslatorImpl;
 import edu.stanford.bmir.protege.web.server.collection.CollectionItemDataRepository;
 import edu.stanford.bmir.protege.web.server.collection.CollectionItemDataRepositoryImpl;
+import edu.stanford.bmir.protege.web.server.crud.obo.OboIdHighWaterMarkRepository;
+import edu.stanford.bmir.protege.web.server.crud.obo.OboIdHighWaterMarkRepositoryImpl;
 import edu.stanford.bmir.protege.web.server.dispatch.ActionHandlerRegistry;
 import edu.stanford.bmir.protege.web.server.dispatch.DispatchServiceExecutor;
 import edu.stanford.bmir.protege.web.server.dispatch.impl.ActionHandlerRegistryImpl;
+import edu.stanford.bmir.protege.web.server.dispatch.impl.BatchActionExecutor;
 import edu.stanford.bmir.protege.web.server.dispatch.impl.DispatchServiceExecutorImpl;
 import edu.stanford.bmir.protege.web.server.download.DownloadGeneratorExecutor;
+import edu.stanford.bmir.protege.web.server.download.DownloadGeneratorMemoryBudget;
+import edu.stanford.bmir.protege.web.server.download.DownloadGeneratorThreadCount;
 import edu.stanford.bmir.protege.web.server.download.FileTransferExecutor;
+import edu.stanford.bmir.protege.web.server.events.EventTranslationService;
 import edu.stanford.bmir.protege.web.server.form.EntityFormRepository;
 import edu.stanford.bmir.protege.web.server.form.EntityFormRepositoryImpl;
 import edu.stanford.bmir.protege.web.server.form.EntityFormSelectorRepository;
@@ -39,16 +45,19 @@ import edu.stanford.bmir.protege.web.server.permissions.ProjectPermissionsManage
 import edu.stanford.bmir.protege.web.server.permissions.ProjectPermissionsManagerImpl;
 import edu.stanford.bmir.protege.web.server.perspective.*;
 import edu.stanford.bmir.protege.web.server.project.*;
+import edu.stanford.bmir.protege.web.server.revision.RevisionCacheBudget;
 import edu.stanford.bmir.protege.web.server.search.EntitySearchFilterRepository;
 import edu.stanford.bmir.protege.web.server.search.EntitySearchFilterRepositoryImpl;
 import edu.stanford.bmir.protege.web.server.sharing.ProjectSharingSettingsManager;
 import edu.stanford.bmir.protege.web.server.sharing.ProjectSharingSettingsManagerImpl;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexCommitService;
 import edu.stanford.bmir.protege.web.server.upload.*;
 import edu.stanford.bmir.protege.web.server.user.*;
 import edu.stanford.bmir.protege.web.server.util.DisposableObjectManager;
 import edu.stanford.bmir.protege.web.server.viz.EntityGraphEdgeLimit;
 import edu.stanford.bmir.protege.web.server.viz.EntityGraphSettingsRepository;
 import edu.stanford.bmir.protege.web.server.viz.EntityGraphSettingsRepositoryImpl;
+import edu.stanford.bmir.protege.web.server.watches.WatchNotificationService;
 import edu.stanford.bmir.protege.web.server.watches.WatchRecordRepository;
 import edu.stanford.bmir.protege.web.server.watches.WatchRecordRepositoryImpl;
 import edu.stanford.bmir.protege.web.server.webhook.SlackWebhookRepository;
@@ -66,7 +75,10 @@ import java.util.Collections;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Matthew Horridge
@@ -80,6 +92,16 @@ public class ApplicationModule {
 
     private static final int INDEX_UPDATING_THREADS = 10;
 
+    private static final int EVENT_TRANSLATION_THREADS = 8;
+
+    private static final int ONTOLOGY_PARSING_THREADS = 4;
+
+    private static final int BATCH_ACTION_THREADS = 16;
+
+    private static final int OUTBOUND_MAIL_THREADS = 2;
+
+    private static final int BATCH_ACTION_QUEUE_SIZE = 256;
+
 
     @ApplicationSingleton
     @Provides
@@ -191,8 +213,8 @@ public class ApplicationModule {
     }
 
     @Provides
-    public SendMail provideSendMail(SendMailImpl manager) {
-        return manager;
+    public SendMail provideSendMail(MailQueue mailQueue) {
+        return mailQueue;
     }
 
     @Provides
@@ -200,6 +222,13 @@ public class ApplicationModule {
         return handler;
     }
 
+    @Provides
+    @ApplicationSingleton
+    public OutboundMailRepository provideOutboundMailRepository(OutboundMailRepositoryImpl impl) {
+        impl.ensureIndexes();
+        return impl;
+    }
+
     @Provides
     @ApplicationSingleton
     public WatchRecordRepository provideWatchRecordRepository(WatchRecordRepositoryImpl impl) {
@@ -222,10 +251,11 @@ public class ApplicationModule {
     @Provides
     @DownloadGeneratorExecutor
     @ApplicationSingleton
-    public ExecutorService provideDownloadGeneratorExecutorService(ApplicationExecutorsRegistry executorsRegistry) {
-        // Might prove to be too much of a bottle neck.  For now, this limits the memory we need
-        // to generate downloads
-        var executor = Executors.newSingleThreadExecutor(r -> {
+    public ExecutorService provideDownloadGeneratorExecutorService(ApplicationExecutorsRegistry executorsRegistry,
+                                                                   @DownloadGeneratorThreadCount int threadCount) {
+        // The number of downloads that run at the same time is further limited
+        // by the memory budget in the DownloadGenerationScheduler
+        var executor = Executors.newFixedThreadPool(threadCount, r -> {
             Thread thread = Executors.defaultThreadFactory().newThread(r);
             thread.setName(thread.getName().replace("thread", "Download-Generator"));
             return thread;
@@ -234,6 +264,25 @@ public class ApplicationModule {
         return executor;
     }
 
+    @Provides
+    @DownloadGeneratorThreadCount
+    int provideDownloadGeneratorThreadCount(WebProtegeProperties properties) {
+        return Math.max(1, properties.getDownloadGeneratorThreadCount());
+    }
+
+    @Provides
+    @DownloadGeneratorMemoryBudget
+    long provideDownloadGeneratorMemoryBudget(WebProtegeProperties properties) {
+        var percentage = Math.min(100, Math.max(1, properties.getDownloadGeneratorMemoryBudgetPercentage()));
+        return Runtime.getRuntime().maxMemory() / 100 * percentage;
+    }
+
+    @Provides
+    @RevisionCacheBudget
+    long provideRevisionCacheBudget(WebProtegeProperties properties) {
+        return Math.max(0, properties.getRevisionCacheBudget());
+    }
+
     @Provides
     @FileTransferExecutor
     @ApplicationSingleton
@@ -260,6 +309,50 @@ public class ApplicationModule {
         return executor;
     }
 
+    @Provides
+    @EventTranslationService
+    @ApplicationSingleton
+    public ExecutorService provideEventTranslationExecutorService(ApplicationExecutorsRegistry executorsRegistry) {
+        var executor = Executors.newFixedThreadPool(EVENT_TRANSLATION_THREADS, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Event-Translator"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Event-Translator");
+        return executor;
+    }
+
+    @Provides
+    @OntologyParsingService
+    @ApplicationSingleton
+    public ExecutorService provideOntologyParsingExecutorService(ApplicationExecutorsRegistry executorsRegistry) {
+        var executor = Executors.newFixedThreadPool(ONTOLOGY_PARSING_THREADS, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Ontology-Parser"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Ontology-Parser");
+        return executor;
+    }
+
+    @Provides
+    @BatchActionExecutor
+    @ApplicationSingleton
+    public ExecutorService provideBatchActionExecutorService(ApplicationExecutorsRegistry executorsRegistry) {
+        // Bounded in both threads and queued tasks.  When the queue is full, submissions are
+        // rejected and the dispatch service executes the action on the request thread.
+        var executor = new ThreadPoolExecutor(BATCH_ACTION_THREADS, BATCH_ACTION_THREADS,
+                                              0L, TimeUnit.MILLISECONDS,
+                                              new LinkedBlockingQueue<>(BATCH_ACTION_QUEUE_SIZE),
+                                              r -> {
+                                                  Thread thread = Executors.defaultThreadFactory().newThread(r);
+                                                  thread.setName(thread.getName().replace("thread", "Batch-Action-Executor"));
+                                                  return thread;
+                                              });
+        executorsRegistry.registerService(executor, "Batch-Action-Executor");
+        return executor;
+    }
+
     @Provides
     @UploadedOntologiesCacheService
     @ApplicationSingleton
@@ -269,11 +362,70 @@ public class ApplicationModule {
         return executor;
     }
 
+    @Provides
+    @WatchNotificationService
+    @ApplicationSingleton
+    public ScheduledExecutorService provideWatchNotificationService(ApplicationExecutorsRegistry executorsRegistry) {
+        var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Watch-Notifier"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Watch-Notification-Service");
+        return executor;
+    }
+
+    @Provides
+    @OutboundMailService
+    @ApplicationSingleton
+    public ScheduledExecutorService provideOutboundMailService(ApplicationExecutorsRegistry executorsRegistry) {
+        var executor = Executors.newScheduledThreadPool(OUTBOUND_MAIL_THREADS, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Outbound-Mail"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Outbound-Mail-Service");
+        return executor;
+    }
+
+    @Provides
+    @ProjectAccessFlushService
+    @ApplicationSingleton
+    public ScheduledExecutorService provideProjectAccessFlushService(ApplicationExecutorsRegistry executorsRegistry) {
+        var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Project-Access-Flusher"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Project-Access-Flush-Service");
+        return executor;
+    }
+
+    @Provides
+    @LuceneIndexCommitService
+    @ApplicationSingleton
+    public ScheduledExecutorService provideLuceneIndexCommitService(ApplicationExecutorsRegistry executorsRegistry) {
+        var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Lucene-Index-Committer"));
+            return thread;
+        });
+        executorsRegistry.registerService(executor, "Lucene-Index-Commit-Service");
+        return executor;
+    }
+
     @Provides
     public WebhookRepository providesWebhookRepository(WebhookRepositoryImpl impl) {
         return impl;
     }
 
+    @Provides
+    @ApplicationSingleton
+    public OboIdHighWaterMarkRepository provideOboIdHighWaterMarkRepository(OboIdHighWaterMarkRepositoryImpl impl) {
+        impl.ensureIndexes();
+        return impl;
+    }
+
     @Provides
     @ApplicationSingleton
     public SlackWebhookRepository provideSlackWebhookRepository(SlackWebhookRepositoryImpl impl) {
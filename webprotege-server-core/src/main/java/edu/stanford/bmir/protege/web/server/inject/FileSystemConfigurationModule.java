@@ -11,6 +11,7 @@ import edu.stanford.bmir.protege.web.server.project.RootOntologyDocumentFileMatc
 import edu.stanford.bmir.protege.web.server.project.RootOntologyDocumentMatcherImpl;
 import edu.stanford.bmir.protege.web.server.util.TempFileFactory;
 import edu.stanford.bmir.protege.web.server.util.TempFileFactoryImpl;
+import edu.stanford.bmir.protege.web.server.watches.WatchDigestNotificationEmailTemplate;
 import edu.stanford.bmir.protege.web.server.watches.WatchNotificationEmailTemplate;
 import edu.stanford.bmir.protege.web.server.webhook.CommentNotificationSlackTemplate;
 
@@ -99,5 +100,16 @@ public class FileSystemConfigurationModule {
     FileContents provideWatchNotificationEmailTemplate(@WatchNotificationEmailTemplate OverridableFile file) {
         return new FileContents(file);
     }
-}
 
+    @Provides
+    @WatchDigestNotificationEmailTemplate
+    OverridableFile provideWatchDigestNotificationEmailTemplateFile(OverridableFileFactory factory) {
+        return factory.getOverridableFile("templates/watch-digest-notification-email-template.html");
+    }
+
+    @Provides
+    @WatchDigestNotificationEmailTemplate
+    FileContents provideWatchDigestNotificationEmailTemplate(@WatchDigestNotificationEmailTemplate OverridableFile file) {
+        return new FileContents(file);
+    }
+}
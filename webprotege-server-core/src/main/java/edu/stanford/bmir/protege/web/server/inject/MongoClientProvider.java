@@ -63,7 +63,7 @@ public class MongoClientProvider implements Provider<MongoClient> {
                     return new MongoClient(serverAddress);
                 });
         logger.info("Created MongoClient database connection");
-        disposableObjectManager.register(() -> {
+        disposableObjectManager.registerDatabaseConnection(() -> {
             logger.info("Closing MongoClient database connection...");
             mongoClient.close();
             logger.info("    ...closed MongoClient database connection");
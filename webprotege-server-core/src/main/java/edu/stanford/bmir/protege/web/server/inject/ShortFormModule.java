@@ -5,6 +5,7 @@ import dagger.Provides;
 import edu.stanford.bmir.protege.web.server.lang.ActiveLanguagesManager;
 import edu.stanford.bmir.protege.web.server.lang.ActiveLanguagesManagerImpl;
 import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.server.shortform.*;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import org.semanticweb.owlapi.model.OWLEntityProvider;
@@ -35,5 +36,10 @@ public class ShortFormModule {
         return dictionary;
     }
 
+    @Provides
+    LuceneIndexRevisionSupplier provideLuceneIndexRevisionSupplier(RevisionManager revisionManager) {
+        return () -> revisionManager.getCurrentRevision().getValue();
+    }
+
 
 }
@@ -9,6 +9,7 @@ import dagger.Provides;
 import edu.stanford.bmir.protege.web.server.app.WebProtegeProperties;
 import edu.stanford.bmir.protege.web.server.index.*;
 import edu.stanford.bmir.protege.web.server.inject.DataDirectoryProvider;
+import edu.stanford.bmir.protege.web.server.inject.ExecutorServiceShutdownTask;
 import edu.stanford.bmir.protege.web.server.inject.WebProtegePropertiesProvider;
 import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
 import edu.stanford.bmir.protege.web.server.mansyntax.render.*;
@@ -20,6 +21,8 @@ import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
 import edu.stanford.bmir.protege.web.server.renderer.LiteralLexicalFormTransformer;
 import edu.stanford.bmir.protege.web.server.renderer.ShortFormAdapter;
 import edu.stanford.bmir.protege.web.server.repository.ProjectEntitySearchFiltersManager;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexCommitService;
+import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexRevisionSupplier;
 import edu.stanford.bmir.protege.web.server.shortform.LuceneIndexesDirectory;
 import edu.stanford.bmir.protege.web.server.shortform.LuceneModule;
 import edu.stanford.bmir.protege.web.server.util.DisposableObjectManager;
@@ -39,6 +42,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -172,6 +177,16 @@ public class UploadedProjectModule {
                 return iri2EntityMap.values()
                                     .stream();
             }
+
+            @Override
+            public boolean containsEntityInSignature(@Nonnull OWLEntity entity) {
+                return iri2EntityMap.containsEntry(entity.getIRI(), entity);
+            }
+
+            @Override
+            public int getSignatureSize() {
+                return iri2EntityMap.size();
+            }
         };
     }
 
@@ -311,6 +326,23 @@ public class UploadedProjectModule {
         };
     }
 
+    @Provides
+    LuceneIndexRevisionSupplier provideLuceneIndexRevisionSupplier() {
+        // Uploaded ontologies do not have any revisions
+        return () -> 0;
+    }
+
+    @Provides
+    @LuceneIndexCommitService
+    @ProjectSingleton
+    ScheduledExecutorService provideLuceneIndexCommitService(ProjectDisposablesManager projectDisposablesManager) {
+        // Uploaded ontologies are not part of the application graph, so they have their own commit executor,
+        // which is shut down when the uploaded ontologies are disposed of
+        var executor = Executors.newSingleThreadScheduledExecutor();
+        projectDisposablesManager.register(new ExecutorServiceShutdownTask(executor, "Uploaded-Lucene-Index-Committer"));
+        return executor;
+    }
+
     @Provides
     @ProjectSingleton
     ProjectDisposablesManager provideProjectDisposablesManager(DisposableObjectManager disposableObjectManager) {
@@ -1,5 +1,9 @@
 package edu.stanford.bmir.protege.web.server.issues;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.mongodb.BasicDBObject;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
@@ -13,25 +17,47 @@ import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.shared.issues.EntityDiscussionThread.*;
+import static java.util.stream.Collectors.groupingBy;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 5 Oct 2016
+ * <p>
+ * Alongside the threads themselves, the repository maintains per-entity statistics (thread counts, comment counts,
+ * last activity and participants) for each project that has been queried recently.  The statistics for a project are
+ * computed, without loading comment bodies, the first time that they are needed and are then recomputed for an
+ * entity whenever one of its threads is modified through this repository.
+ * </p>
  */
 @ApplicationSingleton
 public class EntityDiscussionThreadRepository {
 
     public static final String MATCHED_COMMENT_PATH = "comments.$";
 
+    private static final String COMMENTS_BODY = "comments.body";
+
+    private static final String COMMENTS_RENDERED_BODY = "comments.renderedBody";
+
+    private static final long STATISTICS_EXPIRY_MINUTES = 30;
+
     @Nonnull
     private final Datastore datastore;
 
+    private final Cache<ProjectId, ProjectStatistics> statisticsCache = CacheBuilder.newBuilder()
+                                                                                     .expireAfterAccess(STATISTICS_EXPIRY_MINUTES, TimeUnit.MINUTES)
+                                                                                     .build();
+
     @Inject
     public EntityDiscussionThreadRepository(@Nonnull Datastore datastore) {
         this.datastore = checkNotNull(datastore);
@@ -51,27 +77,61 @@ public class EntityDiscussionThreadRepository {
 
     public int getCommentsCount(@Nonnull ProjectId projectId,
                                 @Nonnull OWLEntity entity) {
-        return findThreads(projectId, entity).stream()
-                                             .map(thread -> thread.getComments().size())
-                                             .reduce((left, right) -> left + right)
-                                             .orElse(0);
+        return getStatistics(projectId, entity).map(EntityDiscussionThreadStatistics::getTotalCommentCount)
+                                               .orElse(0);
     }
 
     public int getOpenCommentsCount(@Nonnull ProjectId projectId,
                                     @Nonnull OWLEntity entity) {
-        return datastore.createQuery(EntityDiscussionThread.class)
-                        .disableValidation()
-                        .field(PROJECT_ID).equal(projectId)
-                        .field(ENTITY).equal(entity)
-                        .field(STATUS).equal(Status.OPEN)
-                        .asList()
-                        .stream().map(thread -> thread.getComments().size())
-                        .reduce((left, right) -> left + right)
-                        .orElse(0);
+        return getStatistics(projectId, entity).map(EntityDiscussionThreadStatistics::getOpenCommentCount)
+                                               .orElse(0);
+    }
+
+    /**
+     * Gets the discussion statistics for the specified entity.
+     * @param projectId The project.
+     * @param entity The entity.
+     * @return The statistics, or empty if there are no comments on the entity.
+     */
+    @Nonnull
+    public Optional<EntityDiscussionThreadStatistics> getStatistics(@Nonnull ProjectId projectId,
+                                                                    @Nonnull OWLEntity entity) {
+        checkNotNull(entity);
+        return Optional.ofNullable(getProjectStatistics(projectId).get().get(entity));
+    }
+
+    /**
+     * Gets the discussion statistics for the specified entities.
+     * @param projectId The project.
+     * @param entities The entities.
+     * @return A map of entities to statistics.  Entities that do not have any comments are not contained in
+     * the map.
+     */
+    @Nonnull
+    public ImmutableMap<OWLEntity, EntityDiscussionThreadStatistics> getStatistics(@Nonnull ProjectId projectId,
+                                                                                  @Nonnull Collection<? extends OWLEntity> entities) {
+        var statistics = getProjectStatistics(projectId).get();
+        var result = ImmutableMap.<OWLEntity, EntityDiscussionThreadStatistics>builder();
+        for(var entity : entities) {
+            var entityStatistics = statistics.get(entity);
+            if(entityStatistics != null) {
+                result.put(entity, entityStatistics);
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * Gets the discussion statistics for all entities in the specified project that have comments.
+     */
+    @Nonnull
+    public ImmutableList<EntityDiscussionThreadStatistics> getStatistics(@Nonnull ProjectId projectId) {
+        return ImmutableList.copyOf(getProjectStatistics(projectId).get().values());
     }
 
     public void saveThread(@Nonnull EntityDiscussionThread thread) {
         datastore.save(thread);
+        updateStatistics(thread.getProjectId(), thread.getEntity());
     }
 
     public void addCommentToThread(@Nonnull ThreadId threadId,
@@ -79,12 +139,15 @@ public class EntityDiscussionThreadRepository {
         Query<EntityDiscussionThread> query = createQueryForThread(threadId);
         UpdateOperations<EntityDiscussionThread> ops = getUpdateOperations().push(COMMENTS, comment);
         datastore.update(query, ops, false);
+        updateStatistics(threadId);
     }
 
     public Optional<EntityDiscussionThread> setThreadStatus(@Nonnull ThreadId threadId,
                                                             @Nonnull Status status) {
         datastore.updateFirst(createQueryForThread(threadId), getUpdateOperations().set(STATUS, status));
-        return Optional.ofNullable(datastore.get(EntityDiscussionThread.class, threadId));
+        var thread = Optional.ofNullable(datastore.get(EntityDiscussionThread.class, threadId));
+        thread.ifPresent(t -> updateStatistics(t.getProjectId(), t.getEntity()));
+        return thread;
     }
 
 
@@ -101,6 +164,8 @@ public class EntityDiscussionThreadRepository {
         UpdateOperations<EntityDiscussionThread> updateOperations = datastore.createUpdateOperations(EntityDiscussionThread.class);
         updateOperations.set("entity", withEntity);
         datastore.update(query, updateOperations);
+        updateStatistics(projectId, entity);
+        updateStatistics(projectId, withEntity);
     }
 
     private UpdateOperations<EntityDiscussionThread> getUpdateOperations() {
@@ -118,6 +183,7 @@ public class EntityDiscussionThreadRepository {
         UpdateOperations<EntityDiscussionThread> update = getUpdateOperations()
                 .set(MATCHED_COMMENT_PATH, comment);
         datastore.updateFirst(query, update);
+        updateStatistics(id);
     }
 
     public Optional<EntityDiscussionThread> findThreadByCommentId(CommentId commentId) {
@@ -129,9 +195,17 @@ public class EntityDiscussionThreadRepository {
     public boolean deleteComment(CommentId commentId) {
         Query<EntityDiscussionThread> query = datastore.createQuery(EntityDiscussionThread.class)
                                                        .field(COMMENTS_ID).equal(commentId);
+        var threadKey = datastore.createQuery(EntityDiscussionThread.class)
+                                 .field(COMMENTS_ID).equal(commentId)
+                                 .project(PROJECT_ID, true)
+                                 .project(ENTITY, true)
+                                 .get();
         UpdateOperations<EntityDiscussionThread> update = getUpdateOperations()
                 .removeAll(COMMENTS, new BasicDBObject("_id", commentId.getId()));
         UpdateResults updateResults = datastore.updateFirst(query, update);
+        if(threadKey != null) {
+            updateStatistics(threadKey.getProjectId(), threadKey.getEntity());
+        }
         return updateResults.getUpdatedCount() == 1;
     }
 
@@ -140,4 +214,96 @@ public class EntityDiscussionThreadRepository {
                         .field(PROJECT_ID).equal(projectId)
                         .asList();
     }
+
+    @Nonnull
+    private ProjectStatistics getProjectStatistics(@Nonnull ProjectId projectId) {
+        checkNotNull(projectId);
+        try {
+            return statisticsCache.get(projectId, () -> new ProjectStatistics(projectId));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void updateStatistics(@Nonnull ThreadId threadId) {
+        var threadKey = createQueryForThread(threadId)
+                .project(PROJECT_ID, true)
+                .project(ENTITY, true)
+                .get();
+        if(threadKey != null) {
+            updateStatistics(threadKey.getProjectId(), threadKey.getEntity());
+        }
+    }
+
+    private void updateStatistics(@Nonnull ProjectId projectId, @Nonnull OWLEntity entity) {
+        var projectStatistics = statisticsCache.getIfPresent(projectId);
+        if(projectStatistics != null) {
+            projectStatistics.update(entity);
+        }
+    }
+
+    /**
+     * Creates a query that retrieves threads without the bodies of their comments
+     */
+    private Query<EntityDiscussionThread> createStatisticsQuery(@Nonnull ProjectId projectId) {
+        return datastore.createQuery(EntityDiscussionThread.class)
+                        .disableValidation()
+                        .field(PROJECT_ID).equal(projectId)
+                        .project(COMMENTS_BODY, false)
+                        .project(COMMENTS_RENDERED_BODY, false);
+    }
+
+    /**
+     * Holds the statistics for the entities in a project.  The statistics are loaded the first time that they are
+     * requested.  Loading and updating are serialized so that an update that races with the initial load, or with
+     * another update, cannot leave stale statistics behind.
+     */
+    private class ProjectStatistics {
+
+        private final ProjectId projectId;
+
+        private final Map<OWLEntity, EntityDiscussionThreadStatistics> statistics = new ConcurrentHashMap<>();
+
+        private volatile boolean loaded = false;
+
+        private ProjectStatistics(ProjectId projectId) {
+            this.projectId = projectId;
+        }
+
+        public Map<OWLEntity, EntityDiscussionThreadStatistics> get() {
+            if(!loaded) {
+                load();
+            }
+            return statistics;
+        }
+
+        private synchronized void load() {
+            if(loaded) {
+                return;
+            }
+            var threads = createStatisticsQuery(projectId).asList();
+            threads.stream()
+                   .collect(groupingBy(EntityDiscussionThread::getEntity))
+                   .forEach((entity, entityThreads) -> EntityDiscussionThreadStatistics.compute(entity, entityThreads)
+                                                                                     .ifPresent(s -> statistics.put(entity, s)));
+            loaded = true;
+        }
+
+        public synchronized void update(@Nonnull OWLEntity entity) {
+            if(!loaded) {
+                // The statistics will be computed from the latest threads when they are first requested
+                return;
+            }
+            var threads = createStatisticsQuery(projectId)
+                    .field(ENTITY).equal(entity)
+                    .asList();
+            var entityStatistics = EntityDiscussionThreadStatistics.compute(entity, threads);
+            if(entityStatistics.isPresent()) {
+                statistics.put(entity, entityStatistics.get());
+            }
+            else {
+                statistics.remove(entity);
+            }
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package edu.stanford.bmir.protege.web.server.issues;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.issues.Comment;
+import edu.stanford.bmir.protege.web.shared.issues.EntityDiscussionThread;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Summarises the discussion threads for an entity without holding on to the threads themselves.
+ * </p>
+ */
+public class EntityDiscussionThreadStatistics {
+
+    @Nonnull
+    private final OWLEntity entity;
+
+    private final int totalThreadCount;
+
+    private final int openThreadCount;
+
+    private final int totalCommentCount;
+
+    private final int openCommentCount;
+
+    private final long lastModified;
+
+    @Nonnull
+    private final UserId lastModifiedBy;
+
+    @Nonnull
+    private final ImmutableList<UserId> participants;
+
+    public EntityDiscussionThreadStatistics(@Nonnull OWLEntity entity,
+                                            int totalThreadCount,
+                                            int openThreadCount,
+                                            int totalCommentCount,
+                                            int openCommentCount,
+                                            long lastModified,
+                                            @Nonnull UserId lastModifiedBy,
+                                            @Nonnull ImmutableList<UserId> participants) {
+        this.entity = checkNotNull(entity);
+        this.totalThreadCount = totalThreadCount;
+        this.openThreadCount = openThreadCount;
+        this.totalCommentCount = totalCommentCount;
+        this.openCommentCount = openCommentCount;
+        this.lastModified = lastModified;
+        this.lastModifiedBy = checkNotNull(lastModifiedBy);
+        this.participants = checkNotNull(participants);
+    }
+
+    /**
+     * Computes the statistics for the specified threads.
+     * @param entity The entity that the threads are about.
+     * @param threads The threads.  Comment bodies are not used and need not be loaded.
+     * @return The statistics, or empty if the threads do not contain any comments.
+     */
+    @Nonnull
+    public static Optional<EntityDiscussionThreadStatistics> compute(@Nonnull OWLEntity entity,
+                                                                     @Nonnull Collection<EntityDiscussionThread> threads) {
+        int openThreadCount = 0;
+        int totalCommentCount = 0;
+        int openCommentCount = 0;
+        Comment lastComment = null;
+        var participants = ImmutableList.<UserId>builder();
+        for(var thread : threads) {
+            var comments = thread.getComments();
+            totalCommentCount += comments.size();
+            if(thread.getStatus().isOpen()) {
+                openThreadCount++;
+                openCommentCount += comments.size();
+            }
+            for(var comment : comments) {
+                participants.add(comment.getCreatedBy());
+                if(lastComment == null || getLastModified(comment) > getLastModified(lastComment)) {
+                    lastComment = comment;
+                }
+            }
+        }
+        if(lastComment == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new EntityDiscussionThreadStatistics(entity,
+                                                                threads.size(),
+                                                                openThreadCount,
+                                                                totalCommentCount,
+                                                                openCommentCount,
+                                                                getLastModified(lastComment),
+                                                                lastComment.getCreatedBy(),
+                                                                participants.build()));
+    }
+
+    private static long getLastModified(@Nonnull Comment comment) {
+        return comment.getUpdatedAt().orElse(comment.getCreatedAt());
+    }
+
+    @Nonnull
+    public OWLEntity getEntity() {
+        return entity;
+    }
+
+    public int getTotalThreadCount() {
+        return totalThreadCount;
+    }
+
+    public int getOpenThreadCount() {
+        return openThreadCount;
+    }
+
+    public int getTotalCommentCount() {
+        return totalCommentCount;
+    }
+
+    /**
+     * Gets the number of comments in open threads
+     */
+    public int getOpenCommentCount() {
+        return openCommentCount;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    @Nonnull
+    public UserId getLastModifiedBy() {
+        return lastModifiedBy;
+    }
+
+    /**
+     * Gets the authors of the comments, with one entry per comment
+     */
+    @Nonnull
+    public ImmutableList<UserId> getParticipants() {
+        return participants;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("EntityDiscussionThreadStatistics")
+                          .addValue(entity)
+                          .add("totalThreadCount", totalThreadCount)
+                          .add("openThreadCount", openThreadCount)
+                          .add("totalCommentCount", totalCommentCount)
+                          .add("openCommentCount", openCommentCount)
+                          .add("lastModified", lastModified)
+                          .toString();
+    }
+}
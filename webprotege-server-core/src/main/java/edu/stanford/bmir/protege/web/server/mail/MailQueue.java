@@ -0,0 +1,363 @@
+package edu.stanford.bmir.protege.web.server.mail;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.mail.MessagingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * A {@link SendMail} implementation that queues messages and returns immediately.  Queued messages
+ * are delivered in the background by a small number of workers, each of which sends a batch of messages
+ * over a single connection to the mail server.  Messages that cannot be sent because of a transient
+ * problem are retried with an exponential backoff.  If the queue is full then the calling thread waits
+ * briefly for space, after which the message is rejected.
+ * </p>
+ * <p>
+ * Queued messages are saved to an {@link OutboundMailRepository} until they have been sent or given up on,
+ * and the saved messages are queued again when the queue is started.  A message that was being sent when
+ * the server stopped may therefore be sent twice.
+ * </p>
+ */
+@ApplicationSingleton
+public class MailQueue implements SendMail {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailQueue.class);
+
+    private static final int MAX_QUEUED_MESSAGES = 10_000;
+
+    private static final int MAX_WORKERS = 2;
+
+    private static final int MAX_MESSAGES_PER_CONNECTION = 50;
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final long INITIAL_RETRY_DELAY_MS = 30_000;
+
+    private static final long ENQUEUE_TIMEOUT_MS = 1_000;
+
+    private static final long QUEUE_DEPTH_LOG_INTERVAL_MS = 60_000;
+
+    @Nonnull
+    private final SendMailImpl sendMail;
+
+    @Nonnull
+    private final MessageIdGenerator messageIdGenerator;
+
+    @Nonnull
+    private final MessagingExceptionHandler messagingExceptionHandler;
+
+    @Nonnull
+    private final ScheduledExecutorService outboundMailService;
+
+    @Nonnull
+    private final OutboundMailRepository repository;
+
+    private final long initialRetryDelayMs;
+
+    private final long enqueueTimeoutMs;
+
+    private final BlockingQueue<OutboundMessage> queue;
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private final AtomicInteger scheduledRetries = new AtomicInteger();
+
+    @Inject
+    public MailQueue(@Nonnull SendMailImpl sendMail,
+                     @Nonnull MessageIdGenerator messageIdGenerator,
+                     @Nonnull MessagingExceptionHandler messagingExceptionHandler,
+                     @Nonnull @OutboundMailService ScheduledExecutorService outboundMailService,
+                     @Nonnull OutboundMailRepository repository) {
+        this(sendMail,
+             messageIdGenerator,
+             messagingExceptionHandler,
+             outboundMailService,
+             repository,
+             INITIAL_RETRY_DELAY_MS,
+             MAX_QUEUED_MESSAGES,
+             ENQUEUE_TIMEOUT_MS);
+    }
+
+    MailQueue(@Nonnull SendMailImpl sendMail,
+              @Nonnull MessageIdGenerator messageIdGenerator,
+              @Nonnull MessagingExceptionHandler messagingExceptionHandler,
+              @Nonnull ScheduledExecutorService outboundMailService,
+              @Nonnull OutboundMailRepository repository,
+              long initialRetryDelayMs,
+              int maxQueuedMessages,
+              long enqueueTimeoutMs) {
+        this.sendMail = checkNotNull(sendMail);
+        this.messageIdGenerator = checkNotNull(messageIdGenerator);
+        this.messagingExceptionHandler = checkNotNull(messagingExceptionHandler);
+        this.outboundMailService = checkNotNull(outboundMailService);
+        this.repository = checkNotNull(repository);
+        this.initialRetryDelayMs = initialRetryDelayMs;
+        this.queue = new LinkedBlockingQueue<>(maxQueuedMessages);
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+    }
+
+    /**
+     * Queues the messages that were saved but not sent before the server last stopped, and starts logging
+     * the depth of the queue.
+     */
+    public void start() {
+        var savedMessages = repository.findAll(messagingExceptionHandler);
+        if(!savedMessages.isEmpty()) {
+            logger.info("Queueing {} unsent messages", savedMessages.size());
+            // Waits for space in the queue on a mail thread, rather than rejecting messages or blocking start up
+            outboundMailService.submit(() -> requeueSavedMessages(savedMessages));
+        }
+        outboundMailService.scheduleWithFixedDelay(this::logQueueDepth,
+                                                   QUEUE_DEPTH_LOG_INTERVAL_MS,
+                                                   QUEUE_DEPTH_LOG_INTERVAL_MS,
+                                                   TimeUnit.MILLISECONDS);
+    }
+
+    private void requeueSavedMessages(@Nonnull List<OutboundMessage> savedMessages) {
+        try {
+            for(var message : savedMessages) {
+                queue.put(message);
+                startWorkerIfNecessary();
+            }
+        } catch(InterruptedException e) {
+            logger.warn("Interrupted while queueing unsent messages.  The remaining messages will be queued on restart.");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void logQueueDepth() {
+        var queueDepth = getQueueDepth();
+        var retries = scheduledRetries.get();
+        if(queueDepth > 0 || retries > 0) {
+            logger.info("Outbound mail queue depth: {} (plus {} messages waiting to be retried)", queueDepth, retries);
+        }
+    }
+
+    @Override
+    public void sendMail(@Nonnull MessageId messageId,
+                         @Nonnull List<String> recipientEmailAddresses,
+                         @Nonnull String subject,
+                         @Nonnull String text,
+                         @Nonnull MessageHeader... messageHeaders) {
+        sendMail(messageId, recipientEmailAddresses, subject, text, messagingExceptionHandler, messageHeaders);
+    }
+
+    @Override
+    public void sendMail(@Nonnull List<String> recipientEmailAddresses,
+                         @Nonnull String subject,
+                         @Nonnull String text,
+                         @Nonnull MessageHeader... messageHeaders) {
+        sendMail(messageIdGenerator.generateUniqueMessageId(),
+                 recipientEmailAddresses,
+                 subject,
+                 text,
+                 messagingExceptionHandler,
+                 messageHeaders);
+    }
+
+    @Override
+    public void sendMail(@Nonnull List<String> recipientEmailAddresses,
+                         @Nonnull String subject,
+                         @Nonnull String text,
+                         @Nonnull MessagingExceptionHandler exceptionHandler,
+                         @Nonnull MessageHeader... messageHeaders) {
+        sendMail(messageIdGenerator.generateUniqueMessageId(),
+                 recipientEmailAddresses,
+                 subject,
+                 text,
+                 exceptionHandler,
+                 messageHeaders);
+    }
+
+    @Override
+    public void sendMail(@Nonnull MessageId messageId,
+                         @Nonnull List<String> recipientEmailAddresses,
+                         @Nonnull String subject,
+                         @Nonnull String text,
+                         @Nonnull MessagingExceptionHandler exceptionHandler,
+                         @Nonnull MessageHeader... messageHeaders) {
+        var message = new OutboundMessage(checkNotNull(messageId),
+                                          ImmutableList.copyOf(checkNotNull(recipientEmailAddresses)),
+                                          checkNotNull(subject),
+                                          checkNotNull(text),
+                                          checkNotNull(exceptionHandler),
+                                          ImmutableList.copyOf(messageHeaders),
+                                          1);
+        try {
+            repository.save(message);
+        } catch(RuntimeException e) {
+            logger.error("Could not save {}.  It will not be sent if the server stops before it is sent.",
+                         message.getMessageId(), e);
+        }
+        enqueue(message, enqueueTimeoutMs);
+    }
+
+    /**
+     * Gets the number of messages that are waiting to be sent.  This does not include messages that
+     * are waiting to be retried.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void enqueue(@Nonnull OutboundMessage message, long timeoutMs) {
+        try {
+            if(!queue.offer(message, timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.error("Outbound mail queue is full ({} messages).  Rejecting {}.",
+                             queue.size(), message.getMessageId());
+                giveUp(message);
+                return;
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for space in the outbound mail queue.  Rejecting {}.",
+                        message.getMessageId());
+            giveUp(message);
+            return;
+        }
+        startWorkerIfNecessary();
+    }
+
+    private void startWorkerIfNecessary() {
+        while(true) {
+            int workers = activeWorkers.get();
+            if(workers >= MAX_WORKERS) {
+                return;
+            }
+            if(activeWorkers.compareAndSet(workers, workers + 1)) {
+                break;
+            }
+        }
+        try {
+            outboundMailService.submit(this::drainQueue);
+        } catch(RejectedExecutionException e) {
+            // Shutting down.  Deliver whatever is left on this thread.
+            activeWorkers.decrementAndGet();
+            drainQueueNow();
+        }
+    }
+
+    private void drainQueue() {
+        try {
+            while(true) {
+                List<OutboundMessage> batch = new ArrayList<>(MAX_MESSAGES_PER_CONNECTION);
+                queue.drainTo(batch, MAX_MESSAGES_PER_CONNECTION);
+                if(batch.isEmpty()) {
+                    activeWorkers.decrementAndGet();
+                    // A message might have been queued after the drain but before the decrement
+                    if(!queue.isEmpty()) {
+                        startWorkerIfNecessary();
+                    }
+                    return;
+                }
+                sendBatch(batch);
+                logger.debug("Sent batch of {} messages.  Outbound mail queue depth: {}", batch.size(), queue.size());
+            }
+        } catch(RuntimeException e) {
+            logger.error("Error while sending queued mail", e);
+            activeWorkers.decrementAndGet();
+            // Replace this worker so that the remaining messages are still sent
+            if(!queue.isEmpty()) {
+                startWorkerIfNecessary();
+            }
+        }
+    }
+
+    private void drainQueueNow() {
+        List<OutboundMessage> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        var unsentMessages = sendMail.sendMessages(batch);
+        deleteSentMessages(batch, unsentMessages);
+        for(var unsentMessage : unsentMessages) {
+            giveUp(unsentMessage);
+        }
+    }
+
+    private void sendBatch(@Nonnull List<OutboundMessage> batch) {
+        List<OutboundMessage> unsentMessages;
+        try {
+            unsentMessages = sendMail.sendMessages(batch);
+        } catch(RuntimeException e) {
+            logger.error("Error while sending a batch of {} messages", batch.size(), e);
+            unsentMessages = batch;
+        }
+        deleteSentMessages(batch, unsentMessages);
+        for(var unsentMessage : unsentMessages) {
+            if(unsentMessage.getAttempt() >= MAX_ATTEMPTS) {
+                giveUp(unsentMessage);
+            }
+            else {
+                scheduleRetry(unsentMessage);
+            }
+        }
+    }
+
+    private void deleteSentMessages(@Nonnull List<OutboundMessage> batch,
+                                    @Nonnull List<OutboundMessage> unsentMessages) {
+        var unsentMessageIds = unsentMessages.stream()
+                                             .map(OutboundMessage::getMessageId)
+                                             .collect(toSet());
+        for(var message : batch) {
+            if(!unsentMessageIds.contains(message.getMessageId())) {
+                delete(message);
+            }
+        }
+    }
+
+    private void scheduleRetry(@Nonnull OutboundMessage message) {
+        long delayMs = initialRetryDelayMs << (message.getAttempt() - 1);
+        logger.info("Could not send {}.  Retrying in {} ms (attempt {} of {})",
+                    message.getMessageId(), delayMs, message.getAttempt() + 1, MAX_ATTEMPTS);
+        var nextAttempt = message.nextAttempt();
+        try {
+            repository.save(nextAttempt);
+        } catch(RuntimeException e) {
+            logger.error("Could not save the attempt count of {}", message.getMessageId(), e);
+        }
+        try {
+            scheduledRetries.incrementAndGet();
+            outboundMailService.schedule(() -> {
+                scheduledRetries.decrementAndGet();
+                // Do not wait for space on a mail thread
+                enqueue(nextAttempt, 0);
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch(RejectedExecutionException e) {
+            // Shutting down.  The message is saved, so it will be retried on restart.
+            scheduledRetries.decrementAndGet();
+        }
+    }
+
+    private void giveUp(@Nonnull OutboundMessage message) {
+        logger.warn("Giving up on sending {} after {} attempt(s)", message.getMessageId(), message.getAttempt());
+        delete(message);
+        message.getExceptionHandler().handleMessagingException(
+                new MessagingException("Could not send message " + message.getMessageId()));
+    }
+
+    private void delete(@Nonnull OutboundMessage message) {
+        try {
+            repository.delete(message.getMessageId());
+        } catch(RuntimeException e) {
+            logger.error("Could not delete {}.  It may be sent again on restart.", message.getMessageId(), e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package edu.stanford.bmir.protege.web.server.mail;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Stores the messages that have been queued for sending but that have not yet been sent, or given up on,
+ * so that they can be sent after a restart.
+ * </p>
+ */
+public interface OutboundMailRepository {
+
+    /**
+     * Saves the specified message, replacing any previously saved message with the same id.
+     * @param message The message
+     */
+    void save(@Nonnull OutboundMessage message);
+
+    /**
+     * Deletes the message with the specified id.
+     * @param messageId The message id
+     */
+    void delete(@Nonnull MessageId messageId);
+
+    /**
+     * Finds all of the saved messages.
+     * @param exceptionHandler The exception handler for the found messages.  Exception handlers are not saved.
+     */
+    @Nonnull
+    List<OutboundMessage> findAll(@Nonnull MessagingExceptionHandler exceptionHandler);
+}
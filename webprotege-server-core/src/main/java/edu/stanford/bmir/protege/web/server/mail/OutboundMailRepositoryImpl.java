@@ -0,0 +1,98 @@
+package edu.stanford.bmir.protege.web.server.mail;
+
+import com.google.common.collect.ImmutableList;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOptions;
+import edu.stanford.bmir.protege.web.server.persistence.Repository;
+import org.bson.Document;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.eq;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class OutboundMailRepositoryImpl implements OutboundMailRepository, Repository {
+
+    public static final String COLLECTION_NAME = "OutboundMail";
+
+    public static final String MESSAGE_ID = "_id";
+
+    public static final String RECIPIENTS = "recipients";
+
+    public static final String SUBJECT = "subject";
+
+    public static final String TEXT = "text";
+
+    public static final String HEADERS = "headers";
+
+    public static final String HEADER_NAME = "name";
+
+    public static final String HEADER_VALUE = "value";
+
+    public static final String ATTEMPT = "attempt";
+
+    private final MongoCollection<Document> collection;
+
+    @Inject
+    public OutboundMailRepositoryImpl(@Nonnull MongoDatabase database) {
+        this.collection = database.getCollection(COLLECTION_NAME);
+    }
+
+    @Override
+    public void ensureIndexes() {
+        // Messages are only looked up by id
+    }
+
+    @Override
+    public void save(@Nonnull OutboundMessage message) {
+        var headers = message.getMessageHeaders()
+                             .stream()
+                             .map(header -> new Document(HEADER_NAME, header.getName())
+                                     .append(HEADER_VALUE, header.getValue()))
+                             .collect(toList());
+        var document = new Document(MESSAGE_ID, message.getMessageId().getId())
+                .append(RECIPIENTS, message.getRecipientEmailAddresses())
+                .append(SUBJECT, message.getSubject())
+                .append(TEXT, message.getText())
+                .append(HEADERS, headers)
+                .append(ATTEMPT, message.getAttempt());
+        collection.replaceOne(eq(MESSAGE_ID, message.getMessageId().getId()),
+                              document,
+                              new ReplaceOptions().upsert(true));
+    }
+
+    @Override
+    public void delete(@Nonnull MessageId messageId) {
+        collection.deleteOne(eq(MESSAGE_ID, messageId.getId()));
+    }
+
+    @Nonnull
+    @Override
+    public List<OutboundMessage> findAll(@Nonnull MessagingExceptionHandler exceptionHandler) {
+        var messages = new ArrayList<OutboundMessage>();
+        for(var document : collection.find()) {
+            var headers = document.getList(HEADERS, Document.class)
+                                  .stream()
+                                  .map(header -> new MessageHeader(header.getString(HEADER_NAME),
+                                                                   header.getString(HEADER_VALUE)))
+                                  .collect(ImmutableList.toImmutableList());
+            messages.add(new OutboundMessage(new MessageId(document.getString(MESSAGE_ID)),
+                                             ImmutableList.copyOf(document.getList(RECIPIENTS, String.class)),
+                                             document.getString(SUBJECT),
+                                             document.getString(TEXT),
+                                             exceptionHandler,
+                                             headers,
+                                             document.getInteger(ATTEMPT)));
+        }
+        return messages;
+    }
+}
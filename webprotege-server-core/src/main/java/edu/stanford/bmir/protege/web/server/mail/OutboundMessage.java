@@ -0,0 +1,116 @@
+package edu.stanford.bmir.protege.web.server.mail;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * A message that is waiting to be sent, along with the number of times that sending it has been attempted.
+ * </p>
+ */
+public class OutboundMessage {
+
+    @Nonnull
+    private final MessageId messageId;
+
+    @Nonnull
+    private final ImmutableList<String> recipientEmailAddresses;
+
+    @Nonnull
+    private final String subject;
+
+    @Nonnull
+    private final String text;
+
+    @Nonnull
+    private final MessagingExceptionHandler exceptionHandler;
+
+    @Nonnull
+    private final ImmutableList<MessageHeader> messageHeaders;
+
+    private final int attempt;
+
+    public OutboundMessage(@Nonnull MessageId messageId,
+                           @Nonnull ImmutableList<String> recipientEmailAddresses,
+                           @Nonnull String subject,
+                           @Nonnull String text,
+                           @Nonnull MessagingExceptionHandler exceptionHandler,
+                           @Nonnull ImmutableList<MessageHeader> messageHeaders,
+                           int attempt) {
+        this.messageId = checkNotNull(messageId);
+        this.recipientEmailAddresses = checkNotNull(recipientEmailAddresses);
+        this.subject = checkNotNull(subject);
+        this.text = checkNotNull(text);
+        this.exceptionHandler = checkNotNull(exceptionHandler);
+        this.messageHeaders = checkNotNull(messageHeaders);
+        this.attempt = attempt;
+    }
+
+    @Nonnull
+    public MessageId getMessageId() {
+        return messageId;
+    }
+
+    @Nonnull
+    public ImmutableList<String> getRecipientEmailAddresses() {
+        return recipientEmailAddresses;
+    }
+
+    @Nonnull
+    public String getSubject() {
+        return subject;
+    }
+
+    @Nonnull
+    public String getText() {
+        return text;
+    }
+
+    @Nonnull
+    public MessagingExceptionHandler getExceptionHandler() {
+        return exceptionHandler;
+    }
+
+    @Nonnull
+    public ImmutableList<MessageHeader> getMessageHeaders() {
+        return messageHeaders;
+    }
+
+    /**
+     * Gets the number of the attempt to send this message, starting at 1.
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Gets a copy of this message for the next attempt to send it
+     */
+    @Nonnull
+    public OutboundMessage nextAttempt() {
+        return new OutboundMessage(messageId,
+                                   recipientEmailAddresses,
+                                   subject,
+                                   text,
+                                   exceptionHandler,
+                                   messageHeaders,
+                                   attempt + 1);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("OutboundMessage")
+                          .addValue(messageId)
+                          .add("subject", subject)
+                          .add("recipients", recipientEmailAddresses)
+                          .add("attempt", attempt)
+                          .toString();
+    }
+}
@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.server.mail;
 
+import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.app.ApplicationHostSupplier;
 import edu.stanford.bmir.protege.web.server.app.ApplicationNameSupplier;
 import edu.stanford.bmir.protege.web.server.inject.MailProperties;
@@ -148,42 +149,135 @@ public class SendMailImpl implements SendMail {
                          @Nonnull final String text,
                          @Nonnull MessagingExceptionHandler exceptionHandler,
                          @Nonnull final MessageHeader... messageHeaders) {
+        var message = new OutboundMessage(messageId,
+                                          ImmutableList.copyOf(checkNotNull(recipientEmailAddresses)),
+                                          checkNotNull(subject),
+                                          checkNotNull(text),
+                                          checkNotNull(exceptionHandler),
+                                          ImmutableList.copyOf(messageHeaders),
+                                          1);
         try {
             final Session session = createMailSession();
-            WebProtegeMimeMessage msg = new WebProtegeMimeMessage(messageId, session);
-            Address[] recipients = checkNotNull(recipientEmailAddresses).stream()
-                                                                        .map(SendMailImpl::toInternetAddress)
-                                                                        .filter(Optional::isPresent)
-                                                                        .map(Optional::get)
-                                                                        .toArray(Address[]::new);
-
-            msg.setRecipients(Message.RecipientType.TO, recipients);
-            msg.setSubject(checkNotNull(subject));
-            msg.setText(checkNotNull(text), UTF_8);
-            msg.setHeader("Content-Type" , String.format("text/html; charset=\"%s\"" , UTF_8));
-            msg.setHeader("Content-Transfer-Encoding" , "quoted-printable" );
-            for(MessageHeader  messageHeader : messageHeaders) {
-                msg.setHeader(messageHeader.getName(), messageHeader.getValue());
-            }
-            InternetAddress from = getFromAddress();
-            msg.setFrom(from);
+            WebProtegeMimeMessage msg = createMimeMessage(session, message);
             Transport.send(msg);
+            logSentMessage(session, message, msg);
+        } catch (MessagingException e) {
+            logger.info("There was a problem sending mail: {}", e.getMessage());
+            exceptionHandler.handleMessagingException(e);
+        } catch (UnsupportedEncodingException e) {
+            logger.info("There was a problem sending mail: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the specified messages over a single connection to the mail server.
+     * @param messages The messages to be sent.  Not {@code null}.
+     * @return The messages that could not be sent because of a problem that may be transient, for example,
+     * because the mail server could not be reached or the connection was dropped.  Messages that were
+     * rejected are passed to their exception handlers and are not returned.
+     */
+    @Nonnull
+    public List<OutboundMessage> sendMessages(@Nonnull List<OutboundMessage> messages) {
+        if (messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Session session = createMailSession();
+        List<OutboundMessage> unsentMessages = new ArrayList<>();
+        Transport transport = null;
+        try {
+            transport = session.getTransport();
+            transport.connect();
+            for (OutboundMessage message : messages) {
+                WebProtegeMimeMessage msg;
+                try {
+                    msg = createMimeMessage(session, message);
+                    transport.sendMessage(msg, msg.getAllRecipients());
+                } catch (SendFailedException e) {
+                    if (!transport.isConnected()) {
+                        // The connection was dropped before the server responded, so this is not a rejection
+                        logger.info("There was a problem sending mail: {}", e.getMessage());
+                        unsentMessages.add(message);
+                        continue;
+                    }
+                    // The message was rejected, for example, because of invalid recipient addresses
+                    logger.info("There was a problem sending mail: {}", e.getMessage());
+                    message.getExceptionHandler().handleMessagingException(e);
+                    continue;
+                } catch (MessagingException | IllegalStateException e) {
+                    // The connection was lost or the server is temporarily unavailable
+                    logger.info("There was a problem sending mail: {}", e.getMessage());
+                    unsentMessages.add(message);
+                    continue;
+                } catch (UnsupportedEncodingException e) {
+                    logger.info("There was a problem sending mail: {}", e.getMessage());
+                    continue;
+                }
+                // The message has been sent, so nothing after this point can cause it to be sent again
+                logSentMessage(session, message, msg);
+            }
+        } catch (MessagingException e) {
+            logger.info("Could not connect to the mail server: {}", e.getMessage());
+            unsentMessages.addAll(messages);
+        } finally {
+            closeQuietly(transport);
+        }
+        return unsentMessages;
+    }
+
+    private static void closeQuietly(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.info("There was a problem closing the connection to the mail server: {}", e.getMessage());
+        }
+    }
+
+    private WebProtegeMimeMessage createMimeMessage(Session session,
+                                                    OutboundMessage message) throws MessagingException, UnsupportedEncodingException {
+        WebProtegeMimeMessage msg = new WebProtegeMimeMessage(message.getMessageId(), session);
+        Address[] recipients = message.getRecipientEmailAddresses().stream()
+                                      .map(SendMailImpl::toInternetAddress)
+                                      .filter(Optional::isPresent)
+                                      .map(Optional::get)
+                                      .toArray(Address[]::new);
+
+        msg.setRecipients(Message.RecipientType.TO, recipients);
+        msg.setSubject(message.getSubject());
+        msg.setText(message.getText(), UTF_8);
+        msg.setHeader("Content-Type" , String.format("text/html; charset=\"%s\"" , UTF_8));
+        msg.setHeader("Content-Transfer-Encoding" , "quoted-printable" );
+        for(MessageHeader  messageHeader : message.getMessageHeaders()) {
+            msg.setHeader(messageHeader.getName(), messageHeader.getValue());
+        }
+        InternetAddress from = getFromAddress();
+        msg.setFrom(from);
+        return msg;
+    }
+
+    /**
+     * Logs a message that has been sent.  This never throws an exception, so that a message that has been sent
+     * is never treated as unsent because it could not be logged.
+     */
+    private static void logSentMessage(Session session,
+                                       OutboundMessage message,
+                                       WebProtegeMimeMessage msg) {
+        try {
             logger.info(String.format(
                     "Sent email with subject \"%s\" to %s (mail.smtp.host: %s, mail.smtp.port: %s, mail.smtp.auth: %s, mail.smtp.from: %s, Message-ID: %s, Headers: %s)" ,
-                    subject,
-                    Arrays.toString(recipients),
+                    message.getSubject(),
+                    Arrays.toString(msg.getRecipients(Message.RecipientType.TO)),
                     session.getProperty(MAIL_SMTP_HOST),
                     session.getProperty(MAIL_SMTP_PORT),
                     session.getProperty(MAIL_SMTP_AUTH),
                     session.getProperty(MAIL_SMTP_FROM),
-                    messageId,
+                    message.getMessageId(),
                     Collections.list(msg.getAllHeaderLines()))
             );
-        } catch (MessagingException e) {
-            logger.info("There was a problem sending mail: {}", e.getMessage());
-            exceptionHandler.handleMessagingException(e);
-        } catch (UnsupportedEncodingException e) {
-            logger.info("There was a problem sending mail: {}", e.getMessage());
+        } catch (MessagingException | RuntimeException e) {
+            logger.info("Sent email with subject \"{}\" (Message-ID: {})", message.getSubject(), message.getMessageId());
         }
     }
 
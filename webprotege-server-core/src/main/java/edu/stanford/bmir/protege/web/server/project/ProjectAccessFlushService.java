@@ -0,0 +1,19 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Qualifies the executor that writes buffered project accesses and recent projects to the database.
+ * </p>
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProjectAccessFlushService {
+
+}
@@ -0,0 +1,81 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.server.app.ApplicationDisposablesManager;
+import edu.stanford.bmir.protege.web.server.user.UserActivityManager;
+import edu.stanford.bmir.protege.web.shared.HasDispose;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Periodically writes the project accesses and recent projects that are buffered by the
+ * {@link ProjectAccessManagerImpl} and the {@link UserActivityManager} to the database.  Any
+ * remaining buffered records are written when the application is disposed of.
+ * </p>
+ */
+@ApplicationSingleton
+public class ProjectAccessFlusher implements HasDispose {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectAccessFlusher.class);
+
+    private static final long FLUSH_INTERVAL_MS = 60 * 1000;
+
+    @Nonnull
+    private final ProjectAccessManagerImpl projectAccessManager;
+
+    @Nonnull
+    private final UserActivityManager userActivityManager;
+
+    @Nonnull
+    private final ScheduledExecutorService flushService;
+
+    @Nonnull
+    private final ApplicationDisposablesManager disposablesManager;
+
+    @Inject
+    public ProjectAccessFlusher(@Nonnull ProjectAccessManagerImpl projectAccessManager,
+                                @Nonnull UserActivityManager userActivityManager,
+                                @Nonnull @ProjectAccessFlushService ScheduledExecutorService flushService,
+                                @Nonnull ApplicationDisposablesManager disposablesManager) {
+        this.projectAccessManager = checkNotNull(projectAccessManager);
+        this.userActivityManager = checkNotNull(userActivityManager);
+        this.flushService = checkNotNull(flushService);
+        this.disposablesManager = checkNotNull(disposablesManager);
+    }
+
+    public void start() {
+        // Disposed of before the database connection is closed, which is disposed of last
+        disposablesManager.register(this);
+        flushService.scheduleWithFixedDelay(this::flush,
+                                            FLUSH_INTERVAL_MS,
+                                            FLUSH_INTERVAL_MS,
+                                            TimeUnit.MILLISECONDS);
+        logger.info("Started project access flushing with an interval of {} ms", FLUSH_INTERVAL_MS);
+    }
+
+    public void flush() {
+        try {
+            projectAccessManager.flush();
+            userActivityManager.flush();
+        } catch(Throwable t) {
+            logger.error("An error occurred whilst flushing project accesses", t);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        logger.info("Flushing project accesses");
+        flush();
+    }
+}
@@ -2,16 +2,29 @@ package edu.stanford.bmir.protege.web.server.project;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import edu.stanford.bmir.protege.web.server.persistence.Repository;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
 
@@ -19,9 +32,16 @@ import static com.mongodb.client.model.Filters.eq;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 3 Mar 2017
+ * <p>
+ * Project accesses are buffered in memory and coalesced for each project and user.  The buffered
+ * accesses are written to the database, in a single bulk write, when {@link #flush()} is called.
+ * </p>
  */
+@ApplicationSingleton
 public class ProjectAccessManagerImpl implements ProjectAccessManager, Repository {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProjectAccessManagerImpl.class);
+
     public static final String COLLECTION_NAME = "ProjectAccess";
 
     public static final String PROJECT_ID = "projectId";
@@ -30,8 +50,12 @@ public class ProjectAccessManagerImpl implements ProjectAccessManager, Repositor
 
     public static final String ACCESSED = "accessed";
 
+    public static final String COUNT = "count";
+
     private final MongoCollection<Document> collection;
 
+    private final Map<AccessKey, PendingAccess> pendingAccesses = new ConcurrentHashMap<>();
+
     @Inject
     public ProjectAccessManagerImpl(@Nonnull MongoDatabase database) {
         this.collection = database.getCollection(COLLECTION_NAME);
@@ -46,13 +70,90 @@ public class ProjectAccessManagerImpl implements ProjectAccessManager, Repositor
 
     @Override
     public void logProjectAccess(ProjectId projectId, UserId userId, long timestamp) {
-        collection.updateOne(
-                and(eq(PROJECT_ID, projectId.getId()),
-                    eq(USER_ID, userId.getUserName())),
+        pendingAccesses.merge(new AccessKey(projectId, userId),
+                              new PendingAccess(1, timestamp),
+                              PendingAccess::merge);
+    }
+
+    /**
+     * Writes any buffered project accesses to the database.
+     */
+    public void flush() {
+        Map<AccessKey, PendingAccess> accesses = new HashMap<>();
+        for(var key : pendingAccesses.keySet()) {
+            var access = pendingAccesses.remove(key);
+            if(access != null) {
+                accesses.put(key, access);
+            }
+        }
+        if(accesses.isEmpty()) {
+            return;
+        }
+        List<WriteModel<Document>> updates = new ArrayList<>(accesses.size());
+        accesses.forEach((key, access) -> updates.add(toUpdate(key, access)));
+        try {
+            collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            logger.debug("Wrote {} project accesses", updates.size());
+        } catch(RuntimeException e) {
+            logger.error("Could not write project accesses: {}", e.getMessage(), e);
+            // Retry at the next flush
+            accesses.forEach((key, access) -> pendingAccesses.merge(key, access, PendingAccess::merge));
+        }
+    }
+
+    private static UpdateOneModel<Document> toUpdate(AccessKey key, PendingAccess access) {
+        return new UpdateOneModel<>(
+                and(eq(PROJECT_ID, key.projectId.getId()),
+                    eq(USER_ID, key.userId.getUserName())),
                 new Document()
-                        .append("$inc", new Document("count", 1))
-                        .append("$set", new Document(ACCESSED, new Date(timestamp))),
+                        .append("$inc", new Document(COUNT, access.count))
+                        .append("$max", new Document(ACCESSED, new Date(access.lastAccessed))),
                 new UpdateOptions().upsert(true)
         );
     }
+
+    private static final class AccessKey {
+
+        private final ProjectId projectId;
+
+        private final UserId userId;
+
+        private AccessKey(@Nonnull ProjectId projectId, @Nonnull UserId userId) {
+            this.projectId = checkNotNull(projectId);
+            this.userId = checkNotNull(userId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof AccessKey)) {
+                return false;
+            }
+            AccessKey other = (AccessKey) o;
+            return projectId.equals(other.projectId) && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, userId);
+        }
+    }
+
+    private static final class PendingAccess {
+
+        private final int count;
+
+        private final long lastAccessed;
+
+        private PendingAccess(int count, long lastAccessed) {
+            this.count = count;
+            this.lastAccessed = lastAccessed;
+        }
+
+        private PendingAccess merge(PendingAccess other) {
+            return new PendingAccess(count + other.count, Math.max(lastAccessed, other.lastAccessed));
+        }
+    }
 }
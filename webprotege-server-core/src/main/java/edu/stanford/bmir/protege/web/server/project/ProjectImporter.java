@@ -5,8 +5,9 @@ import com.google.auto.factory.Provided;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.change.*;
+import edu.stanford.bmir.protege.web.server.inject.ChangeHistoryFileFactory;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
-import edu.stanford.bmir.protege.web.server.revision.RevisionStoreFactory;
+import edu.stanford.bmir.protege.web.server.revision.RevisionSerializationTask;
 import edu.stanford.bmir.protege.web.server.upload.DocumentResolver;
 import edu.stanford.bmir.protege.web.server.upload.UploadedOntologiesProcessor;
 import edu.stanford.bmir.protege.web.server.util.MemoryMonitor;
@@ -15,14 +16,17 @@ import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -36,6 +40,8 @@ public class ProjectImporter {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectImporter.class);
 
+    private static final int MAX_CHANGES_PER_IMPORT_REVISION = 100_000;
+
     @Nonnull
     private final UploadedOntologiesProcessor uploadedOntologiesProcessor;
 
@@ -46,18 +52,18 @@ public class ProjectImporter {
     private final ProjectId projectId;
 
     @Nonnull
-    private final RevisionStoreFactory revisionStoreFactory;
+    private final ChangeHistoryFileFactory changeHistoryFileFactory;
 
     @AutoFactory
     @Inject
     public ProjectImporter(ProjectId projectId,
                            @Provided @Nonnull UploadedOntologiesProcessor uploadedOntologiesProcessor,
                            @Provided @Nonnull DocumentResolver documentResolver,
-                           @Provided @Nonnull RevisionStoreFactory revisionStoreFactory) {
+                           @Provided @Nonnull ChangeHistoryFileFactory changeHistoryFileFactory) {
         this.projectId = checkNotNull(projectId);
         this.uploadedOntologiesProcessor = checkNotNull(uploadedOntologiesProcessor);
         this.documentResolver = checkNotNull(documentResolver);
-        this.revisionStoreFactory = checkNotNull(revisionStoreFactory);
+        this.changeHistoryFileFactory = checkNotNull(changeHistoryFileFactory);
     }
 
 
@@ -65,49 +71,102 @@ public class ProjectImporter {
                                          UserId owner) throws IOException, OWLOntologyCreationException {
         logger.info("{} Creating project from sources", projectId);
         var stopwatch = Stopwatch.createStarted();
-        var uploadedOntologies = uploadedOntologiesProcessor.getUploadedOntologies(sourcesId);
+        var manager = uploadedOntologiesProcessor.getUploadedOntologiesManager(sourcesId);
         logger.info("{} Loaded sources in {} ms", projectId, stopwatch.elapsed(TimeUnit.MILLISECONDS));
         var memoryMonitor = new MemoryMonitor(logger);
         memoryMonitor.logMemoryUsage();
         logger.info("{} Writing change log", projectId);
-        generateInitialChanges(owner, uploadedOntologies);
+        writeInitialChanges(owner, manager);
         deleteSourceFile(sourcesId);
         logger.info("{} Project creation from sources complete in {} ms", projectId, stopwatch.elapsed(TimeUnit.MILLISECONDS));
         memoryMonitor.logMemoryUsage();
 
     }
 
-    private void generateInitialChanges(UserId owner, Collection<Ontology> uploadedOntologies) {
-        ImmutableList<OntologyChange> changeRecords = getInitialChangeRecords(uploadedOntologies);
-        logger.info("{} Writing initial revision containing {} change records", projectId, changeRecords.size());
-        Stopwatch stopwatch = Stopwatch.createStarted();
-        var revisionStore = revisionStoreFactory.createRevisionStore(projectId);
-        revisionStore.addRevision(
-                new Revision(
-                        owner,
-                        RevisionNumber.getRevisionNumber(1),
-                        changeRecords,
-                        System.currentTimeMillis(),
-                        "Initial import"));
-        logger.info("{} Initial revision written in {} ms", projectId, stopwatch.elapsed(TimeUnit.MILLISECONDS));
-    }
-
-    private ImmutableList<OntologyChange> getInitialChangeRecords(Collection<Ontology> ontologies) {
-        ImmutableList.Builder<OntologyChange> changeRecordList = ImmutableList.builder();
-        for (var ont : ontologies) {
-            var axioms = ont.getAxioms();
-            logger.info("{} Processing ontology source ({} axioms)", projectId, axioms.size());
+    /**
+     * Writes the initial changes directly from the parsed ontologies to the change log.  The changes are
+     * written in revisions of at most {@link #MAX_CHANGES_PER_IMPORT_REVISION} changes, and each ontology
+     * is removed from the manager once it has been written, so that the full change list is never held
+     * in memory.
+     */
+    private void writeInitialChanges(UserId owner, OWLOntologyManager manager) throws IOException {
+        var stopwatch = Stopwatch.createStarted();
+        var changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
+        changeHistoryFile.getParentFile().mkdirs();
+        var writer = new InitialRevisionWriter(changeHistoryFile, owner, System.currentTimeMillis());
+        for (var ont : ImmutableList.copyOf(manager.getOntologies())) {
+            var ontologyId = ont.getOntologyID();
+            logger.info("{} Processing ontology source ({} axioms)", projectId, ont.getAxiomCount());
             for (var axiom : ont.getAxioms()) {
-                changeRecordList.add(AddAxiomChange.of(ont.getOntologyId(), axiom));
+                writer.add(AddAxiomChange.of(ontologyId, axiom));
             }
             for (var annotation : ont.getAnnotations()) {
-                changeRecordList.add(AddOntologyAnnotationChange.of(ont.getOntologyId(), annotation));
+                writer.add(AddOntologyAnnotationChange.of(ontologyId, annotation));
             }
             for (var importsDeclaration : ont.getImportsDeclarations()) {
-                changeRecordList.add(AddImportChange.of(ont.getOntologyId(), importsDeclaration));
+                writer.add(AddImportChange.of(ontologyId, importsDeclaration));
+            }
+            manager.removeOntology(ont);
+        }
+        writer.flush();
+        logger.info("{} Wrote {} change records in {} revisions in {} ms",
+                    projectId,
+                    writer.getChangeCount(),
+                    writer.getRevisionCount(),
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    private class InitialRevisionWriter {
+
+        private final File changeHistoryFile;
+
+        private final UserId owner;
+
+        private final long timestamp;
+
+        private final List<OntologyChange> buffer = new ArrayList<>();
+
+        private int revisionCount = 0;
+
+        private long changeCount = 0;
+
+        private InitialRevisionWriter(File changeHistoryFile, UserId owner, long timestamp) {
+            this.changeHistoryFile = changeHistoryFile;
+            this.owner = owner;
+            this.timestamp = timestamp;
+        }
+
+        public void add(OntologyChange change) throws IOException {
+            buffer.add(change);
+            if (buffer.size() >= MAX_CHANGES_PER_IMPORT_REVISION) {
+                flush();
+            }
+        }
+
+        public void flush() throws IOException {
+            if (buffer.isEmpty() && revisionCount > 0) {
+                return;
             }
+            revisionCount++;
+            changeCount += buffer.size();
+            var description = revisionCount == 1 ? "Initial import" : "Initial import (continued)";
+            var revision = new Revision(owner,
+                                        RevisionNumber.getRevisionNumber(revisionCount),
+                                        ImmutableList.copyOf(buffer),
+                                        timestamp,
+                                        description);
+            buffer.clear();
+            new RevisionSerializationTask(changeHistoryFile, revision).call();
+            logger.info("{} Wrote initial revision {} ({} change records so far)", projectId, revisionCount, changeCount);
+        }
+
+        public int getRevisionCount() {
+            return revisionCount;
+        }
+
+        public long getChangeCount() {
+            return changeCount;
         }
-        return changeRecordList.build();
     }
 
     private void deleteSourceFile(DocumentId sourceFileId) {
@@ -1,10 +1,13 @@
 package edu.stanford.bmir.protege.web.server.project;
 
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLOntologyIRIMapper;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * @author Matthew Horridge,
@@ -27,6 +30,15 @@ public interface RawProjectSources {
      */
     OWLOntologyIRIMapper getOntologyIRIMapper();
 
+    /**
+     * Gets the ontology documents that were extracted along with the document sources and that may be
+     * imported by them.  These documents can be parsed independently of each other.
+     * @return A map of ontology IRIs to the IRIs of the documents that contain the ontologies.  Not {@code null}.
+     */
+    default Map<IRI, IRI> getExtractedOntologyDocuments() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Cleans up any temporary files associated with this set of raw project resources.
      */
@@ -1,10 +1,27 @@
 package edu.stanford.bmir.protege.web.server.project;
 
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.server.owlapi.WebProtegeOWLManager;
+import org.semanticweb.owlapi.io.IRIDocumentSource;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
-import org.semanticweb.owlapi.model.OWLOntology;
-import org.semanticweb.owlapi.model.OWLOntologyCreationException;
-import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
-import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Matthew Horridge,
@@ -14,25 +31,227 @@ import org.semanticweb.owlapi.model.OWLOntologyManager;
  */
 public class RawProjectSourcesImporter {
 
+    private static final Logger logger = LoggerFactory.getLogger(RawProjectSourcesImporter.class);
+
     private OWLOntologyManager manager;
 
     private OWLOntologyLoaderConfiguration loaderConfig;
 
-    public RawProjectSourcesImporter(OWLOntologyManager manager, OWLOntologyLoaderConfiguration loaderConfig) {
+    private ExecutorService parsingService;
+
+    public RawProjectSourcesImporter(OWLOntologyManager manager,
+                                     OWLOntologyLoaderConfiguration loaderConfig,
+                                     ExecutorService parsingService) {
         this.manager = manager;
         this.loaderConfig = loaderConfig;
+        this.parsingService = parsingService;
     }
 
     public OWLOntology importRawProjectSources(RawProjectSources projectSources) throws OWLOntologyCreationException {
+        Map<IRI, IRI> extractedDocuments = projectSources.getExtractedOntologyDocuments();
+        Set<OWLOntology> parsedOntologies = new HashSet<>();
+        if (extractedDocuments.size() > 1) {
+            parsedOntologies.addAll(parseExtractedDocuments(extractedDocuments));
+        }
+        OWLOntologyIRIMapper iriMapper = projectSources.getOntologyIRIMapper();
         try {
-            manager.getIRIMappers().add(projectSources.getOntologyIRIMapper());
+            manager.getIRIMappers().add(iriMapper);
             OWLOntology ontology = null;
+            Set<OWLOntology> loadedOntologies = new HashSet<>();
             for (OWLOntologyDocumentSource documentSource : projectSources.getDocumentSources()) {
-                ontology = manager.loadOntologyFromOntologyDocument(documentSource, loaderConfig);
+                try {
+                    ontology = manager.loadOntologyFromOntologyDocument(documentSource, loaderConfig);
+                } catch (OWLOntologyAlreadyExistsException e) {
+                    // Already parsed along with the other extracted documents
+                    ontology = manager.getOntology(e.getOntologyID());
+                } catch (OWLOntologyDocumentAlreadyExistsException e) {
+                    ontology = getOntologyForDocument(e.getOntologyDocumentIRI());
+                }
+                if (ontology != null) {
+                    loadedOntologies.addAll(ontology.getImportsClosure());
+                }
             }
+            removeUnimportedOntologies(parsedOntologies, loadedOntologies);
             return ontology;
         } finally {
-            manager.getIRIMappers().remove(projectSources.getOntologyIRIMapper());
+            manager.getIRIMappers().remove(iriMapper);
+        }
+    }
+
+    /**
+     * Removes the parsed ontologies that are not in the imports closure of any of the loaded document sources.
+     * An archive may contain ontology documents that the root ontology does not import, and these must not
+     * end up in the project.
+     */
+    private void removeUnimportedOntologies(Set<OWLOntology> parsedOntologies,
+                                            Set<OWLOntology> loadedOntologies) {
+        for (OWLOntology parsedOntology : parsedOntologies) {
+            if (!loadedOntologies.contains(parsedOntology)) {
+                logger.info("Ignoring {} because it is not imported by the root ontology",
+                            parsedOntology.getOntologyID());
+                manager.removeOntology(parsedOntology);
+            }
+        }
+    }
+
+    private OWLOntology getOntologyForDocument(IRI documentIri) {
+        for (OWLOntology ontology : manager.getOntologies()) {
+            if (manager.getOntologyDocumentIRI(ontology).equals(documentIri)) {
+                return ontology;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses the extracted documents concurrently and moves the parsed ontologies into the main manager in
+     * dependency order, imports first.  Every document is first parsed into its own manager with imports of
+     * other extracted documents ignored.  That parse is kept for documents that do not import any of the others.
+     * A document that does import others is parsed again once all of its imports are in the main manager, this
+     * time into a manager that holds copies of its imports closure.  Entities are then typed by the declarations
+     * in its imports, exactly as they are when the documents are loaded one at a time.  Documents that cannot be
+     * parsed here, including documents in import cycles, are left for the main manager to load, and report errors
+     * for, as usual.
+     * @return The ontologies that were parsed and moved into the main manager.
+     */
+    private Set<OWLOntology> parseExtractedDocuments(Map<IRI, IRI> extractedDocuments) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Set<IRI> documentIris = new HashSet<>(extractedDocuments.values());
+        // Document IRIs mapped to the parsed ontologies in the main manager
+        Map<IRI, OWLOntology> parsedOntologies = new HashMap<>();
+        // Document IRIs mapped to the document IRIs of the extracted documents that they import
+        Map<IRI, Set<IRI>> importingDocuments = new HashMap<>();
+        OWLOntologyLoaderConfiguration parsingConfig = loaderConfig;
+        for (IRI ontologyIri : extractedDocuments.keySet()) {
+            parsingConfig = parsingConfig.addIgnoredImport(ontologyIri);
+        }
+        try {
+            Map<IRI, Callable<OWLOntology>> tasks = new LinkedHashMap<>();
+            for (IRI documentIri : documentIris) {
+                tasks.put(documentIri,
+                          createParsingTask(documentIri, WebProtegeOWLManager.createOWLOntologyManager(), parsingConfig));
+            }
+            parseAll(tasks).forEach((documentIri, ontology) -> {
+                Set<IRI> importedDocuments = getImportedDocuments(ontology, extractedDocuments);
+                if (importedDocuments.isEmpty()) {
+                    moveToManager(ontology).ifPresent(movedOntology -> parsedOntologies.put(documentIri, movedOntology));
+                }
+                else {
+                    importingDocuments.put(documentIri, importedDocuments);
+                }
+            });
+            while (!tasks.isEmpty()) {
+                tasks.clear();
+                Iterator<Map.Entry<IRI, Set<IRI>>> iterator = importingDocuments.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<IRI, Set<IRI>> entry = iterator.next();
+                    if (parsedOntologies.keySet().containsAll(entry.getValue())) {
+                        iterator.remove();
+                        IRI documentIri = entry.getKey();
+                        createParsingManager(entry.getValue(), parsedOntologies)
+                                .map(parsingManager -> createParsingTask(documentIri, parsingManager, loaderConfig))
+                                .ifPresent(task -> tasks.put(documentIri, task));
+                    }
+                }
+                parseAll(tasks).forEach((documentIri, ontology) -> {
+                    moveToManager(ontology).ifPresent(movedOntology -> parsedOntologies.put(documentIri, movedOntology));
+                });
+            }
+            logger.info("Parsed {} of {} extracted documents in {} ms",
+                        parsedOntologies.size(),
+                        documentIris.size(),
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while parsing extracted documents");
+            Thread.currentThread().interrupt();
+        }
+        return new HashSet<>(parsedOntologies.values());
+    }
+
+    /**
+     * Runs the parsing tasks concurrently and waits for them to finish.
+     * @return The document IRIs mapped to the ontologies that were parsed from them.  Documents that could
+     * not be parsed, or whose ontologies are already in the main manager, are omitted.
+     */
+    private Map<IRI, OWLOntology> parseAll(Map<IRI, Callable<OWLOntology>> tasks) throws InterruptedException {
+        List<IRI> documentIris = new ArrayList<>(tasks.keySet());
+        List<Future<OWLOntology>> futures = parsingService.invokeAll(tasks.values());
+        Map<IRI, OWLOntology> ontologies = new LinkedHashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            OWLOntology ontology = getParsedOntology(futures.get(i));
+            if (ontology != null && !manager.contains(ontology.getOntologyID())) {
+                ontologies.put(documentIris.get(i), ontology);
+            }
+        }
+        return ontologies;
+    }
+
+    /**
+     * Gets the document IRIs of the extracted documents that are directly imported by the specified ontology
+     */
+    private static Set<IRI> getImportedDocuments(OWLOntology ontology, Map<IRI, IRI> extractedDocuments) {
+        Set<IRI> importedDocuments = new HashSet<>();
+        for (OWLImportsDeclaration importsDeclaration : ontology.getImportsDeclarations()) {
+            IRI documentIri = extractedDocuments.get(importsDeclaration.getIRI());
+            if (documentIri != null) {
+                importedDocuments.add(documentIri);
+            }
+        }
+        return importedDocuments;
+    }
+
+    /**
+     * Creates a manager for parsing a document that holds copies of the imports closures of the specified
+     * documents.  The copies are made on the calling thread, which is the only thread that uses the main manager.
+     */
+    private static Optional<OWLOntologyManager> createParsingManager(Set<IRI> importedDocuments,
+                                                                     Map<IRI, OWLOntology> parsedOntologies) {
+        OWLOntologyManager parsingManager = WebProtegeOWLManager.createOWLOntologyManager();
+        Set<OWLOntology> importsClosure = new HashSet<>();
+        for (IRI importedDocument : importedDocuments) {
+            importsClosure.addAll(parsedOntologies.get(importedDocument).getImportsClosure());
+        }
+        try {
+            for (OWLOntology importedOntology : importsClosure) {
+                parsingManager.copyOntology(importedOntology, OntologyCopy.SHALLOW);
+            }
+            return Optional.of(parsingManager);
+        } catch (OWLOntologyCreationException e) {
+            logger.info("Could not copy imported ontology for parsing: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<OWLOntology> moveToManager(OWLOntology ontology) {
+        try {
+            return Optional.of(manager.copyOntology(ontology, OntologyCopy.MOVE));
+        } catch (OWLOntologyCreationException e) {
+            logger.info("Could not add parsed ontology to the manager: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Callable<OWLOntology> createParsingTask(IRI documentIri,
+                                                           OWLOntologyManager parsingManager,
+                                                           OWLOntologyLoaderConfiguration parsingConfig) {
+        return () -> {
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            OWLOntology ontology = parsingManager.loadOntologyFromOntologyDocument(new IRIDocumentSource(documentIri),
+                                                                                   parsingConfig);
+            logger.info("Parsed {} ({} axioms) in {} ms",
+                        documentIri,
+                        ontology.getAxiomCount(),
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            return ontology;
+        };
+    }
+
+    private static OWLOntology getParsedOntology(Future<OWLOntology> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            logger.info("Could not parse extracted document: {}", e.getCause().getMessage());
+            return null;
         }
     }
 
@@ -8,6 +8,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.semanticweb.owlapi.io.FileDocumentSource;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLOntologyIRIMapper;
 import org.semanticweb.owlapi.util.AutoIRIMapper;
 
@@ -16,6 +17,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -72,11 +75,20 @@ public class ZipArchiveProjectSourcesExtractor implements RawProjectSourcesExtra
 
         private File baseDirectory;
 
+        private AutoIRIMapper iriMapper;
+
         private ExtractedZipArchiveProjectSources(File rootOntologyDocument, File baseDirectory) {
             this.rootOntologyDocument = rootOntologyDocument;
             this.baseDirectory = baseDirectory;
         }
 
+        private synchronized AutoIRIMapper getAutoIRIMapper() {
+            if(iriMapper == null) {
+                iriMapper = new AutoIRIMapper(baseDirectory, true);
+            }
+            return iriMapper;
+        }
+
         @Override
         public Collection<OWLOntologyDocumentSource> getDocumentSources() {
             return Lists.newArrayList(new FileDocumentSource(rootOntologyDocument));
@@ -84,7 +96,20 @@ public class ZipArchiveProjectSourcesExtractor implements RawProjectSourcesExtra
 
         @Override
         public OWLOntologyIRIMapper getOntologyIRIMapper() {
-            return new AutoIRIMapper(baseDirectory, true);
+            return getAutoIRIMapper();
+        }
+
+        @Override
+        public Map<IRI, IRI> getExtractedOntologyDocuments() {
+            AutoIRIMapper mapper = getAutoIRIMapper();
+            Map<IRI, IRI> documents = new LinkedHashMap<>();
+            for(IRI ontologyIri : mapper.getOntologyIRIs()) {
+                IRI documentIri = mapper.getDocumentIRI(ontologyIri);
+                if(documentIri != null) {
+                    documents.put(ontologyIri, documentIri);
+                }
+            }
+            return documents;
         }
 
         @Override
@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.project.chg;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.access.ProjectResource;
 import edu.stanford.bmir.protege.web.server.app.UserInSessionFactory;
@@ -10,12 +11,15 @@ import edu.stanford.bmir.protege.web.server.change.*;
 import edu.stanford.bmir.protege.web.server.crud.*;
 import edu.stanford.bmir.protege.web.server.events.EventManager;
 import edu.stanford.bmir.protege.web.server.events.EventTranslatorManager;
+import edu.stanford.bmir.protege.web.server.frame.FrameCache;
 import edu.stanford.bmir.protege.web.server.hierarchy.AnnotationPropertyHierarchyProviderImpl;
 import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProviderImpl;
 import edu.stanford.bmir.protege.web.server.hierarchy.DataPropertyHierarchyProviderImpl;
 import edu.stanford.bmir.protege.web.server.hierarchy.ObjectPropertyHierarchyProviderImpl;
+import edu.stanford.bmir.protege.web.server.index.IndexUpdatingService;
 import edu.stanford.bmir.protege.web.server.index.RootIndex;
 import edu.stanford.bmir.protege.web.server.index.impl.IndexUpdater;
+import edu.stanford.bmir.protege.web.server.individuals.RenderingOrderedIndividualsIndex;
 import edu.stanford.bmir.protege.web.server.lang.ActiveLanguagesManager;
 import edu.stanford.bmir.protege.web.server.owlapi.OWLEntityCreator;
 import edu.stanford.bmir.protege.web.server.owlapi.RenameMap;
@@ -46,10 +50,17 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.server.access.Subject.forUser;
@@ -147,6 +158,15 @@ public class ChangeManager implements HasApplyChanges {
     @Nonnull
     private final IriReplacerFactory iriReplacerFactory;
 
+    @Nonnull
+    private final RenderingOrderedIndividualsIndex renderingOrderedIndividualsIndex;
+
+    @Nonnull
+    private final FrameCache frameCache;
+
+    @Nonnull
+    private final ExecutorService indexUpdatingService;
+
     @Inject
     public ChangeManager(@Nonnull ProjectId projectId,
                          @Nonnull OWLDataFactory dataFactory,
@@ -172,7 +192,10 @@ public class ChangeManager implements HasApplyChanges {
                          @Nonnull BuiltInPrefixDeclarations builtInPrefixDeclarations,
                          @Nonnull IndexUpdater indexUpdater,
                          @Nonnull DefaultOntologyIdManager defaultOntologyIdManager,
-                         @Nonnull IriReplacerFactory iriReplacerFactory) {
+                         @Nonnull IriReplacerFactory iriReplacerFactory,
+                         @Nonnull RenderingOrderedIndividualsIndex renderingOrderedIndividualsIndex,
+                         @Nonnull FrameCache frameCache,
+                         @Nonnull @IndexUpdatingService ExecutorService indexUpdatingService) {
         this.projectId = projectId;
         this.dataFactory = dataFactory;
         this.dictionaryUpdatesProcessor = dictionaryUpdatesProcessor;
@@ -198,6 +221,9 @@ public class ChangeManager implements HasApplyChanges {
         this.indexUpdater = indexUpdater;
         this.defaultOntologyIdManager = defaultOntologyIdManager;
         this.iriReplacerFactory = iriReplacerFactory;
+        this.renderingOrderedIndividualsIndex = renderingOrderedIndividualsIndex;
+        this.frameCache = frameCache;
+        this.indexUpdatingService = checkNotNull(indexUpdatingService);
     }
 
     /**
@@ -495,9 +521,11 @@ public class ChangeManager implements HasApplyChanges {
         // Update indexes in response to the changes
         indexUpdater.updateIndexes(ImmutableList.copyOf(changes));
 
+        // The hierarchies and active languages only depend upon the indexes, so they are updated concurrently.
+        // The dictionary is updated afterwards because its search filter fields may match against the hierarchies.
+        updateHierarchiesAndActiveLanguages(changes);
 
         // Update the rendering first so that a proper change message is generated
-        activeLanguagesManager.handleChanges(changes);
         dictionaryUpdatesProcessor.handleChanges(changes);
 
         // Generate a description for the changes that were actually applied
@@ -506,13 +534,62 @@ public class ChangeManager implements HasApplyChanges {
         // Log the changes
         var revision = changeManager.addRevision(userId, changes, changeDescription);
 
-        classHierarchyProvider.handleChanges(changes);
-        objectPropertyHierarchyProvider.handleChanges(changes);
-        dataPropertyHierarchyProvider.handleChanges(changes);
-        annotationPropertyHierarchyProvider.handleChanges(changes);
+        // Depends upon the dictionaries and the class hierarchy
+        renderingOrderedIndividualsIndex.handleChanges(changes);
+        frameCache.handleChanges(changes);
         return revision;
     }
 
+    /**
+     * Updates the hierarchies and the active languages concurrently and waits for all of the updates to
+     * finish.  The wait is not interruptible, because the updates cannot be abandoned part way through without
+     * leaving these structures out of step with the indexes.  The interrupt status is restored afterwards.
+     */
+    private void updateHierarchiesAndActiveLanguages(List<OntologyChange> changes) {
+        var tasks = List.<Callable<Void>>of(
+                () -> handleChanges(changes, classHierarchyProvider::handleChanges),
+                () -> handleChanges(changes, objectPropertyHierarchyProvider::handleChanges),
+                () -> handleChanges(changes, dataPropertyHierarchyProvider::handleChanges),
+                () -> handleChanges(changes, annotationPropertyHierarchyProvider::handleChanges),
+                () -> handleChanges(changes, activeLanguagesManager::handleChanges)
+        );
+        var futures = new ArrayList<Future<Void>>();
+        for(var task : tasks) {
+            futures.add(submitOrRun(task));
+        }
+        RuntimeException failure = null;
+        for(var future : futures) {
+            try {
+                Uninterruptibles.getUninterruptibly(future);
+            } catch(ExecutionException e) {
+                if(failure == null) {
+                    var cause = e.getCause();
+                    failure = cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+                }
+            }
+        }
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    private Future<Void> submitOrRun(Callable<Void> task) {
+        try {
+            return indexUpdatingService.submit(task);
+        } catch(RejectedExecutionException e) {
+            // The executor is shutting down.  Run the update here so that it is not lost.
+            var futureTask = new FutureTask<>(task);
+            futureTask.run();
+            return futureTask;
+        }
+    }
+
+    private static Void handleChanges(List<OntologyChange> changes,
+                                      Consumer<List<OntologyChange>> handler) {
+        handler.accept(changes);
+        return null;
+    }
+
     private <R> void generateAndDispatchHighLevelEvents(UserId userId,
                                                         ChangeListGenerator<R> changeListGenerator,
                                                         ChangeApplicationResult<R> finalResult,
@@ -3,20 +3,22 @@ package edu.stanford.bmir.protege.web.server.revision;
 import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.axiom.AxiomSubjectProvider;
 import edu.stanford.bmir.protege.web.server.change.OntologyChange;
-import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.semanticweb.owlapi.model.*;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 27/05/15
+ * <p>
+ * Computes the entities that are the subjects of changes in a revision.  Computed entity sets are held
+ * in the shared {@link RevisionCache}.
+ * </p>
  */
 public class EntitiesByRevisionCache {
 
@@ -26,15 +28,21 @@ public class EntitiesByRevisionCache {
 
     private final OWLDataFactory dataFactory;
 
-    private final Map<RevisionNumber, ImmutableSet<OWLEntity>> entity2Revisions = new HashMap<>();
+    private final ProjectId projectId;
+
+    private final RevisionCache revisionCache;
 
     @Inject
     public EntitiesByRevisionCache(@Nonnull AxiomSubjectProvider axiomSubjectProvider,
                                    @Nonnull HasContainsEntityInSignature hasContainsEntityInSignature,
-                                   @Nonnull OWLDataFactory dataFactory) {
+                                   @Nonnull OWLDataFactory dataFactory,
+                                   @Nonnull ProjectId projectId,
+                                   @Nonnull RevisionCache revisionCache) {
         this.axiomSubjectProvider = axiomSubjectProvider;
         this.hasContainsEntityInSignature = hasContainsEntityInSignature;
         this.dataFactory = dataFactory;
+        this.projectId = projectId;
+        this.revisionCache = revisionCache;
     }
 
     public boolean containsEntity(Revision revision, OWLEntity entity) {
@@ -42,13 +50,11 @@ public class EntitiesByRevisionCache {
     }
 
     public ImmutableSet<OWLEntity> getEntities(Revision revision) {
-        ImmutableSet<OWLEntity> cachedEntities = entity2Revisions.get(revision.getRevisionNumber());
-        if(cachedEntities != null) {
-            return cachedEntities;
-        }
-        ImmutableSet<OWLEntity> entitiesToCache = getEntitiesInternal(revision);
-        entity2Revisions.put(revision.getRevisionNumber(), entitiesToCache);
-        return entitiesToCache;
+        return revisionCache.get(projectId,
+                                 EntitiesByRevisionCache.class,
+                                 revision.getRevisionNumber(),
+                                 () -> getEntitiesInternal(revision),
+                                 ImmutableSet::size);
     }
 
     private ImmutableSet<OWLEntity> getEntitiesInternal(Revision revision) {
@@ -53,25 +53,31 @@ public class ProjectChangesManager {
 
     private final Provider<Revision2DiffElementsTranslator> revision2DiffElementsTranslatorProvider;
 
-    private final Table<RevisionNumber, Optional<IRI>, ImmutableList<OntologyChange>> cache = HashBasedTable.create();
+    private final RevisionsBySubjectIndex revisionsBySubjectIndex;
+
+    private final RevisionCache revisionCache;
 
     @Inject
     public ProjectChangesManager(ProjectId projectId,
                                  @Nonnull RevisionManager revisionManager,
                                  @Nonnull RenderingManager browserTextProvider,
                                  @Nonnull Comparator<OntologyChange> changeRecordComparator,
-                                 @Nonnull Provider<Revision2DiffElementsTranslator> revision2DiffElementsTranslatorProvider) {
+                                 @Nonnull Provider<Revision2DiffElementsTranslator> revision2DiffElementsTranslatorProvider,
+                                 @Nonnull RevisionsBySubjectIndex revisionsBySubjectIndex,
+                                 @Nonnull RevisionCache revisionCache) {
         this.projectId = projectId;
         this.revisionManager = revisionManager;
         this.browserTextProvider = browserTextProvider;
         this.changeRecordComparator = changeRecordComparator;
         this.revision2DiffElementsTranslatorProvider = revision2DiffElementsTranslatorProvider;
+        this.revisionsBySubjectIndex = revisionsBySubjectIndex;
+        this.revisionCache = revisionCache;
     }
 
-    private static Multimap<Optional<IRI>, OntologyChange> getChangesBySubject(Revision revision) {
-        Multimap<Optional<IRI>, OntologyChange> results = HashMultimap.create();
+    private static ImmutableListMultimap<Optional<IRI>, OntologyChange> getChangesBySubject(Revision revision) {
+        ImmutableListMultimap.Builder<Optional<IRI>, OntologyChange> results = ImmutableListMultimap.builder();
         revision.getChanges().forEach(record -> results.put(getSubject(record), record));
-        return results;
+        return results.build();
     }
 
     private static Optional<IRI> getSubject(OntologyChange change) {
@@ -91,26 +97,25 @@ public class ProjectChangesManager {
 
     public Page<ProjectChange> getProjectChanges(Optional<OWLEntity> subject,
                                                  PageRequest pageRequest) {
-        ImmutableList<Revision> revisions = revisionManager.getRevisions();
         if (subject.isPresent()) {
-            // We need to scan revisions to find the ones containing a particular subject
-            // We ignore the page request here.
-            // This needs reworking really, but the number of changes per entity is usually small
-            // so this works for now.
+            // We ignore the page request here.  The number of changes per entity is usually small.
             ImmutableList.Builder<ProjectChange> changes = ImmutableList.builder();
-            for (Revision revision : revisions) {
-                getProjectChangesForRevision(revision, subject, changes);
+            var revisionNumbers = revisionsBySubjectIndex.getRevisionNumbers(subject.get().getIRI());
+            for (long revisionNumber : revisionNumbers) {
+                revisionManager.getRevision(RevisionNumber.getRevisionNumber(revisionNumber))
+                               .ifPresent(revision -> getProjectChangesForRevision(revision, subject.map(OWLEntity::getIRI), changes));
             }
             ImmutableList<ProjectChange> theChanges = changes.build();
             return new Page<>(1, 1, theChanges, theChanges.size());
         }
         else {
+            ImmutableList<Revision> revisions = revisionManager.getRevisions();
             // Pages are in reverse order
             ImmutableList.Builder<ProjectChange> changes = ImmutableList.builder();
             revisions.reverse().stream()
                     .skip(pageRequest.getSkip())
                     .limit(pageRequest.getPageSize())
-                    .forEach(revision -> getProjectChangesForRevision(revision, subject, changes));
+                    .forEach(revision -> getProjectChangesForRevision(revision, Optional.empty(), changes));
             ImmutableList<ProjectChange> changeList = changes.build();
             int pageCount = (revisions.size() / pageRequest.getPageSize()) + 1;
             return new Page<>(pageRequest.getPageNumber(),
@@ -120,28 +125,34 @@ public class ProjectChangesManager {
     }
 
     public ImmutableList<ProjectChange> getProjectChangesForSubjectInRevision(OWLEntity subject, Revision revision) {
+        return getProjectChangesForSubjectInRevision(subject.getIRI(), revision);
+    }
+
+    public ImmutableList<ProjectChange> getProjectChangesForSubjectInRevision(IRI subject, Revision revision) {
         ImmutableList.Builder<ProjectChange> resultBuilder = ImmutableList.builder();
         getProjectChangesForRevision(revision, Optional.of(subject), resultBuilder);
         return resultBuilder.build();
     }
 
+    /**
+     * Gets the subjects of the changes in the specified revision.
+     * @param revision The revision.
+     * @return The distinct subjects, in the order in which they are first changed in the revision.
+     */
+    public ImmutableList<IRI> getSubjectsInRevision(Revision revision) {
+        return getCachedChangesBySubject(revision).keySet().stream()
+                                                  .flatMap(Optional::stream)
+                                                  .collect(ImmutableList.toImmutableList());
+    }
+
     private void getProjectChangesForRevision(Revision revision,
-                                              Optional<OWLEntity> subject,
+                                              Optional<IRI> subject,
                                               ImmutableList.Builder<ProjectChange> changesBuilder) {
-        if(!cache.containsRow(revision.getRevisionNumber())) {
-            logger.debug("{} Building cache for revision {}", projectId, revision.getRevisionNumber().getValue());
-            var stopwatch = Stopwatch.createStarted();
-            var changeRecordsBySubject = getChangesBySubject(revision);
-            changeRecordsBySubject.asMap().forEach((subj, records) -> {
-                cache.put(revision.getRevisionNumber(), subj, ImmutableList.copyOf(records));
-            });
-            logger.debug("{} Cached revision {} in {} ms", projectId, revision.getRevisionNumber().getValue(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
-        }
         List<OntologyChange> limitedRecords = new ArrayList<>();
         final int totalChanges;
         if (subject.isPresent()) {
-            List<OntologyChange> records = cache.get(revision.getRevisionNumber(), subject.map(OWLEntity::getIRI));
-            if (records == null) {
+            List<OntologyChange> records = getCachedChangesBySubject(revision).get(subject);
+            if (records.isEmpty()) {
                 // Nothing in this revision that changes the subject
                 return;
             }
@@ -184,6 +195,22 @@ public class ProjectChangesManager {
         changesBuilder.add(projectChange);
     }
 
+    private ImmutableListMultimap<Optional<IRI>, OntologyChange> getCachedChangesBySubject(Revision revision) {
+        return revisionCache.get(projectId,
+                                 ProjectChangesManager.class,
+                                 revision.getRevisionNumber(),
+                                 () -> {
+                                     var stopwatch = Stopwatch.createStarted();
+                                     var changesBySubject = getChangesBySubject(revision);
+                                     logger.debug("{} Cached revision {} in {} ms",
+                                                  projectId,
+                                                  revision.getRevisionNumber().getValue(),
+                                                  stopwatch.elapsed(TimeUnit.MILLISECONDS));
+                                     return changesBySubject;
+                                 },
+                                 ImmutableListMultimap::size);
+    }
+
     private List<DiffElement<String, SafeHtml>> renderDiffElements(List<DiffElement<String, OntologyChange>> axiomDiffElements) {
 
         List<DiffElement<String, SafeHtml>> diffElements = new ArrayList<>();
@@ -0,0 +1,224 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * A cache for values that are derived from project revisions.  The cache is shared by all loaded projects
+ * and is bounded by weight, where the weight of a value is roughly the number of changes or entities that
+ * it holds.  The least recently used values are evicted when the total weight exceeds the budget.
+ * Revisions are immutable so cached values only need to be invalidated when their project is unloaded.
+ * </p>
+ * <p>
+ * The cache has a single segment.  Guava splits the budget of a weighted cache evenly between its segments,
+ * so with several segments a value for a large revision that is heavier than one segment's share of the
+ * budget would be evicted as soon as it was cached.  Values that are heavier than the whole budget are not
+ * cached, rather than evicting every other value.
+ * </p>
+ */
+@ApplicationSingleton
+public class RevisionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevisionCache.class);
+
+    private static final int STATS_LOGGING_INTERVAL = 10_000;
+
+    private final Cache<Key, WeightedValue> cache;
+
+    private final long budget;
+
+    @Inject
+    public RevisionCache(@RevisionCacheBudget long budget) {
+        this.budget = budget;
+        cache = CacheBuilder.newBuilder()
+                            .concurrencyLevel(1)
+                            .maximumWeight(budget)
+                            .weigher((Key key, WeightedValue value) -> value.getWeight())
+                            .recordStats()
+                            .build();
+    }
+
+    /**
+     * Gets a value, computing it and caching it if necessary.
+     * @param projectId The project that the revision belongs to.
+     * @param kind The kind of value.  Different kinds of value for the same revision are cached separately.
+     * @param revisionNumber The revision number.
+     * @param valueSupplier A supplier that computes the value.
+     * @param weigher A function that computes the weight of a value.
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public <V> V get(@Nonnull ProjectId projectId,
+                     @Nonnull Class<?> kind,
+                     @Nonnull RevisionNumber revisionNumber,
+                     @Nonnull Supplier<V> valueSupplier,
+                     @Nonnull ToIntFunction<V> weigher) {
+        var key = new Key(projectId, kind, revisionNumber);
+        try {
+            var weightedValue = cache.get(key, () -> {
+                var value = valueSupplier.get();
+                var weight = weigher.applyAsInt(value);
+                if(weight > budget) {
+                    throw new OversizedValueException(value, weight);
+                }
+                return new WeightedValue(value, weight);
+            });
+            logStats();
+            return (V) weightedValue.getValue();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            if(e.getCause() instanceof OversizedValueException) {
+                var oversizedValueException = (OversizedValueException) e.getCause();
+                logger.debug("{} Not caching {} for revision {} because its weight, {}, exceeds the budget",
+                             projectId,
+                             kind.getSimpleName(),
+                             revisionNumber.getValue(),
+                             oversizedValueException.getWeight());
+                return (V) oversizedValueException.getValue();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Invalidates the cached values for the specified project.
+     * @param projectId The project.
+     */
+    public void invalidate(@Nonnull ProjectId projectId) {
+        checkNotNull(projectId);
+        cache.asMap().keySet().removeIf(key -> key.projectId.equals(projectId));
+    }
+
+    private void logStats() {
+        if(!logger.isDebugEnabled()) {
+            return;
+        }
+        var stats = cache.stats();
+        if(stats.requestCount() % STATS_LOGGING_INTERVAL == 0) {
+            logger.debug("Revision cache: {} entries, hit rate {}, {} hits, {} misses, {} evictions",
+                         cache.size(),
+                         String.format("%.2f", stats.hitRate()),
+                         stats.hitCount(),
+                         stats.missCount(),
+                         stats.evictionCount());
+        }
+    }
+
+    /**
+     * Gets the hit, miss and eviction statistics for this cache.
+     */
+    @Nonnull
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Gets the total weight of the values that are currently cached.
+     */
+    public long getWeight() {
+        return cache.asMap().values().stream()
+                    .mapToLong(WeightedValue::getWeight)
+                    .sum();
+    }
+
+    private static final class Key {
+
+        private final ProjectId projectId;
+
+        private final Class<?> kind;
+
+        private final RevisionNumber revisionNumber;
+
+        private Key(@Nonnull ProjectId projectId,
+                    @Nonnull Class<?> kind,
+                    @Nonnull RevisionNumber revisionNumber) {
+            this.projectId = checkNotNull(projectId);
+            this.kind = checkNotNull(kind);
+            this.revisionNumber = checkNotNull(revisionNumber);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return projectId.equals(other.projectId)
+                    && kind.equals(other.kind)
+                    && revisionNumber.equals(other.revisionNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, kind, revisionNumber);
+        }
+    }
+
+    /**
+     * Thrown from the loader to return a value without caching it
+     */
+    private static final class OversizedValueException extends RuntimeException {
+
+        private final transient Object value;
+
+        private final int weight;
+
+        private OversizedValueException(@Nonnull Object value, int weight) {
+            super(null, null, false, false);
+            this.value = value;
+            this.weight = weight;
+        }
+
+        private Object getValue() {
+            return value;
+        }
+
+        private int getWeight() {
+            return weight;
+        }
+    }
+
+    private static final class WeightedValue {
+
+        private final Object value;
+
+        private final int weight;
+
+        private WeightedValue(@Nonnull Object value, int weight) {
+            this.value = checkNotNull(value);
+            this.weight = Math.max(1, weight);
+        }
+
+        private Object getValue() {
+            return value;
+        }
+
+        private int getWeight() {
+            return weight;
+        }
+    }
+}
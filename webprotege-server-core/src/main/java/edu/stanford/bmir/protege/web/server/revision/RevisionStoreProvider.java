@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.server.revision;
 import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -24,13 +25,23 @@ public class RevisionStoreProvider {
     @Nonnull
     private final ProjectDisposablesManager disposablesManager;
 
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final RevisionCache revisionCache;
+
     private boolean loaded = false;
 
     @Inject
     public RevisionStoreProvider(@Nonnull RevisionStoreImpl revisionStore,
-                                 @Nonnull ProjectDisposablesManager disposablesManager) {
+                                 @Nonnull ProjectDisposablesManager disposablesManager,
+                                 @Nonnull ProjectId projectId,
+                                 @Nonnull RevisionCache revisionCache) {
         this.revisionStore = checkNotNull(revisionStore);
         this.disposablesManager = checkNotNull(disposablesManager);
+        this.projectId = checkNotNull(projectId);
+        this.revisionCache = checkNotNull(revisionCache);
     }
 
     public synchronized RevisionStore get() {
@@ -38,6 +49,8 @@ public class RevisionStoreProvider {
             revisionStore.load();
             loaded = true;
             disposablesManager.register(revisionStore);
+            // Values derived from the revisions are only cached once the revisions have been loaded
+            disposablesManager.register(() -> revisionCache.invalidate(projectId));
         }
         return revisionStore;
     }
@@ -0,0 +1,219 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.server.axiom.AxiomIRISubjectProvider;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.owlapi.model.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * An inverted index from the IRIs of change subjects to the numbers of the revisions that contain
+ * changes to those subjects.  The subject of a change is computed in the same way as it is in
+ * {@link ProjectChangesManager}.  The index is brought up to date with the revision manager, by
+ * indexing any revisions that have been added since it was last queried, before each query.
+ * </p>
+ */
+@ProjectSingleton
+public class RevisionsBySubjectIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevisionsBySubjectIndex.class);
+
+    private static final long[] NO_REVISIONS = new long[0];
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    private final AxiomIRISubjectProvider subjectProvider = new AxiomIRISubjectProvider(IRI::compareTo);
+
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    private final Lock readLock = readWriteLock.readLock();
+
+    private final Lock writeLock = readWriteLock.writeLock();
+
+    private final Map<IRI, RevisionList> revisionsBySubject = new HashMap<>();
+
+    private long lastIndexedRevision = 0;
+
+    @Inject
+    public RevisionsBySubjectIndex(@Nonnull ProjectId projectId,
+                                   @Nonnull RevisionManager revisionManager) {
+        this.projectId = checkNotNull(projectId);
+        this.revisionManager = checkNotNull(revisionManager);
+    }
+
+    /**
+     * Gets the numbers of the revisions that contain changes whose subject is the specified IRI.
+     * @param subject The subject IRI.
+     * @return The revision numbers in ascending order.  The returned array is a copy.
+     */
+    @Nonnull
+    public long[] getRevisionNumbers(@Nonnull IRI subject) {
+        checkNotNull(subject);
+        updateIndex();
+        try {
+            readLock.lock();
+            var revisions = revisionsBySubject.get(subject);
+            if(revisions == null) {
+                return NO_REVISIONS;
+            }
+            return revisions.toArray();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the numbers of the revisions that contain changes whose subject is any of the specified IRIs.
+     * @param subjects The subject IRIs.
+     * @return The distinct revision numbers in ascending order.
+     */
+    @Nonnull
+    public long[] getRevisionNumbers(@Nonnull Set<IRI> subjects) {
+        return distinct(getSubjectRevisionNumbers(subjects));
+    }
+
+    /**
+     * Gets the numbers of the revisions that contain changes whose subject is any of the specified IRIs.
+     * A revision number is repeated once for each of the specified subjects that the revision changes, so
+     * the length of the result is the number of (subject, revision) pairs.
+     * @param subjects The subject IRIs.  These should be distinct.
+     * @return The revision numbers in ascending order.
+     */
+    @Nonnull
+    public long[] getSubjectRevisionNumbers(@Nonnull Iterable<IRI> subjects) {
+        checkNotNull(subjects);
+        updateIndex();
+        try {
+            readLock.lock();
+            // The subjects are only iterated over once, because they may be backed by a concurrent collection
+            List<RevisionList> revisionLists = new ArrayList<>();
+            int total = 0;
+            for(var subject : subjects) {
+                var revisions = revisionsBySubject.get(subject);
+                if(revisions != null) {
+                    revisionLists.add(revisions);
+                    total += revisions.size;
+                }
+            }
+            var result = new long[total];
+            int pos = 0;
+            for(var revisions : revisionLists) {
+                System.arraycopy(revisions.revisionNumbers, 0, result, pos, revisions.size);
+                pos += revisions.size;
+            }
+            Arrays.sort(result);
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private static long[] distinct(long[] sorted) {
+        if(sorted.length == 0) {
+            return sorted;
+        }
+        int size = 1;
+        for(int i = 1; i < sorted.length; i++) {
+            if(sorted[i] != sorted[size - 1]) {
+                sorted[size] = sorted[i];
+                size++;
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    private void updateIndex() {
+        var currentRevision = revisionManager.getCurrentRevision().getValue();
+        try {
+            readLock.lock();
+            if(lastIndexedRevision >= currentRevision) {
+                return;
+            }
+        } finally {
+            readLock.unlock();
+        }
+        try {
+            writeLock.lock();
+            if(lastIndexedRevision >= currentRevision) {
+                return;
+            }
+            var stopwatch = Stopwatch.createStarted();
+            var firstRevision = lastIndexedRevision + 1;
+            for(long revisionNumber = firstRevision; revisionNumber <= currentRevision; revisionNumber++) {
+                revisionManager.getRevision(RevisionNumber.getRevisionNumber(revisionNumber))
+                               .ifPresent(this::indexRevision);
+            }
+            lastIndexedRevision = currentRevision;
+            logger.info("{} Indexed change subjects for revisions {} to {} in {} ms",
+                        projectId,
+                        firstRevision,
+                        currentRevision,
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void indexRevision(@Nonnull Revision revision) {
+        var revisionNumber = revision.getRevisionNumber().getValue();
+        Set<IRI> subjects = new HashSet<>();
+        for(var change : revision.getChanges()) {
+            if(change.isAxiomChange()) {
+                subjectProvider.getSubject(change.getAxiomOrThrow()).ifPresent(subjects::add);
+            }
+        }
+        for(var subject : subjects) {
+            revisionsBySubject.computeIfAbsent(subject, s -> new RevisionList())
+                              .add(revisionNumber);
+        }
+    }
+
+    /**
+     * A growable list of revision numbers.  Revisions are indexed in order so the list is always sorted.
+     */
+    private static class RevisionList {
+
+        private long[] revisionNumbers = new long[2];
+
+        private int size = 0;
+
+        private void add(long revisionNumber) {
+            if(size == revisionNumbers.length) {
+                revisionNumbers = Arrays.copyOf(revisionNumbers, size * 2);
+            }
+            revisionNumbers[size] = revisionNumber;
+            size++;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(revisionNumbers, size);
+        }
+    }
+}
@@ -28,11 +28,16 @@ public class DictionaryUpdatesProcessor {
     @Nonnull
     private final DictionaryManager dictionaryManager;
 
+    @Nonnull
+    private final ShortFormPrefixIndex shortFormPrefixIndex;
+
     @Inject
     public DictionaryUpdatesProcessor(@Nonnull HasGetChangeSubjects changeSubjectsProvider,
-                                      @Nonnull DictionaryManager dictionaryManager) {
+                                      @Nonnull DictionaryManager dictionaryManager,
+                                      @Nonnull ShortFormPrefixIndex shortFormPrefixIndex) {
         this.changeSubjectsProvider = checkNotNull(changeSubjectsProvider);
         this.dictionaryManager = checkNotNull(dictionaryManager);
+        this.shortFormPrefixIndex = checkNotNull(shortFormPrefixIndex);
     }
 
     /**
@@ -48,6 +53,7 @@ public class DictionaryUpdatesProcessor {
         Set<OWLEntity> affectedEntities = Stream.concat(sigStream, subjectStream)
                                                 .collect(toSet());
         dictionaryManager.update(affectedEntities);
+        shortFormPrefixIndex.update(affectedEntities);
     }
 
 }
@@ -0,0 +1,373 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * An in-memory index of the short forms of the entities in a project that supports fast prefix
+ * completion.  For each entity type there is a sorted set of postings, one for each word start within each
+ * of the short forms (in each of the active dictionary languages).  A posting is a reference to the short
+ * form plus the offset of the word start, and postings are ordered case insensitively by the text of the
+ * short form from that offset, so the completions for a prefix are a contiguous range of the set.  No
+ * copies of the short forms are made, so the index takes memory that is linear in the total length of the
+ * short forms.  The index is built on first use, without blocking updates, and is kept in sync with the
+ * dictionaries via {@link #update(Collection)}.
+ * </p>
+ */
+@ProjectSingleton
+public class ShortFormPrefixIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortFormPrefixIndex.class);
+
+    @Nonnull
+    private final ProjectSignatureIndex projectSignatureIndex;
+
+    @Nonnull
+    private final DictionaryManager dictionaryManager;
+
+    @Nonnull
+    private final LanguageManager languageManager;
+
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    /**
+     * Ensures that only one thread builds the postings for a given set of languages.  This lock is never held
+     * while the read write lock is held.
+     */
+    private final Lock buildLock = new ReentrantLock();
+
+    /**
+     * The postings that are used to answer queries, or null if they have not been built for the current languages
+     */
+    @Nullable
+    private Postings postings = null;
+
+    /**
+     * The entities that have been updated while postings are being built, or null if no postings are being built
+     */
+    @Nullable
+    private Set<OWLEntity> updatedWhileBuilding = null;
+
+    @Inject
+    public ShortFormPrefixIndex(@Nonnull ProjectSignatureIndex projectSignatureIndex,
+                                @Nonnull DictionaryManager dictionaryManager,
+                                @Nonnull LanguageManager languageManager) {
+        this.projectSignatureIndex = checkNotNull(projectSignatureIndex);
+        this.dictionaryManager = checkNotNull(dictionaryManager);
+        this.languageManager = checkNotNull(languageManager);
+    }
+
+    /**
+     * Gets the short forms of entities of the specified types that have a word that starts with the specified
+     * prefix.  Matches are in alphabetical order of the matched word.  Each entity is returned at most once.
+     * @param prefix The prefix.  Matching is case insensitive.  An empty prefix matches all short forms.
+     * @param entityTypes The types of entities to match.
+     * @param limit The maximum number of matches to return for each entity type.
+     */
+    @Nonnull
+    public ImmutableList<ShortFormMatch> getShortFormsWithPrefix(@Nonnull String prefix,
+                                                                 @Nonnull Set<EntityType<?>> entityTypes,
+                                                                 int limit) {
+        checkNotNull(prefix);
+        checkNotNull(entityTypes);
+        checkArgument(limit >= 0, "Limit must not be negative");
+        ensureIndexed();
+        try {
+            readWriteLock.readLock().lock();
+            var result = ImmutableList.<ShortFormMatch>builder();
+            if(postings == null) {
+                // The languages changed after the postings were built
+                return result.build();
+            }
+            var probe = Posting.probe(prefix);
+            for(var entityType : entityTypes) {
+                var postingsForType = postings.postingsByType.get(entityType);
+                if(postingsForType == null) {
+                    continue;
+                }
+                var matched = new HashSet<OWLEntity>();
+                for(var posting : postingsForType.tailSet(probe, false)) {
+                    if(matched.size() == limit || !posting.startsWith(prefix)) {
+                        break;
+                    }
+                    if(matched.add(posting.entity)) {
+                        result.add(posting.toShortFormMatch(prefix.length()));
+                    }
+                }
+            }
+            return result.build();
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes the short forms of the specified entities.  This should be called after the dictionaries have
+     * been updated.  Entities that are no longer in the project signature are removed from the index.
+     */
+    public void update(@Nonnull Collection<OWLEntity> entities) {
+        try {
+            readWriteLock.writeLock().lock();
+            if(updatedWhileBuilding != null) {
+                updatedWhileBuilding.addAll(entities);
+            }
+            if(postings == null) {
+                // Not built yet.  The changes will be picked up when it is built.
+                return;
+            }
+            if(!postings.languages.equals(languageManager.getLanguages())) {
+                postings = null;
+                return;
+            }
+            postings.update(entities);
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    private boolean isIndexed(@Nonnull List<DictionaryLanguage> languages) {
+        try {
+            readWriteLock.readLock().lock();
+            return postings != null && postings.languages.equals(languages);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the postings if they have not been built for the current languages.  The postings are built without
+     * holding the read write lock, so updates are not held up by a build.  Updates that are made during the build
+     * are recorded and reapplied to the new postings when they are swapped in.
+     */
+    private void ensureIndexed() {
+        var languages = languageManager.getLanguages();
+        if(isIndexed(languages)) {
+            return;
+        }
+        try {
+            buildLock.lock();
+            if(isIndexed(languages)) {
+                return;
+            }
+            try {
+                readWriteLock.writeLock().lock();
+                updatedWhileBuilding = new HashSet<>();
+            } finally {
+                readWriteLock.writeLock().unlock();
+            }
+            Postings builtPostings = null;
+            try {
+                var stopwatch = Stopwatch.createStarted();
+                builtPostings = new Postings(languages);
+                projectSignatureIndex.getSignature()
+                                     .forEach(builtPostings::addEntity);
+                logger.info("Built short form prefix index for {} entities in {} ms",
+                            builtPostings.postingsByEntity.size(),
+                            stopwatch.elapsed().toMillis());
+            } finally {
+                swapIn(builtPostings);
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void swapIn(@Nullable Postings builtPostings) {
+        try {
+            readWriteLock.writeLock().lock();
+            var updatedEntities = updatedWhileBuilding;
+            updatedWhileBuilding = null;
+            if(builtPostings == null || !builtPostings.languages.equals(languageManager.getLanguages())) {
+                return;
+            }
+            builtPostings.update(updatedEntities);
+            postings = builtPostings;
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The postings for the short forms in a set of dictionary languages
+     */
+    private class Postings {
+
+        private final List<DictionaryLanguage> languages;
+
+        private final Map<EntityType<?>, NavigableSet<Posting>> postingsByType = new HashMap<>();
+
+        private final Map<OWLEntity, List<Posting>> postingsByEntity = new HashMap<>();
+
+        /**
+         * The sequence number of the next posting.  Sequence numbers break ties between postings with the same text.
+         */
+        private long nextSequenceNumber = 0;
+
+        private Postings(@Nonnull List<DictionaryLanguage> languages) {
+            this.languages = checkNotNull(languages);
+        }
+
+        private void update(@Nonnull Collection<OWLEntity> entities) {
+            for(var entity : entities) {
+                removeEntity(entity);
+                if(projectSignatureIndex.containsEntityInSignature(entity)) {
+                    addEntity(entity);
+                }
+            }
+        }
+
+        private void addEntity(@Nonnull OWLEntity entity) {
+            var postingsForType = postingsByType.computeIfAbsent(entity.getEntityType(), t -> new TreeSet<>(Posting.ORDER));
+            var entityPostings = new ArrayList<Posting>();
+            dictionaryManager.getShortForms(entity).forEach((language, shortForm) -> {
+                for(var start : getWordStarts(shortForm)) {
+                    var posting = new Posting(entity, shortForm, language, start, nextSequenceNumber++);
+                    entityPostings.add(posting);
+                    postingsForType.add(posting);
+                }
+            });
+            if(!entityPostings.isEmpty()) {
+                postingsByEntity.put(entity, entityPostings);
+            }
+        }
+
+        private void removeEntity(@Nonnull OWLEntity entity) {
+            var entityPostings = postingsByEntity.remove(entity);
+            if(entityPostings == null) {
+                return;
+            }
+            var postingsForType = postingsByType.get(entity.getEntityType());
+            entityPostings.forEach(postingsForType::remove);
+            if(postingsForType.isEmpty()) {
+                postingsByType.remove(entity.getEntityType());
+            }
+        }
+    }
+
+    /**
+     * Gets the indexes of the starts of words in the specified short form.  A word starts at the beginning of the
+     * short form, after any character that is not a letter or digit, and at a lower-case to upper-case transition.
+     */
+    private static List<Integer> getWordStarts(@Nonnull String shortForm) {
+        var starts = new ArrayList<Integer>();
+        for(int i = 0; i < shortForm.length(); i++) {
+            var ch = shortForm.charAt(i);
+            if(!Character.isLetterOrDigit(ch)) {
+                continue;
+            }
+            if(i == 0) {
+                starts.add(i);
+                continue;
+            }
+            var previous = shortForm.charAt(i - 1);
+            if(!Character.isLetterOrDigit(previous)
+                    || (Character.isLowerCase(previous) && Character.isUpperCase(ch))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private static class Posting {
+
+        /**
+         * Orders postings case insensitively by the text of the short form from the start of the posting.  A probe
+         * comes before every posting with the same text.
+         */
+        private static final Comparator<Posting> ORDER = Posting::compareTo;
+
+        @Nullable
+        private final OWLEntity entity;
+
+        private final String shortForm;
+
+        @Nullable
+        private final DictionaryLanguage language;
+
+        private final int start;
+
+        private final long sequenceNumber;
+
+        private Posting(@Nullable OWLEntity entity,
+                        @Nonnull String shortForm,
+                        @Nullable DictionaryLanguage language,
+                        int start,
+                        long sequenceNumber) {
+            this.entity = entity;
+            this.shortForm = shortForm;
+            this.language = language;
+            this.start = start;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        /**
+         * Creates a posting that can be used to find the postings whose text starts with the specified prefix
+         */
+        private static Posting probe(@Nonnull String prefix) {
+            return new Posting(null, prefix, null, 0, -1);
+        }
+
+        private int compareTo(@Nonnull Posting other) {
+            var length = shortForm.length() - start;
+            var otherLength = other.shortForm.length() - other.start;
+            var commonLength = Math.min(length, otherLength);
+            for(int i = 0; i < commonLength; i++) {
+                var ch = Character.toLowerCase(shortForm.charAt(start + i));
+                var otherCh = Character.toLowerCase(other.shortForm.charAt(other.start + i));
+                if(ch != otherCh) {
+                    return Character.compare(ch, otherCh);
+                }
+            }
+            if(length != otherLength) {
+                return Integer.compare(length, otherLength);
+            }
+            return Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+
+        /**
+         * Determines whether the text of this posting starts with the specified prefix, ignoring case
+         */
+        private boolean startsWith(@Nonnull String prefix) {
+            if(shortForm.length() - start < prefix.length()) {
+                return false;
+            }
+            for(int i = 0; i < prefix.length(); i++) {
+                if(Character.toLowerCase(shortForm.charAt(start + i)) != Character.toLowerCase(prefix.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private ShortFormMatch toShortFormMatch(int prefixLength) {
+            var matchPositions = prefixLength == 0 ?
+                    ImmutableList.<ShortFormMatchPosition>of() :
+                    ImmutableList.of(ShortFormMatchPosition.get(start, Math.min(start + prefixLength, shortForm.length())));
+            return ShortFormMatch.get(entity, shortForm, language, matchPositions);
+        }
+    }
+}
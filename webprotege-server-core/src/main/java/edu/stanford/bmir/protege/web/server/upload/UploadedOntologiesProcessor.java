@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.upload;
 
 import edu.stanford.bmir.protege.web.server.owlapi.WebProtegeOWLManager;
 import edu.stanford.bmir.protege.web.server.project.Ontology;
+import edu.stanford.bmir.protege.web.server.project.OntologyParsingService;
 import edu.stanford.bmir.protege.web.server.project.RawProjectSourcesImporter;
 import edu.stanford.bmir.protege.web.server.project.UploadedProjectSourcesExtractor;
 import edu.stanford.bmir.protege.web.shared.csv.DocumentId;
@@ -9,12 +10,14 @@ import org.semanticweb.owlapi.model.MissingImportHandlingStrategy;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.stream.Collectors.toList;
@@ -34,19 +37,39 @@ public class UploadedOntologiesProcessor {
     @Nonnull
     private final Provider<UploadedProjectSourcesExtractor> uploadedProjectSourcesExtractorProvider;
 
+    @Nonnull
+    private final ExecutorService parsingService;
+
     @Inject
     public UploadedOntologiesProcessor(@Nonnull DocumentResolver documentResolver,
-                                       @Nonnull Provider<UploadedProjectSourcesExtractor> uploadedProjectSourcesExtractorProvider) {
+                                       @Nonnull Provider<UploadedProjectSourcesExtractor> uploadedProjectSourcesExtractorProvider,
+                                       @Nonnull @OntologyParsingService ExecutorService parsingService) {
         this.documentResolver = checkNotNull(documentResolver);
         this.uploadedProjectSourcesExtractorProvider = uploadedProjectSourcesExtractorProvider;
+        this.parsingService = checkNotNull(parsingService);
     }
 
     @Nonnull
     public Collection<Ontology> getUploadedOntologies(@Nonnull DocumentId documentId) throws OWLOntologyCreationException, IOException {
+        return loadOntologies(documentId).getOntologies()
+                                         .stream()
+                                         .map(this::toOntology)
+                                         .collect(toList());
+    }
+
+    /**
+     * Parses the uploaded ontologies into a fresh ontology manager without copying them.  Callers that
+     * process the ontologies one at a time can remove each ontology from the manager once it has been
+     * processed so that it can be garbage collected.
+     * @param documentId The id of the uploaded document
+     * @return The manager that contains the uploaded ontologies
+     */
+    @Nonnull
+    public OWLOntologyManager getUploadedOntologiesManager(@Nonnull DocumentId documentId) throws OWLOntologyCreationException, IOException {
         return loadOntologies(documentId);
     }
 
-    private Collection<Ontology> loadOntologies(@Nonnull DocumentId documentId) throws IOException, OWLOntologyCreationException {
+    private OWLOntologyManager loadOntologies(@Nonnull DocumentId documentId) throws IOException, OWLOntologyCreationException {
         var manager = WebProtegeOWLManager.createOWLOntologyManager();
         var uploadedFile = documentResolver.resolve(documentId).toFile();
         var uploadedProjectSourcesExtractor = uploadedProjectSourcesExtractorProvider.get();
@@ -54,12 +77,9 @@ public class UploadedOntologiesProcessor {
         var loaderConfig = new OWLOntologyLoaderConfiguration()
                 // See https://github.com/protegeproject/webprotege/issues/700
                 .setMissingImportHandlingStrategy(MissingImportHandlingStrategy.SILENT);
-        var rawProjectSourcesImporter = new RawProjectSourcesImporter(manager, loaderConfig);
+        var rawProjectSourcesImporter = new RawProjectSourcesImporter(manager, loaderConfig, parsingService);
         rawProjectSourcesImporter.importRawProjectSources(rawProjectSources);
-        return manager.getOntologies()
-                      .stream()
-                      .map(this::toOntology)
-                      .collect(toList());
+        return manager;
     }
 
     private Ontology toOntology(OWLOntology ont) {
@@ -11,11 +11,14 @@ import edu.stanford.bmir.protege.web.server.index.AxiomsByReferenceIndex;
 import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.usage.*;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Optional;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
@@ -77,21 +80,43 @@ public class GetUsageActionHandler extends AbstractProjectActionHandler<GetUsage
         var subject = action.getSubject();
         var referencingAxiomVisitor = referencingAxiomVisitorFactory.create(subject);
         var usageFilter = action.getUsageFilter();
-        var referencingAxioms = projectOntologiesIndex.getOntologyIds()
-                .flatMap(ontId -> axiomsByReferenceIndex.getReferencingAxioms(Collections.singleton(subject), ontId))
-                         .collect(toImmutableList());
-
-        var usageReferences = referencingAxioms
+        var pageStart = action.getPageStart();
+        var pageEnd = pageStart + action.getPageSize();
+        var comparator = new UsageReferenceComparator(subject);
+        // Unrendered references are ordered by everything apart from the axiom rendering.  Only the
+        // candidates for the page are rendered.
+        var collector = new UsagePageCollector<UsageCandidate>(
+                (left, right) -> comparator.compare(left.getReference(), right.getReference()),
+                pageEnd);
+        int referencingAxiomsCount = 0;
+        for(var ontologyIdsIterator = projectOntologiesIndex.getOntologyIds().iterator(); ontologyIdsIterator.hasNext(); ) {
+            var ontologyId = ontologyIdsIterator.next();
+            var referencingAxioms = axiomsByReferenceIndex.getReferencingAxioms(Collections.singleton(subject), ontologyId);
+            for(var axiomsIterator = referencingAxioms.iterator(); axiomsIterator.hasNext(); ) {
+                var axiom = axiomsIterator.next();
+                referencingAxiomsCount++;
+                if(!usageFilter.isIncluded(axiom.getAxiomType())) {
+                    continue;
+                }
+                for(var reference : referencingAxiomVisitor.getUnrenderedReferences(axiom)) {
+                    if(isIncludedBySubject(usageFilter, subject, reference)) {
+                        collector.add(new UsageCandidate(axiom, reference));
+                    }
+                }
+            }
+        }
+        var axiomRenderings = new HashMap<OWLAxiom, String>();
+        var usageReferences = collector.getCandidates()
                 .stream()
-                .filter(ax -> usageFilter.isIncluded(ax.getAxiomType()))
-                .flatMap(ax -> ax.accept(referencingAxiomVisitor).stream())
-                .filter(usageReference -> isIncludedBySubject(usageFilter, subject, usageReference))
+                .map(candidate -> candidate.toRenderedReference(
+                        axiomRenderings.computeIfAbsent(candidate.getAxiom(), referencingAxiomVisitor::renderAxiom)))
+                .sorted(comparator)
+                .skip(pageStart)
                 .limit(action.getPageSize())
-                .sorted(new UsageReferenceComparator(subject))
                 .collect(toImmutableList());
-
+        var nextPageStart = collector.getCount() > pageEnd ? Optional.of(pageEnd) : Optional.<Integer>empty();
         var entityNode = entityNodeRenderer.render(subject);
-        return new GetUsageResult(projectId, entityNode, usageReferences, referencingAxioms.size());
+        return new GetUsageResult(projectId, entityNode, usageReferences, referencingAxiomsCount, nextPageStart);
     }
 
     private boolean isIncludedBySubject(UsageFilter usageFilter, OWLEntity subject, UsageReference ref) {
@@ -107,4 +132,35 @@ public class GetUsageActionHandler extends AbstractProjectActionHandler<GetUsage
         }
         return true;
     }
+
+    /**
+     * A usage reference whose axiom has not been rendered
+     */
+    private static class UsageCandidate {
+
+        private final OWLAxiom axiom;
+
+        private final UsageReference reference;
+
+        public UsageCandidate(OWLAxiom axiom, UsageReference reference) {
+            this.axiom = axiom;
+            this.reference = reference;
+        }
+
+        public OWLAxiom getAxiom() {
+            return axiom;
+        }
+
+        public UsageReference getReference() {
+            return reference;
+        }
+
+        public UsageReference toRenderedReference(String axiomRendering) {
+            var axiomSubject = reference.getAxiomSubject();
+            return new UsageReference(reference.getAxiomType(),
+                                      axiomRendering,
+                                      axiomSubject,
+                                      axiomSubject.map(s -> reference.getSubjectRendering()));
+        }
+    }
 }
@@ -35,6 +35,8 @@ public class ReferencingAxiomVisitor implements OWLAxiomVisitorEx<Set<UsageRefer
     @Nonnull
     private final EntitiesInProjectSignatureByIriIndex entitiesInSignatureIndex;
 
+    private boolean renderAxioms = true;
+
     @Inject
     @AutoFactory
     public ReferencingAxiomVisitor(@Nonnull OWLEntity usageOf,
@@ -74,12 +76,34 @@ public class ReferencingAxiomVisitor implements OWLAxiomVisitorEx<Set<UsageRefer
                 return translate((OWLEntity) predicate, axiom);
             }
         }
-        var useageOfBrowserText = renderingManager.getShortForm(usageOf);
-        var rendering = renderingManager.getHTMLBrowserText(axiom, Collections.singleton(useageOfBrowserText));
+        var rendering = renderAxioms ? renderAxiom(axiom) : "";
         var subjectRendering = axiomSubject.map(renderingManager::getShortForm);
         return Collections.singleton(new UsageReference(axiom.getAxiomType(), rendering, axiomSubject, subjectRendering));
     }
 
+    /**
+     * Renders the specified axiom, highlighting the entity whose usage is being found
+     */
+    @Nonnull
+    public String renderAxiom(@Nonnull OWLAxiom axiom) {
+        var useageOfBrowserText = renderingManager.getShortForm(usageOf);
+        return renderingManager.getHTMLBrowserText(axiom, Collections.singleton(useageOfBrowserText));
+    }
+
+    /**
+     * Gets the usage references for the specified axiom without rendering the axiom, which is the expensive part
+     * of creating a usage reference.  The axiom renderings of the returned references are empty.
+     */
+    @Nonnull
+    public Set<UsageReference> getUnrenderedReferences(@Nonnull OWLAxiom axiom) {
+        try {
+            renderAxioms = false;
+            return axiom.accept(this);
+        } finally {
+            renderAxioms = true;
+        }
+    }
+
     @Nonnull
     @Override
     public Set<UsageReference> visit(@Nonnull OWLSubClassOfAxiom axiom) {
@@ -0,0 +1,94 @@
+package edu.stanford.bmir.protege.web.server.usage;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Collects the elements that could appear in the first {@code pageEnd} positions of a sorted sequence without
+ * holding on to every element.  Elements are ordered by a key comparator that is cheap to evaluate.  Elements whose
+ * keys tie at the page boundary are all kept so that a more expensive tie-breaking comparison, such as one on
+ * rendered text, can be applied to the (small) set of candidates afterwards.
+ * </p>
+ */
+class UsagePageCollector<T> {
+
+    @Nonnull
+    private final Comparator<? super T> keyComparator;
+
+    private final int pageEnd;
+
+    /**
+     * The smallest elements seen so far, with the largest element at the head
+     */
+    private final PriorityQueue<T> smallestElements;
+
+    /**
+     * Elements that are not in smallestElements but that have the same key as its head
+     */
+    private final List<T> boundaryTies = new ArrayList<>();
+
+    private int count = 0;
+
+    UsagePageCollector(@Nonnull Comparator<? super T> keyComparator, int pageEnd) {
+        checkArgument(pageEnd > 0);
+        this.keyComparator = checkNotNull(keyComparator);
+        this.pageEnd = pageEnd;
+        this.smallestElements = new PriorityQueue<>(Math.min(pageEnd, 1024), keyComparator.reversed());
+    }
+
+    public void add(@Nonnull T element) {
+        count++;
+        if(smallestElements.size() < pageEnd) {
+            smallestElements.add(element);
+            return;
+        }
+        var boundary = smallestElements.peek();
+        int diff = keyComparator.compare(element, boundary);
+        if(diff > 0) {
+            return;
+        }
+        if(diff == 0) {
+            boundaryTies.add(element);
+            return;
+        }
+        smallestElements.add(element);
+        var evicted = smallestElements.poll();
+        if(keyComparator.compare(evicted, smallestElements.peek()) == 0) {
+            boundaryTies.add(evicted);
+        }
+        else {
+            // The boundary has moved down so the elements that tied with the old boundary can no longer be in the page
+            boundaryTies.clear();
+        }
+    }
+
+    /**
+     * Gets the number of elements that have been added
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the candidates for the page.  This contains every element whose key places it in the first
+     * {@code pageEnd} positions, along with every element whose key ties with the key at the page boundary.
+     * The candidates are not sorted.
+     */
+    @Nonnull
+    public List<T> getCandidates() {
+        var candidates = new ArrayList<T>(smallestElements.size() + boundaryTies.size());
+        candidates.addAll(smallestElements);
+        candidates.addAll(boundaryTies);
+        return candidates;
+    }
+}
@@ -1,19 +1,22 @@
 package edu.stanford.bmir.protege.web.server.user;
 
+import com.google.common.collect.ImmutableMap;
 import edu.stanford.bmir.protege.web.server.persistence.Repository;
 import edu.stanford.bmir.protege.web.server.project.RecentProjectRecord;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.UpdateOptions;
 import org.mongodb.morphia.query.Query;
 import org.mongodb.morphia.query.UpdateOperations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static edu.stanford.bmir.protege.web.server.user.UserActivityRecord.*;
 import static java.util.stream.Collectors.toList;
@@ -22,12 +25,24 @@ import static java.util.stream.Collectors.toList;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 12 Mar 2017
+ * <p>
+ * Recent projects are buffered in memory and coalesced for each user.  Activity records that are read
+ * from this manager include any buffered recent projects.  The buffered recent projects are written to
+ * the database, with one update of the recent projects field for each user, when {@link #flush()} is called.
+ * </p>
  */
 @ApplicationSingleton
 public class UserActivityManager implements Repository {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserActivityManager.class);
+
     private final Datastore datastore;
 
+    /**
+     * Maps users to the recent projects, and the times at which they were accessed, that have not been written
+     */
+    private final Map<UserId, ImmutableMap<ProjectId, Long>> pendingRecentProjects = new ConcurrentHashMap<>();
+
     @Inject
     public UserActivityManager(Datastore datastore) {
         this.datastore = datastore;
@@ -51,7 +66,11 @@ public class UserActivityManager implements Repository {
             return Optional.empty();
         }
         UserActivityRecord record = datastore.get(UserActivityRecord.class, userId);
-        return Optional.ofNullable(record);
+        var pending = pendingRecentProjects.get(userId);
+        if(pending == null) {
+            return Optional.ofNullable(record);
+        }
+        return Optional.of(withRecentProjects(record != null ? record : UserActivityRecord.get(userId), pending));
     }
 
     private UserActivityRecord getByUserId(UserId userId) {
@@ -88,22 +107,67 @@ public class UserActivityManager implements Repository {
         if(userId.isGuest()) {
             return;
         }
-        UserActivityRecord record = getByUserId(userId);
-        List<RecentProjectRecord> recentProjects = record.getRecentProjects().stream()
-                                                         .filter(recentProject -> !recentProject.getProjectId()
-                                                                                                .equals(projectId))
-                                                         .sorted()
-                                                         .collect(toList());
-        recentProjects.add(0, new RecentProjectRecord(projectId, timestamp));
-        UserActivityRecord replacement = new UserActivityRecord(
+        pendingRecentProjects.merge(userId,
+                                    ImmutableMap.of(projectId, timestamp),
+                                    UserActivityManager::mergeRecentProjects);
+    }
+
+    private static ImmutableMap<ProjectId, Long> mergeRecentProjects(ImmutableMap<ProjectId, Long> recentProjects,
+                                                                     ImmutableMap<ProjectId, Long> otherRecentProjects) {
+        Map<ProjectId, Long> merged = new HashMap<>(recentProjects);
+        otherRecentProjects.forEach((projectId, timestamp) -> merged.merge(projectId, timestamp, Math::max));
+        return ImmutableMap.copyOf(merged);
+    }
+
+    private static UserActivityRecord withRecentProjects(@Nonnull UserActivityRecord record,
+                                                         @Nonnull Map<ProjectId, Long> pending) {
+        List<RecentProjectRecord> recentProjects = new ArrayList<>();
+        record.getRecentProjects().stream()
+              .filter(recentProject -> !pending.containsKey(recentProject.getProjectId()))
+              .forEach(recentProjects::add);
+        pending.forEach((projectId, timestamp) -> recentProjects.add(new RecentProjectRecord(projectId, timestamp)));
+        Collections.sort(recentProjects);
+        return new UserActivityRecord(
                 record.getUserId(),
                 record.getLastLogin(),
                 record.getLastLogout(),
                 recentProjects
         );
-        save(replacement);
     }
 
+    /**
+     * Writes any buffered recent projects to the database.
+     */
+    public void flush() {
+        for(var userId : pendingRecentProjects.keySet()) {
+            var pending = pendingRecentProjects.remove(userId);
+            if(pending == null) {
+                continue;
+            }
+            try {
+                writeRecentProjects(userId, pending);
+            } catch(RuntimeException e) {
+                logger.error("Could not write recent projects for {}: {}", userId, e.getMessage(), e);
+                // Retry at the next flush
+                pendingRecentProjects.merge(userId, pending, UserActivityManager::mergeRecentProjects);
+            }
+        }
+    }
+
+    /**
+     * Sets the recent projects of the specified user to the stored recent projects merged with the
+     * specified pending recent projects.  Only the recent projects field is written, so that last login
+     * and last logout times that are set concurrently are not overwritten.
+     */
+    private void writeRecentProjects(@Nonnull UserId userId, @Nonnull Map<ProjectId, Long> pending) {
+        var record = datastore.get(UserActivityRecord.class, userId);
+        var merged = withRecentProjects(record != null ? record : UserActivityRecord.get(userId), pending);
+        UpdateOperations<UserActivityRecord> operations = datastore.createUpdateOperations(UserActivityRecord.class)
+                                                                   .set(RECENT_PROJECTS, merged.getRecentProjects())
+                                                                   .setOnInsert(LAST_LOGIN, new Date(UNKNOWN))
+                                                                   .setOnInsert(LAST_LOGOUT, new Date(UNKNOWN));
+        datastore.update(queryByUserId(userId), operations, new UpdateOptions().upsert(true));
+    }
 
     private Query<UserActivityRecord> queryByUserId(@Nonnull UserId userId) {
         return datastore.createQuery(UserActivityRecord.class)
@@ -31,6 +31,8 @@ public class UserActivityRecord {
 
     public static final String LAST_LOGOUT = "lastLogout";
 
+    public static final String RECENT_PROJECTS = "recentProjects";
+
     /**
      * A constant for an unknown timestamp
      */
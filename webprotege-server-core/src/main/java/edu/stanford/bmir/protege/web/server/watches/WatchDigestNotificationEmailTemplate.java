@@ -0,0 +1,16 @@
+package edu.stanford.bmir.protege.web.server.watches;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WatchDigestNotificationEmailTemplate {
+
+}
@@ -1,6 +1,9 @@
 package edu.stanford.bmir.protege.web.server.watches;
 
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.events.EventManager;
+import edu.stanford.bmir.protege.web.server.revision.EntitiesByRevisionCache;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.shared.event.*;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
@@ -8,27 +11,37 @@ import edu.stanford.bmir.protege.web.shared.user.UserId;
 import edu.stanford.bmir.protege.web.shared.watches.Watch;
 import edu.stanford.bmir.protege.web.shared.watches.WatchAddedEvent;
 import edu.stanford.bmir.protege.web.shared.watches.WatchRemovedEvent;
+import edu.stanford.bmir.protege.web.shared.watches.WatchType;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.shared.event.ClassFrameChangedEvent.CLASS_FRAME_CHANGED;
 import static edu.stanford.bmir.protege.web.shared.watches.WatchType.BRANCH;
-import static java.util.Collections.singleton;
 import static java.util.stream.Collectors.toSet;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 19 Apr 2017
+ * <p>
+ * The watches for the project are held in memory, and kept in sync with the {@link WatchRecordRepository}, so
+ * that finding the watches that are triggered by a change does not require a database query.  Triggered watches
+ * are passed to a {@link WatchNotificationBatcher} so that users are notified once about a batch of changes.
+ * </p>
  */
 @ProjectSingleton
 public class WatchManagerImpl implements WatchManager {
@@ -41,23 +54,45 @@ public class WatchManagerImpl implements WatchManager {
 
     private final IndirectlyWatchedEntitiesFinder indirectlyWatchedEntitiesFinder;
 
-    private final WatchTriggeredHandler watchTriggeredHandler;
+    private final WatchNotificationBatcher watchNotificationBatcher;
 
     private final EventManager<ProjectEvent<?>> eventManager;
 
+    private final RevisionManager revisionManager;
+
+    private final EntitiesByRevisionCache entitiesByRevisionCache;
+
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    private final Lock readLock = readWriteLock.readLock();
+
+    private final Lock writeLock = readWriteLock.writeLock();
+
+    /**
+     * The watches in the project, keyed by the watched entity.  This is loaded on first use.
+     */
+    @Nullable
+    private volatile Map<OWLEntity, Map<UserId, WatchType>> watchIndex = null;
+
+    private int branchWatchCount = 0;
+
     private boolean attached = false;
 
     @Inject
     public WatchManagerImpl(@Nonnull ProjectId projectId,
                             @Nonnull WatchRecordRepository repository,
                             @Nonnull IndirectlyWatchedEntitiesFinder indirectlyWatchedEntitiesFinder,
-                            @Nonnull WatchTriggeredHandler watchTriggeredHandler,
-                            @Nonnull EventManager<ProjectEvent<?>> eventManager) {
+                            @Nonnull WatchNotificationBatcher watchNotificationBatcher,
+                            @Nonnull EventManager<ProjectEvent<?>> eventManager,
+                            @Nonnull RevisionManager revisionManager,
+                            @Nonnull EntitiesByRevisionCache entitiesByRevisionCache) {
         this.projectId = checkNotNull(projectId);
         this.repository = checkNotNull(repository);
         this.indirectlyWatchedEntitiesFinder = checkNotNull(indirectlyWatchedEntitiesFinder);
-        this.watchTriggeredHandler = checkNotNull(watchTriggeredHandler);
+        this.watchNotificationBatcher = checkNotNull(watchNotificationBatcher);
         this.eventManager = checkNotNull(eventManager);
+        this.revisionManager = checkNotNull(revisionManager);
+        this.entitiesByRevisionCache = checkNotNull(entitiesByRevisionCache);
     }
 
     public synchronized void attach() {
@@ -81,6 +116,24 @@ public class WatchManagerImpl implements WatchManager {
 
         eventManager.addHandler(NamedIndividualFrameChangedEvent.NAMED_INDIVIDUAL_CHANGED,
                                 event -> handleEntityFrameChanged(event.getEntity(), event.getUserId()));
+
+        // Large changes are reported with a single bulk change event instead of frame changed events
+        eventManager.addHandler(BulkChangeEvent.ON_BULK_CHANGE,
+                                event -> getChangedEntities(event)
+                                        .forEach(entity -> handleEntityFrameChanged(entity, event.getUserId())));
+    }
+
+    /**
+     * Gets the entities that were changed by a bulk change.  The event does not list the entities if there
+     * are too many of them, in which case they are computed from the revision.
+     */
+    private Collection<OWLEntity> getChangedEntities(@Nonnull BulkChangeEvent event) {
+        if(!event.isAllEntitiesChanged()) {
+            return event.getChangedEntities();
+        }
+        return revisionManager.getRevision(event.getRevisionNumber())
+                              .map(entitiesByRevisionCache::getEntities)
+                              .orElse(ImmutableSet.of());
     }
 
     @Override
@@ -92,56 +145,159 @@ public class WatchManagerImpl implements WatchManager {
 
     @Override
     public void addWatch(@Nonnull Watch watch) {
-        repository.saveWatchRecord(toWatchRecord(watch));
+        try {
+            writeLock.lock();
+            repository.saveWatchRecord(toWatchRecord(watch));
+            if(watchIndex != null) {
+                addToIndex(watchIndex, watch.getUserId(), watch.getEntity(), watch.getType());
+            }
+        } finally {
+            writeLock.unlock();
+        }
         eventManager.postEvent(new WatchAddedEvent(projectId, watch));
     }
 
     @Override
     public void removeWatch(@Nonnull Watch watch) {
-        repository.deleteWatchRecord(toWatchRecord(watch));
+        try {
+            writeLock.lock();
+            repository.deleteWatchRecord(toWatchRecord(watch));
+            if(watchIndex != null) {
+                removeFromIndex(watchIndex, watch);
+            }
+        } finally {
+            writeLock.unlock();
+        }
         eventManager.postEvent(new WatchRemovedEvent(projectId, watch));
     }
 
     @Override
     public Set<Watch> getDirectWatches(@Nonnull OWLEntity watchedEntity) {
-        return repository.findWatchRecords(projectId, singleton(watchedEntity)).stream()
-                .map(this::toWatch)
-                .collect(toSet());
+        try {
+            readLock.lock();
+            return getWatchIndex().getOrDefault(watchedEntity, Map.of())
+                                  .entrySet()
+                                  .stream()
+                                  .map(e -> new Watch(e.getKey(), watchedEntity, e.getValue()))
+                                  .collect(toSet());
+        } finally {
+            readLock.unlock();
+        }
     }
 
     @Override
     public Set<Watch> getDirectWatches(@Nonnull OWLEntity watchedObject, @Nonnull UserId userId) {
-        return repository.findWatchRecords(projectId,
-                                           userId,
-                                           singleton(watchedObject)).stream()
-                         .map(this::toWatch)
-                         .collect(toSet());
+        try {
+            readLock.lock();
+            var type = getWatchIndex().getOrDefault(watchedObject, Map.of()).get(userId);
+            return type == null ? Set.of() : Set.of(new Watch(userId, watchedObject, type));
+        } finally {
+            readLock.unlock();
+        }
     }
 
     private void handleEntityFrameChanged(@Nonnull OWLEntity entity, @Nonnull UserId byUser) {
-        Collection<Watch> watches = findWatchRecordsForEntity(entity);
-        if (watches.isEmpty()) {
+        Set<UserId> userIds = findUsersWatchingEntity(entity);
+        if (userIds.isEmpty()) {
             return;
         }
-        Set<UserId> userIds = watches.stream()
-                                     .map(Watch::getUserId)
-                                     .collect(toSet());
-        watchTriggeredHandler.handleWatchTriggered(userIds, entity, byUser);
+        watchNotificationBatcher.add(userIds, entity, byUser);
+    }
 
+    private Set<UserId> findUsersWatchingEntity(OWLEntity entity) {
+        boolean hasBranchWatches;
+        Set<UserId> userIds = new HashSet<>();
+        try {
+            readLock.lock();
+            var index = getWatchIndex();
+            if(index.isEmpty()) {
+                return Set.of();
+            }
+            // Watches of any type on the entity itself
+            userIds.addAll(index.getOrDefault(entity, Map.of()).keySet());
+            hasBranchWatches = branchWatchCount > 0;
+        } finally {
+            readLock.unlock();
+        }
+        if(!hasBranchWatches) {
+            return userIds;
+        }
+        // Branch watches on entities that contain this entity.  The ancestors are computed outside
+        // of the lock because this may be expensive.
+        Collection<? extends OWLEntity> relatedEntities = indirectlyWatchedEntitiesFinder.getRelatedWatchedEntities(entity);
+        try {
+            readLock.lock();
+            var index = getWatchIndex();
+            for(OWLEntity relatedEntity : relatedEntities) {
+                index.getOrDefault(relatedEntity, Map.of())
+                     .forEach((userId, type) -> {
+                         if(type == BRANCH) {
+                             userIds.add(userId);
+                         }
+                     });
+            }
+        } finally {
+            readLock.unlock();
+        }
+        return userIds;
     }
 
-    private Collection<Watch> findWatchRecordsForEntity(OWLEntity entity) {
-        List<OWLEntity> entities = new ArrayList<>(indirectlyWatchedEntitiesFinder.getRelatedWatchedEntities(entity));
-        entities.add(entity);
-        return repository.findWatchRecords(projectId, entities).stream()
-                         .distinct()
-                         // Filter so that we have watch records that are either watching a branch containing
-                         // this entity or records that are directly watching this entity
-                         .filter(r -> r.getType() == BRANCH || r.getEntity().equals(entity))
-                         .map(this::toWatch)
-                         .collect(toSet());
+    /**
+     * Gets the watch index, loading it from the repository if necessary.  The read lock or the write
+     * lock must be held by the caller.
+     */
+    @Nonnull
+    private Map<OWLEntity, Map<UserId, WatchType>> getWatchIndex() {
+        var index = watchIndex;
+        if(index != null) {
+            return index;
+        }
+        // The index is loaded at most once.  Loading under the intrinsic lock means that concurrent readers
+        // do not both load it.  Writers hold the write lock, which excludes readers, so cannot interleave.
+        synchronized (this) {
+            if(watchIndex == null) {
+                var loadedIndex = new HashMap<OWLEntity, Map<UserId, WatchType>>();
+                branchWatchCount = 0;
+                for(var record : repository.findWatchRecords(projectId)) {
+                    addToIndex(loadedIndex, record.getUserId(), record.getEntity(), record.getType());
+                }
+                logger.info("{} Loaded {} watched entities", projectId, loadedIndex.size());
+                watchIndex = loadedIndex;
+            }
+            return watchIndex;
+        }
     }
 
+    private void addToIndex(@Nonnull Map<OWLEntity, Map<UserId, WatchType>> index,
+                            @Nonnull UserId userId,
+                            @Nonnull OWLEntity entity,
+                            @Nonnull WatchType type) {
+        // The repository stores one watch per user per entity, so this replaces any existing watch
+        var previousType = index.computeIfAbsent(entity, e -> new HashMap<>()).put(userId, type);
+        if(previousType == BRANCH) {
+            branchWatchCount--;
+        }
+        if(type == BRANCH) {
+            branchWatchCount++;
+        }
+    }
+
+    private void removeFromIndex(@Nonnull Map<OWLEntity, Map<UserId, WatchType>> index,
+                                 @Nonnull Watch watch) {
+        var watchesForEntity = index.get(watch.getEntity());
+        if(watchesForEntity == null) {
+            return;
+        }
+        // The repository only deletes the watch if its type matches
+        if(watchesForEntity.remove(watch.getUserId(), watch.getType())) {
+            if(watch.getType() == BRANCH) {
+                branchWatchCount--;
+            }
+            if(watchesForEntity.isEmpty()) {
+                index.remove(watch.getEntity());
+            }
+        }
+    }
 
     private WatchRecord toWatchRecord(Watch watch) {
         return new WatchRecord(projectId, watch.getUserId(), watch.getEntity(), watch.getType());
@@ -0,0 +1,123 @@
+package edu.stanford.bmir.protege.web.server.watches;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Collects triggered watches over a short window and then notifies each user once about all of the
+ * entities that triggered their watches during the window.
+ * </p>
+ */
+@ProjectSingleton
+public class WatchNotificationBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchNotificationBatcher.class);
+
+    private static final long BATCHING_WINDOW_MS = 30_000;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final WatchTriggeredHandler watchTriggeredHandler;
+
+    @Nonnull
+    private final ScheduledExecutorService notificationService;
+
+    private final long batchingWindowMs;
+
+    /**
+     * For each user to notify, the triggering entities mapped to the users that changed them
+     */
+    private final Map<UserId, SetMultimap<OWLEntity, UserId>> pendingNotifications = new LinkedHashMap<>();
+
+    private boolean flushScheduled = false;
+
+    @Inject
+    public WatchNotificationBatcher(@Nonnull ProjectId projectId,
+                                    @Nonnull WatchTriggeredHandler watchTriggeredHandler,
+                                    @Nonnull @WatchNotificationService ScheduledExecutorService notificationService) {
+        this(projectId, watchTriggeredHandler, notificationService, BATCHING_WINDOW_MS);
+    }
+
+    WatchNotificationBatcher(@Nonnull ProjectId projectId,
+                             @Nonnull WatchTriggeredHandler watchTriggeredHandler,
+                             @Nonnull ScheduledExecutorService notificationService,
+                             long batchingWindowMs) {
+        this.projectId = checkNotNull(projectId);
+        this.watchTriggeredHandler = checkNotNull(watchTriggeredHandler);
+        this.notificationService = checkNotNull(notificationService);
+        this.batchingWindowMs = batchingWindowMs;
+    }
+
+    /**
+     * Records that watches on the specified entity have been triggered.  The specified users will be
+     * notified at the end of the current batching window.
+     * @param usersToNotify The users whose watches were triggered
+     * @param modifiedEntity The entity that was changed
+     * @param byUser The user that changed the entity
+     */
+    public synchronized void add(@Nonnull Set<UserId> usersToNotify,
+                                 @Nonnull OWLEntity modifiedEntity,
+                                 @Nonnull UserId byUser) {
+        checkNotNull(modifiedEntity);
+        checkNotNull(byUser);
+        for(var userToNotify : usersToNotify) {
+            pendingNotifications.computeIfAbsent(userToNotify, u -> LinkedHashMultimap.create())
+                                .put(modifiedEntity, byUser);
+        }
+        if(!flushScheduled && !pendingNotifications.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        try {
+            notificationService.schedule(this::flush, batchingWindowMs, TimeUnit.MILLISECONDS);
+            flushScheduled = true;
+        } catch(RejectedExecutionException e) {
+            logger.info("{} Watch notification service has been shut down.  Discarding watch notifications.", projectId);
+            pendingNotifications.clear();
+        }
+    }
+
+    /**
+     * Notifies users of all of the triggered watches that have been recorded so far
+     */
+    public void flush() {
+        Map<UserId, SetMultimap<OWLEntity, UserId>> notifications;
+        synchronized (this) {
+            notifications = new LinkedHashMap<>(pendingNotifications);
+            pendingNotifications.clear();
+            flushScheduled = false;
+        }
+        notifications.forEach((userToNotify, modifiedEntities) -> {
+            try {
+                watchTriggeredHandler.handleWatchesTriggered(userToNotify, modifiedEntities);
+            } catch(RuntimeException e) {
+                logger.error("{} Error notifying {} of triggered watches: {}", projectId, userToNotify, e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -19,6 +19,13 @@ public interface WatchRecordRepository extends Repository {
     @Override
     void ensureIndexes();
 
+    /**
+     * Finds all of the {@link WatchRecord}s for the specified project.
+     * @param projectId The project
+     * @return The {@link WatchRecord}s for the specified project.
+     */
+    List<WatchRecord> findWatchRecords(@Nonnull ProjectId projectId);
+
     /**
      * Finds {@link WatchRecord}s for the specified user.
      * @param userId The user
@@ -37,6 +37,19 @@ public class WatchRecordRepositoryImpl implements WatchRecordRepository {
         datastore.ensureIndexes(WatchRecord.class);
     }
 
+    /**
+     * Finds all of the {@link WatchRecord}s for the specified project.
+     * @param projectId The project
+     * @return The {@link WatchRecord}s for the specified project.
+     */
+    @Override
+    public List<WatchRecord> findWatchRecords(@Nonnull ProjectId projectId) {
+        Query<WatchRecord> query = datastore.createQuery(WatchRecord.class);
+        return query
+                .field(PROJECT_ID).equal(projectId)
+                .asList();
+    }
+
     /**
      * Finds {@link WatchRecord}s for the specified user.
      * @param userId The user
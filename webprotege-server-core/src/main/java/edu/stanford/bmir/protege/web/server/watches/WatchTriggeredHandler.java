@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.server.watches;
 
+import com.google.common.collect.SetMultimap;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.semanticweb.owlapi.model.OWLEntity;
@@ -24,4 +25,13 @@ public interface WatchTriggeredHandler {
     void handleWatchTriggered(@Nonnull Set<UserId> usersToNotify,
                               @Nonnull OWLEntity modifiedEntity,
                               @Nonnull UserId byUser);
+
+    /**
+     * Handles the watches that were triggered for a user over a period of time, notifying the user once
+     * @param userToNotify The user to notify that the watches have been triggered.
+     * @param modifiedEntities The entities that were "changed" that triggered the watches, mapped to the users
+     *                         that made the changes.
+     */
+    void handleWatchesTriggered(@Nonnull UserId userToNotify,
+                                @Nonnull SetMultimap<OWLEntity, UserId> modifiedEntities);
 }
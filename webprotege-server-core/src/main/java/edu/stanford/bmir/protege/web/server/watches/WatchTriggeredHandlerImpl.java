@@ -1,5 +1,7 @@
 package edu.stanford.bmir.protege.web.server.watches;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.SetMultimap;
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.app.ApplicationNameSupplier;
 import edu.stanford.bmir.protege.web.server.app.PlaceUrl;
@@ -20,6 +22,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -28,6 +31,7 @@ import java.util.Set;
 import static edu.stanford.bmir.protege.web.server.access.ProjectResource.forProject;
 import static edu.stanford.bmir.protege.web.server.access.Subject.forUser;
 import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PROJECT;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -39,6 +43,8 @@ public class WatchTriggeredHandlerImpl implements WatchTriggeredHandler {
 
     private final static Logger logger = LoggerFactory.getLogger(WatchTriggeredHandler.class);
 
+    private static final int MAX_DIGEST_ENTITIES = 100;
+
     private final ProjectId projectId;
 
     private final RenderingManager renderingManager;
@@ -59,6 +65,8 @@ public class WatchTriggeredHandlerImpl implements WatchTriggeredHandler {
 
     private final FileContents watchTemplate;
 
+    private final FileContents watchDigestTemplate;
+
     @Inject
     public WatchTriggeredHandlerImpl(ProjectId projectId,
                                      RenderingManager renderingManager,
@@ -69,7 +77,8 @@ public class WatchTriggeredHandlerImpl implements WatchTriggeredHandler {
                                      UserDetailsManager userDetailsManager,
                                      ProjectDetailsManager projectDetailsManager,
                                      TemplateEngine templateEngine,
-                                     @WatchNotificationEmailTemplate FileContents watchTemplate) {
+                                     @WatchNotificationEmailTemplate FileContents watchTemplate,
+                                     @WatchDigestNotificationEmailTemplate FileContents watchDigestTemplate) {
         this.projectId = projectId;
         this.renderingManager = renderingManager;
         this.applicationNameSupplier = applicationNameSupplier;
@@ -80,6 +89,7 @@ public class WatchTriggeredHandlerImpl implements WatchTriggeredHandler {
         this.projectDetailsManager = projectDetailsManager;
         this.templateEngine = templateEngine;
         this.watchTemplate = watchTemplate;
+        this.watchDigestTemplate = watchDigestTemplate;
     }
 
     @Override
@@ -123,4 +133,62 @@ public class WatchTriggeredHandlerImpl implements WatchTriggeredHandler {
                           MessageHeader.inReplyTo(projectId.getId()),
                           MessageHeader.references(projectId.getId()));
     }
+
+    @Override
+    public void handleWatchesTriggered(@Nonnull UserId userToNotify,
+                                       @Nonnull SetMultimap<OWLEntity, UserId> modifiedEntities) {
+        if (modifiedEntities.isEmpty()) {
+            return;
+        }
+        Set<OWLEntity> entities = modifiedEntities.keySet();
+        if (modifiedEntities.size() == 1) {
+            // A single change by a single user gets the usual notification
+            OWLEntity modifiedEntity = entities.iterator().next();
+            UserId byUser = modifiedEntities.get(modifiedEntity).iterator().next();
+            handleWatchTriggered(Collections.singleton(userToNotify), modifiedEntity, byUser);
+            return;
+        }
+        if (!accessManager.hasPermission(forUser(userToNotify), forProject(projectId), VIEW_PROJECT)) {
+            return;
+        }
+        Optional<String> emailAddress = userDetailsManager.getEmail(userToNotify);
+        if (!emailAddress.isPresent()) {
+            return;
+        }
+        List<Map<String, Object>> changes = entities.stream()
+                                                    .limit(MAX_DIGEST_ENTITIES)
+                                                    .map(entity -> toDigestEntry(entity, modifiedEntities.get(entity)))
+                                                    .collect(toList());
+        int omittedChangeCount = entities.size() - changes.size();
+        Map<String, Object> templateObjects =
+                TemplateObjectsBuilder.builder()
+                                      .withProjectDetails(projectDetailsManager.getProjectDetails(projectId))
+                                      .withApplicationName(applicationNameSupplier.get())
+                                      .withProjectUrl(placeUrl.getProjectUrl(projectId))
+                                      .with("changes", changes)
+                                      .with("changeCount", entities.size())
+                                      .with("hasOmittedChanges", omittedChangeCount > 0)
+                                      .with("omittedChangeCount", omittedChangeCount)
+                                      .build();
+        String displayName = projectDetailsManager.getProjectDetails(projectId).getDisplayName();
+        String emailSubject = String.format("[%s] Changes made to %d watched entities in %s",
+                                            displayName,
+                                            entities.size(),
+                                            displayName);
+        String emailBody = templateEngine.populateTemplate(watchDigestTemplate.getContents(), templateObjects);
+        logger.info("{} Watches triggered on {} entities.  Notifying {}", projectId, entities.size(), userToNotify);
+        sendMail.sendMail(Collections.singletonList(emailAddress.get()), emailSubject, emailBody,
+                          MessageHeader.inReplyTo(projectId.getId()),
+                          MessageHeader.references(projectId.getId()));
+    }
+
+    private Map<String, Object> toDigestEntry(@Nonnull OWLEntity entity, @Nonnull Set<UserId> byUsers) {
+        String changedBy = byUsers.stream()
+                                  .map(UserId::getUserName)
+                                  .sorted()
+                                  .collect(joining(", "));
+        return ImmutableMap.of("url", placeUrl.getEntityUrl(projectId, entity),
+                               "browserText", renderingManager.getRendering(entity).getBrowserText(),
+                               "changedBy", changedBy);
+    }
 }
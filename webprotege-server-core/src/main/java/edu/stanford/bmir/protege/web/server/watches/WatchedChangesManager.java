@@ -1,23 +1,36 @@
 package edu.stanford.bmir.protege.web.server.watches;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
 import edu.stanford.bmir.protege.web.server.hierarchy.*;
-import edu.stanford.bmir.protege.web.server.index.ProjectClassAssertionAxiomsByIndividualIndex;
-import edu.stanford.bmir.protege.web.server.revision.EntitiesByRevisionCache;
+import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByClassIndex;
+import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByIndividualIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
 import edu.stanford.bmir.protege.web.server.revision.ProjectChangesManager;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionsBySubjectIndex;
 import edu.stanford.bmir.protege.web.shared.change.ProjectChange;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.pagination.Page;
+import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.watches.Watch;
 import org.semanticweb.owlapi.model.*;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.shared.watches.WatchType.BRANCH;
@@ -26,10 +39,23 @@ import static edu.stanford.bmir.protege.web.shared.watches.WatchType.BRANCH;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 27/05/15
+ * <p>
+ * Finds the changes to watched entities.  The members of each watched branch are materialised when the branch
+ * is first watched and are then kept up to date as revisions are added.  Only the entities that are the subjects
+ * of hierarchy axioms in the new revisions, along with their descendants, are re-examined, so the members of a
+ * branch are not recomputed after each change to the project.
+ * </p>
+ * <p>
+ * The revisions that change the watched entities are looked up in the {@link RevisionsBySubjectIndex}.  Each
+ * element of a page is a change to one watched entity in one revision.  Changes are ordered newest revision
+ * first, and only the revisions in the requested page are examined.
+ * </p>
  */
 @ProjectSingleton
 public class WatchedChangesManager {
 
+    private static final int MAX_CACHED_BRANCHES = 100;
+
     private final ClassHierarchyProvider classHierarchyProvider;
 
     private final ObjectPropertyHierarchyProvider objectPropertyHierarchyProvider;
@@ -42,9 +68,18 @@ public class WatchedChangesManager {
 
     private final ProjectChangesManager projectChangesManager;
 
-    private final EntitiesByRevisionCache entitiesByRevisionCache;
+    private final RevisionsBySubjectIndex revisionsBySubjectIndex;
+
+    private final ProjectOntologiesIndex projectOntologiesIndex;
+
+    private final ClassAssertionAxiomsByClassIndex classAssertionAxiomsByClassIndex;
+
+    private final ClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex;
 
-    private final ProjectClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex;
+    private final LoadingCache<OWLEntity, BranchMembers> branchMembersCache = CacheBuilder.newBuilder()
+                                                                                         .maximumSize(MAX_CACHED_BRANCHES)
+                                                                                         .expireAfterAccess(10, TimeUnit.MINUTES)
+                                                                                         .build(CacheLoader.from(BranchMembers::new));
 
     @Inject
     public WatchedChangesManager(ProjectChangesManager projectChangesManager,
@@ -53,121 +88,309 @@ public class WatchedChangesManager {
                                  DataPropertyHierarchyProvider dataPropertyHierarchyProvider,
                                  AnnotationPropertyHierarchyProvider annotationPropertyHierarchyProvider,
                                  RevisionManager changeManager,
-                                 EntitiesByRevisionCache entitiesByRevisionCache,
-                                 ProjectClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex) {
+                                 RevisionsBySubjectIndex revisionsBySubjectIndex,
+                                 ProjectOntologiesIndex projectOntologiesIndex,
+                                 ClassAssertionAxiomsByClassIndex classAssertionAxiomsByClassIndex,
+                                 ClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex) {
         this.projectChangesManager = checkNotNull(projectChangesManager);
         this.classHierarchyProvider = checkNotNull(classHierarchyProvider);
         this.objectPropertyHierarchyProvider = checkNotNull(objectPropertyHierarchyProvider);
         this.dataPropertyHierarchyProvider = checkNotNull(dataPropertyHierarchyProvider);
         this.annotationPropertyHierarchyProvider = checkNotNull(annotationPropertyHierarchyProvider);
-        this.classAssertionAxiomsByIndividualIndex = classAssertionAxiomsByIndividualIndex;
         this.changeManager = checkNotNull(changeManager);
-        this.entitiesByRevisionCache = checkNotNull(entitiesByRevisionCache);
+        this.revisionsBySubjectIndex = checkNotNull(revisionsBySubjectIndex);
+        this.projectOntologiesIndex = checkNotNull(projectOntologiesIndex);
+        this.classAssertionAxiomsByClassIndex = checkNotNull(classAssertionAxiomsByClassIndex);
+        this.classAssertionAxiomsByIndividualIndex = checkNotNull(classAssertionAxiomsByIndividualIndex);
     }
 
-    public ImmutableList<ProjectChange> getProjectChangesForWatches(Set<Watch> watches) {
-        Set<OWLEntity> superEntities = new HashSet<>();
-        Set<OWLEntity> directWatches = new HashSet<>();
+    /**
+     * Gets a page of changes to the entities that are watched by the specified watches.
+     * @param watches The watches.
+     * @param pageRequest The page request.  Each element is the change to one watched entity in one revision.
+     * @return The page of changes, newest revision first.
+     */
+    @Nonnull
+    public Page<ProjectChange> getProjectChangesForWatches(@Nonnull Set<Watch> watches,
+                                                           @Nonnull PageRequest pageRequest) {
+        Set<IRI> directWatches = new HashSet<>();
+        List<BranchMembers> branchWatches = new ArrayList<>();
         for (Watch watch : watches) {
             if (watch.getType() == BRANCH) {
-                OWLEntity entity = watch.getEntity();
-                superEntities.add(entity);
-                directWatches.add(entity);
+                branchWatches.add(getBranchMembers(watch.getEntity()));
             }
             else {
-                directWatches.add(watch.getEntity());
+                directWatches.add(watch.getEntity().getIRI());
             }
         }
-        if (superEntities.isEmpty() && directWatches.isEmpty()) {
-            return ImmutableList.of();
+        if (branchWatches.isEmpty() && directWatches.isEmpty()) {
+            return new Page<>(1, 1, ImmutableList.of(), 0);
         }
+        Predicate<IRI> isWatched = iri -> directWatches.contains(iri)
+                || branchWatches.stream().anyMatch(branch -> branch.contains(iri));
+        var watchedIris = new LinkedHashSet<>(directWatches);
+        branchWatches.forEach(branch -> branch.getIris().forEach(watchedIris::add));
+        // One entry for each change to a watched entity in a revision, which is one element of the page
+        var subjectRevisionNumbers = revisionsBySubjectIndex.getSubjectRevisionNumbers(watchedIris);
+        var totalElements = subjectRevisionNumbers.length;
+        var pageSize = pageRequest.getPageSize();
+        var pageCount = Math.max(1, (totalElements + pageSize - 1) / pageSize);
         ImmutableList.Builder<ProjectChange> result = ImmutableList.builder();
-        List<Revision> revisionsCopy = changeManager.getRevisions();
-        for (Revision revision : revisionsCopy) {
-            for (OWLEntity watchedEntity : getWatchedEntities(superEntities, directWatches, revision)) {
-                ImmutableList<ProjectChange> changes = projectChangesManager.getProjectChangesForSubjectInRevision(watchedEntity, revision);
-                result.addAll(changes);
+        // Positions count back from the newest revision
+        var end = (int) Math.min(totalElements, (long) pageRequest.getSkip() + pageSize);
+        var position = pageRequest.getSkip();
+        while (position < end) {
+            var revisionNumber = subjectRevisionNumbers[totalElements - 1 - position];
+            var firstPositionInRevision = position;
+            while (firstPositionInRevision > 0
+                    && subjectRevisionNumbers[totalElements - firstPositionInRevision] == revisionNumber) {
+                firstPositionInRevision--;
             }
+            var endPositionInRevision = position + 1;
+            while (endPositionInRevision < end
+                    && subjectRevisionNumbers[totalElements - 1 - endPositionInRevision] == revisionNumber) {
+                endPositionInRevision++;
+            }
+            var fromIndex = position - firstPositionInRevision;
+            var toIndex = endPositionInRevision - firstPositionInRevision;
+            changeManager.getRevision(RevisionNumber.getRevisionNumber(revisionNumber))
+                         .ifPresent(revision -> getProjectChangesForSubjectsInRevision(revision, isWatched, fromIndex, toIndex, result));
+            position = endPositionInRevision;
         }
-        return result.build();
+        return new Page<>(pageRequest.getPageNumber(), pageCount, result.build(), totalElements);
     }
 
-    private Set<OWLEntity> getWatchedEntities(Set<OWLEntity> superEntities, Set<OWLEntity> directWatches, Revision revision) {
-        Set<OWLEntity> watchedEntities = new HashSet<>();
-        Set<OWLEntity> entities = entitiesByRevisionCache.getEntities(revision);
-        for (OWLEntity entity : entities) {
-            if (directWatches.contains(entity)) {
-                watchedEntities.add(entity);
-            }
-            else {
-                boolean watchedByAncestor = isWatchedByAncestor(superEntities, entity);
-                if (watchedByAncestor) {
-                    watchedEntities.add(entity);
-                }
-            }
-        }
-        return watchedEntities;
+    /**
+     * Gets the changes to a range of the watched subjects of a revision.  The subjects of the revision are
+     * iterated over, rather than the watched entities, because a revision usually changes far fewer entities
+     * than are watched.
+     */
+    private void getProjectChangesForSubjectsInRevision(Revision revision,
+                                                        Predicate<IRI> isWatched,
+                                                        int fromIndex,
+                                                        int toIndex,
+                                                        ImmutableList.Builder<ProjectChange> result) {
+        projectChangesManager.getSubjectsInRevision(revision).stream()
+                             .filter(isWatched)
+                             .skip(fromIndex)
+                             .limit(toIndex - fromIndex)
+                             .forEach(subject -> result.addAll(projectChangesManager.getProjectChangesForSubjectInRevision(subject, revision)));
     }
 
+    private BranchMembers getBranchMembers(OWLEntity branchRoot) {
+        var branchMembers = branchMembersCache.getUnchecked(branchRoot);
+        branchMembers.update();
+        return branchMembers;
+    }
 
-    private Boolean isWatchedByAncestor(final Set<OWLEntity> watchedAncestors, OWLEntity entity) {
-        return entity.accept(new OWLEntityVisitorEx<>() {
+    /**
+     * Gets the descendants of the specified entity along with, for classes, the individuals that are
+     * asserted to be instances of the class or one of its descendants.
+     */
+    private Collection<? extends OWLEntity> getDescendantsAndInstances(OWLEntity entity) {
+        return entity.accept(new OWLEntityVisitorEx<Collection<? extends OWLEntity>>() {
             @Nonnull
             @Override
-            public Boolean visit(@Nonnull OWLClass cls) {
-                final var ancestors = classHierarchyProvider.getAncestors(cls);
-                return isWatchedByAncestor(ancestors);
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLClass cls) {
+                Set<OWLEntity> members = new HashSet<>(classHierarchyProvider.getDescendants(cls));
+                var classes = new ArrayList<OWLClass>();
+                classes.add(cls);
+                members.forEach(member -> classes.add(member.asOWLClass()));
+                projectOntologiesIndex.getOntologyIds().forEach(ontologyId -> {
+                    for (OWLClass c : classes) {
+                        classAssertionAxiomsByClassIndex.getClassAssertionAxioms(c, ontologyId)
+                                                        .map(OWLClassAssertionAxiom::getIndividual)
+                                                        .filter(OWLIndividual::isNamed)
+                                                        .map(OWLIndividual::asOWLNamedIndividual)
+                                                        .forEach(members::add);
+                    }
+                });
+                return members;
             }
 
-
             @Nonnull
             @Override
-            public Boolean visit(@Nonnull OWLObjectProperty property) {
-                return isWatchedByAncestor(objectPropertyHierarchyProvider.getAncestors(property));
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLObjectProperty property) {
+                return objectPropertyHierarchyProvider.getDescendants(property);
             }
 
             @Nonnull
             @Override
-            public Boolean visit(@Nonnull OWLDataProperty property) {
-                return isWatchedByAncestor(dataPropertyHierarchyProvider.getAncestors(property));
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLDataProperty property) {
+                return dataPropertyHierarchyProvider.getDescendants(property);
             }
 
             @Nonnull
             @Override
-            public Boolean visit(@Nonnull OWLNamedIndividual individual) {
-                return classAssertionAxiomsByIndividualIndex.getClassAssertionAxioms(individual)
-                        .map(OWLClassAssertionAxiom::getClassExpression)
-                        .filter(OWLClassExpression::isNamed)
-                        .map(OWLClassExpression::asOWLClass)
-                        .anyMatch(this::isWatchedByAncestor);
-            }
-
-            private Boolean isWatchedByAncestor(OWLClass cls) {
-                return isWatchedByAncestor(classHierarchyProvider.getAncestors(cls));
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLNamedIndividual individual) {
+                return Collections.emptySet();
             }
 
             @Nonnull
             @Override
-            public Boolean visit(@Nonnull OWLDatatype datatype) {
-                return false;
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLDatatype datatype) {
+                return Collections.emptySet();
             }
 
             @Nonnull
             @Override
-            public Boolean visit(@Nonnull OWLAnnotationProperty property) {
-                return isWatchedByAncestor(annotationPropertyHierarchyProvider.getAncestors(property));
+            public Collection<? extends OWLEntity> visit(@Nonnull OWLAnnotationProperty property) {
+                return annotationPropertyHierarchyProvider.getDescendants(property);
             }
+        });
+    }
 
-            private Boolean isWatchedByAncestor(Collection<? extends OWLEntity> ancestors) {
-                for (OWLEntity anc : ancestors) {
-                    if (watchedAncestors.contains(anc)) {
-                        return true;
+    /**
+     * Determines whether the specified entity is in the branch rooted at the specified entity, according to
+     * the current hierarchies.
+     */
+    private boolean isInBranch(OWLEntity entity, OWLEntity branchRoot) {
+        if (entity.equals(branchRoot)) {
+            return true;
+        }
+        if (branchRoot.isOWLClass() && entity.isOWLNamedIndividual()) {
+            var cls = branchRoot.asOWLClass();
+            return projectOntologiesIndex.getOntologyIds()
+                                         .flatMap(ontologyId -> classAssertionAxiomsByIndividualIndex.getClassAssertionAxioms(entity.asOWLNamedIndividual(), ontologyId))
+                                         .map(OWLClassAssertionAxiom::getClassExpression)
+                                         .filter(OWLClassExpression::isNamed)
+                                         .map(OWLClassExpression::asOWLClass)
+                                         .anyMatch(type -> type.equals(cls) || classHierarchyProvider.isAncestor(type, cls));
+        }
+        if (!entity.getEntityType().equals(branchRoot.getEntityType())) {
+            return false;
+        }
+        if (entity.isOWLClass()) {
+            return classHierarchyProvider.isAncestor(entity.asOWLClass(), branchRoot.asOWLClass());
+        }
+        else if (entity.isOWLObjectProperty()) {
+            return objectPropertyHierarchyProvider.isAncestor(entity.asOWLObjectProperty(), branchRoot.asOWLObjectProperty());
+        }
+        else if (entity.isOWLDataProperty()) {
+            return dataPropertyHierarchyProvider.isAncestor(entity.asOWLDataProperty(), branchRoot.asOWLDataProperty());
+        }
+        else if (entity.isOWLAnnotationProperty()) {
+            return annotationPropertyHierarchyProvider.isAncestor(entity.asOWLAnnotationProperty(), branchRoot.asOWLAnnotationProperty());
+        }
+        else {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the entities whose position in a hierarchy may have been changed by the specified change.  These
+     * are the subclasses, subproperties and individuals of hierarchy axioms, along with newly declared entities,
+     * which start out at the top of their hierarchy.
+     */
+    private static Stream<? extends OWLEntity> getRepositionedEntities(OntologyChange change) {
+        if (!change.isAxiomChange()) {
+            return Stream.empty();
+        }
+        var axiom = change.getAxiomOrThrow();
+        if (axiom instanceof OWLSubClassOfAxiom) {
+            var subClass = ((OWLSubClassOfAxiom) axiom).getSubClass();
+            return subClass.isNamed() ? Stream.of(subClass.asOWLClass()) : Stream.empty();
+        }
+        else if (axiom instanceof OWLEquivalentClassesAxiom) {
+            return ((OWLEquivalentClassesAxiom) axiom).getNamedClasses().stream();
+        }
+        else if (axiom instanceof OWLClassAssertionAxiom) {
+            var individual = ((OWLClassAssertionAxiom) axiom).getIndividual();
+            return individual.isNamed() ? Stream.of(individual.asOWLNamedIndividual()) : Stream.empty();
+        }
+        else if (axiom instanceof OWLSubObjectPropertyOfAxiom) {
+            var subProperty = ((OWLSubObjectPropertyOfAxiom) axiom).getSubProperty();
+            return subProperty.isAnonymous() ? Stream.empty() : Stream.of(subProperty.asOWLObjectProperty());
+        }
+        else if (axiom instanceof OWLSubDataPropertyOfAxiom) {
+            return Stream.of(((OWLSubDataPropertyOfAxiom) axiom).getSubProperty().asOWLDataProperty());
+        }
+        else if (axiom instanceof OWLSubAnnotationPropertyOfAxiom) {
+            return Stream.of(((OWLSubAnnotationPropertyOfAxiom) axiom).getSubProperty());
+        }
+        else if (axiom instanceof OWLDeclarationAxiom) {
+            return Stream.of(((OWLDeclarationAxiom) axiom).getEntity());
+        }
+        else {
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * The members of a watched branch.  The members are computed in full when the branch is first watched.
+     * After that, only the entities that have been repositioned in a hierarchy since the members were last
+     * brought up to date, along with their descendants, are re-examined.  Readers do not take a lock.
+     */
+    private class BranchMembers {
+
+        private final OWLEntity branchRoot;
+
+        private final Set<OWLEntity> members = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The IRIs of the members.  An IRI may be shared by more than one member so the IRIs are counted.
+         */
+        private final ConcurrentHashMultiset<IRI> memberIris = ConcurrentHashMultiset.create();
+
+        private long revision;
+
+        private BranchMembers(OWLEntity branchRoot) {
+            this.branchRoot = checkNotNull(branchRoot);
+            // Revisions added while the members are computed are examined by the next update
+            this.revision = changeManager.getCurrentRevision().getValue();
+            add(branchRoot);
+            getDescendantsAndInstances(branchRoot).forEach(this::add);
+        }
+
+        private boolean contains(IRI iri) {
+            return memberIris.contains(iri);
+        }
+
+        private Set<IRI> getIris() {
+            return memberIris.elementSet();
+        }
+
+        private synchronized void update() {
+            var currentRevision = changeManager.getCurrentRevision().getValue();
+            if (revision >= currentRevision) {
+                return;
+            }
+            Set<OWLEntity> repositionedEntities = new HashSet<>();
+            for (long revisionNumber = revision + 1; revisionNumber <= currentRevision; revisionNumber++) {
+                changeManager.getRevision(RevisionNumber.getRevisionNumber(revisionNumber))
+                             .ifPresent(r -> r.getChanges().stream()
+                                              .flatMap(WatchedChangesManager::getRepositionedEntities)
+                                              .forEach(repositionedEntities::add));
+            }
+            Set<OWLEntity> examined = new HashSet<>();
+            for (OWLEntity entity : repositionedEntities) {
+                // The descendants of a repositioned entity move with it
+                Iterable<OWLEntity> affected = Iterables.concat(ImmutableSet.of(entity),
+                                                                getDescendantsAndInstances(entity));
+                for (OWLEntity affectedEntity : affected) {
+                    if (examined.add(affectedEntity)) {
+                        if (isInBranch(affectedEntity, branchRoot)) {
+                            add(affectedEntity);
+                        }
+                        else {
+                            remove(affectedEntity);
+                        }
                     }
                 }
-                return false;
             }
+            revision = currentRevision;
+        }
+
+        private void add(OWLEntity entity) {
+            if (members.add(entity)) {
+                memberIris.add(entity.getIRI());
+            }
+        }
 
-        });
+        private void remove(OWLEntity entity) {
+            if (members.remove(entity)) {
+                memberIris.remove(entity.getIRI());
+            }
+        }
     }
-
 }
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.List;
 import java.util.UUID;
@@ -44,6 +45,20 @@ public class JsonPayloadWebhookExecutor {
      */
     public void submit(@Nonnull Object payload,
                        @Nonnull List<? extends Webhook> webhooks) {
+        submit(payload, webhooks, null);
+    }
+
+    /**
+     * Submit the specified payload for the specified Webhooks.
+     * @param payload The payload that will be serialized to JSON.
+     * @param webhooks The Webhooks that specify the payload URLs where the JSON payload
+     *                 will be sent to.
+     * @param coalescingKey A key that allows a payload that is still waiting to be sent to be replaced
+     *                      by a later payload that has the same key.  May be {@code null}.
+     */
+    public void submit(@Nonnull Object payload,
+                       @Nonnull List<? extends Webhook> webhooks,
+                       @Nullable String coalescingKey) {
         try {
             final String jsonPayload = objectMapper
                     .writerWithDefaultPrettyPrinter()
@@ -54,7 +69,8 @@ public class JsonPayloadWebhookExecutor {
                 webhookExecutor.submit(new WebhookInvocation(invocationId,
                                                              payloadUrl,
                                                              jsonPayload,
-                                                             APPLICATION_JSON));
+                                                             APPLICATION_JSON,
+                                                             coalescingKey));
             });
         } catch (JsonProcessingException e) {
             logger.error("Webhook payload serialization error. Payload: {}.  Error: {}",
@@ -1,10 +1,14 @@
 package edu.stanford.bmir.protege.web.server.webhook;
 
-import org.apache.http.client.fluent.Request;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 import java.util.concurrent.Callable;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -14,32 +18,76 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Stanford Center for Biomedical Informatics Research
  * 19 May 2017
  */
-public class PostWebhookPayloadTask implements Callable<Void> {
+public class PostWebhookPayloadTask implements Callable<PostWebhookPayloadTask.Result> {
 
     private static final Logger logger = LoggerFactory.getLogger(PostWebhookPayloadTask.class);
 
+    public enum Result {
+
+        /**
+         * The payload was accepted by the endpoint
+         */
+        DELIVERED,
+
+        /**
+         * The payload could not be delivered but a later attempt may succeed, for example, because
+         * the endpoint could not be reached or responded with a server error
+         */
+        FAILED_RETRYABLE,
+
+        /**
+         * The payload was rejected by the endpoint and should not be resent
+         */
+        FAILED
+    }
+
+    @Nonnull
+    private final HttpClient httpClient;
+
     @Nonnull
     private final WebhookInvocation invocation;
 
-    public PostWebhookPayloadTask(@Nonnull WebhookInvocation invocation) {
+    public PostWebhookPayloadTask(@Nonnull HttpClient httpClient,
+                                  @Nonnull WebhookInvocation invocation) {
+        this.httpClient = checkNotNull(httpClient);
         this.invocation = checkNotNull(invocation);
     }
 
     @Override
-    public Void call() throws Exception {
+    public Result call() {
         logger.info("Posting webhook payload {} to {}",
                     invocation.getId(),
                     invocation.getPayloadUrl());
+        try {
+            var post = new HttpPost(invocation.getPayloadUrl());
+            post.setEntity(new StringEntity(invocation.getPayload(), invocation.getContentType()));
+            return httpClient.execute(post, httpResponse -> {
+                // Consume the entity so that the connection can be reused
+                EntityUtils.consumeQuietly(httpResponse.getEntity());
+                var statusCode = httpResponse.getStatusLine().getStatusCode();
+                logger.info("Webhook payload {} POST result {}",
+                            invocation.getId(),
+                            statusCode);
+                return toResult(statusCode);
+            });
+        } catch (IOException | IllegalArgumentException e) {
+            logger.info("Webhook payload {} could not be posted to {}: {}",
+                        invocation.getId(),
+                        invocation.getPayloadUrl(),
+                        e.getMessage());
+            return e instanceof IOException ? Result.FAILED_RETRYABLE : Result.FAILED;
+        }
+    }
 
-        Request.Post(invocation.getPayloadUrl())
-               .bodyString(invocation.getPayload(), invocation.getContentType())
-               .execute()
-               .handleResponse(httpResponse -> {
-                   logger.info("Webhook payload {} POST result {}",
-                               invocation.getId(),
-                               httpResponse.getStatusLine().getStatusCode());
-                   return null;
-               });
-        return null;
+    private static Result toResult(int statusCode) {
+        if (statusCode >= 200 && statusCode < 300) {
+            return Result.DELIVERED;
+        }
+        else if (statusCode == 429 || statusCode >= 500) {
+            return Result.FAILED_RETRYABLE;
+        }
+        else {
+            return Result.FAILED;
+        }
     }
 }
@@ -52,6 +52,7 @@ public class ProjectChangedWebhookInvoker {
                                                                                 timestamp);
 
         List<ProjectWebhook> webhooks = webhookRepository.getProjectWebhooks(projectId, PROJECT_CHANGED);
-        webhookExecutor.submit(payload, webhooks);
+        // Consecutive project changed payloads that have not been sent yet are superseded by the latest one
+        webhookExecutor.submit(payload, webhooks, PROJECT_CHANGED.name() + "/" + projectId.getId());
     }
 }
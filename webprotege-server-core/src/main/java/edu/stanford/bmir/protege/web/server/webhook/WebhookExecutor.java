@@ -2,28 +2,91 @@ package edu.stanford.bmir.protege.web.server.webhook;
 
 import edu.stanford.bmir.protege.web.shared.HasDispose;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.concurrent.ExecutorService;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 19 May 2017
+ * <p>
+ * Posts webhook payloads.  Each payload URL has its own queue of invocations, which are posted one at a
+ * time and in order, and the queues for different payload URLs are processed concurrently so that a slow
+ * or unreachable endpoint only delays its own invocations.  Posts that fail because the endpoint could not
+ * be reached, or because it responded with a server error, are retried a bounded number of times with
+ * exponential backoff.
+ * </p>
  */
 @ApplicationSingleton
 public class WebhookExecutor implements HasDispose {
 
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookExecutor.class);
+
+    private static final int DISPATCH_THREADS = 8;
+
+    private static final int MAX_CONNECTIONS = 64;
+
+    private static final int MAX_CONNECTIONS_PER_ENDPOINT = 2;
+
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+
+    private static final int SOCKET_TIMEOUT_MS = 10_000;
+
+    static final int MAX_ATTEMPTS = 4;
+
+    private static final long INITIAL_RETRY_DELAY_MS = 2_000;
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(DISPATCH_THREADS, runnable -> {
         Thread thread = Executors.defaultThreadFactory().newThread(runnable);
         thread.setName(thread.getName().replace("thread", "webhook-processor-thread"));
         return thread;
     });
 
+    private final CloseableHttpClient httpClient;
+
+    private final long initialRetryDelayMs;
+
+    private final Object lock = new Object();
+
+    /**
+     * The queues of pending invocations, keyed by payload URL.  A queue is removed when it becomes empty.
+     */
+    private final Map<String, EndpointQueue> endpointQueues = new HashMap<>();
+
     @Inject
     public WebhookExecutor() {
+        this(INITIAL_RETRY_DELAY_MS);
+    }
+
+    WebhookExecutor(long initialRetryDelayMs) {
+        this.initialRetryDelayMs = initialRetryDelayMs;
+        var requestConfig = RequestConfig.custom()
+                                         .setConnectTimeout(CONNECT_TIMEOUT_MS)
+                                         .setConnectionRequestTimeout(CONNECT_TIMEOUT_MS)
+                                         .setSocketTimeout(SOCKET_TIMEOUT_MS)
+                                         .build();
+        this.httpClient = HttpClients.custom()
+                                     .setDefaultRequestConfig(requestConfig)
+                                     .setMaxConnTotal(MAX_CONNECTIONS)
+                                     .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ENDPOINT)
+                                     .build();
     }
 
     @Override
@@ -36,15 +99,154 @@ public class WebhookExecutor implements HasDispose {
      */
     public void shutdown() {
         executor.shutdown();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.warn("Error closing webhook HTTP client: {}", e.getMessage());
+        }
     }
 
     /**
      * Submit the specified {@link WebhookInvocation} to be executed.  The {@link WebhookInvocation}
-     * will be submitted asynchronously.  Ordering is preserved so that if WebhookInvoation X is submitted
-     * before WebhookInvocation Y then X will be invoked before Y.
+     * will be submitted asynchronously.  Ordering is preserved for each payload URL so that if
+     * WebhookInvocation X is submitted before WebhookInvocation Y, and both have the same payload URL,
+     * then X will be invoked before Y.  If the invocation has a coalescing key, and the most recently
+     * submitted invocation that is still waiting for the same payload URL has the same key, then the
+     * waiting invocation is replaced by this one.
      * @param webhookInvocation The invocation
      */
     public void submit(@Nonnull WebhookInvocation webhookInvocation) {
-        executor.submit(new PostWebhookPayloadTask(webhookInvocation));
+        checkNotNull(webhookInvocation);
+        synchronized (lock) {
+            var payloadUrl = webhookInvocation.getPayloadUrl();
+            var queue = endpointQueues.computeIfAbsent(payloadUrl, EndpointQueue::new);
+            queue.add(webhookInvocation);
+            if (!queue.dispatching) {
+                queue.dispatching = true;
+                execute(queue);
+            }
+        }
+    }
+
+    /**
+     * Executes the dispatch of the next invocation in the specified queue.
+     * @return true if the dispatch was executed, or false if this executor has been shut down.
+     */
+    private boolean execute(@Nonnull EndpointQueue queue) {
+        try {
+            executor.execute(() -> dispatchNext(queue));
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.info("Webhook executor has been shut down.  Discarding payloads for {}", queue.payloadUrl);
+            return false;
+        }
+    }
+
+    private void dispatchNext(@Nonnull EndpointQueue queue) {
+        PendingInvocation pending;
+        synchronized (lock) {
+            pending = queue.invocations.pollFirst();
+            if (pending == null) {
+                queue.dispatching = false;
+                endpointQueues.remove(queue.payloadUrl);
+                return;
+            }
+        }
+        var dispatchScheduled = false;
+        try {
+            dispatchScheduled = post(queue, pending);
+        } finally {
+            if (!dispatchScheduled) {
+                // Nothing will dispatch the rest of the queue, so let the next submission start dispatching it
+                synchronized (lock) {
+                    queue.dispatching = false;
+                    if (queue.invocations.isEmpty()) {
+                        endpointQueues.remove(queue.payloadUrl);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Posts the specified invocation and schedules the dispatch of the next invocation in the queue.
+     * @return true if the next dispatch was scheduled, otherwise false.
+     */
+    private boolean post(@Nonnull EndpointQueue queue, @Nonnull PendingInvocation pending) {
+        PostWebhookPayloadTask.Result result;
+        try {
+            result = new PostWebhookPayloadTask(httpClient, pending.invocation).call();
+        } catch (RuntimeException e) {
+            logger.error("Error posting webhook payload {} to {}: {}",
+                         pending.invocation.getId(),
+                         queue.payloadUrl,
+                         e.getMessage(),
+                         e);
+            result = PostWebhookPayloadTask.Result.FAILED;
+        }
+        if (result == PostWebhookPayloadTask.Result.FAILED_RETRYABLE && pending.attempt < MAX_ATTEMPTS) {
+            var delay = initialRetryDelayMs << (pending.attempt - 1);
+            logger.info("Retrying webhook payload {} in {} ms (attempt {} of {})",
+                        pending.invocation.getId(),
+                        delay,
+                        pending.attempt + 1,
+                        MAX_ATTEMPTS);
+            synchronized (lock) {
+                // Put the invocation back at the head of the queue so that ordering is preserved
+                queue.invocations.addFirst(new PendingInvocation(pending.invocation, pending.attempt + 1, true));
+            }
+            try {
+                executor.schedule(() -> dispatchNext(queue), delay, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (RejectedExecutionException e) {
+                logger.info("Webhook executor has been shut down.  Discarding payloads for {}", queue.payloadUrl);
+                return false;
+            }
+        }
+        else {
+            // Give other endpoints a chance to be served before posting the next invocation for this one
+            return execute(queue);
+        }
+    }
+
+    private static class EndpointQueue {
+
+        private final String payloadUrl;
+
+        private final Deque<PendingInvocation> invocations = new ArrayDeque<>();
+
+        private boolean dispatching = false;
+
+        private EndpointQueue(String payloadUrl) {
+            this.payloadUrl = payloadUrl;
+        }
+
+        private void add(@Nonnull WebhookInvocation invocation) {
+            var last = invocations.peekLast();
+            if (last != null && !last.retry && invocation.getCoalescingKey().isPresent()
+                    && invocation.getCoalescingKey().equals(last.invocation.getCoalescingKey())) {
+                invocations.pollLast();
+            }
+            invocations.addLast(new PendingInvocation(invocation, 1, false));
+        }
+    }
+
+    private static class PendingInvocation {
+
+        private final WebhookInvocation invocation;
+
+        private final int attempt;
+
+        /**
+         * Whether this invocation has already been attempted.  Invocations that are being retried are
+         * never replaced by coalescing.
+         */
+        private final boolean retry;
+
+        private PendingInvocation(WebhookInvocation invocation, int attempt, boolean retry) {
+            this.invocation = invocation;
+            this.attempt = attempt;
+            this.retry = retry;
+        }
     }
 }
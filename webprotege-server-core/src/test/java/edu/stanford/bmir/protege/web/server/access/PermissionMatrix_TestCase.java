@@ -0,0 +1,91 @@
+package edu.stanford.bmir.protege.web.server.access;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.access.ActionId;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class PermissionMatrix_TestCase {
+
+    private static final String USER_NAME = "The User";
+
+    private static final String PROJECT_ID = "12345678-1234-1234-1234-123456789abc";
+
+    private static final ActionId VIEW = new ActionId("ViewProject");
+
+    private static final ActionId EDIT = new ActionId("EditOntology");
+
+    private static final ActionId COMMENT = new ActionId("Comment");
+
+    private PermissionMatrix matrix;
+
+    @Before
+    public void setUp() {
+        matrix = new PermissionMatrix();
+        matrix.put(USER_NAME, PROJECT_ID, ImmutableList.of(VIEW.getId(), EDIT.getId()));
+        matrix.put(null, PROJECT_ID, ImmutableList.of(COMMENT.getId()));
+    }
+
+    @Test
+    public void shouldGrantActionInUserActionClosure() {
+        assertThat(matrix.hasPermission(USER_NAME, true, PROJECT_ID, EDIT), is(true));
+    }
+
+    @Test
+    public void shouldDenyUnknownAction() {
+        assertThat(matrix.hasPermission(USER_NAME, true, PROJECT_ID, new ActionId("Unknown")), is(false));
+    }
+
+    @Test
+    public void shouldDenyActionOnOtherResource() {
+        assertThat(matrix.hasPermission(USER_NAME, true, null, EDIT), is(false));
+    }
+
+    @Test
+    public void shouldGrantActionOfAnySignedInUser() {
+        assertThat(matrix.hasPermission(USER_NAME, true, PROJECT_ID, COMMENT), is(true));
+    }
+
+    @Test
+    public void shouldNotGrantActionOfAnySignedInUserToGuest() {
+        assertThat(matrix.hasPermission(USER_NAME, false, PROJECT_ID, COMMENT), is(false));
+    }
+
+    @Test
+    public void shouldReplaceActionClosure() {
+        matrix.put(USER_NAME, PROJECT_ID, ImmutableList.of(VIEW.getId()));
+        assertThat(matrix.hasPermission(USER_NAME, true, PROJECT_ID, EDIT), is(false));
+        assertThat(matrix.hasPermission(USER_NAME, true, PROJECT_ID, VIEW), is(true));
+    }
+
+    @Test
+    public void shouldRemoveRowForEmptyActionClosure() {
+        matrix.put(USER_NAME, PROJECT_ID, ImmutableList.of());
+        assertThat(matrix.hasPermission(USER_NAME, false, PROJECT_ID, VIEW), is(false));
+        assertThat(matrix.getResourcesWithPermission(USER_NAME, VIEW), is(empty()));
+    }
+
+    @Test
+    public void shouldReturnCombinedActionClosure() {
+        assertThat(matrix.getActionClosure(USER_NAME, true, PROJECT_ID), containsInAnyOrder(VIEW, EDIT, COMMENT));
+    }
+
+    @Test
+    public void shouldReturnResourcesWithPermission() {
+        matrix.put(USER_NAME, null, ImmutableList.of(VIEW.getId()));
+        assertThat(matrix.getResourcesWithPermission(USER_NAME, VIEW),
+                   containsInAnyOrder((Resource) new ProjectResource(ProjectId.get(PROJECT_ID)),
+                                      (Resource) ApplicationResource.get()));
+        assertThat(matrix.getResourcesWithPermission(USER_NAME, EDIT),
+                   contains((Resource) new ProjectResource(ProjectId.get(PROJECT_ID))));
+    }
+}
@@ -0,0 +1,54 @@
+package edu.stanford.bmir.protege.web.server.app;
+
+import edu.stanford.bmir.protege.web.server.util.DisposableObjectManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class ApplicationDisposablesManager_TestCase {
+
+    private final List<String> disposed = new ArrayList<>();
+
+    private ApplicationDisposablesManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new ApplicationDisposablesManager(new DisposableObjectManager());
+    }
+
+    @Test
+    public void shouldDisposeInRegistrationOrder() {
+        manager.register(() -> disposed.add("A"));
+        manager.register(() -> disposed.add("B"));
+        manager.dispose();
+        assertThat(disposed, contains("A", "B"));
+    }
+
+    @Test
+    public void shouldDisposeOfDatabaseConnectionAfterObjectsRegisteredLater() {
+        manager.registerDatabaseConnection(() -> disposed.add("DatabaseConnection"));
+        manager.register(() -> disposed.add("Flusher"));
+        manager.dispose();
+        assertThat(disposed, contains("Flusher", "DatabaseConnection"));
+    }
+
+    @Test
+    public void shouldDisposeOfDatabaseConnectionWhenObjectFailsToDispose() {
+        manager.registerDatabaseConnection(() -> disposed.add("DatabaseConnection"));
+        manager.register(() -> {
+            throw new RuntimeException("Failed");
+        });
+        manager.dispose();
+        assertThat(disposed, contains("DatabaseConnection"));
+    }
+}
@@ -0,0 +1,261 @@
+package edu.stanford.bmir.protege.web.server.crud.obo;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.OntologyChangeList;
+import edu.stanford.bmir.protege.web.server.crud.EntityCrudContext;
+import edu.stanford.bmir.protege.web.server.crud.EntityIriPrefixResolver;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.shared.crud.EntityCrudKitPrefixSettings;
+import edu.stanford.bmir.protege.web.shared.crud.EntityShortForm;
+import edu.stanford.bmir.protege.web.shared.crud.oboid.OboIdSuffixSettings;
+import edu.stanford.bmir.protege.web.shared.crud.oboid.UserIdRange;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class OBOIdSuffixEntityCrudKitHandler_TestCase {
+
+    private static final String IRI_PREFIX = "http://purl.obolibrary.org/obo/GO_";
+
+    private final OWLDataFactory dataFactory = new OWLDataFactoryImpl();
+
+    private final ProjectId projectId = ProjectId.getNil();
+
+    private final UserId userId = UserId.getUserId("JaneDoe");
+
+    @Mock
+    private EntitiesInProjectSignatureByIriIndex signatureByIriIndex;
+
+    @Mock
+    private EntityIriPrefixResolver entityIriPrefixResolver;
+
+    @Mock
+    private ProjectSignatureIndex signatureIndex;
+
+    @Mock
+    private EntityCrudContext context;
+
+    private EntityCrudKitPrefixSettings prefixSettings;
+
+    private InMemoryHighWaterMarkRepository highWaterMarkRepository;
+
+    private Set<IRI> signature;
+
+    @Before
+    public void setUp() {
+        prefixSettings = EntityCrudKitPrefixSettings.get(IRI_PREFIX, ImmutableList.of());
+        highWaterMarkRepository = new InMemoryHighWaterMarkRepository();
+        signature = new HashSet<>();
+        when(entityIriPrefixResolver.getIriPrefix(any(), any())).thenReturn(IRI_PREFIX);
+        when(signatureIndex.getSignature()).thenAnswer(inv -> signature.stream().map(dataFactory::getOWLClass));
+        when(signatureByIriIndex.getEntitiesInSignature(any())).thenAnswer(inv -> {
+            IRI iri = inv.getArgument(0);
+            return signature.contains(iri) ? Stream.of(dataFactory.getOWLClass(iri)) : Stream.empty();
+        });
+        when(context.getUserId()).thenReturn(userId);
+        when(context.getTargetOntologyId()).thenReturn(new OWLOntologyID());
+        when(context.getDictionaryLanguage()).thenReturn(DictionaryLanguage.rdfsLabel(""));
+    }
+
+    private OBOIdSuffixEntityCrudKitHandler createHandler(OboIdSuffixSettings suffixSettings) {
+        return new OBOIdSuffixEntityCrudKitHandler(prefixSettings,
+                                                   suffixSettings,
+                                                   dataFactory,
+                                                   signatureByIriIndex,
+                                                   entityIriPrefixResolver,
+                                                   projectId,
+                                                   signatureIndex,
+                                                   highWaterMarkRepository);
+    }
+
+    private IRI createClass(OBOIdSuffixEntityCrudKitHandler handler, OBOIdSession session) {
+        OWLClass cls = handler.create(session,
+                                      EntityType.CLASS,
+                                      EntityShortForm.get(""),
+                                      Optional.empty(),
+                                      ImmutableList.of(),
+                                      context,
+                                      OntologyChangeList.builder());
+        return cls.getIRI();
+    }
+
+    @Test
+    public void shouldSeedHighWaterMarkFromIdsWithConfiguredPrefix() {
+        signature.add(IRI.create(IRI_PREFIX + "0000005"));
+        signature.add(IRI.create("http://purl.obolibrary.org/obo/BFO_0000100"));
+        signature.add(IRI.create("http://purl.obolibrary.org/obo/CHEBI_12345678"));
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of()));
+        IRI iri = createClass(handler, handler.createChangeSetSession());
+        assertThat(iri, is(IRI.create(IRI_PREFIX + "0000006")));
+    }
+
+    @Test
+    public void shouldContinueFromStoredHighWaterMark() {
+        highWaterMarkRepository.allocateBlock(projectId, "", 100, 0);
+        signature.add(IRI.create(IRI_PREFIX + "0000005"));
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of()));
+        IRI iri = createClass(handler, handler.createChangeSetSession());
+        assertThat(iri, is(IRI.create(IRI_PREFIX + "0000101")));
+    }
+
+    @Test
+    public void shouldSkipIdsThatAreInTheSignature() {
+        highWaterMarkRepository.allocateBlock(projectId, "", 100, 0);
+        signature.add(IRI.create(IRI_PREFIX + "0000101"));
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of()));
+        IRI iri = createClass(handler, handler.createChangeSetSession());
+        assertThat(iri, is(IRI.create(IRI_PREFIX + "0000102")));
+    }
+
+    @Test
+    public void shouldAllocateIdsFromUserRange() {
+        var range = UserIdRange.get(userId, 1000, 1999);
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of(range)));
+        IRI iri = createClass(handler, handler.createChangeSetSession());
+        assertThat(iri, is(IRI.create(IRI_PREFIX + "0001001")));
+    }
+
+    @Test(expected = CannotGenerateFreshEntityIdForUserException.class)
+    public void shouldThrowExceptionWhenUserRangeIsExhausted() {
+        var range = UserIdRange.get(userId, 1000, 1005);
+        highWaterMarkRepository.allocateBlock(projectId, userId.getUserName(), 1005, 0);
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of(range)));
+        createClass(handler, handler.createChangeSetSession());
+    }
+
+    @Test
+    public void shouldAllocateNextBlockBeforeCurrentBlockIsUsedUp() {
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of()));
+        var session = handler.createChangeSetSession();
+        for(int i = 0; i < 11; i++) {
+            createClass(handler, session);
+        }
+        assertThat(highWaterMarkRepository.getAllocatedBlockCount(), is(2));
+        for(int i = 0; i < 9; i++) {
+            createClass(handler, session);
+        }
+        assertThat(highWaterMarkRepository.getAllocatedBlockCount(), is(2));
+        assertThat(createClass(handler, session), is(IRI.create(IRI_PREFIX + "0000021")));
+    }
+
+    @Test
+    public void shouldUseAllIdsInUserRangeBeforeThrowingException() {
+        var range = UserIdRange.get(userId, 1000, 1010);
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of(range)));
+        var session = handler.createChangeSetSession();
+        for(int i = 0; i < 10; i++) {
+            createClass(handler, session);
+        }
+        try {
+            createClass(handler, session);
+            fail("Expected CannotGenerateFreshEntityIdForUserException");
+        } catch(CannotGenerateFreshEntityIdForUserException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void shouldAllocateDistinctIdsConcurrently() throws Exception {
+        var handler = createHandler(OboIdSuffixSettings.get(7, ImmutableList.of()));
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<IRI>>> futures = new ArrayList<>();
+            for(int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    var session = handler.createChangeSetSession();
+                    List<IRI> iris = new ArrayList<>();
+                    for(int j = 0; j < 50; j++) {
+                        iris.add(createClass(handler, session));
+                    }
+                    return iris;
+                }));
+            }
+            Set<IRI> allocated = new HashSet<>();
+            for(var future : futures) {
+                allocated.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(allocated, hasSize(400));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldParseIdAfterConfiguredPrefix() {
+        assertThat(OBOIdSuffixEntityCrudKitHandler.parseId(IRI_PREFIX + "0000042", List.of(IRI_PREFIX), 7), is(42L));
+    }
+
+    @Test
+    public void shouldNotParseIdWithOtherPrefix() {
+        assertThat(OBOIdSuffixEntityCrudKitHandler.parseId("http://purl.obolibrary.org/obo/BFO_0000042",
+                                                           List.of(IRI_PREFIX), 7), is(-1L));
+    }
+
+    @Test
+    public void shouldNotParseIdWithTooFewDigits() {
+        assertThat(OBOIdSuffixEntityCrudKitHandler.parseId(IRI_PREFIX + "42", List.of(IRI_PREFIX), 7), is(-1L));
+    }
+
+    @Test
+    public void shouldNotParseIdWithNonDigitSuffix() {
+        assertThat(OBOIdSuffixEntityCrudKitHandler.parseId(IRI_PREFIX + "A0000042", List.of(IRI_PREFIX), 7), is(-1L));
+    }
+
+    private static class InMemoryHighWaterMarkRepository implements OboIdHighWaterMarkRepository {
+
+        private final Map<String, Long> highWaterMarks = new HashMap<>();
+
+        private int allocatedBlockCount = 0;
+
+        private synchronized int getAllocatedBlockCount() {
+            return allocatedBlockCount;
+        }
+
+        @Nonnull
+        @Override
+        public synchronized Optional<Long> getHighWaterMark(@Nonnull ProjectId projectId, @Nonnull String rangeId) {
+            return Optional.ofNullable(highWaterMarks.get(rangeId));
+        }
+
+        @Override
+        public synchronized long allocateBlock(@Nonnull ProjectId projectId,
+                                               @Nonnull String rangeId,
+                                               long floor,
+                                               int blockSize) {
+            long highWaterMark = Math.max(highWaterMarks.getOrDefault(rangeId, floor), floor) + blockSize;
+            highWaterMarks.put(rangeId, highWaterMark);
+            allocatedBlockCount++;
+            return highWaterMark;
+        }
+    }
+}
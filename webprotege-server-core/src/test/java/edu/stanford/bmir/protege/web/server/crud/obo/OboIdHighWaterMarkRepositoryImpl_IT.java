@@ -0,0 +1,120 @@
+package edu.stanford.bmir.protege.web.server.crud.obo;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import edu.stanford.bmir.protege.web.server.persistence.MongoTestUtils;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class OboIdHighWaterMarkRepositoryImpl_IT {
+
+    private static final String RANGE_ID = "";
+
+    private static final int BLOCK_SIZE = 20;
+
+    private MongoClient client;
+
+    private MongoDatabase database;
+
+    private OboIdHighWaterMarkRepositoryImpl repository;
+
+    private ProjectId projectId;
+
+    @Before
+    public void setUp() {
+        client = MongoTestUtils.createMongoClient();
+        database = client.getDatabase(MongoTestUtils.getTestDbName());
+        repository = new OboIdHighWaterMarkRepositoryImpl(database);
+        repository.ensureIndexes();
+        projectId = ProjectId.get(UUID.randomUUID().toString());
+    }
+
+    @After
+    public void tearDown() {
+        database.drop();
+        client.close();
+    }
+
+    @Test
+    public void shouldReturnEmptyHighWaterMarkForNewRange() {
+        assertThat(repository.getHighWaterMark(projectId, RANGE_ID), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldAllocateFirstBlockAboveFloor() {
+        long highWaterMark = repository.allocateBlock(projectId, RANGE_ID, 100, BLOCK_SIZE);
+        assertThat(highWaterMark, is(120L));
+        assertThat(repository.getHighWaterMark(projectId, RANGE_ID), is(Optional.of(120L)));
+    }
+
+    @Test
+    public void shouldAllocateConsecutiveBlocks() {
+        repository.allocateBlock(projectId, RANGE_ID, 100, BLOCK_SIZE);
+        long highWaterMark = repository.allocateBlock(projectId, RANGE_ID, 100, BLOCK_SIZE);
+        assertThat(highWaterMark, is(140L));
+    }
+
+    @Test
+    public void shouldRaiseHighWaterMarkToFloor() {
+        repository.allocateBlock(projectId, RANGE_ID, 0, BLOCK_SIZE);
+        long highWaterMark = repository.allocateBlock(projectId, RANGE_ID, 1000, BLOCK_SIZE);
+        assertThat(highWaterMark, is(1020L));
+    }
+
+    @Test
+    public void shouldKeepRangesSeparate() {
+        repository.allocateBlock(projectId, RANGE_ID, 100, BLOCK_SIZE);
+        long highWaterMark = repository.allocateBlock(projectId, "JaneDoe", 5000, BLOCK_SIZE);
+        assertThat(highWaterMark, is(5020L));
+        assertThat(repository.getHighWaterMark(projectId, RANGE_ID), is(Optional.of(120L)));
+    }
+
+    @Test
+    public void shouldAllocateDistinctBlocksForConcurrentFirstAllocations() throws Exception {
+        for(int attempt = 0; attempt < 20; attempt++) {
+            var rangeId = "range-" + attempt;
+            var executor = Executors.newFixedThreadPool(2);
+            try {
+                var startLatch = new CountDownLatch(1);
+                List<Future<Long>> futures = new ArrayList<>();
+                for(int i = 0; i < 2; i++) {
+                    futures.add(executor.submit(() -> {
+                        startLatch.await();
+                        return repository.allocateBlock(projectId, rangeId, 100, BLOCK_SIZE);
+                    }));
+                }
+                startLatch.countDown();
+                Set<Long> highWaterMarks = new HashSet<>();
+                for(var future : futures) {
+                    highWaterMarks.add(future.get(10, TimeUnit.SECONDS));
+                }
+                assertThat(highWaterMarks, containsInAnyOrder(120L, 140L));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -3,17 +3,28 @@ package edu.stanford.bmir.protege.web.server.dispatch.impl;
 import edu.stanford.bmir.protege.web.server.app.UserInSessionFactory;
 import edu.stanford.bmir.protege.web.server.dispatch.*;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
+import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.shared.app.UserInSession;
-import edu.stanford.bmir.protege.web.shared.dispatch.Action;
-import edu.stanford.bmir.protege.web.shared.dispatch.ActionExecutionException;
-import edu.stanford.bmir.protege.web.shared.dispatch.Result;
+import edu.stanford.bmir.protege.web.shared.dispatch.*;
 import edu.stanford.bmir.protege.web.shared.permissions.PermissionDeniedException;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 
 /**
@@ -53,15 +64,23 @@ public class DispatchServiceExecutorImpl_TestCase<A extends Action<R>, R extends
     @Mock
     private UserInSession userInSession;
 
+    private ExecutorService batchActionExecutor;
+
     @Before
     public void setUp() throws Exception {
-        executor = new DispatchServiceExecutorImpl(registry, projectManager, userInSessionFactory);
+        batchActionExecutor = Executors.newFixedThreadPool(2);
+        executor = new DispatchServiceExecutorImpl(registry, projectManager, userInSessionFactory, batchActionExecutor);
         when(registry.getActionHandler(action)).thenReturn(actionHandler);
         when(actionHandler.getRequestValidator(action, requestContext)).thenReturn(requestValidator);
         when(requestValidator.validateAction()).thenReturn(RequestValidationResult.getValid());
         when(userInSessionFactory.getUserInSession(any())).thenReturn(userInSession);
     }
 
+    @After
+    public void tearDown() {
+        batchActionExecutor.shutdown();
+    }
+
     @Test(expected = ActionExecutionException.class)
     public void shouldThrowActionExecutionException() {
         ExecutionContext executionContext = this.executionContext;
@@ -86,4 +105,84 @@ public class DispatchServiceExecutorImpl_TestCase<A extends Action<R>, R extends
         executor.execute(action, requestContext, executionContext);
         verify(actionHandler, times(1)).execute(action, executionContext);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldReturnBatchResultsInActionOrder() {
+        A readOnlyActionA = (A) mock(Action.class, withSettings().extraInterfaces(ReadOnlyAction.class));
+        A readOnlyActionB = (A) mock(Action.class, withSettings().extraInterfaces(ReadOnlyAction.class));
+        R resultA = (R) mock(Result.class);
+        R result = (R) mock(Result.class);
+        R resultB = (R) mock(Result.class);
+        for(A a : ImmutableList.of(readOnlyActionA, readOnlyActionB)) {
+            when(registry.getActionHandler(a)).thenReturn(actionHandler);
+            when(actionHandler.getRequestValidator(a, requestContext)).thenReturn(requestValidator);
+        }
+        when(actionHandler.execute(readOnlyActionA, executionContext)).thenReturn(resultA);
+        when(actionHandler.execute(action, executionContext)).thenReturn(result);
+        when(actionHandler.execute(readOnlyActionB, executionContext)).thenReturn(resultB);
+        BatchAction batchAction = BatchAction.create(ImmutableList.of(readOnlyActionA, action, readOnlyActionB));
+        DispatchServiceResultContainer container = executor.execute(batchAction, requestContext, executionContext);
+        ImmutableList<ActionExecutionResult> results = ((BatchResult) container.getResult()).getResults();
+        assertThat(results.size(), is(3));
+        assertThat(results.get(0).getResult().get().getResult(), is(resultA));
+        assertThat(results.get(1).getResult().get().getResult(), is(result));
+        assertThat(results.get(2).getResult().get().getResult(), is(resultB));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldExecuteReadOnlyActionsConcurrently() {
+        A readOnlyActionA = (A) mock(Action.class, withSettings().extraInterfaces(ReadOnlyAction.class));
+        A readOnlyActionB = (A) mock(Action.class, withSettings().extraInterfaces(ReadOnlyAction.class));
+        R result = (R) mock(Result.class);
+        // Each action waits for the other to start, so the batch only succeeds if they run at the same time
+        CountDownLatch started = new CountDownLatch(2);
+        for(A a : ImmutableList.of(readOnlyActionA, readOnlyActionB)) {
+            when(registry.getActionHandler(a)).thenReturn(actionHandler);
+            when(actionHandler.getRequestValidator(a, requestContext)).thenReturn(requestValidator);
+            when(actionHandler.execute(a, executionContext)).thenAnswer(invocation -> {
+                started.countDown();
+                if(!started.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Read only actions were not executed concurrently");
+                }
+                return result;
+            });
+        }
+        BatchAction batchAction = BatchAction.create(ImmutableList.of(readOnlyActionA, readOnlyActionB));
+        DispatchServiceResultContainer container = executor.execute(batchAction, requestContext, executionContext);
+        ImmutableList<ActionExecutionResult> results = ((BatchResult) container.getResult()).getResults();
+        assertThat(results.get(0).getResult().get().getResult(), is(result));
+        assertThat(results.get(1).getResult().get().getResult(), is(result));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotExecuteActionsConcurrentlyWithWriteAction() {
+        A readOnlyActionA = (A) mock(Action.class, withSettings().extraInterfaces(ReadOnlyAction.class));
+        A readOnlyActionB = (A) mock(Action.class, withSettings().extraInterfaces(ReadOnlyAction.class));
+        A readOnlyActionC = (A) mock(Action.class, withSettings().extraInterfaces(ReadOnlyAction.class));
+        R result = (R) mock(Result.class);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        ImmutableList<A> actions = ImmutableList.of(readOnlyActionA, readOnlyActionB, action, readOnlyActionC);
+        ImmutableList<String> names = ImmutableList.of("A", "B", "Write", "C");
+        for(int i = 0; i < actions.size(); i++) {
+            A a = actions.get(i);
+            String name = names.get(i);
+            when(registry.getActionHandler(a)).thenReturn(actionHandler);
+            when(actionHandler.getRequestValidator(a, requestContext)).thenReturn(requestValidator);
+            when(actionHandler.execute(a, executionContext)).thenAnswer(invocation -> {
+                events.add("Start " + name);
+                // Gives any action that is wrongly executed at the same time the chance to start
+                Thread.sleep(50);
+                events.add("End " + name);
+                return result;
+            });
+        }
+        BatchAction batchAction = BatchAction.create(ImmutableList.copyOf(actions));
+        executor.execute(batchAction, requestContext, executionContext);
+        List<String> writeEvents = events.subList(4, 6);
+        assertThat(writeEvents, contains("Start Write", "End Write"));
+        assertThat(events.subList(6, 8), contains("Start C", "End C"));
+    }
 }
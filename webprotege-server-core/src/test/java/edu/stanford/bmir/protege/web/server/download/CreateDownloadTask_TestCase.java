@@ -0,0 +1,79 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class CreateDownloadTask_TestCase {
+
+    private static final byte[] CONTENT = "The download".getBytes();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path downloadDirectory;
+
+    private Path downloadPath;
+
+    @Before
+    public void setUp() {
+        downloadDirectory = temporaryFolder.getRoot().toPath().resolve("project");
+        downloadPath = downloadDirectory.resolve("download.zip");
+    }
+
+    private long countFilesInDownloadDirectory() throws IOException {
+        try(var files = Files.list(downloadDirectory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void shouldNotExposeDownloadUntilItIsComplete() throws Exception {
+        CreateDownloadTask.writeDownload(downloadPath, null, outputStream -> {
+            outputStream.write(CONTENT);
+            assertThat(Files.exists(downloadPath), is(false));
+        });
+        assertThat(Files.readAllBytes(downloadPath), is(CONTENT));
+        assertThat(countFilesInDownloadDirectory(), is(1L));
+    }
+
+    @Test
+    public void shouldRemoveTempFileWhenWritingFails() throws Exception {
+        try {
+            CreateDownloadTask.writeDownload(downloadPath, null, outputStream -> {
+                outputStream.write(CONTENT);
+                throw new IOException("Failed");
+            });
+            fail("Expected the download to fail");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("Failed"));
+        }
+        assertThat(Files.exists(downloadPath), is(false));
+        assertThat(countFilesInDownloadDirectory(), is(0L));
+    }
+
+    @Test
+    public void shouldStreamDownloadToInProgressDownloadReaders() throws Exception {
+        var inProgressDownload = new InProgressDownload(downloadPath);
+        CreateDownloadTask.writeDownload(downloadPath, inProgressDownload, outputStream -> outputStream.write(CONTENT));
+        inProgressDownload.complete();
+        var clientOutputStream = new ByteArrayOutputStream();
+        inProgressDownload.transferTo(clientOutputStream);
+        assertThat(clientOutputStream.toByteArray(), is(CONTENT));
+    }
+}
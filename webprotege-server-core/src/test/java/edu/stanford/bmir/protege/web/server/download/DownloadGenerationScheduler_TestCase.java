@@ -0,0 +1,119 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import edu.stanford.bmir.protege.web.server.project.ProjectIdFactory;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class DownloadGenerationScheduler_TestCase {
+
+    private static final long MEMORY_BUDGET = 100;
+
+    private static final int THREAD_COUNT = 4;
+
+    private final ProjectId projectA = ProjectIdFactory.getFreshProjectId();
+
+    private final ProjectId projectB = ProjectIdFactory.getFreshProjectId();
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ExecutorService executor;
+
+    private DownloadGenerationScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        scheduler = new DownloadGenerationScheduler(executor, THREAD_COUNT, MEMORY_BUDGET);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private Callable<Void> blockingTask(String name) {
+        return () -> {
+            started.add(name);
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        };
+    }
+
+    @Test
+    public void shouldRunDownloadsThatFitInBudgetConcurrently() throws Exception {
+        var first = scheduler.submit(projectA, 40, blockingTask("A1"));
+        var second = scheduler.submit(projectB, 40, blockingTask("B1"));
+        assertThat(scheduler.getQueuePosition(first), is(0));
+        assertThat(scheduler.getQueuePosition(second), is(0));
+        release.countDown();
+        first.getFuture().get(5, TimeUnit.SECONDS);
+        second.getFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldQueueDownloadsThatExceedBudget() throws Exception {
+        var first = scheduler.submit(projectA, 80, blockingTask("A1"));
+        var second = scheduler.submit(projectB, 80, blockingTask("B1"));
+        assertThat(scheduler.getQueuePosition(first), is(0));
+        assertThat(scheduler.getQueuePosition(second), is(1));
+        release.countDown();
+        second.getFuture().get(5, TimeUnit.SECONDS);
+        assertThat(started, contains("A1", "B1"));
+    }
+
+    @Test
+    public void shouldRunOversizedDownloadOnItsOwn() throws Exception {
+        var first = scheduler.submit(projectA, 1000, blockingTask("A1"));
+        var second = scheduler.submit(projectB, 1, blockingTask("B1"));
+        assertThat(first.getEstimatedMemory(), is(MEMORY_BUDGET));
+        assertThat(scheduler.getQueuePosition(second), is(1));
+        release.countDown();
+        second.getFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldServeProjectsInTurn() throws Exception {
+        scheduler.submit(projectA, MEMORY_BUDGET, blockingTask("A1"));
+        var a2 = scheduler.submit(projectA, MEMORY_BUDGET, () -> started.add("A2"));
+        var a3 = scheduler.submit(projectA, MEMORY_BUDGET, () -> started.add("A3"));
+        var b1 = scheduler.submit(projectB, MEMORY_BUDGET, () -> started.add("B1"));
+        assertThat(scheduler.getQueuePosition(a2), is(1));
+        assertThat(scheduler.getQueuePosition(b1), is(2));
+        assertThat(scheduler.getQueuePosition(a3), is(3));
+        release.countDown();
+        a3.getFuture().get(5, TimeUnit.SECONDS);
+        assertThat(started, contains("A1", "A2", "B1", "A3"));
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyIfTaskFails() throws Exception {
+        var download = scheduler.submit(projectA, 10, () -> {
+            throw new RuntimeException("Failed");
+        });
+        var next = scheduler.submit(projectB, MEMORY_BUDGET, () -> null);
+        next.getFuture().get(5, TimeUnit.SECONDS);
+        assertThat(download.getFuture().isCompletedExceptionally(), is(true));
+    }
+}
@@ -0,0 +1,167 @@
+package edu.stanford.bmir.protege.web.server.download;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class InProgressDownload_TestCase {
+
+    private static final int CHUNK_SIZE = 100_000;
+
+    private static final int CHUNK_COUNT = 5;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path downloadPath;
+
+    private Path tempPath;
+
+    private InProgressDownload download;
+
+    @Before
+    public void setUp() throws IOException {
+        downloadPath = temporaryFolder.getRoot().toPath().resolve("download.zip");
+        tempPath = temporaryFolder.getRoot().toPath().resolve("download.zip.tmp");
+        download = new InProgressDownload(downloadPath);
+    }
+
+    private static byte[] chunk(int index) {
+        var chunk = new byte[CHUNK_SIZE];
+        for(int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) (index * 31 + i);
+        }
+        return chunk;
+    }
+
+    private static byte[] expectedContent() throws IOException {
+        var expected = new ByteArrayOutputStream();
+        for(int i = 0; i < CHUNK_COUNT; i++) {
+            expected.write(chunk(i));
+        }
+        return expected.toByteArray();
+    }
+
+    private Future<byte[]> startReading(ExecutorService executor) {
+        return executor.submit(() -> {
+            var outputStream = new ByteArrayOutputStream();
+            download.transferTo(outputStream);
+            return outputStream.toByteArray();
+        });
+    }
+
+    @Test
+    public void shouldTransferDownloadWhileItIsWritten() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var readResult = startReading(executor);
+            try(OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                download.writing(tempPath);
+                for(int i = 0; i < CHUNK_COUNT; i++) {
+                    outputStream.write(chunk(i));
+                    outputStream.flush();
+                    // Give the reader a chance to catch up with the writer
+                    Thread.sleep(20);
+                }
+            }
+            Files.move(tempPath, downloadPath, StandardCopyOption.ATOMIC_MOVE);
+            download.complete();
+            assertThat(readResult.get(10, TimeUnit.SECONDS), is(expectedContent()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldTransferDownloadAfterItIsComplete() throws Exception {
+        Files.write(downloadPath, expectedContent());
+        download.complete();
+        var outputStream = new ByteArrayOutputStream();
+        download.transferTo(outputStream);
+        assertThat(outputStream.toByteArray(), is(expectedContent()));
+    }
+
+    @Test
+    public void shouldTransferDownloadWhenTempFileIsMovedBeforeItIsOpened() throws Exception {
+        Files.write(tempPath, expectedContent());
+        download.writing(tempPath);
+        Files.move(tempPath, downloadPath, StandardCopyOption.ATOMIC_MOVE);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var readResult = startReading(executor);
+            CompletableFuture.runAsync(download::complete);
+            assertThat(readResult.get(10, TimeUnit.SECONDS), is(expectedContent()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldThrowIOExceptionWhenDownloadFailsWhileTransferring() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var readResult = startReading(executor);
+            try(OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                download.writing(tempPath);
+                outputStream.write(chunk(0));
+            }
+            var failure = new RuntimeException("Failed");
+            download.failed(failure);
+            try {
+                readResult.get(10, TimeUnit.SECONDS);
+                fail("Expected the transfer to fail");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause() instanceof IOException, is(true));
+                assertThat(e.getCause().getCause(), is(failure));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldThrowIOExceptionWhenDownloadFailedBeforeTransfer() throws Exception {
+        download.failed(new RuntimeException("Failed"));
+        download.transferTo(new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void shouldIgnoreFailureAfterCompletion() throws Exception {
+        Files.write(downloadPath, expectedContent());
+        download.complete();
+        download.failed(new RuntimeException("Failed"));
+        var outputStream = new ByteArrayOutputStream();
+        download.transferTo(outputStream);
+        assertThat(outputStream.toByteArray(), is(expectedContent()));
+    }
+
+    @Test
+    public void shouldReportStartedOnceWriting() throws Exception {
+        assertThat(download.awaitStarted(1), is(false));
+        download.writing(tempPath);
+        assertThat(download.awaitStarted(1), is(true));
+    }
+}
@@ -0,0 +1,204 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.*;
+import edu.stanford.bmir.protege.web.server.index.EntitiesInProjectSignatureByIriIndex;
+import edu.stanford.bmir.protege.web.server.mansyntax.render.DeprecatedEntityChecker;
+import edu.stanford.bmir.protege.web.server.revision.HasGetRevisionSummary;
+import edu.stanford.bmir.protege.web.server.revision.Revision;
+import edu.stanford.bmir.protege.web.server.tag.TagsManager;
+import edu.stanford.bmir.protege.web.shared.entity.OWLEntityData;
+import edu.stanford.bmir.protege.web.shared.event.*;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import edu.stanford.bmir.protege.web.shared.tag.EntityTagsChangedEvent;
+import edu.stanford.bmir.protege.web.shared.tag.Tag;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.*;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static edu.stanford.bmir.protege.web.shared.hierarchy.HierarchyId.CLASS_HIERARCHY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BulkChangeEventComputer_TestCase {
+
+    private final ProjectId projectId = ProjectId.getNil();
+
+    private final OWLDataFactory dataFactory = new OWLDataFactoryImpl();
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://example.org/ontology"));
+
+    private final RevisionNumber revisionNumber = RevisionNumber.getRevisionNumber(2);
+
+    private final UserId userId = UserId.getUserId("alice");
+
+    private final OWLClass clsA = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+
+    private final OWLClass clsB = dataFactory.getOWLClass(IRI.create("http://example.org/B"));
+
+    private BulkChangeEventComputer computer;
+
+    @Mock
+    private HasGetChangeSubjects changeSubjectsProvider;
+
+    @Mock
+    private HasGetRevisionSummary hasGetRevisionSummary;
+
+    @Mock
+    private ChangedEntitiesDataExtractor changedEntitiesDataExtractor;
+
+    @Mock
+    private EntitiesInProjectSignatureByIriIndex entitiesByIri;
+
+    @Mock
+    private DeprecatedEntityChecker deprecatedEntityChecker;
+
+    @Mock
+    private TagsManager tagsManager;
+
+    @Mock
+    private ChangeApplicationResult<Object> changes;
+
+    private Revision revision;
+
+    private List<ProjectEvent<?>> projectEvents;
+
+    @Before
+    public void setUp() {
+        computer = new BulkChangeEventComputer(projectId,
+                                               changeSubjectsProvider,
+                                               hasGetRevisionSummary,
+                                               changedEntitiesDataExtractor,
+                                               entitiesByIri,
+                                               deprecatedEntityChecker,
+                                               tagsManager);
+        revision = new Revision(userId, revisionNumber, ImmutableList.of(), 0, "Test");
+        projectEvents = new ArrayList<>();
+        // The subjects of the changes used in these tests are the entities in their signatures
+        when(changeSubjectsProvider.getChangeSubjects(any()))
+                .thenAnswer(invocation -> invocation.<OntologyChange>getArgument(0).getSignature());
+    }
+
+    private void translate(List<OntologyChange> changeList) {
+        when(changes.getChangeList()).thenReturn(changeList);
+        computer.translateOntologyChanges(revision, changes, projectEvents);
+    }
+
+    private BulkChangeEvent getBulkChangeEvent() {
+        return projectEvents.stream()
+                            .filter(event -> event instanceof BulkChangeEvent)
+                            .map(event -> (BulkChangeEvent) event)
+                            .findFirst()
+                            .orElseThrow();
+    }
+
+    private <E> List<E> getEvents(Class<E> eventClass) {
+        var events = new ArrayList<E>();
+        projectEvents.stream()
+                     .filter(eventClass::isInstance)
+                     .map(eventClass::cast)
+                     .forEach(events::add);
+        return events;
+    }
+
+    @Test
+    public void shouldListChangedEntitiesAndHierarchyEntities() {
+        translate(List.of(AddAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsA, clsB))));
+        var event = getBulkChangeEvent();
+        assertThat(event.getRevisionNumber(), is(revisionNumber));
+        assertThat(event.getUserId(), is(userId));
+        assertThat(event.getChangedEntities(), containsInAnyOrder(clsA, clsB));
+        assertThat(event.isAllEntitiesChanged(), is(false));
+        assertThat(event.getHierarchyEntities(CLASS_HIERARCHY), containsInAnyOrder(clsA, clsB));
+        assertThat(event.isHierarchyChanged(CLASS_HIERARCHY), is(false));
+    }
+
+    @Test
+    public void shouldNotListEntitiesWhenTooManyEntitiesChanged() {
+        var changeList = new ArrayList<OntologyChange>();
+        for(int i = 0; i <= BulkChangeEventComputer.MAX_LISTED_ENTITIES; i++) {
+            var cls = dataFactory.getOWLClass(IRI.create("http://example.org/C" + i));
+            changeList.add(AddAxiomChange.of(ontologyId, dataFactory.getOWLDeclarationAxiom(cls)));
+        }
+        translate(changeList);
+        var event = getBulkChangeEvent();
+        assertThat(event.isAllEntitiesChanged(), is(true));
+        assertThat(event.getChangedEntities(), is(empty()));
+        assertThat(event.isChanged(clsA), is(true));
+        assertThat(event.isHierarchyChanged(CLASS_HIERARCHY), is(true));
+        assertThat(event.getHierarchyEntities(CLASS_HIERARCHY), is(empty()));
+        // Tags are not posted for each entity when there are too many entities
+        assertThat(getEvents(EntityTagsChangedEvent.class), is(empty()));
+    }
+
+    @Test
+    public void shouldPostOntologyFrameChangedEventForOntologyAnnotationChange() {
+        var annotation = dataFactory.getOWLAnnotation(dataFactory.getRDFSComment(), dataFactory.getOWLLiteral("Comment"));
+        translate(List.of(AddOntologyAnnotationChange.of(ontologyId, annotation),
+                          RemoveOntologyAnnotationChange.of(ontologyId, annotation)));
+        var events = getEvents(OntologyFrameChangedEvent.class);
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getOntologyID(), is(ontologyId));
+    }
+
+    @Test
+    public void shouldPostEntityDeprecatedChangedEvent() {
+        var deprecation = dataFactory.getDeprecatedOWLAnnotationAssertionAxiom(clsA.getIRI());
+        when(entitiesByIri.getEntitiesInSignature(clsA.getIRI())).thenAnswer(invocation -> Stream.of(clsA));
+        when(deprecatedEntityChecker.isDeprecated(clsA)).thenReturn(true);
+        translate(List.of(AddAxiomChange.of(ontologyId, deprecation)));
+        var events = getEvents(EntityDeprecatedChangedEvent.class);
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getEntity(), is(clsA));
+        assertThat(events.get(0).isDeprecated(), is(true));
+    }
+
+    @Test
+    public void shouldPostCurrentTagsForChangedEntities() {
+        var tag = mock(Tag.class);
+        when(tagsManager.getTags(clsA)).thenReturn(Set.of(tag));
+        translate(List.of(AddAxiomChange.of(ontologyId, dataFactory.getOWLDeclarationAxiom(clsA))));
+        var events = getEvents(EntityTagsChangedEvent.class);
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getEntity(), is(clsA));
+        assertThat(events.get(0).getTags(), contains(tag));
+    }
+
+    @Test
+    public void shouldPostProjectChangedEventWithCappedChangedEntities() {
+        var summary = new RevisionSummary(revisionNumber, userId, 0, 1, "Test");
+        when(hasGetRevisionSummary.getRevisionSummary(revisionNumber)).thenReturn(Optional.of(summary));
+        var entityData = mock(OWLEntityData.class);
+        var subject = List.of(clsA);
+        when(changes.getSubject()).thenReturn(subject);
+        when(changedEntitiesDataExtractor.getChangedEntitiesData(subject, BulkChangeEventComputer.MAX_ENTITY_EVENTS))
+                .thenReturn(Set.of(entityData));
+        translate(List.of(AddAxiomChange.of(ontologyId, dataFactory.getOWLDeclarationAxiom(clsA))));
+        var events = getEvents(ProjectChangedEvent.class);
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getRevisionSummary(), is(summary));
+        assertThat(events.get(0).getSubjects(), contains(entityData));
+    }
+}
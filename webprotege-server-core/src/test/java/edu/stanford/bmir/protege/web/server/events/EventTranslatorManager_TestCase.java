@@ -0,0 +1,205 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import edu.stanford.bmir.protege.web.server.change.ChangeApplicationResult;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.revision.Revision;
+import edu.stanford.bmir.protege.web.shared.event.ProjectEvent;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EventTranslatorManager_TestCase {
+
+    private static final long BUDGET_MS = 200;
+
+    private final ProjectId projectId = ProjectId.getNil();
+
+    @Mock
+    private BulkChangeEventComputer bulkChangeEventComputer;
+
+    @Mock
+    private Revision revision;
+
+    @Mock
+    private ChangeApplicationResult<?> appliedChanges;
+
+    @Mock
+    private ProjectEvent<?> eventA;
+
+    @Mock
+    private ProjectEvent<?> eventB;
+
+    private ExecutorService eventTranslationService;
+
+    private List<ProjectEvent<?>> projectEvents;
+
+    @Before
+    public void setUp() {
+        eventTranslationService = Executors.newFixedThreadPool(2);
+        projectEvents = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        eventTranslationService.shutdownNow();
+    }
+
+    private EventTranslatorManager createManager(EventTranslator... translators) {
+        var runner = new EventTranslationRunner(projectId, eventTranslationService);
+        return new EventTranslatorManager(List.of(translators), bulkChangeEventComputer, runner, projectId, BUDGET_MS);
+    }
+
+    private void translate(EventTranslatorManager manager, List<OntologyChange> changes) {
+        manager.prepareForOntologyChanges(changes);
+        manager.translateOntologyChanges(revision, appliedChanges, projectEvents);
+    }
+
+    @Test
+    public void shouldAddEventsInTranslatorOrder() {
+        var manager = createManager(new StubEventTranslator(List.of(eventA), 50),
+                                    new StubEventTranslator(List.of(eventB), 0));
+        translate(manager, List.of(mock(OntologyChange.class)));
+        assertThat(projectEvents, contains(eventA, eventB));
+        verify(bulkChangeEventComputer, never()).translateOntologyChanges(any(), any(), any());
+    }
+
+    @Test
+    public void shouldPrepareEveryTranslator() {
+        var translatorA = new StubEventTranslator(List.of(eventA), 0);
+        var translatorB = new StubEventTranslator(List.of(eventB), 0);
+        var manager = createManager(translatorA, translatorB);
+        manager.prepareForOntologyChanges(List.of(mock(OntologyChange.class)));
+        assertThat(translatorA.prepared, is(true));
+        assertThat(translatorB.prepared, is(true));
+    }
+
+    @Test
+    public void shouldGenerateBulkChangeEventWhenTranslationOverrunsBudget() {
+        var manager = createManager(new StubEventTranslator(List.of(eventA), 0),
+                                    new StubEventTranslator(List.of(eventB), BUDGET_MS * 10));
+        translate(manager, List.of(mock(OntologyChange.class)));
+        verify(bulkChangeEventComputer).translateOntologyChanges(revision, appliedChanges, projectEvents);
+        assertThat(projectEvents, is(empty()));
+    }
+
+    @Test
+    public void shouldStartBudgetWhenTranslatorStarts() throws Exception {
+        // Occupy the shared pool for longer than the budget.  The translators must still complete
+        // normally, because they are run on the calling thread rather than queued behind the blocking tasks.
+        var release = new CountDownLatch(1);
+        for(int i = 0; i < 2; i++) {
+            eventTranslationService.execute(() -> {
+                try {
+                    release.await();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            var manager = createManager(new StubEventTranslator(List.of(eventA), 0),
+                                        new StubEventTranslator(List.of(eventB), 0));
+            Thread.sleep(BUDGET_MS * 2);
+            translate(manager, List.of(mock(OntologyChange.class)));
+            assertThat(projectEvents, contains(eventA, eventB));
+            verify(bulkChangeEventComputer, never()).translateOntologyChanges(any(), any(), any());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void shouldGenerateBulkChangeEventForLargeChangeSet() {
+        var translator = new StubEventTranslator(List.of(eventA), 0);
+        var manager = createManager(translator);
+        var changes = new ArrayList<OntologyChange>();
+        for(int i = 0; i < 201; i++) {
+            changes.add(mock(OntologyChange.class));
+        }
+        translate(manager, changes);
+        verify(bulkChangeEventComputer).translateOntologyChanges(revision, appliedChanges, projectEvents);
+        assertThat(translator.prepared, is(false));
+    }
+
+    @Test
+    public void shouldGenerateBulkChangeEventForTooManyEvents() {
+        var manager = createManager(new StubEventTranslator(Collections.nCopies(201, eventA), 0));
+        translate(manager, List.of(mock(OntologyChange.class)));
+        verify(bulkChangeEventComputer).translateOntologyChanges(revision, appliedChanges, projectEvents);
+        assertThat(projectEvents, is(empty()));
+    }
+
+    @Test
+    public void shouldIgnoreFailingTranslator() {
+        var failingTranslator = new StubEventTranslator(List.of(eventA), 0) {
+            @Override
+            public void translateOntologyChanges(Revision revision,
+                                                 ChangeApplicationResult<?> changes,
+                                                 List<ProjectEvent<?>> projectEventList) {
+                throw new RuntimeException("Translation failed");
+            }
+        };
+        var manager = createManager(failingTranslator, new StubEventTranslator(List.of(eventB), 0));
+        translate(manager, List.of(mock(OntologyChange.class)));
+        assertThat(projectEvents, contains(eventB));
+    }
+
+    private static class StubEventTranslator implements EventTranslator {
+
+        private final List<ProjectEvent<?>> events;
+
+        private final long translationTimeMs;
+
+        private volatile boolean prepared = false;
+
+        private StubEventTranslator(List<ProjectEvent<?>> events, long translationTimeMs) {
+            this.events = events;
+            this.translationTimeMs = translationTimeMs;
+        }
+
+        @Override
+        public void prepareForOntologyChanges(List<OntologyChange> submittedChanges) {
+            prepared = true;
+        }
+
+        @Override
+        public void translateOntologyChanges(Revision revision,
+                                             ChangeApplicationResult<?> changes,
+                                             List<ProjectEvent<?>> projectEventList) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(translationTimeMs);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            projectEventList.addAll(events);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package edu.stanford.bmir.protege.web.server.form;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.form.data.FormControlDataDtoComparator;
+import edu.stanford.bmir.protege.web.server.form.data.GridRowDataDtoComparatorFactory;
+import edu.stanford.bmir.protege.web.shared.entity.OWLClassData;
+import edu.stanford.bmir.protege.web.shared.entity.OWLEntityData;
+import edu.stanford.bmir.protege.web.shared.form.data.FormControlDataDto;
+import edu.stanford.bmir.protege.web.shared.form.data.FormEntitySubjectDto;
+import edu.stanford.bmir.protege.web.shared.form.data.GridControlDataDto;
+import edu.stanford.bmir.protege.web.shared.form.data.GridRowDataDto;
+import edu.stanford.bmir.protege.web.shared.form.field.*;
+import edu.stanford.bmir.protege.web.shared.lang.LangTagFilter;
+import edu.stanford.bmir.protege.web.shared.lang.LanguageMap;
+import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLPrimitive;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import javax.inject.Provider;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class GridControlValuesBuilder_TestCase {
+
+    /**
+     * The sort keys of the row subjects, in the order that the subjects are bound
+     */
+    private static final List<String> SORT_KEYS = List.of("d", "b", "e", "a", "c");
+
+    private static final int PAGE_SIZE = 2;
+
+    private final GridColumnId keyColumnId = GridColumnId.get("key");
+
+    private final GridColumnId otherColumnId = GridColumnId.get("other");
+
+    private final List<OWLClassData> rowSubjects = new ArrayList<>();
+
+    private final Map<FormControlDataDto, String> sortKeys = new HashMap<>();
+
+    private GridControlDescriptor descriptor;
+
+    private OWLClassData rootSubject;
+
+    private GridControlValuesBuilder builder;
+
+    @Mock
+    private BindingValuesExtractor bindingValuesExtractor;
+
+    @Mock
+    private Provider<EntityFrameFormDataDtoBuilder> formDataDtoBuilderProvider;
+
+    @Mock
+    private EntityFrameFormDataDtoBuilder formDataDtoBuilder;
+
+    @Mock
+    private FormDataBuilderSessionRenderer sessionRenderer;
+
+    @Mock
+    private FormPageRequestIndex formPageRequestIndex;
+
+    @Mock
+    private GridRowDataDtoComparatorFactory comparatorFactory;
+
+    @Mock
+    private FormControlDataDtoComparator formControlDataDtoComparator;
+
+    @Mock
+    private FormRegionFilterIndex formRegionFilterIndex;
+
+    @Mock
+    private FormFilterMatcherFactory formFilterMatcherFactory;
+
+    @Mock
+    private FormRegionFilterPredicateManager filters;
+
+    @Mock
+    private OwlBinding binding;
+
+    @Mock
+    private FormControlDescriptor cellControlDescriptor;
+
+    @Before
+    public void setUp() {
+        var dataFactory = new OWLDataFactoryImpl();
+        rootSubject = OWLClassData.get(dataFactory.getOWLClass(IRI.create("http://example.org/Root")), ImmutableMap.of());
+        ImmutableList.Builder<OWLPrimitive> boundValues = ImmutableList.builder();
+        for (int i = 0; i < SORT_KEYS.size(); i++) {
+            OWLClass cls = dataFactory.getOWLClass(IRI.create("http://example.org/Row" + i));
+            var rowSubject = OWLClassData.get(cls, ImmutableMap.of());
+            rowSubjects.add(rowSubject);
+            boundValues.add(cls);
+            when(sessionRenderer.getEntityRendering(cls)).thenReturn(rowSubject);
+            var keyValue = mock(FormControlDataDto.class);
+            sortKeys.put(keyValue, SORT_KEYS.get(i));
+            when(formDataDtoBuilder.toFormControlValues(eq(rowSubject), eq(keyColumnId), any(), anyInt()))
+                    .thenReturn(ImmutableList.of(keyValue));
+            when(formDataDtoBuilder.toFormControlValues(eq(rowSubject), eq(otherColumnId), any(), anyInt()))
+                    .thenReturn(ImmutableList.of(mock(FormControlDataDto.class)));
+        }
+        when(bindingValuesExtractor.getBindingValues(rootSubject.getEntity(), binding)).thenReturn(boundValues.build());
+        when(formDataDtoBuilderProvider.get()).thenReturn(formDataDtoBuilder);
+        when(formPageRequestIndex.getPageRequest(any(), any(), any())).thenReturn(PageRequest.requestPageWithSize(2, PAGE_SIZE));
+        when(comparatorFactory.get(any(), any())).thenReturn(Comparator.comparing(this::getSortKey));
+        when(filters.getFilterPredicate(any())).thenReturn(value -> true);
+        descriptor = GridControlDescriptor.get(ImmutableList.of(column(keyColumnId), column(otherColumnId)), null);
+        builder = new GridControlValuesBuilder(bindingValuesExtractor,
+                                               formDataDtoBuilderProvider,
+                                               sessionRenderer,
+                                               FormRegionOrderingIndex.get(ImmutableSet.of()),
+                                               LangTagFilter.get(ImmutableSet.of()),
+                                               formPageRequestIndex,
+                                               comparatorFactory,
+                                               formControlDataDtoComparator,
+                                               formRegionFilterIndex,
+                                               formFilterMatcherFactory,
+                                               filters);
+    }
+
+    private GridColumnDescriptor column(GridColumnId columnId) {
+        return GridColumnDescriptor.get(columnId, null, null, null, LanguageMap.empty(), cellControlDescriptor);
+    }
+
+    /**
+     * Gets the sort key of a row from the value of its key column
+     */
+    private String getSortKey(GridRowDataDto row) {
+        return row.getCells().get(0).getValues().getPageElements()
+                  .stream()
+                  .map(sortKeys::get)
+                  .findFirst()
+                  .orElse("");
+    }
+
+    private List<GridRowDataDto> getRows() {
+        var values = builder.getGridControlDataDtoValues(descriptor, rootSubject, binding, GridColumnId.get("grid"), 0);
+        assertThat(values, hasSize(1));
+        return ((GridControlDataDto) values.get(0)).getRows().getPageElements();
+    }
+
+    private static List<OWLEntityData> getRowSubjects(List<GridRowDataDto> rows) {
+        return rows.stream()
+                   .map(row -> ((FormEntitySubjectDto) row.getSubject().orElseThrow()).getEntityData())
+                   .collect(toList());
+    }
+
+    @Test
+    public void shouldSortAllRowsBeforeTakingRequestedPage() {
+        var rows = getRows();
+        // Sorted by key: a, b, c, d, e.  The second page contains c and d.
+        assertThat(getRowSubjects(rows), contains(rowSubjects.get(4), rowSubjects.get(0)));
+    }
+
+    @Test
+    public void shouldGenerateKeyColumnForEveryRow() {
+        getRows();
+        for (var rowSubject : rowSubjects) {
+            verify(formDataDtoBuilder, times(1)).toFormControlValues(eq(rowSubject), eq(keyColumnId), any(), anyInt());
+        }
+    }
+
+    @Test
+    public void shouldOnlyGenerateOtherColumnsForRowsOnRequestedPage() {
+        getRows();
+        verify(formDataDtoBuilder, times(1)).toFormControlValues(eq(rowSubjects.get(4)), eq(otherColumnId), any(), anyInt());
+        verify(formDataDtoBuilder, times(1)).toFormControlValues(eq(rowSubjects.get(0)), eq(otherColumnId), any(), anyInt());
+        verify(formDataDtoBuilder, times(2)).toFormControlValues(any(), eq(otherColumnId), any(), anyInt());
+    }
+
+    @Test
+    public void shouldFullyRenderRowsOnRequestedPage() {
+        var rows = getRows();
+        for (var row : rows) {
+            assertThat(row.getCells(), hasSize(2));
+            assertThat(row.getCells().get(1).getValues().getPageElements(), hasSize(1));
+        }
+    }
+}
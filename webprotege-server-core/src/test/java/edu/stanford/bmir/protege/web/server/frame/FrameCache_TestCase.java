@@ -0,0 +1,111 @@
+package edu.stanford.bmir.protege.web.server.frame;
+
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.HasGetChangeSubjects;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static edu.stanford.bmir.protege.web.shared.DataFactory.getOWLClass;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FrameCache_TestCase {
+
+    private static final String OPTIONS = "Options";
+
+    private final OWLClass clsA = getOWLClass("http://example.org/A");
+
+    private final OWLClass clsB = getOWLClass("http://example.org/B");
+
+    private final OWLClass clsC = getOWLClass("http://example.org/C");
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID();
+
+    private final OWLDataFactory dataFactory = new OWLDataFactoryImpl();
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private FrameCache frameCache;
+
+    @Mock
+    private HasGetChangeSubjects changeSubjectsProvider;
+
+    @Before
+    public void setUp() {
+        frameCache = new FrameCache(changeSubjectsProvider);
+    }
+
+    private String getFrame(OWLClass subject, boolean dependsOnlyOnSubject) {
+        return frameCache.getFrame(subject, OPTIONS, dependsOnlyOnSubject, () -> {
+            computations.incrementAndGet();
+            return "Frame";
+        }, frame -> Stream.of(clsB));
+    }
+
+    private void applyDeclarationOf(OWLClass cls) {
+        when(changeSubjectsProvider.getChangeSubjects(any())).thenReturn(Set.<OWLEntity>of(cls));
+        var axiom = dataFactory.getOWLDeclarationAxiom(cls);
+        frameCache.handleChanges(List.of(AddAxiomChange.of(ontologyId, axiom)));
+    }
+
+    @Test
+    public void shouldComputeFrameOnce() {
+        getFrame(clsA, true);
+        getFrame(clsA, true);
+        assertThat(computations.get(), is(1));
+        assertThat(frameCache.getStats().hitCount(), is(1L));
+    }
+
+    @Test
+    public void shouldInvalidateFrameWhenSubjectChanges() {
+        getFrame(clsA, true);
+        applyDeclarationOf(clsA);
+        getFrame(clsA, true);
+        assertThat(computations.get(), is(2));
+    }
+
+    @Test
+    public void shouldInvalidateFrameWhenDependencyChanges() {
+        getFrame(clsA, true);
+        applyDeclarationOf(clsB);
+        getFrame(clsA, true);
+        assertThat(computations.get(), is(2));
+    }
+
+    @Test
+    public void shouldNotInvalidateUnaffectedFrame() {
+        getFrame(clsA, true);
+        applyDeclarationOf(clsC);
+        getFrame(clsA, true);
+        assertThat(computations.get(), is(1));
+    }
+
+    @Test
+    public void shouldInvalidateFrameThatDependsOnMoreThanSubjectOnAnyAxiomChange() {
+        getFrame(clsA, false);
+        applyDeclarationOf(clsC);
+        getFrame(clsA, false);
+        assertThat(computations.get(), is(2));
+    }
+}
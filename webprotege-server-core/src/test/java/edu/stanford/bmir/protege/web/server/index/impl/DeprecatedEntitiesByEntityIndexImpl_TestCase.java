@@ -1,8 +1,8 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
-import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsBySubjectIndex;
-import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
-import edu.stanford.bmir.protege.web.server.index.impl.DeprecatedEntitiesByEntityIndexImpl;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveAxiomChange;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
@@ -14,11 +14,7 @@ import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 
-import java.util.stream.Stream;
-
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.containsInAnyOrder;
-import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
 
 /**
@@ -32,13 +28,10 @@ public class DeprecatedEntitiesByEntityIndexImpl_TestCase {
     private DeprecatedEntitiesByEntityIndexImpl impl;
 
     @Mock
-    private ProjectOntologiesIndex projectOntologiesIndex;
-
-    @Mock
-    private AnnotationAssertionAxiomsBySubjectIndex annotationAssertionsIndex;
+    private OWLOntologyID ontologyId;
 
     @Mock
-    private OWLOntologyID ontologyId;
+    private OWLOntologyID otherOntologyId;
 
     @Mock
     private OWLEntity entity;
@@ -51,35 +44,65 @@ public class DeprecatedEntitiesByEntityIndexImpl_TestCase {
 
     @Before
     public void setUp() {
-        impl = new DeprecatedEntitiesByEntityIndexImpl(projectOntologiesIndex, annotationAssertionsIndex);
+        impl = new DeprecatedEntitiesByEntityIndexImpl();
+    }
 
-        when(projectOntologiesIndex.getOntologyIds())
-                .thenReturn(Stream.of(ontologyId));
+    private void stubAnnotationAssertion(boolean deprecatedIriAssertion) {
+        when(annotationAssertion.isDeprecatedIRIAssertion())
+                .thenReturn(deprecatedIriAssertion);
+        if(deprecatedIriAssertion) {
+            when(annotationAssertion.getSubject())
+                    .thenReturn(entityIri);
+        }
+    }
 
-        when(annotationAssertionsIndex.getAxiomsForSubject(any(), any()))
-                .thenReturn(Stream.empty());
-        when(annotationAssertionsIndex.getAxiomsForSubject(entityIri, ontologyId))
-                .thenReturn(Stream.of(annotationAssertion));
+    @Test
+    public void shouldNotFindEntityToBeDeprecated() {
+        when(entity.getIRI())
+                .thenReturn(entityIri);
+        var deprecated = impl.isDeprecated(entity);
+        assertThat(deprecated, Matchers.is(false));
+    }
 
+    @Test
+    public void shouldFindEntityToBeDeprecated() {
         when(entity.getIRI())
                 .thenReturn(entityIri);
+        stubAnnotationAssertion(true);
+        impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, annotationAssertion)));
+        var deprecated = impl.isDeprecated(entity);
+        assertThat(deprecated, Matchers.is(true));
     }
 
     @Test
-    public void shouldGetDependencies() {
-        assertThat(impl.getDependencies(), containsInAnyOrder(projectOntologiesIndex, annotationAssertionsIndex));
+    public void shouldNotFindEntityToBeDeprecatedForOtherAnnotationAssertion() {
+        when(entity.getIRI())
+                .thenReturn(entityIri);
+        stubAnnotationAssertion(false);
+        impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, annotationAssertion)));
+        var deprecated = impl.isDeprecated(entity);
+        assertThat(deprecated, Matchers.is(false));
     }
 
     @Test
-    public void shouldNotFindEntityToBeDeprecated() {
+    public void shouldNotFindEntityToBeDeprecatedAfterRemoval() {
+        when(entity.getIRI())
+                .thenReturn(entityIri);
+        stubAnnotationAssertion(true);
+        impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, annotationAssertion)));
+        impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(ontologyId, annotationAssertion)));
         var deprecated = impl.isDeprecated(entity);
         assertThat(deprecated, Matchers.is(false));
     }
 
     @Test
-    public void shouldFindEntityToBeDeprecated() {
-        when(annotationAssertion.isDeprecatedIRIAssertion())
-                .thenReturn(true);
+    public void shouldFindEntityToBeDeprecatedWhileAssertedInAnotherOntology() {
+        when(entity.getIRI())
+                .thenReturn(entityIri);
+        stubAnnotationAssertion(true);
+        impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyId, annotationAssertion),
+                                           AddAxiomChange.of(otherOntologyId, annotationAssertion)));
+        impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(ontologyId, annotationAssertion)));
         var deprecated = impl.isDeprecated(entity);
         assertThat(deprecated, Matchers.is(true));
     }
@@ -1,67 +1,129 @@
 package edu.stanford.bmir.protege.web.server.index.impl;
 
-import edu.stanford.bmir.protege.web.server.index.OntologySignatureIndex;
-import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
-import edu.stanford.bmir.protege.web.server.index.impl.ProjectSignatureIndexImpl;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveAxiomChange;
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.Mock;
-import org.mockito.junit.MockitoJUnitRunner;
-import org.semanticweb.owlapi.model.OWLEntity;
-import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.*;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.containsInAnyOrder;
-import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.*;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 2019-08-15
  */
-@RunWith(MockitoJUnitRunner.class)
 public class ProjectSignatureIndexImpl_TestCase {
 
-    private ProjectSignatureIndexImpl impl;
+    private final OWLDataFactory dataFactory = new OWLDataFactoryImpl();
+
+    private final OWLOntologyID ontologyIdA = new OWLOntologyID(IRI.create("http://example.org/A"));
+
+    private final OWLOntologyID ontologyIdB = new OWLOntologyID(IRI.create("http://example.org/B"));
 
-    @Mock
-    private ProjectOntologiesIndex projectOntologiesIndex;
+    private final OWLClass entityA = dataFactory.getOWLClass(IRI.create("http://example.org/entityA"));
 
-    @Mock
-    private OntologySignatureIndex ontologySignatureIndex;
+    private final OWLClass entityB = dataFactory.getOWLClass(IRI.create("http://example.org/entityB"));
 
-    @Mock
-    private OWLOntologyID ontologyIdA, ontologyIdB;
+    private final OWLDeclarationAxiom declarationA = dataFactory.getOWLDeclarationAxiom(entityA);
 
-    @Mock
-    private OWLEntity entityA, entityB;
+    private final OWLDeclarationAxiom declarationB = dataFactory.getOWLDeclarationAxiom(entityB);
+
+    private ProjectSignatureIndexImpl impl;
 
     @Before
     public void setUp() {
-        impl = new ProjectSignatureIndexImpl(projectOntologiesIndex,
-                                             ontologySignatureIndex);
+        impl = new ProjectSignatureIndexImpl(dataFactory);
+        impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyIdA, declarationA),
+                                           AddAxiomChange.of(ontologyIdB, declarationA),
+                                           AddAxiomChange.of(ontologyIdB, declarationB)));
+    }
 
-        when(projectOntologiesIndex.getOntologyIds())
-                .thenReturn(Stream.of(ontologyIdA, ontologyIdB));
+    @Test
+    public void shouldGetSignatureInProjectOntologies() {
+        var signature = impl.getSignature().collect(Collectors.toList());
+        assertThat(signature, containsInAnyOrder(entityA, entityB));
+    }
 
-        when(ontologySignatureIndex.getEntitiesInSignature(ontologyIdA))
-                .thenReturn(Stream.of(entityA));
-        when(ontologySignatureIndex.getEntitiesInSignature(ontologyIdB))
-                .thenReturn(Stream.of(entityB));
+    @Test
+    public void shouldGetSignatureSize() {
+        assertThat(impl.getSignatureSize(), is(2));
     }
 
     @Test
-    public void shouldGetDependencies() {
-        assertThat(impl.getDependencies(), containsInAnyOrder(projectOntologiesIndex, ontologySignatureIndex));
+    public void shouldContainEntityInSignature() {
+        assertThat(impl.containsEntityInSignature(entityA), is(true));
     }
 
     @Test
-    public void shouldGetSignatureInProjectOntologies() {
-        var signature = impl.getSignature().collect(Collectors.toSet());
-        assertThat(signature, containsInAnyOrder(entityA, entityB));
+    public void shouldNotContainEntityThatIsNotInSignature() {
+        var entityC = dataFactory.getOWLClass(IRI.create("http://example.org/entityC"));
+        assertThat(impl.containsEntityInSignature(entityC), is(false));
+    }
+
+    @Test
+    public void shouldKeepEntityThatIsReferencedInAnotherOntology() {
+        impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(ontologyIdA, declarationA)));
+        assertThat(impl.containsEntityInSignature(entityA), is(true));
+        assertThat(impl.getSignature().collect(Collectors.toList()), containsInAnyOrder(entityA, entityB));
+    }
+
+    @Test
+    public void shouldRemoveEntityThatIsNoLongerReferenced() {
+        impl.getSignature().count();
+        impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(ontologyIdB, declarationB)));
+        assertThat(impl.containsEntityInSignature(entityB), is(false));
+        assertThat(impl.getSignatureSize(), is(1));
+        assertThat(impl.getSignature().collect(Collectors.toList()), contains(entityA));
+    }
+
+    @Test
+    public void shouldReturnEntitiesOfEachTypeForPunnedIri() {
+        var individualA = dataFactory.getOWLNamedIndividual(entityA.getIRI());
+        impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyIdA, dataFactory.getOWLDeclarationAxiom(individualA))));
+        assertThat(impl.getSignature().collect(Collectors.toList()), containsInAnyOrder(entityA, individualA, entityB));
+        assertThat(impl.getSignatureSize(), is(3));
+        assertThat(impl.containsEntityInSignature(individualA), is(true));
+    }
+
+    @Test
+    public void shouldReturnEntitiesWithIriPrefix() {
+        var entityAB = dataFactory.getOWLClass(IRI.create("http://example.org/entityAB"));
+        var other = dataFactory.getOWLClass(IRI.create("http://other.org/entityA"));
+        impl.applyChanges(ImmutableList.of(AddAxiomChange.of(ontologyIdA, dataFactory.getOWLSubClassOfAxiom(entityAB, other))));
+        var entities = impl.getEntitiesInSignatureWithIriPrefix("http://example.org/entityA").collect(Collectors.toList());
+        assertThat(entities, contains(entityA, entityAB));
+    }
+
+    @Test
+    public void shouldReturnAllEntitiesForEmptyIriPrefix() {
+        var entities = impl.getEntitiesInSignatureWithIriPrefix("").collect(Collectors.toList());
+        assertThat(entities, contains(entityA, entityB));
+    }
+
+    @Test
+    public void shouldReturnNoEntitiesForUnknownIriPrefix() {
+        var entities = impl.getEntitiesInSignatureWithIriPrefix("http://other.org/").collect(Collectors.toList());
+        assertThat(entities, is(empty()));
+    }
+
+    @Test
+    public void shouldNotReturnEntityWithIriPrefixThatIsNoLongerReferenced() {
+        impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(ontologyIdB, declarationB)));
+        var entities = impl.getEntitiesInSignatureWithIriPrefix("http://example.org/").collect(Collectors.toList());
+        assertThat(entities, contains(entityA));
+    }
+
+    @Test
+    public void shouldNotCountRemovalOfAxiomThatWasNeverAdded() {
+        var entityC = dataFactory.getOWLClass(IRI.create("http://example.org/entityC"));
+        impl.applyChanges(ImmutableList.of(RemoveAxiomChange.of(ontologyIdA, dataFactory.getOWLDeclarationAxiom(entityC))));
+        assertThat(impl.getSignatureSize(), is(2));
+        assertThat(impl.containsEntityInSignature(entityC), is(false));
     }
 }
@@ -0,0 +1,152 @@
+package edu.stanford.bmir.protege.web.server.individuals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static edu.stanford.bmir.protege.web.server.util.AlphaNumericStringComparator.alphaNumerically;
+import static edu.stanford.bmir.protege.web.shared.DataFactory.getOWLNamedIndividual;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class RenderingOrderedIndividuals_TestCase {
+
+    private final OWLNamedIndividual indA = getOWLNamedIndividual("http://example.org/A");
+
+    private final OWLNamedIndividual indB = getOWLNamedIndividual("http://example.org/B");
+
+    private final OWLNamedIndividual indC = getOWLNamedIndividual("http://example.org/C");
+
+    private final OWLNamedIndividual indD = getOWLNamedIndividual("http://example.org/D");
+
+    private RenderingOrderedIndividuals individuals;
+
+    @Before
+    public void setUp() {
+        individuals = new RenderingOrderedIndividuals();
+        individuals.putAll(Map.of(indA, "Zebra",
+                                  indB, "apple",
+                                  indC, "Mango"));
+    }
+
+    @Test
+    public void shouldOrderByLowerCaseRendering() {
+        assertThat(getIndividuals(), contains(indB, indC, indA));
+    }
+
+    @Test
+    public void shouldInsertInOrder() {
+        individuals.put(indD, "Banana");
+        assertThat(getIndividuals(), contains(indB, indD, indC, indA));
+    }
+
+    @Test
+    public void shouldMoveIndividualWhenRenderingChanges() {
+        individuals.put(indA, "Aardvark");
+        assertThat(getIndividuals(), contains(indA, indB, indC));
+        assertThat(individuals.size(), is(3));
+    }
+
+    @Test
+    public void shouldRemoveIndividual() {
+        individuals.remove(indC);
+        assertThat(getIndividuals(), contains(indB, indA));
+        assertThat(individuals.contains(indC), is(false));
+    }
+
+    @Test
+    public void shouldReturnIndexOfIndividual() {
+        assertThat(individuals.indexOf(indA), is(2));
+        assertThat(individuals.indexOf(indD), is(-1));
+    }
+
+    @Test
+    public void shouldReturnPage() {
+        var page = individuals.getPage(2, 2).orElseThrow();
+        assertThat(page.getPageElements(), contains(indA));
+        assertThat(page.getPageCount(), is(2));
+        assertThat(page.getTotalElements(), is(3L));
+    }
+
+    @Test
+    public void shouldReturnEmptyForPageBeyondLastPage() {
+        assertThat(individuals.getPage(3, 2).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldNotChangeSnapshotWhenIndividualsChange() {
+        var snapshot = individuals.snapshot();
+        individuals.put(indD, "Banana");
+        individuals.remove(indC);
+        assertThat(getIndividuals(snapshot), contains(indB, indC, indA));
+        assertThat(snapshot.size(), is(3));
+        assertThat(snapshot.contains(indD), is(false));
+        assertThat(snapshot.indexOf(indC), is(1));
+    }
+
+    @Test
+    public void shouldReturnIndexOfIndividualInSnapshotAfterRenderingChanges() {
+        var snapshot = individuals.snapshot();
+        individuals.put(indA, "Aardvark");
+        assertThat(snapshot.indexOf(indA), is(2));
+        assertThat(individuals.indexOf(indA), is(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotModifySnapshot() {
+        individuals.snapshot().put(indD, "Banana");
+    }
+
+    @Test
+    public void shouldKeepOrderAndPositionsThroughManyChanges() {
+        var random = new Random(1);
+        var shortForms = new HashMap<OWLNamedIndividual, String>();
+        individuals = new RenderingOrderedIndividuals();
+        for(int i = 0; i < 5_000; i++) {
+            var individual = getOWLNamedIndividual("http://example.org/I" + random.nextInt(1_000));
+            if(random.nextInt(4) == 0) {
+                individuals.remove(individual);
+                shortForms.remove(individual);
+            }
+            else {
+                var shortForm = "Individual " + random.nextInt(500);
+                individuals.put(individual, shortForm);
+                shortForms.put(individual, shortForm);
+            }
+        }
+        var expected = new ArrayList<>(shortForms.keySet());
+        expected.sort(Comparator.comparing((OWLNamedIndividual ind) -> shortForms.get(ind).toLowerCase(),
+                                           alphaNumerically())
+                                .thenComparing(ind -> ind.getIRI().toString()));
+        assertThat(getIndividuals(), is(expected));
+        assertThat(individuals.size(), is(expected.size()));
+        for(int i = 0; i < expected.size(); i++) {
+            assertThat(individuals.indexOf(expected.get(i)), is(i));
+        }
+        var page = individuals.getPage(3, 7).orElseThrow();
+        assertThat(page.getPageElements(), is(expected.subList(14, 21)));
+    }
+
+    private List<OWLNamedIndividual> getIndividuals() {
+        return getIndividuals(individuals);
+    }
+
+    private static List<OWLNamedIndividual> getIndividuals(RenderingOrderedIndividuals individuals) {
+        return individuals.getEntries()
+                          .map(RenderingOrderedIndividuals.Entry::getIndividual)
+                          .collect(toList());
+    }
+}
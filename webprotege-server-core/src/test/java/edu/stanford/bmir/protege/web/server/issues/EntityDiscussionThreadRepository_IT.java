@@ -180,6 +180,40 @@ public class EntityDiscussionThreadRepository_IT {
         assertThat(count, is(1));
     }
 
+    @Test
+    public void shouldUpdateOpenCommentsCountWhenCommentIsAdded() {
+        repository.getOpenCommentsCount(projectId, entity);
+        repository.addCommentToThread(thread.getId(), new Comment(CommentId.create(),
+                                                                  UserId.getUserId("Matthew"),
+                                                                  System.currentTimeMillis(),
+                                                                  Optional.empty(),
+                                                                  "The body", "The rendered body"));
+        int count = repository.getOpenCommentsCount(projectId, entity);
+        assertThat(count, is(2));
+    }
+
+    @Test
+    public void shouldUpdateOpenCommentsCountWhenThreadIsClosed() {
+        repository.getOpenCommentsCount(projectId, entity);
+        repository.setThreadStatus(thread.getId(), Status.CLOSED);
+        int count = repository.getOpenCommentsCount(projectId, entity);
+        assertThat(count, is(0));
+    }
+
+    @Test
+    public void shouldRemoveStatisticsWhenLastCommentIsDeleted() {
+        repository.getStatistics(projectId);
+        repository.deleteComment(comment.getId());
+        assertThat(repository.getStatistics(projectId, entity).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldGetStatisticsForEntities() {
+        var statistics = repository.getStatistics(projectId, ImmutableList.of(entity));
+        assertThat(statistics.get(entity).getTotalCommentCount(), is(1));
+        assertThat(statistics.get(entity).getLastModified(), is(33L));
+    }
+
     private MongoCollection<Document> getCollection() {
         return mongoClient.getDatabase(getTestDbName())
                           .getCollection("EntityDiscussionThreads");
@@ -0,0 +1,75 @@
+package edu.stanford.bmir.protege.web.server.issues;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.MockingUtils;
+import edu.stanford.bmir.protege.web.server.project.ProjectIdFactory;
+import edu.stanford.bmir.protege.web.shared.issues.*;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLClass;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class EntityDiscussionThreadStatistics_TestCase {
+
+    private final ProjectId projectId = ProjectIdFactory.getFreshProjectId();
+
+    private final OWLClass entity = MockingUtils.mockOWLClass();
+
+    private final UserId userA = UserId.getUserId("UserA");
+
+    private final UserId userB = UserId.getUserId("UserB");
+
+    private final Comment commentA = new Comment(CommentId.create(), userA, 10L, Optional.of(50L), "A", "A");
+
+    private final Comment commentB = new Comment(CommentId.create(), userB, 20L, Optional.empty(), "B", "B");
+
+    private final Comment commentC = new Comment(CommentId.create(), userA, 30L, Optional.empty(), "C", "C");
+
+    private final EntityDiscussionThread openThread = new EntityDiscussionThread(ThreadId.create(),
+                                                                                 projectId,
+                                                                                 entity,
+                                                                                 Status.OPEN,
+                                                                                 ImmutableList.of(commentA, commentB));
+
+    private final EntityDiscussionThread closedThread = new EntityDiscussionThread(ThreadId.create(),
+                                                                                   projectId,
+                                                                                   entity,
+                                                                                   Status.CLOSED,
+                                                                                   ImmutableList.of(commentC));
+
+    @Test
+    public void shouldComputeStatistics() {
+        var statistics = EntityDiscussionThreadStatistics.compute(entity, ImmutableList.of(openThread, closedThread)).get();
+        assertThat(statistics.getEntity(), is(entity));
+        assertThat(statistics.getTotalThreadCount(), is(2));
+        assertThat(statistics.getOpenThreadCount(), is(1));
+        assertThat(statistics.getTotalCommentCount(), is(3));
+        assertThat(statistics.getOpenCommentCount(), is(2));
+        assertThat(statistics.getParticipants(), contains(userA, userB, userA));
+    }
+
+    @Test
+    public void shouldUseUpdatedTimestampForLastModified() {
+        var statistics = EntityDiscussionThreadStatistics.compute(entity, ImmutableList.of(openThread, closedThread)).get();
+        assertThat(statistics.getLastModified(), is(50L));
+        assertThat(statistics.getLastModifiedBy(), is(userA));
+    }
+
+    @Test
+    public void shouldReturnEmptyForNoThreads() {
+        var statistics = EntityDiscussionThreadStatistics.compute(entity, Collections.emptyList());
+        assertThat(statistics.isPresent(), is(false));
+    }
+}
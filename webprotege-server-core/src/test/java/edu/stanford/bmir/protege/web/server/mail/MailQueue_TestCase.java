@@ -0,0 +1,210 @@
+package edu.stanford.bmir.protege.web.server.mail;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.mail.MessagingException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MailQueue_TestCase {
+
+    private static final String TO = "someone@example.org";
+
+    private static final String SUBJECT = "The subject";
+
+    private static final String TEXT = "The text";
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private MailQueue mailQueue;
+
+    @Mock
+    private SendMailImpl sendMail;
+
+    @Mock
+    private MessageIdGenerator messageIdGenerator;
+
+    @Mock
+    private MessagingExceptionHandler messagingExceptionHandler;
+
+    @Mock
+    private MessagingExceptionHandler exceptionHandler;
+
+    @Mock
+    private OutboundMailRepository repository;
+
+    private ScheduledExecutorService executor;
+
+    private final MessageId messageId = new MessageId("<message@example.org>");
+
+    @Before
+    public void setUp() {
+        executor = Executors.newScheduledThreadPool(2);
+        mailQueue = new MailQueue(sendMail, messageIdGenerator, messagingExceptionHandler, executor, repository, 10, 100, 10);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldSendQueuedMessage() {
+        when(sendMail.sendMessages(anyList())).thenReturn(Collections.emptyList());
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(sendMail, timeout(TIMEOUT_MS)).sendMessages(captor.capture());
+        List<OutboundMessage> batch = captor.getValue();
+        assertThat(batch, hasSize(1));
+        var message = batch.get(0);
+        assertThat(message.getMessageId(), is(messageId));
+        assertThat(message.getRecipientEmailAddresses(), contains(TO));
+        assertThat(message.getSubject(), is(SUBJECT));
+        assertThat(message.getText(), is(TEXT));
+        assertThat(message.getAttempt(), is(1));
+        verifyZeroInteractions(exceptionHandler);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldRetryMessageThatCouldNotBeSent() {
+        when(sendMail.sendMessages(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenReturn(Collections.emptyList());
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(sendMail, timeout(TIMEOUT_MS).times(2)).sendMessages(captor.capture());
+        List<OutboundMessage> retriedBatch = captor.getAllValues().get(1);
+        assertThat(retriedBatch, hasSize(1));
+        assertThat(retriedBatch.get(0).getMessageId(), is(messageId));
+        assertThat(retriedBatch.get(0).getAttempt(), is(2));
+        verifyZeroInteractions(exceptionHandler);
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaximumNumberOfAttempts() {
+        when(sendMail.sendMessages(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+        verify(exceptionHandler, timeout(TIMEOUT_MS)).handleMessagingException(any(MessagingException.class));
+        verify(sendMail, times(5)).sendMessages(anyList());
+    }
+
+    @Test
+    public void shouldSaveQueuedMessageUntilItIsSent() {
+        when(sendMail.sendMessages(anyList())).thenReturn(Collections.emptyList());
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+        verify(repository).save(argThat(message -> message.getMessageId().equals(messageId)));
+        verify(sendMail, timeout(TIMEOUT_MS)).sendMessages(anyList());
+        verify(repository, timeout(TIMEOUT_MS)).delete(messageId);
+    }
+
+    @Test
+    public void shouldSaveAttemptOfMessageThatIsRetried() {
+        when(sendMail.sendMessages(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenReturn(Collections.emptyList());
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+        verify(repository, timeout(TIMEOUT_MS)).save(argThat(message -> message.getAttempt() == 2));
+        verify(repository, timeout(TIMEOUT_MS)).delete(messageId);
+    }
+
+    @Test
+    public void shouldDeleteMessageThatIsGivenUpOn() {
+        when(sendMail.sendMessages(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+        verify(exceptionHandler, timeout(TIMEOUT_MS)).handleMessagingException(any(MessagingException.class));
+        verify(repository).delete(messageId);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldSendSavedMessagesWhenStarted() {
+        var savedMessage = new OutboundMessage(messageId,
+                                               ImmutableList.of(TO),
+                                               SUBJECT,
+                                               TEXT,
+                                               messagingExceptionHandler,
+                                               ImmutableList.of(),
+                                               3);
+        when(repository.findAll(messagingExceptionHandler)).thenReturn(List.of(savedMessage));
+        when(sendMail.sendMessages(anyList())).thenReturn(Collections.emptyList());
+        mailQueue.start();
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(sendMail, timeout(TIMEOUT_MS)).sendMessages(captor.capture());
+        List<OutboundMessage> batch = captor.getValue();
+        assertThat(batch, contains(savedMessage));
+        verify(repository, timeout(TIMEOUT_MS)).delete(messageId);
+    }
+
+    @Test
+    public void shouldRejectMessageWhenQueueIsFull() throws InterruptedException {
+        var singleThreadExecutor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var sending = new CountDownLatch(1);
+            var sent = new CountDownLatch(1);
+            when(sendMail.sendMessages(anyList())).thenAnswer(invocation -> {
+                sending.countDown();
+                sent.await();
+                return Collections.emptyList();
+            });
+            var queue = new MailQueue(sendMail, messageIdGenerator, messagingExceptionHandler, singleThreadExecutor, repository, 10, 1, 10);
+            // Taken by the only worker, which then waits
+            queue.sendMail(new MessageId("<a@example.org>"), singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+            assertThat(sending.await(TIMEOUT_MS, TimeUnit.MILLISECONDS), is(true));
+            // Fills the queue
+            queue.sendMail(new MessageId("<b@example.org>"), singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+            queue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+            verify(exceptionHandler).handleMessagingException(any(MessagingException.class));
+            verify(repository).delete(messageId);
+            assertThat(queue.getQueueDepth(), is(1));
+            sent.countDown();
+        } finally {
+            singleThreadExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRetryBatchThatFailsWithRuntimeException() {
+        when(sendMail.sendMessages(anyList()))
+                .thenThrow(new RuntimeException("Connection reset"))
+                .thenReturn(Collections.emptyList());
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT, exceptionHandler);
+        verify(sendMail, timeout(TIMEOUT_MS).times(2)).sendMessages(anyList());
+        verify(repository, timeout(TIMEOUT_MS)).delete(messageId);
+        verifyZeroInteractions(exceptionHandler);
+    }
+
+    @Test
+    public void shouldUseDefaultExceptionHandler() {
+        when(sendMail.sendMessages(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        mailQueue.sendMail(messageId, singletonList(TO), SUBJECT, TEXT);
+        verify(messagingExceptionHandler, timeout(TIMEOUT_MS)).handleMessagingException(any(MessagingException.class));
+    }
+}
@@ -0,0 +1,91 @@
+package edu.stanford.bmir.protege.web.server.mail;
+
+import com.google.common.collect.ImmutableList;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import edu.stanford.bmir.protege.web.server.persistence.MongoTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class OutboundMailRepositoryImpl_IT {
+
+    private final MessageId messageId = new MessageId("<message@example.org>");
+
+    private final MessageHeader messageHeader = MessageHeader.inReplyTo("<previous@example.org>");
+
+    private MongoClient client;
+
+    private MongoDatabase database;
+
+    private OutboundMailRepositoryImpl repository;
+
+    @Mock
+    private MessagingExceptionHandler exceptionHandler;
+
+    private OutboundMessage message;
+
+    @Before
+    public void setUp() {
+        client = MongoTestUtils.createMongoClient();
+        database = client.getDatabase(MongoTestUtils.getTestDbName());
+        repository = new OutboundMailRepositoryImpl(database);
+        repository.ensureIndexes();
+        message = new OutboundMessage(messageId,
+                                      ImmutableList.of("a@example.org", "b@example.org"),
+                                      "The subject",
+                                      "The text",
+                                      exceptionHandler,
+                                      ImmutableList.of(messageHeader),
+                                      1);
+    }
+
+    @After
+    public void tearDown() {
+        database.drop();
+        client.close();
+    }
+
+    @Test
+    public void shouldFindSavedMessage() {
+        repository.save(message);
+        var messages = repository.findAll(exceptionHandler);
+        assertThat(messages, hasSize(1));
+        var foundMessage = messages.get(0);
+        assertThat(foundMessage.getMessageId(), is(messageId));
+        assertThat(foundMessage.getRecipientEmailAddresses(), contains("a@example.org", "b@example.org"));
+        assertThat(foundMessage.getSubject(), is("The subject"));
+        assertThat(foundMessage.getText(), is("The text"));
+        assertThat(foundMessage.getMessageHeaders(), contains(messageHeader));
+        assertThat(foundMessage.getExceptionHandler(), is(exceptionHandler));
+        assertThat(foundMessage.getAttempt(), is(1));
+    }
+
+    @Test
+    public void shouldReplaceMessageWithSameId() {
+        repository.save(message);
+        repository.save(message.nextAttempt());
+        var messages = repository.findAll(exceptionHandler);
+        assertThat(messages, hasSize(1));
+        assertThat(messages.get(0).getAttempt(), is(2));
+    }
+
+    @Test
+    public void shouldDeleteMessage() {
+        repository.save(message);
+        repository.delete(messageId);
+        assertThat(repository.findAll(exceptionHandler), is(empty()));
+    }
+}
@@ -0,0 +1,261 @@
+package edu.stanford.bmir.protege.web.server.mail;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.app.ApplicationHostSupplier;
+import edu.stanford.bmir.protege.web.server.app.ApplicationNameSupplier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.mail.SendFailedException;
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Sends batches of messages to an in-process SMTP server.  The real SMTP transport is used, rather than
+ * the mock transport that is on the test class path, so that connection reuse can be observed.
+ * </p>
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class SendMailImplSmtp_TestCase {
+
+    private static final String REJECTED_RECIPIENT = "rejected@example.org";
+
+    private SmtpStub smtpStub;
+
+    private SendMailImpl sendMail;
+
+    @Mock
+    private ApplicationNameSupplier applicationNameSupplier;
+
+    @Mock
+    private ApplicationHostSupplier applicationHostSupplier;
+
+    @Mock
+    private MessagingExceptionHandler messagingExceptionHandler;
+
+    @Mock
+    private MessageIdGenerator messageIdGenerator;
+
+    @Mock
+    private MessagingExceptionHandler exceptionHandler;
+
+    @Before
+    public void setUp() throws IOException {
+        smtpStub = new SmtpStub();
+        when(applicationNameSupplier.get()).thenReturn("WebProtege");
+        when(applicationHostSupplier.get()).thenReturn("example.org");
+        sendMail = createSendMail(smtpStub.getPort());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        smtpStub.close();
+    }
+
+    private SendMailImpl createSendMail(int port) {
+        var properties = new Properties();
+        properties.setProperty("mail.transport.protocol", "smtp");
+        properties.setProperty("mail.smtp.class", "com.sun.mail.smtp.SMTPTransport");
+        properties.setProperty(SendMailImpl.MAIL_SMTP_HOST, "localhost");
+        properties.setProperty(SendMailImpl.MAIL_SMTP_PORT, Integer.toString(port));
+        properties.setProperty("mail.smtp.connectiontimeout", "5000");
+        properties.setProperty("mail.smtp.timeout", "5000");
+        return new SendMailImpl(applicationNameSupplier,
+                                applicationHostSupplier,
+                                properties,
+                                messagingExceptionHandler,
+                                messageIdGenerator);
+    }
+
+    private OutboundMessage message(String recipient, String subject) {
+        return new OutboundMessage(new MessageId("<" + subject + "@example.org>"),
+                                   ImmutableList.of(recipient),
+                                   subject,
+                                   "The text of " + subject,
+                                   exceptionHandler,
+                                   ImmutableList.of(),
+                                   1);
+    }
+
+    @Test
+    public void shouldSendBatchOverSingleConnection() {
+        var unsent = sendMail.sendMessages(List.of(message("a@example.org", "A"),
+                                                   message("b@example.org", "B"),
+                                                   message("c@example.org", "C")));
+        assertThat(unsent, is(empty()));
+        assertThat(smtpStub.getConnectionCount(), is(1));
+        assertThat(smtpStub.getRecipients(), contains("a@example.org", "b@example.org", "c@example.org"));
+        verify(exceptionHandler, never()).handleMessagingException(any());
+    }
+
+    @Test
+    public void shouldPassRejectedMessageToHandlerAndSendTheRest() {
+        var unsent = sendMail.sendMessages(List.of(message("a@example.org", "A"),
+                                                   message(REJECTED_RECIPIENT, "B"),
+                                                   message("c@example.org", "C")));
+        assertThat(unsent, is(empty()));
+        assertThat(smtpStub.getConnectionCount(), is(1));
+        assertThat(smtpStub.getRecipients(), contains("a@example.org", "c@example.org"));
+        verify(exceptionHandler, times(1)).handleMessagingException(any(SendFailedException.class));
+    }
+
+    @Test
+    public void shouldReturnOnlyUnsentMessagesWhenConnectionIsDropped() {
+        smtpStub.dropConnectionAfterMessages(1);
+        var messageA = message("a@example.org", "A");
+        var messageB = message("b@example.org", "B");
+        var messageC = message("c@example.org", "C");
+        var unsent = sendMail.sendMessages(List.of(messageA, messageB, messageC));
+        // A was accepted by the server, so it must not be sent again
+        assertThat(unsent, contains(messageB, messageC));
+        assertThat(smtpStub.getRecipients(), contains("a@example.org"));
+    }
+
+    @Test
+    public void shouldReturnAllMessagesWhenServerCannotBeReached() throws IOException {
+        int port;
+        try(var serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        var messageA = message("a@example.org", "A");
+        var messageB = message("b@example.org", "B");
+        var unsent = createSendMail(port).sendMessages(List.of(messageA, messageB));
+        assertThat(unsent, contains(messageA, messageB));
+    }
+
+    /**
+     * A minimal SMTP server that accepts messages and records their recipients
+     */
+    private static class SmtpStub implements Closeable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0);
+
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+
+        private final AtomicInteger connectionCount = new AtomicInteger();
+
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        private volatile int dropConnectionAfterMessages = Integer.MAX_VALUE;
+
+        private SmtpStub() throws IOException {
+            executor.execute(this::acceptConnections);
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private int getConnectionCount() {
+            return connectionCount.get();
+        }
+
+        private List<String> getRecipients() {
+            return recipients;
+        }
+
+        private void dropConnectionAfterMessages(int messageCount) {
+            dropConnectionAfterMessages = messageCount;
+        }
+
+        private void acceptConnections() {
+            try {
+                while(true) {
+                    var socket = serverSocket.accept();
+                    connectionCount.incrementAndGet();
+                    executor.execute(() -> handleConnection(socket));
+                }
+            } catch(IOException e) {
+                // Closed
+            }
+        }
+
+        private void handleConnection(Socket socket) {
+            try(socket;
+                var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                var writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true)) {
+                reply(writer, "220 localhost SMTP stub");
+                var messageCount = 0;
+                String recipient = null;
+                String line;
+                while((line = reader.readLine()) != null) {
+                    var command = line.toUpperCase();
+                    if(command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(writer, "250 localhost");
+                    }
+                    else if(command.startsWith("MAIL FROM")) {
+                        recipient = null;
+                        reply(writer, "250 OK");
+                    }
+                    else if(command.startsWith("RCPT TO")) {
+                        var address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        if(address.equals(REJECTED_RECIPIENT)) {
+                            reply(writer, "550 No such user");
+                        }
+                        else {
+                            recipient = address;
+                            reply(writer, "250 OK");
+                        }
+                    }
+                    else if(command.equals("DATA")) {
+                        reply(writer, "354 End data with <CR><LF>.<CR><LF>");
+                        while((line = reader.readLine()) != null && !line.equals(".")) {
+                            // Discard the message content
+                        }
+                        recipients.add(recipient);
+                        reply(writer, "250 OK");
+                        messageCount++;
+                        if(messageCount >= dropConnectionAfterMessages) {
+                            return;
+                        }
+                    }
+                    else if(command.equals("QUIT")) {
+                        reply(writer, "221 Bye");
+                        return;
+                    }
+                    else {
+                        // RSET, NOOP
+                        reply(writer, "250 OK");
+                    }
+                }
+            } catch(SocketException e) {
+                // Closed by the client
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void reply(PrintWriter writer, String reply) {
+            writer.print(reply + "\r\n");
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            executor.shutdownNow();
+        }
+    }
+}
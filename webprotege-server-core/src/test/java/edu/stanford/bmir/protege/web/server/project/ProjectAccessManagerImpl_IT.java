@@ -52,20 +52,39 @@ public class ProjectAccessManagerImpl_IT {
     @Test
     public void shouldSaveItem() {
         manager.logProjectAccess(projectId, userId, TIMESTAMP_A);
+        manager.flush();
         assertThat(getCollection().count(), is(1L));
     }
 
+    @Test
+    public void shouldNotSaveBeforeFlush() {
+        manager.logProjectAccess(projectId, userId, TIMESTAMP_A);
+        assertThat(getCollection().count(), is(0L));
+    }
+
     @Test
     public void shouldNotSaveDuplicateProjectUserItems() {
         manager.logProjectAccess(projectId, userId, TIMESTAMP_A);
         manager.logProjectAccess(projectId, userId, TIMESTAMP_B);
+        manager.flush();
+        assertThat(getCollection().count(), is(1L));
+    }
+
+    @Test
+    public void shouldNotSaveDuplicateProjectUserItemsAcrossFlushes() {
+        manager.logProjectAccess(projectId, userId, TIMESTAMP_A);
+        manager.flush();
+        manager.logProjectAccess(projectId, userId, TIMESTAMP_B);
+        manager.flush();
         assertThat(getCollection().count(), is(1L));
+        assertThat(getCollection().find().first().getInteger("count"), is(2));
     }
 
     @Test
     public void shouldSaveSameProjectDifferentUsers() {
         manager.logProjectAccess(projectId, userId, TIMESTAMP_A);
         manager.logProjectAccess(projectId, otherUserId, TIMESTAMP_B);
+        manager.flush();
         assertThat(getCollection().count(), is(2L));
     }
 
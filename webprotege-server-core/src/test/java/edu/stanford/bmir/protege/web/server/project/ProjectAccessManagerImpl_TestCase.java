@@ -0,0 +1,120 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectAccessManagerImpl_TestCase {
+
+    private static final int USER_COUNT = 20;
+
+    private static final int PROJECT_COUNT = 5;
+
+    private static final int ACCESSES_PER_THREAD = 1_000;
+
+    private static final int THREAD_COUNT = 8;
+
+    @Mock
+    private MongoDatabase database;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private ProjectAccessManagerImpl manager;
+
+    private final List<ProjectId> projectIds = new ArrayList<>();
+
+    private final List<UserId> userIds = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        when(database.getCollection(ProjectAccessManagerImpl.COLLECTION_NAME)).thenReturn(collection);
+        manager = new ProjectAccessManagerImpl(database);
+        for(int i = 0; i < PROJECT_COUNT; i++) {
+            projectIds.add(ProjectIdFactory.getFreshProjectId());
+        }
+        for(int i = 0; i < USER_COUNT; i++) {
+            userIds.add(UserId.getUserId("User" + i));
+        }
+    }
+
+    @Test
+    public void shouldNotWriteBeforeFlush() {
+        manager.logProjectAccess(projectIds.get(0), userIds.get(0), 33L);
+        verifyZeroInteractions(collection);
+    }
+
+    @Test
+    public void shouldNotWriteWhenNothingIsBuffered() {
+        manager.flush();
+        verifyZeroInteractions(collection);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldCoalesceBurstIntoSingleBulkWrite() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        for(int t = 0; t < THREAD_COUNT; t++) {
+            executor.submit(() -> {
+                for(int i = 0; i < ACCESSES_PER_THREAD; i++) {
+                    manager.logProjectAccess(projectIds.get(i % PROJECT_COUNT),
+                                             userIds.get(i % USER_COUNT),
+                                             i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+        manager.flush();
+        ArgumentCaptor<List<WriteModel<Document>>> updatesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(1)).bulkWrite(updatesCaptor.capture(), any(BulkWriteOptions.class));
+        verifyNoMoreInteractions(collection);
+        var updates = updatesCaptor.getValue();
+        // i % 5 and i % 20 give 20 distinct (project, user) pairs
+        assertThat(updates, hasSize(USER_COUNT));
+        var totalCount = updates.stream()
+                                .map(update -> (Document) ((UpdateOneModel<Document>) update).getUpdate())
+                                .mapToInt(update -> ((Document) update.get("$inc")).getInteger(ProjectAccessManagerImpl.COUNT))
+                                .sum();
+        assertThat(totalCount, is(THREAD_COUNT * ACCESSES_PER_THREAD));
+    }
+
+    @Test
+    public void shouldRetryFailedWriteAtNextFlush() {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(null);
+        manager.logProjectAccess(projectIds.get(0), userIds.get(0), 33L);
+        manager.flush();
+        manager.flush();
+        verify(collection, times(2)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+}
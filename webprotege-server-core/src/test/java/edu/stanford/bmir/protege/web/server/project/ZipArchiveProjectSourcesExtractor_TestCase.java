@@ -1,6 +1,8 @@
 package edu.stanford.bmir.protege.web.server.project;
 
+import edu.stanford.bmir.protege.web.server.owlapi.WebProtegeOWLManager;
 import edu.stanford.bmir.protege.web.server.util.TempFileFactory;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -9,16 +11,29 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import static edu.stanford.bmir.protege.web.server.project.FileDocumentSourceMatcher.isFileDocumentSourceForFile;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
 
 /**
@@ -41,11 +56,18 @@ public class ZipArchiveProjectSourcesExtractor_TestCase {
 
     private File outputFolder;
 
+    private ExecutorService parsingService;
+
     @Before
     public void setUp() throws IOException {
         outputFolder = temporaryFolder.newFolder();
         when(tempFileFactory.createTempDirectory()).thenReturn(outputFolder);
+        parsingService = Executors.newFixedThreadPool(2);
+    }
 
+    @After
+    public void tearDown() {
+        parsingService.shutdownNow();
     }
 
     @Test
@@ -69,6 +91,101 @@ public class ZipArchiveProjectSourcesExtractor_TestCase {
         extractor.extractProjectSources(zipFile);
     }
 
+    @Test
+    public void shouldNotImportStrayOntologyInArchive() throws IOException, OWLOntologyCreationException {
+        String rootDocument = "/ontologies/root-ontology.owl";
+        File rootDocumentFile = new File(outputFolder, rootDocument);
+        when(rootOntologyDocumentFileMatcher.isRootOntologyDocument(rootDocumentFile)).thenReturn(true);
+        File zipFile = temporaryFolder.newFile();
+        try(ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            addOntologyDocument(zipOutputStream, rootDocument, "http://example.org/root", "http://example.org/imported");
+            addOntologyDocument(zipOutputStream, "/ontologies/imported.owl", "http://example.org/imported", null);
+            addOntologyDocument(zipOutputStream, "/ontologies/stray.owl", "http://example.org/stray", null);
+        }
+        ZipArchiveProjectSourcesExtractor extractor = new ZipArchiveProjectSourcesExtractor(tempFileFactory, rootOntologyDocumentFileMatcher);
+        RawProjectSources projectSources = extractor.extractProjectSources(zipFile);
+        assertThat(projectSources.getExtractedOntologyDocuments().keySet(), hasSize(3));
+
+        OWLOntologyManager manager = WebProtegeOWLManager.createOWLOntologyManager();
+        RawProjectSourcesImporter importer = new RawProjectSourcesImporter(manager,
+                                                                           new OWLOntologyLoaderConfiguration(),
+                                                                           parsingService);
+        OWLOntology rootOntology = importer.importRawProjectSources(projectSources);
+        assertThat(rootOntology.getOntologyID().getOntologyIRI().get(), is(IRI.create("http://example.org/root")));
+        Set<IRI> loadedOntologyIris = manager.getOntologies().stream()
+                                             .map(ont -> ont.getOntologyID().getOntologyIRI().get())
+                                             .collect(toSet());
+        assertThat(loadedOntologyIris, containsInAnyOrder(IRI.create("http://example.org/root"),
+                                                          IRI.create("http://example.org/imported")));
+    }
+
+    @Test
+    public void shouldTypeEntitiesAsSequentialLoadDoes() throws IOException, OWLOntologyCreationException {
+        String rootDocument = "/ontologies/root-ontology.owl";
+        File rootDocumentFile = new File(outputFolder, rootDocument);
+        when(rootOntologyDocumentFileMatcher.isRootOntologyDocument(rootDocumentFile)).thenReturn(true);
+        File zipFile = temporaryFolder.newFile();
+        try(ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            // The property assertions are only object property assertions if the imports have been parsed first
+            addOntologyDocument(zipOutputStream, rootDocument, "http://example.org/root", "http://example.org/middle",
+                                "<rdf:Description rdf:about=\"http://example.org/k\">" +
+                                        "<ex:q rdf:resource=\"http://example.org/l\"/>" +
+                                        "<ex:p rdf:resource=\"http://example.org/l\"/>" +
+                                        "</rdf:Description>");
+            addOntologyDocument(zipOutputStream, "/ontologies/middle.owl", "http://example.org/middle", "http://example.org/leaf",
+                                "<owl:ObjectProperty rdf:about=\"http://example.org/q\"/>" +
+                                        "<rdf:Description rdf:about=\"http://example.org/i\">" +
+                                        "<ex:p rdf:resource=\"http://example.org/j\"/>" +
+                                        "</rdf:Description>");
+            addOntologyDocument(zipOutputStream, "/ontologies/leaf.owl", "http://example.org/leaf", null,
+                                "<owl:ObjectProperty rdf:about=\"http://example.org/p\"/>");
+        }
+        ZipArchiveProjectSourcesExtractor extractor = new ZipArchiveProjectSourcesExtractor(tempFileFactory, rootOntologyDocumentFileMatcher);
+        RawProjectSources projectSources = extractor.extractProjectSources(zipFile);
+
+        OWLOntologyManager sequentialManager = WebProtegeOWLManager.createOWLOntologyManager();
+        sequentialManager.getIRIMappers().add(projectSources.getOntologyIRIMapper());
+        for (OWLOntologyDocumentSource documentSource : projectSources.getDocumentSources()) {
+            sequentialManager.loadOntologyFromOntologyDocument(documentSource);
+        }
+
+        OWLOntologyManager manager = WebProtegeOWLManager.createOWLOntologyManager();
+        RawProjectSourcesImporter importer = new RawProjectSourcesImporter(manager,
+                                                                           new OWLOntologyLoaderConfiguration(),
+                                                                           parsingService);
+        OWLOntology rootOntology = importer.importRawProjectSources(projectSources);
+        assertThat(rootOntology.getAxiomCount(AxiomType.OBJECT_PROPERTY_ASSERTION), is(2));
+        assertThat(manager.getOntologies(), hasSize(3));
+        for (OWLOntology sequentialOntology : sequentialManager.getOntologies()) {
+            OWLOntology ontology = manager.getOntology(sequentialOntology.getOntologyID());
+            assertThat(ontology.getAxioms(), is(sequentialOntology.getAxioms()));
+        }
+    }
+
+    private static void addOntologyDocument(ZipOutputStream zipOutputStream,
+                                            String document,
+                                            String ontologyIri,
+                                            String importedOntologyIri) throws IOException {
+        addOntologyDocument(zipOutputStream, document, ontologyIri, importedOntologyIri, "");
+    }
+
+    private static void addOntologyDocument(ZipOutputStream zipOutputStream,
+                                            String document,
+                                            String ontologyIri,
+                                            String importedOntologyIri,
+                                            String body) throws IOException {
+        String imports = importedOntologyIri == null ? "" : "<owl:imports rdf:resource=\"" + importedOntologyIri + "\"/>";
+        String content = "<?xml version=\"1.0\"?>\n" +
+                "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\"\n" +
+                "         xmlns:owl=\"http://www.w3.org/2002/07/owl#\"\n" +
+                "         xmlns:ex=\"http://example.org/\">\n" +
+                "    <owl:Ontology rdf:about=\"" + ontologyIri + "\">" + imports + "</owl:Ontology>\n" +
+                "    " + body + "\n" +
+                "</rdf:RDF>\n";
+        zipOutputStream.putNextEntry(new ZipEntry(document));
+        zipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        zipOutputStream.closeEntry();
+    }
 
     public File createZipFile(String document) throws IOException {
         File zipFile = temporaryFolder.newFile();
@@ -0,0 +1,136 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class RevisionCache_TestCase {
+
+    private static final long BUDGET = 100_000;
+
+    private static final int REVISION_COUNT = 50_000;
+
+    private static final int CHANGES_PER_REVISION = 100;
+
+    private final ProjectId projectId = ProjectId.get("12345678-1234-1234-1234-123456789abc");
+
+    private final ProjectId otherProjectId = ProjectId.get("12345678-1234-1234-1234-123456789abd");
+
+    private final RevisionNumber revisionNumber = RevisionNumber.getRevisionNumber(1);
+
+    private RevisionCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new RevisionCache(BUDGET);
+    }
+
+    private static long[] computeValue() {
+        return new long[CHANGES_PER_REVISION];
+    }
+
+    @Test
+    public void shouldComputeValueOnce() {
+        var computations = new AtomicInteger();
+        var first = cache.get(projectId, String.class, revisionNumber, () -> "Value " + computations.incrementAndGet(), String::length);
+        var second = cache.get(projectId, String.class, revisionNumber, () -> "Value " + computations.incrementAndGet(), String::length);
+        assertThat(first, is("Value 1"));
+        assertThat(second, is("Value 1"));
+        assertThat(cache.getStats().hitCount(), is(1L));
+        assertThat(cache.getStats().missCount(), is(1L));
+    }
+
+    @Test
+    public void shouldCacheKindsSeparately() {
+        cache.get(projectId, String.class, revisionNumber, () -> "A", String::length);
+        var value = cache.get(projectId, Integer.class, revisionNumber, () -> 1, i -> 1);
+        assertThat(value, is(1));
+    }
+
+    @Test
+    public void shouldCacheProjectsSeparately() {
+        cache.get(projectId, String.class, revisionNumber, () -> "A", String::length);
+        var value = cache.get(otherProjectId, String.class, revisionNumber, () -> "B", String::length);
+        assertThat(value, is("B"));
+    }
+
+    @Test
+    public void shouldStayWithinBudgetWhilePagingThroughFullHistory() {
+        for(int i = 1; i <= REVISION_COUNT; i++) {
+            var value = cache.get(projectId,
+                                  long[].class,
+                                  RevisionNumber.getRevisionNumber(i),
+                                  RevisionCache_TestCase::computeValue,
+                                  v -> v.length);
+            assertThat(value.length, is(CHANGES_PER_REVISION));
+            if(i % 1_000 == 0) {
+                assertThat(cache.getWeight(), is(lessThanOrEqualTo(BUDGET)));
+            }
+        }
+        assertThat(cache.getWeight(), is(lessThanOrEqualTo(BUDGET)));
+        assertThat(cache.getStats().evictionCount(), is(greaterThan(0L)));
+    }
+
+    @Test
+    public void shouldShareBudgetBetweenProjects() {
+        for(int i = 1; i <= REVISION_COUNT / 2; i++) {
+            var revision = RevisionNumber.getRevisionNumber(i);
+            cache.get(projectId, long[].class, revision, RevisionCache_TestCase::computeValue, v -> v.length);
+            cache.get(otherProjectId, long[].class, revision, RevisionCache_TestCase::computeValue, v -> v.length);
+        }
+        assertThat(cache.getWeight(), is(lessThanOrEqualTo(BUDGET)));
+    }
+
+    @Test
+    public void shouldCacheRevisionHeavierThanQuarterOfBudget() {
+        var computations = new AtomicInteger();
+        var weight = (int) (BUDGET * 3 / 4);
+        for(int i = 0; i < 3; i++) {
+            var value = cache.get(projectId, long[].class, revisionNumber, () -> {
+                computations.incrementAndGet();
+                return new long[weight];
+            }, v -> v.length);
+            assertThat(value.length, is(weight));
+        }
+        assertThat(computations.get(), is(1));
+        assertThat(cache.getWeight(), is((long) weight));
+    }
+
+    @Test
+    public void shouldNotCacheRevisionHeavierThanBudget() {
+        cache.get(projectId, String.class, revisionNumber, () -> "A", String::length);
+        var computations = new AtomicInteger();
+        var weight = (int) (BUDGET + 1);
+        for(int i = 0; i < 2; i++) {
+            var value = cache.get(otherProjectId, long[].class, revisionNumber, () -> {
+                computations.incrementAndGet();
+                return new long[weight];
+            }, v -> v.length);
+            assertThat(value.length, is(weight));
+        }
+        assertThat(computations.get(), is(2));
+        // The other values are not evicted
+        assertThat(cache.getWeight(), is(1L));
+    }
+
+    @Test
+    public void shouldInvalidateValuesForProject() {
+        cache.get(projectId, String.class, revisionNumber, () -> "A", String::length);
+        cache.get(otherProjectId, String.class, revisionNumber, () -> "BB", String::length);
+        cache.invalidate(projectId);
+        assertThat(cache.getWeight(), is(2L));
+        var value = cache.get(projectId, String.class, revisionNumber, () -> "C", String::length);
+        assertThat(value, is("C"));
+    }
+}
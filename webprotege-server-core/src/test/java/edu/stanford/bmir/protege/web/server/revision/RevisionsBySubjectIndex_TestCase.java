@@ -0,0 +1,112 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.*;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RevisionsBySubjectIndex_TestCase {
+
+    private final OWLDataFactory dataFactory = new OWLDataFactoryImpl();
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://example.org/ont"));
+
+    private final OWLClass clsA = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+
+    private final OWLClass clsB = dataFactory.getOWLClass(IRI.create("http://example.org/B"));
+
+    private final OWLClass clsC = dataFactory.getOWLClass(IRI.create("http://example.org/C"));
+
+    private final Map<RevisionNumber, Revision> revisions = new HashMap<>();
+
+    @Mock
+    private ProjectId projectId;
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    private RevisionsBySubjectIndex index;
+
+    @Before
+    public void setUp() {
+        when(revisionManager.getRevision(any())).thenAnswer(invocation -> Optional.ofNullable(revisions.get(invocation.getArgument(0))));
+        addRevision(1, AddAxiomChange.of(ontologyId, dataFactory.getOWLDeclarationAxiom(clsA)));
+        addRevision(2, AddAxiomChange.of(ontologyId, dataFactory.getOWLDeclarationAxiom(clsB)),
+                    AddAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsB, clsA)));
+        addRevision(3, AddAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsA, clsC)));
+        index = new RevisionsBySubjectIndex(projectId, revisionManager);
+    }
+
+    private void addRevision(long number, OntologyChange... changes) {
+        var revisionNumber = RevisionNumber.getRevisionNumber(number);
+        revisions.put(revisionNumber, new Revision(UserId.getUserId("JohnSmith"),
+                                                   revisionNumber,
+                                                   ImmutableList.copyOf(changes),
+                                                   0L,
+                                                   "Revision " + number));
+        when(revisionManager.getCurrentRevision()).thenReturn(revisionNumber);
+    }
+
+    @Test
+    public void shouldGetRevisionsForSubject() {
+        assertThat(index.getRevisionNumbers(clsA.getIRI()), is(new long[]{1, 3}));
+    }
+
+    @Test
+    public void shouldGetNoRevisionsForUnchangedSubject() {
+        assertThat(index.getRevisionNumbers(clsC.getIRI()), is(new long[0]));
+    }
+
+    @Test
+    public void shouldGetDistinctRevisionsForSubjectsInOrder() {
+        var revisionNumbers = index.getRevisionNumbers(ImmutableSet.of(clsA.getIRI(), clsB.getIRI()));
+        assertThat(revisionNumbers, is(new long[]{1, 2, 3}));
+    }
+
+    @Test
+    public void shouldGetRevisionOnceForEachSubjectThatItChanges() {
+        addRevision(4, AddAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsA, clsC)),
+                    AddAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsB, clsC)));
+        var revisionNumbers = index.getSubjectRevisionNumbers(ImmutableSet.of(clsA.getIRI(), clsB.getIRI()));
+        assertThat(revisionNumbers, is(new long[]{1, 2, 3, 4, 4}));
+    }
+
+    @Test
+    public void shouldIndexRevisionsAddedAfterFirstQuery() {
+        index.getRevisionNumbers(clsB.getIRI());
+        addRevision(4, AddAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsB, clsC)));
+        assertThat(index.getRevisionNumbers(clsB.getIRI()), is(new long[]{2, 4}));
+    }
+
+    @Test
+    public void shouldIndexEachRevisionOnce() {
+        index.getRevisionNumbers(clsA.getIRI());
+        index.getRevisionNumbers(clsB.getIRI());
+        verify(revisionManager, times(3)).getRevision(any());
+    }
+}
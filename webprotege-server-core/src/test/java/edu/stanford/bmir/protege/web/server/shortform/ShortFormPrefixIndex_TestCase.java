@@ -0,0 +1,166 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableMap;
+import edu.stanford.bmir.protege.web.server.index.ProjectSignatureIndex;
+import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import edu.stanford.bmir.protege.web.shared.shortform.LocalNameDictionaryLanguage;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static edu.stanford.bmir.protege.web.shared.DataFactory.getOWLClass;
+import static edu.stanford.bmir.protege.web.shared.DataFactory.getOWLNamedIndividual;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ShortFormPrefixIndex_TestCase {
+
+    private final DictionaryLanguage language = LocalNameDictionaryLanguage.get();
+
+    private final OWLClass leftHeart = getOWLClass("http://example.org/LeftHeart");
+
+    private final OWLClass heartValve = getOWLClass("http://example.org/HeartValve");
+
+    private final OWLClass liver = getOWLClass("http://example.org/Liver");
+
+    private final OWLNamedIndividual heartIndividual = getOWLNamedIndividual("http://example.org/heart");
+
+    private ShortFormPrefixIndex index;
+
+    @Mock
+    private ProjectSignatureIndex projectSignatureIndex;
+
+    @Mock
+    private DictionaryManager dictionaryManager;
+
+    @Mock
+    private LanguageManager languageManager;
+
+    @Before
+    public void setUp() {
+        when(languageManager.getLanguages()).thenReturn(List.of(language));
+        when(projectSignatureIndex.getSignature())
+                .thenAnswer(invocation -> Stream.of(leftHeart, heartValve, liver, heartIndividual));
+        setShortForm(leftHeart, "Left Heart");
+        setShortForm(heartValve, "heartValve");
+        setShortForm(liver, "Liver");
+        setShortForm(heartIndividual, "heart");
+        index = new ShortFormPrefixIndex(projectSignatureIndex,
+                                         dictionaryManager,
+                                         languageManager);
+    }
+
+    private void setShortForm(OWLEntity entity, String shortForm) {
+        when(dictionaryManager.getShortForms(entity)).thenReturn(ImmutableMap.of(language, shortForm));
+    }
+
+    @Test
+    public void shouldMatchWordPrefixes() {
+        var entities = getMatchingEntities("HEA", Set.of(EntityType.CLASS), 10);
+        assertThat(entities, containsInAnyOrder(leftHeart, heartValve));
+    }
+
+    @Test
+    public void shouldMatchCamelCaseWordPrefixes() {
+        var entities = getMatchingEntities("val", Set.of(EntityType.CLASS), 10);
+        assertThat(entities, contains(heartValve));
+    }
+
+    @Test
+    public void shouldOnlyMatchSpecifiedEntityTypes() {
+        var entities = getMatchingEntities("heart", Set.of(EntityType.NAMED_INDIVIDUAL), 10);
+        assertThat(entities, contains(heartIndividual));
+    }
+
+    @Test
+    public void shouldApplyLimit() {
+        var entities = getMatchingEntities("", Set.of(EntityType.CLASS), 2);
+        assertThat(entities, hasSize(2));
+    }
+
+    @Test
+    public void shouldReturnMatchPosition() {
+        var matches = index.getShortFormsWithPrefix("hea", Set.of(EntityType.CLASS), 10);
+        var leftHeartMatch = matches.stream()
+                                    .filter(match -> match.getEntity().equals(leftHeart))
+                                    .findFirst()
+                                    .orElseThrow();
+        assertThat(leftHeartMatch.getMatchPositions(), contains(ShortFormMatchPosition.get(5, 8)));
+    }
+
+    @Test
+    public void shouldReindexUpdatedEntity() {
+        getMatchingEntities("liv", Set.of(EntityType.CLASS), 10);
+        when(projectSignatureIndex.containsEntityInSignature(liver)).thenReturn(true);
+        setShortForm(liver, "Hepar");
+        index.update(List.of(liver));
+        assertThat(getMatchingEntities("liv", Set.of(EntityType.CLASS), 10), is(empty()));
+        assertThat(getMatchingEntities("hep", Set.of(EntityType.CLASS), 10), contains(liver));
+    }
+
+    @Test
+    public void shouldRemoveEntityThatIsNoLongerInSignature() {
+        getMatchingEntities("liv", Set.of(EntityType.CLASS), 10);
+        when(projectSignatureIndex.containsEntityInSignature(liver)).thenReturn(false);
+        index.update(List.of(liver));
+        assertThat(getMatchingEntities("liv", Set.of(EntityType.CLASS), 10), is(empty()));
+    }
+
+    @Test
+    public void shouldApplyUpdatesThatAreMadeWhileBuilding() {
+        when(projectSignatureIndex.containsEntityInSignature(liver)).thenReturn(true);
+        // Liver is renamed after it has been added to the postings that are being built
+        when(projectSignatureIndex.getSignature())
+                .thenAnswer(invocation -> Stream.concat(Stream.of(leftHeart, heartValve, liver),
+                                                        Stream.of(heartIndividual).peek(entity -> {
+                                                            setShortForm(liver, "Hepar");
+                                                            index.update(List.of(liver));
+                                                        })));
+        assertThat(getMatchingEntities("liv", Set.of(EntityType.CLASS), 10), is(empty()));
+        assertThat(getMatchingEntities("hep", Set.of(EntityType.CLASS), 10), contains(liver));
+    }
+
+    @Test
+    public void shouldReturnMatchesInOrderOfMatchedWord() {
+        var entities = getMatchingEntities("", Set.of(EntityType.CLASS), 10);
+        // Words: heart (Left Heart), heartValve, Left Heart, Liver, Valve (heartValve)
+        assertThat(entities, contains(leftHeart, heartValve, liver));
+    }
+
+    @Test
+    public void shouldMatchWholeShortForm() {
+        var entities = getMatchingEntities("heartvalve", Set.of(EntityType.CLASS), 10);
+        assertThat(entities, contains(heartValve));
+    }
+
+    @Test
+    public void shouldNotMatchPrefixThatIsLongerThanWord() {
+        assertThat(getMatchingEntities("livers", Set.of(EntityType.CLASS), 10), is(empty()));
+    }
+
+    private List<OWLEntity> getMatchingEntities(String prefix, Set<EntityType<?>> types, int limit) {
+        return index.getShortFormsWithPrefix(prefix, types, limit)
+                    .stream()
+                    .map(ShortFormMatch::getEntity)
+                    .collect(toList());
+    }
+}
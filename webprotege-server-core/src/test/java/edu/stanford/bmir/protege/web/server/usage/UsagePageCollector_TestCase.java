@@ -0,0 +1,83 @@
+package edu.stanford.bmir.protege.web.server.usage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class UsagePageCollector_TestCase {
+
+    private static final int ELEMENT_COUNT = 500_000;
+
+    private static final int PAGE_SIZE = 500;
+
+    /**
+     * Compares on the key only, so that groups of ten elements tie
+     */
+    private static final Comparator<Integer> byKey = Comparator.comparingInt(i -> i / 10);
+
+    private List<Integer> shuffledElements() {
+        var elements = new ArrayList<Integer>(ELEMENT_COUNT);
+        for(int i = 0; i < ELEMENT_COUNT; i++) {
+            elements.add(i);
+        }
+        Collections.shuffle(elements, new Random(1));
+        return elements;
+    }
+
+    private List<Integer> getPage(int pageStart) {
+        var collector = new UsagePageCollector<Integer>(byKey, pageStart + PAGE_SIZE);
+        shuffledElements().forEach(collector::add);
+        assertThat(collector.getCount(), is(ELEMENT_COUNT));
+        return collector.getCandidates().stream()
+                        .sorted(byKey.thenComparing(Comparator.naturalOrder()))
+                        .skip(pageStart)
+                        .limit(PAGE_SIZE)
+                        .collect(toList());
+    }
+
+    @Test
+    public void shouldGetFirstPageInOrder() {
+        var page = getPage(0);
+        assertThat(page, hasSize(PAGE_SIZE));
+        for(int i = 0; i < PAGE_SIZE; i++) {
+            assertThat(page.get(i), is(i));
+        }
+    }
+
+    @Test
+    public void shouldGetPageThatStartsInsideGroupOfTies() {
+        var pageStart = 1_005;
+        var page = getPage(pageStart);
+        assertThat(page, hasSize(PAGE_SIZE));
+        for(int i = 0; i < PAGE_SIZE; i++) {
+            assertThat(page.get(i), is(pageStart + i));
+        }
+    }
+
+    @Test
+    public void shouldKeepAllElementsThatTieAtBoundary() {
+        var collector = new UsagePageCollector<Integer>(byKey, 5);
+        shuffledElements().forEach(collector::add);
+        assertThat(collector.getCandidates(), containsInAnyOrder(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+    }
+
+    @Test
+    public void shouldHoldOnlyCandidatesForPage() {
+        var collector = new UsagePageCollector<Integer>(byKey, PAGE_SIZE);
+        shuffledElements().forEach(collector::add);
+        assertThat(collector.getCandidates().size(), is(lessThanOrEqualTo(PAGE_SIZE + 10)));
+    }
+}
@@ -105,5 +105,35 @@ public class UserActivityManager_IT {
                                                                                                timestamp)));
     }
 
+    @Test
+    public void shouldWriteRecentProjectOnFlush() {
+        long timestamp = RECENT_PROJECT_TIMESTAMP;
+        repository.addRecentProject(userId, projectId, timestamp);
+        repository.flush();
+        UserActivityRecord savedRecord = datastore.get(UserActivityRecord.class, userId);
+        assertThat(savedRecord.getRecentProjects(), Matchers.contains(new RecentProjectRecord(projectId,
+                                                                                              timestamp)));
+    }
+
+    @Test
+    public void shouldKeepLastLoginAndLastLogoutOnFlush() {
+        repository.save(record);
+        repository.addRecentProject(userId, projectId, RECENT_PROJECT_TIMESTAMP);
+        repository.flush();
+        UserActivityRecord savedRecord = datastore.get(UserActivityRecord.class, userId);
+        assertThat(savedRecord.getLastLogin(), is(LAST_LOGIN));
+        assertThat(savedRecord.getLastLogout(), is(LAST_LOGOUT));
+        assertThat(savedRecord.getRecentProjects(), Matchers.contains(new RecentProjectRecord(projectId,
+                                                                                              RECENT_PROJECT_TIMESTAMP)));
+    }
+
+    @Test
+    public void shouldSetUnknownLastLoginWhenFlushCreatesRecord() {
+        repository.addRecentProject(userId, projectId, RECENT_PROJECT_TIMESTAMP);
+        repository.flush();
+        UserActivityRecord savedRecord = datastore.get(UserActivityRecord.class, userId);
+        assertThat(savedRecord.getLastLogin(), is(UserActivityRecord.UNKNOWN));
+        assertThat(savedRecord.getLastLogout(), is(UserActivityRecord.UNKNOWN));
+    }
 
 }
@@ -0,0 +1,150 @@
+package edu.stanford.bmir.protege.web.server.user;
+
+import edu.stanford.bmir.protege.web.server.project.ProjectIdFactory;
+import edu.stanford.bmir.protege.web.server.project.RecentProjectRecord;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.UpdateOptions;
+import org.mongodb.morphia.query.FieldEnd;
+import org.mongodb.morphia.query.Query;
+import org.mongodb.morphia.query.UpdateOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static edu.stanford.bmir.protege.web.server.user.UserActivityRecord.*;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserActivityManager_TestCase {
+
+    private static final int USER_COUNT = 10;
+
+    private static final int PROJECT_COUNT = 4;
+
+    private static final int ACCESS_COUNT = 10_000;
+
+    @Mock
+    private Datastore datastore;
+
+    @Mock
+    private Query<UserActivityRecord> query;
+
+    @Mock
+    private FieldEnd<Query<UserActivityRecord>> fieldEnd;
+
+    private UserActivityManager manager;
+
+    private UpdateOperations<UserActivityRecord> updateOperations;
+
+    private final UserId userId = UserId.getUserId("John Smith");
+
+    private final ProjectId projectId = ProjectIdFactory.getFreshProjectId();
+
+    private final ProjectId otherProjectId = ProjectIdFactory.getFreshProjectId();
+
+    @Before
+    public void setUp() {
+        manager = new UserActivityManager(datastore);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubUpdates() {
+        updateOperations = mock(UpdateOperations.class, RETURNS_SELF);
+        when(datastore.createUpdateOperations(UserActivityRecord.class)).thenReturn(updateOperations);
+        when(datastore.createQuery(UserActivityRecord.class)).thenReturn(query);
+        doReturn(fieldEnd).when(query).field(USER_ID);
+        when(fieldEnd.equal(any())).thenReturn(query);
+    }
+
+    @Test
+    public void shouldNotWriteBeforeFlush() {
+        manager.addRecentProject(userId, projectId, 33L);
+        verifyZeroInteractions(datastore);
+    }
+
+    @Test
+    public void shouldIncludeBufferedRecentProjectsInRecord() {
+        var persisted = new UserActivityRecord(userId, 1L, 2L, singletonList(new RecentProjectRecord(projectId, 10L)));
+        when(datastore.get(UserActivityRecord.class, userId)).thenReturn(persisted);
+        manager.addRecentProject(userId, otherProjectId, 20L);
+        manager.addRecentProject(userId, projectId, 30L);
+        var record = manager.getUserActivityRecord(userId).orElseThrow();
+        assertThat(record.getRecentProjects(), contains(new RecentProjectRecord(projectId, 30L),
+                                                        new RecentProjectRecord(otherProjectId, 20L)));
+        assertThat(record.getLastLogin(), is(1L));
+    }
+
+    @Test
+    public void shouldWriteOncePerUserAfterBurst() {
+        stubUpdates();
+        var userIds = new ArrayList<UserId>();
+        for(int i = 0; i < USER_COUNT; i++) {
+            userIds.add(UserId.getUserId("User" + i));
+        }
+        var projectIds = new ArrayList<ProjectId>();
+        for(int i = 0; i < PROJECT_COUNT; i++) {
+            projectIds.add(ProjectIdFactory.getFreshProjectId());
+        }
+        for(int i = 0; i < ACCESS_COUNT; i++) {
+            manager.addRecentProject(userIds.get(i % USER_COUNT), projectIds.get(i % PROJECT_COUNT), i);
+        }
+        manager.flush();
+        verify(datastore, times(USER_COUNT)).update(eq(query), eq(updateOperations), any(UpdateOptions.class));
+        var recentProjectsCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(updateOperations, times(USER_COUNT)).set(eq(RECENT_PROJECTS), recentProjectsCaptor.capture());
+        List<Object> writtenRecentProjects = recentProjectsCaptor.getAllValues();
+        writtenRecentProjects.forEach(recentProjects -> {
+            // i % 10 and i % 4 give two projects for each user
+            assertThat(((List<?>) recentProjects).size(), is(2));
+        });
+    }
+
+    @Test
+    public void shouldOnlySetRecentProjectsOnFlush() {
+        stubUpdates();
+        var persisted = new UserActivityRecord(userId, 1L, 2L, singletonList(new RecentProjectRecord(projectId, 10L)));
+        when(datastore.get(UserActivityRecord.class, userId)).thenReturn(persisted);
+        manager.addRecentProject(userId, otherProjectId, 20L);
+        manager.flush();
+        verify(updateOperations).set(RECENT_PROJECTS, List.of(new RecentProjectRecord(otherProjectId, 20L),
+                                                              new RecentProjectRecord(projectId, 10L)));
+        verify(updateOperations, never()).set(eq(LAST_LOGIN), any());
+        verify(updateOperations, never()).set(eq(LAST_LOGOUT), any());
+        verify(datastore, never()).save(any(UserActivityRecord.class));
+    }
+
+    @Test
+    public void shouldNotWriteAgainAfterFlush() {
+        stubUpdates();
+        manager.addRecentProject(userId, projectId, 33L);
+        manager.flush();
+        manager.flush();
+        verify(datastore, times(1)).update(eq(query), eq(updateOperations), any(UpdateOptions.class));
+    }
+
+    @Test
+    public void shouldNotBufferGuestRecentProjects() {
+        manager.addRecentProject(UserId.getGuest(), projectId, 33L);
+        manager.flush();
+        verifyZeroInteractions(datastore);
+    }
+}
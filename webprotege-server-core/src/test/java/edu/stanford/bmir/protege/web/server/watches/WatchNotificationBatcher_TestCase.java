@@ -0,0 +1,92 @@
+package edu.stanford.bmir.protege.web.server.watches;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WatchNotificationBatcher_TestCase {
+
+    private static final long WINDOW = 1000;
+
+    private WatchNotificationBatcher batcher;
+
+    @Mock
+    private ProjectId projectId;
+
+    @Mock
+    private WatchTriggeredHandler watchTriggeredHandler;
+
+    @Mock
+    private ScheduledExecutorService notificationService;
+
+    @Mock
+    private UserId userA, userB, byUser;
+
+    @Mock
+    private OWLEntity entityA, entityB;
+
+    @Before
+    public void setUp() {
+        batcher = new WatchNotificationBatcher(projectId, watchTriggeredHandler, notificationService, WINDOW);
+    }
+
+    @Test
+    public void shouldScheduleOneFlushPerWindow() {
+        batcher.add(Set.of(userA), entityA, byUser);
+        batcher.add(Set.of(userA), entityB, byUser);
+        verify(notificationService, times(1)).schedule(any(Runnable.class), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldScheduleAnotherFlushAfterFlushing() {
+        batcher.add(Set.of(userA), entityA, byUser);
+        batcher.flush();
+        batcher.add(Set.of(userA), entityB, byUser);
+        verify(notificationService, times(2)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void shouldNotifyEachUserOnceWithAllTriggeringEntities() {
+        batcher.add(Set.of(userA, userB), entityA, byUser);
+        batcher.add(Set.of(userA), entityB, byUser);
+        batcher.flush();
+        verify(watchTriggeredHandler, times(1)).handleWatchesTriggered(userA, ImmutableSetMultimap.of(entityA, byUser,
+                                                                                                      entityB, byUser));
+        verify(watchTriggeredHandler, times(1)).handleWatchesTriggered(userB, ImmutableSetMultimap.of(entityA, byUser));
+    }
+
+    @Test
+    public void shouldNotNotifyTwiceForSameBatch() {
+        batcher.add(Set.of(userA), entityA, byUser);
+        batcher.flush();
+        batcher.flush();
+        verify(watchTriggeredHandler, times(1)).handleWatchesTriggered(any(), any());
+    }
+
+    @Test
+    public void shouldNotScheduleFlushForNoUsers() {
+        batcher.add(Set.of(), entityA, byUser);
+        verifyZeroInteractions(notificationService);
+    }
+}
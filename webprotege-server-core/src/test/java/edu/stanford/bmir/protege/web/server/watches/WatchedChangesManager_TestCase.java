@@ -0,0 +1,225 @@
+package edu.stanford.bmir.protege.web.server.watches;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.change.AddAxiomChange;
+import edu.stanford.bmir.protege.web.server.change.OntologyChange;
+import edu.stanford.bmir.protege.web.server.change.RemoveAxiomChange;
+import edu.stanford.bmir.protege.web.server.hierarchy.AnnotationPropertyHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.hierarchy.DataPropertyHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.hierarchy.ObjectPropertyHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByClassIndex;
+import edu.stanford.bmir.protege.web.server.index.ClassAssertionAxiomsByIndividualIndex;
+import edu.stanford.bmir.protege.web.server.index.ProjectOntologiesIndex;
+import edu.stanford.bmir.protege.web.server.revision.ProjectChangesManager;
+import edu.stanford.bmir.protege.web.server.revision.Revision;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionsBySubjectIndex;
+import edu.stanford.bmir.protege.web.shared.change.ProjectChange;
+import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import edu.stanford.bmir.protege.web.shared.watches.Watch;
+import edu.stanford.bmir.protege.web.shared.watches.WatchType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.*;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class WatchedChangesManager_TestCase {
+
+    private static final UserId USER_ID = UserId.getUserId("JohnSmith");
+
+    private final OWLDataFactory dataFactory = new OWLDataFactoryImpl();
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://example.org/ont"));
+
+    private final OWLClass clsA = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+
+    private final OWLClass clsB = dataFactory.getOWLClass(IRI.create("http://example.org/B"));
+
+    private final OWLClass clsC = dataFactory.getOWLClass(IRI.create("http://example.org/C"));
+
+    private final Map<RevisionNumber, Revision> revisions = new HashMap<>();
+
+    private final Map<String, ProjectChange> projectChanges = new HashMap<>();
+
+    /**
+     * The watched IRIs that were looked up in the revisions by subject index, for each query
+     */
+    private final List<Set<IRI>> queriedSubjects = new ArrayList<>();
+
+    private long[] subjectRevisionNumbers = new long[0];
+
+    @Mock
+    private ProjectChangesManager projectChangesManager;
+
+    @Mock
+    private ClassHierarchyProvider classHierarchyProvider;
+
+    @Mock
+    private ObjectPropertyHierarchyProvider objectPropertyHierarchyProvider;
+
+    @Mock
+    private DataPropertyHierarchyProvider dataPropertyHierarchyProvider;
+
+    @Mock
+    private AnnotationPropertyHierarchyProvider annotationPropertyHierarchyProvider;
+
+    @Mock
+    private RevisionManager revisionManager;
+
+    @Mock
+    private RevisionsBySubjectIndex revisionsBySubjectIndex;
+
+    @Mock
+    private ProjectOntologiesIndex projectOntologiesIndex;
+
+    @Mock
+    private ClassAssertionAxiomsByClassIndex classAssertionAxiomsByClassIndex;
+
+    @Mock
+    private ClassAssertionAxiomsByIndividualIndex classAssertionAxiomsByIndividualIndex;
+
+    private WatchedChangesManager manager;
+
+    @Before
+    public void setUp() {
+        when(revisionManager.getRevision(any())).thenAnswer(invocation -> Optional.ofNullable(revisions.get(invocation.getArgument(0))));
+        when(revisionsBySubjectIndex.getSubjectRevisionNumbers(any())).thenAnswer(invocation -> {
+            Set<IRI> subjects = new HashSet<>();
+            Iterable<IRI> argument = invocation.getArgument(0);
+            argument.forEach(subjects::add);
+            queriedSubjects.add(subjects);
+            return subjectRevisionNumbers;
+        });
+        when(projectOntologiesIndex.getOntologyIds()).thenAnswer(invocation -> Stream.of(ontologyId));
+        when(classAssertionAxiomsByClassIndex.getClassAssertionAxioms(any(), any())).thenAnswer(invocation -> Stream.empty());
+        when(classAssertionAxiomsByIndividualIndex.getClassAssertionAxioms(any(), any())).thenAnswer(invocation -> Stream.empty());
+        when(classHierarchyProvider.getDescendants(any())).thenReturn(Collections.emptySet());
+        manager = new WatchedChangesManager(projectChangesManager,
+                                            classHierarchyProvider,
+                                            objectPropertyHierarchyProvider,
+                                            dataPropertyHierarchyProvider,
+                                            annotationPropertyHierarchyProvider,
+                                            revisionManager,
+                                            revisionsBySubjectIndex,
+                                            projectOntologiesIndex,
+                                            classAssertionAxiomsByClassIndex,
+                                            classAssertionAxiomsByIndividualIndex);
+    }
+
+    private void addRevision(long number, List<OWLEntity> subjects, OntologyChange... changes) {
+        var revisionNumber = RevisionNumber.getRevisionNumber(number);
+        var revision = new Revision(USER_ID, revisionNumber, ImmutableList.copyOf(changes), 0L, "Revision " + number);
+        revisions.put(revisionNumber, revision);
+        when(revisionManager.getCurrentRevision()).thenReturn(revisionNumber);
+        var subjectIris = subjects.stream().map(OWLEntity::getIRI).collect(ImmutableList.toImmutableList());
+        when(projectChangesManager.getSubjectsInRevision(revision)).thenReturn(subjectIris);
+        for (var subject : subjectIris) {
+            var projectChange = mock(ProjectChange.class);
+            projectChanges.put(number + " " + subject, projectChange);
+            when(projectChangesManager.getProjectChangesForSubjectInRevision(subject, revision)).thenReturn(ImmutableList.of(projectChange));
+        }
+    }
+
+    private ProjectChange projectChange(long revisionNumber, OWLEntity subject) {
+        return projectChanges.get(revisionNumber + " " + subject.getIRI());
+    }
+
+    private Set<Watch> watches(WatchType type, OWLEntity... entities) {
+        return Arrays.stream(entities)
+                     .map(entity -> new Watch(USER_ID, entity, type))
+                     .collect(ImmutableSet.toImmutableSet());
+    }
+
+    private void setUpChangesToWatchedEntities() {
+        addRevision(1, List.of(clsA));
+        addRevision(2, List.of(clsA, clsC, clsB));
+        addRevision(3, List.of(clsB));
+        subjectRevisionNumbers = new long[]{1, 2, 2, 3};
+    }
+
+    @Test
+    public void shouldGetFirstPageOfChangesNewestFirst() {
+        setUpChangesToWatchedEntities();
+        var page = manager.getProjectChangesForWatches(watches(WatchType.ENTITY, clsA, clsB),
+                                                       PageRequest.requestPageWithSize(1, 2));
+        assertThat(page.getPageElements(), contains(projectChange(3, clsB), projectChange(2, clsA)));
+    }
+
+    @Test
+    public void shouldGetPageThatStartsPartWayThroughRevision() {
+        setUpChangesToWatchedEntities();
+        var page = manager.getProjectChangesForWatches(watches(WatchType.ENTITY, clsA, clsB),
+                                                       PageRequest.requestPageWithSize(2, 2));
+        assertThat(page.getPageElements(), contains(projectChange(2, clsB), projectChange(1, clsA)));
+    }
+
+    @Test
+    public void shouldCountChangesRatherThanRevisions() {
+        setUpChangesToWatchedEntities();
+        var page = manager.getProjectChangesForWatches(watches(WatchType.ENTITY, clsA, clsB),
+                                                       PageRequest.requestPageWithSize(1, 2));
+        assertThat(page.getTotalElements(), is(4L));
+        assertThat(page.getPageCount(), is(2));
+    }
+
+    @Test
+    public void shouldNotGetChangesForRevisionsOutsideOfPage() {
+        setUpChangesToWatchedEntities();
+        manager.getProjectChangesForWatches(watches(WatchType.ENTITY, clsA, clsB),
+                                            PageRequest.requestPageWithSize(1, 1));
+        verify(projectChangesManager, never()).getSubjectsInRevision(revisions.get(RevisionNumber.getRevisionNumber(1)));
+        verify(projectChangesManager, never()).getSubjectsInRevision(revisions.get(RevisionNumber.getRevisionNumber(2)));
+    }
+
+    @Test
+    public void shouldLookUpDescendantsOfWatchedBranch() {
+        addRevision(1, List.of(clsA));
+        when(classHierarchyProvider.getDescendants(clsA)).thenReturn(Set.of(clsB));
+        manager.getProjectChangesForWatches(watches(WatchType.BRANCH, clsA), PageRequest.requestFirstPage());
+        assertThat(queriedSubjects.get(0), containsInAnyOrder(clsA.getIRI(), clsB.getIRI()));
+    }
+
+    @Test
+    public void shouldAddEntityMovedIntoBranchWithoutRecomputingBranch() {
+        addRevision(1, List.of(clsA));
+        when(classHierarchyProvider.getDescendants(clsA)).thenReturn(Set.of(clsB));
+        manager.getProjectChangesForWatches(watches(WatchType.BRANCH, clsA), PageRequest.requestFirstPage());
+        addRevision(2, List.of(clsC), AddAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsC, clsB)));
+        when(classHierarchyProvider.isAncestor(clsC, clsA)).thenReturn(true);
+        manager.getProjectChangesForWatches(watches(WatchType.BRANCH, clsA), PageRequest.requestFirstPage());
+        assertThat(queriedSubjects.get(1), containsInAnyOrder(clsA.getIRI(), clsB.getIRI(), clsC.getIRI()));
+        verify(classHierarchyProvider, times(1)).getDescendants(clsA);
+    }
+
+    @Test
+    public void shouldRemoveEntityMovedOutOfBranch() {
+        addRevision(1, List.of(clsA));
+        when(classHierarchyProvider.getDescendants(clsA)).thenReturn(Set.of(clsB));
+        manager.getProjectChangesForWatches(watches(WatchType.BRANCH, clsA), PageRequest.requestFirstPage());
+        addRevision(2, List.of(clsB), RemoveAxiomChange.of(ontologyId, dataFactory.getOWLSubClassOfAxiom(clsB, clsA)));
+        when(classHierarchyProvider.isAncestor(clsB, clsA)).thenReturn(false);
+        manager.getProjectChangesForWatches(watches(WatchType.BRANCH, clsA), PageRequest.requestFirstPage());
+        assertThat(queriedSubjects.get(1), contains(clsA.getIRI()));
+    }
+}
@@ -0,0 +1,146 @@
+package edu.stanford.bmir.protege.web.server.webhook;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.http.entity.ContentType.APPLICATION_JSON;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public class WebhookExecutor_TestCase {
+
+    private static final String COALESCING_KEY = "ProjectChanged";
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private WebhookExecutor executor;
+
+    private final List<String> receivedPayloads = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+
+    private final CountDownLatch releaseLatch = new CountDownLatch(1);
+
+    private volatile boolean blockFirstRequest = false;
+
+    private volatile CountDownLatch receivedLatch;
+
+    private final CountDownLatch blockedLatch = new CountDownLatch(1);
+
+    private String payloadUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/hook", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        payloadUrl = "http://localhost:" + server.getAddress().getPort() + "/hook";
+        executor = new WebhookExecutor(10);
+    }
+
+    @After
+    public void tearDown() {
+        releaseLatch.countDown();
+        executor.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        var payload = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if(failuresRemaining.getAndDecrement() > 0) {
+            respond(exchange, 503);
+            return;
+        }
+        if(blockFirstRequest) {
+            blockFirstRequest = false;
+            blockedLatch.countDown();
+            try {
+                releaseLatch.await(10, TimeUnit.SECONDS);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        receivedPayloads.add(payload);
+        respond(exchange, 200);
+        receivedLatch.countDown();
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode) throws IOException {
+        exchange.sendResponseHeaders(statusCode, -1);
+        exchange.close();
+    }
+
+    private WebhookInvocation invocation(String payload, String coalescingKey) {
+        return new WebhookInvocation(payload, payloadUrl, payload, APPLICATION_JSON, coalescingKey);
+    }
+
+    @Test
+    public void shouldPostPayloadsInOrder() throws InterruptedException {
+        receivedLatch = new CountDownLatch(3);
+        executor.submit(invocation("A", null));
+        executor.submit(invocation("B", null));
+        executor.submit(invocation("C", null));
+        assertThat(receivedLatch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(receivedPayloads, contains("A", "B", "C"));
+    }
+
+    @Test
+    public void shouldRetryAfterServerError() throws InterruptedException {
+        failuresRemaining.set(WebhookExecutor.MAX_ATTEMPTS - 1);
+        receivedLatch = new CountDownLatch(1);
+        executor.submit(invocation("A", null));
+        assertThat(receivedLatch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(receivedPayloads, contains("A"));
+    }
+
+    @Test
+    public void shouldCoalesceWaitingPayloadsWithSameKey() throws InterruptedException {
+        blockFirstRequest = true;
+        receivedLatch = new CountDownLatch(2);
+        executor.submit(invocation("A", COALESCING_KEY));
+        assertThat(blockedLatch.await(10, TimeUnit.SECONDS), is(true));
+        executor.submit(invocation("B", COALESCING_KEY));
+        executor.submit(invocation("C", COALESCING_KEY));
+        releaseLatch.countDown();
+        assertThat(receivedLatch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(receivedPayloads, contains("A", "C"));
+    }
+
+    @Test
+    public void shouldNotCoalescePayloadsWithoutKey() throws InterruptedException {
+        blockFirstRequest = true;
+        receivedLatch = new CountDownLatch(3);
+        executor.submit(invocation("A", null));
+        assertThat(blockedLatch.await(10, TimeUnit.SECONDS), is(true));
+        executor.submit(invocation("B", null));
+        executor.submit(invocation("C", null));
+        releaseLatch.countDown();
+        assertThat(receivedLatch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(receivedPayloads, contains("A", "B", "C"));
+    }
+}
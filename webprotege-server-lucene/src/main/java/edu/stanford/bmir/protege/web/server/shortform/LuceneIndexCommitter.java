@@ -0,0 +1,143 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import edu.stanford.bmir.protege.web.shared.HasDispose;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Commits the project Lucene index in the background.  Updates to the index are made visible to searches
+ * by refreshing the near-real-time searcher, which does not need a commit, so the commit (and the sync
+ * to disk that it involves) is taken off the path of applying changes to the project.  Commits that are
+ * requested in quick succession are coalesced into one commit.  Each commit is stamped with the latest
+ * project revision so that an index that was not committed before a shutdown can be detected, and rebuilt,
+ * when it is next opened.
+ * </p>
+ * <p>
+ * The committer is disposed of by the disposer of the index writer, immediately before the index writer is
+ * closed, so that the final commit does not depend upon the order in which project objects are disposed of.
+ * </p>
+ */
+@ProjectSingleton
+public class LuceneIndexCommitter implements HasDispose {
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneIndexCommitter.class);
+
+    public static final String REVISION_COMMIT_DATA_KEY = "revision";
+
+    private static final long COMMIT_DELAY_MS = 1000;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final IndexWriter indexWriter;
+
+    @Nonnull
+    private final LuceneIndexRevisionSupplier revisionSupplier;
+
+    @Nonnull
+    private final ScheduledExecutorService commitService;
+
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+
+    private volatile boolean disposed = false;
+
+    @Inject
+    public LuceneIndexCommitter(@Nonnull ProjectId projectId,
+                                @Nonnull IndexWriter indexWriter,
+                                @Nonnull LuceneIndexRevisionSupplier revisionSupplier,
+                                @Nonnull @LuceneIndexCommitService ScheduledExecutorService commitService) {
+        this.projectId = checkNotNull(projectId);
+        this.indexWriter = checkNotNull(indexWriter);
+        this.revisionSupplier = checkNotNull(revisionSupplier);
+        this.commitService = checkNotNull(commitService);
+    }
+
+    /**
+     * Gets the revision that the latest commit of the index in the specified directory was stamped with.
+     * @param directory The directory that contains the index.
+     * @return The revision, or empty if the latest commit was not stamped with a revision.
+     */
+    @Nonnull
+    public static Optional<Long> getCommittedRevision(@Nonnull Directory directory) throws IOException {
+        var userData = SegmentInfos.readLatestCommit(directory).getUserData();
+        return Optional.ofNullable(userData.get(REVISION_COMMIT_DATA_KEY))
+                       .map(Long::parseLong);
+    }
+
+    /**
+     * Requests that the index is committed.  The commit takes place in the background, shortly after
+     * this call.  This method does not wait for a commit that is in progress.
+     */
+    public void scheduleCommit() {
+        if(disposed) {
+            return;
+        }
+        if(!commitScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            commitService.schedule(this::commitScheduledChanges, COMMIT_DELAY_MS, TimeUnit.MILLISECONDS);
+        } catch(RejectedExecutionException e) {
+            // The application is shutting down.  The changes are committed when the project is disposed of.
+            commitScheduled.set(false);
+        }
+    }
+
+    private synchronized void commitScheduledChanges() {
+        commitScheduled.set(false);
+        if(disposed) {
+            return;
+        }
+        try {
+            commit();
+        } catch(IOException | RuntimeException e) {
+            logger.error("{} Could not commit the lucene index: {}", projectId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Commits the index, stamping the commit with the latest project revision.
+     */
+    public synchronized void commit() throws IOException {
+        if(!indexWriter.isOpen()) {
+            return;
+        }
+        // The revision is read before committing so that the stamp never runs ahead of the committed documents
+        var revision = revisionSupplier.getRevision();
+        indexWriter.setLiveCommitData(Map.of(REVISION_COMMIT_DATA_KEY, Long.toString(revision)).entrySet());
+        indexWriter.commit();
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        try {
+            commit();
+            logger.info("{} Committed lucene index", projectId);
+        } catch(IOException | RuntimeException e) {
+            logger.error("{} Could not commit the lucene index: {}", projectId, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * Supplies the number of the latest project revision.  Commits of the Lucene index are stamped with
+ * this number so that an index that is behind the project revisions can be detected when it is opened.
+ * </p>
+ */
+public interface LuceneIndexRevisionSupplier {
+
+    /**
+     * Gets the number of the latest revision whose changes have been applied to the index.
+     */
+    long getRevision();
+}
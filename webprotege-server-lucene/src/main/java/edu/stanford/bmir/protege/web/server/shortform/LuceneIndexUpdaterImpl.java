@@ -31,13 +31,18 @@ public class LuceneIndexUpdaterImpl implements LuceneIndexUpdater {
     @Nonnull
     private final SearcherManager searcherManager;
 
+    @Nonnull
+    private final LuceneIndexCommitter indexCommitter;
+
     @Inject
     public LuceneIndexUpdaterImpl(@Nonnull IndexWriter indexWriter,
                                   @Nonnull Provider<LuceneEntityDocumentTranslator> documentTranslatorProvider,
-                                  @Nonnull SearcherManager searcherManager) {
+                                  @Nonnull SearcherManager searcherManager,
+                                  @Nonnull LuceneIndexCommitter indexCommitter) {
         this.indexWriter = checkNotNull(indexWriter);
         this.documentTranslatorProvider = checkNotNull(documentTranslatorProvider);
         this.searcherManager = checkNotNull(searcherManager);
+        this.indexCommitter = checkNotNull(indexCommitter);
     }
 
     @Override
@@ -53,8 +58,10 @@ public class LuceneIndexUpdaterImpl implements LuceneIndexUpdater {
             entities.stream()
                     .map(documentTranslator::getLuceneDocument)
                     .forEach(this::addDocument);
-            indexWriter.commit();
-            searcherManager.maybeRefresh();
+            // The searcher is opened from the index writer so the updates can be searched without a commit.
+            // The commit, which syncs the index to disk, takes place in the background.
+            searcherManager.maybeRefreshBlocking();
+            indexCommitter.scheduleCommit();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
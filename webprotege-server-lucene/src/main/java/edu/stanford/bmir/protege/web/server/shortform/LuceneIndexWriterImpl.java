@@ -57,6 +57,12 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
     @Nonnull
     private BuiltInOwlEntitiesIndex builtInOwlEntitiesIndex;
 
+    @Nonnull
+    private final LuceneIndexCommitter indexCommitter;
+
+    @Nonnull
+    private final LuceneIndexRevisionSupplier revisionSupplier;
+
 
     @Inject
     public LuceneIndexWriterImpl(@Nonnull ProjectId projectId,
@@ -66,7 +72,9 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
                                  @Nonnull EntitiesInProjectSignatureIndex entitiesInProjectSignatureIndex,
                                  @Nonnull IndexWriter indexWriter,
                                  @Nonnull SearcherManager searcherManager,
-                                 @Nonnull BuiltInOwlEntitiesIndex builtInOwlEntitiesIndex) {
+                                 @Nonnull BuiltInOwlEntitiesIndex builtInOwlEntitiesIndex,
+                                 @Nonnull LuceneIndexCommitter indexCommitter,
+                                 @Nonnull LuceneIndexRevisionSupplier revisionSupplier) {
         this.projectId = projectId;
         this.luceneDirectory = luceneDirectory;
         this.luceneEntityDocumentTranslator = luceneEntityDocumentTranslator;
@@ -75,6 +83,8 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
         this.indexWriter = indexWriter;
         this.searcherManager = searcherManager;
         this.builtInOwlEntitiesIndex = checkNotNull(builtInOwlEntitiesIndex);
+        this.indexCommitter = checkNotNull(indexCommitter);
+        this.revisionSupplier = checkNotNull(revisionSupplier);
     }
 
     @Override
@@ -96,6 +106,11 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
     public void writeIndex() throws IOException {
 
         if(DirectoryReader.indexExists(luceneDirectory)) {
+            if(isIndexBehindRevisions()) {
+                logger.info("{} Lucene index is behind the project revisions.  Rebuilding it.", projectId);
+                rebuildIndex();
+                return;
+            }
             logger.info("{} Lucene index already exists", projectId);
             return;
         }
@@ -114,11 +129,22 @@ public class LuceneIndexWriterImpl implements LuceneIndexWriter, HasDispose, Ent
                                .filter(entity -> !entitiesInProjectSignatureIndex.containsEntityInSignature(entity))
                                .map(docTranslator::getLuceneDocument)
                                .forEach(this::addDocumentToIndex);
-        indexWriter.commit();
+        indexCommitter.commit();
         searcherManager.maybeRefreshBlocking();
         logger.info("{} Built lucene based dictionary in {} ms", projectId, stopwatch.elapsed().toMillis());
     }
 
+    /**
+     * Determines whether the index was last committed at a revision before the latest project revision.  This
+     * happens if the project was not shut down cleanly before the index was committed.  Indexes that were
+     * committed without a revision stamp are assumed to be up to date.
+     */
+    private boolean isIndexBehindRevisions() throws IOException {
+        return LuceneIndexCommitter.getCommittedRevision(luceneDirectory)
+                                   .map(revision -> revision < revisionSupplier.getRevision())
+                                   .orElse(false);
+    }
+
     public void addDocumentToIndex(Document doc) {
         try {
             indexWriter.addDocument(doc);
@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
 import com.google.common.collect.ImmutableList;
+import dagger.Lazy;
 import dagger.Module;
 import dagger.Provides;
 import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
@@ -117,11 +118,14 @@ public class LuceneModule {
     IndexWriter provideIndexWriter(Directory directory,
                                    IndexWriterConfig indexWriterConfig,
                                    ProjectDisposablesManager projectDisposablesManager,
-                                   ProjectId projectId) {
+                                   ProjectId projectId,
+                                   Lazy<LuceneIndexCommitter> indexCommitter) {
         try {
             var indexWriter = new IndexWriter(directory, indexWriterConfig);
             projectDisposablesManager.register(() -> {
                 try {
+                    // Make the final commit before the writer is closed
+                    indexCommitter.get().dispose();
                     indexWriter.close();
                     logger.info("{} Closed lucene index writer", projectId);
                 } catch (IOException e) {
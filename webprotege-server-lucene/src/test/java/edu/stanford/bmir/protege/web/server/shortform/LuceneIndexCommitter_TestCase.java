@@ -0,0 +1,120 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneIndexCommitter_TestCase {
+
+    private LuceneIndexCommitter committer;
+
+    private final ProjectId projectId = ProjectId.get("12345678-1234-1234-1234-123456789abc");
+
+    private Directory directory;
+
+    private IndexWriter indexWriter;
+
+    @Mock
+    private LuceneIndexRevisionSupplier revisionSupplier;
+
+    private ScheduledExecutorService commitService;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        commitService = Executors.newSingleThreadScheduledExecutor();
+        committer = new LuceneIndexCommitter(projectId, indexWriter, revisionSupplier, commitService);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        commitService.shutdownNow();
+        indexWriter.close();
+        directory.close();
+    }
+
+    @Test
+    public void shouldCommitInBackground() throws Exception {
+        when(revisionSupplier.getRevision()).thenReturn(33L);
+        addDocument();
+        committer.scheduleCommit();
+        commitService.shutdown();
+        assertThat(commitService.awaitTermination(10, TimeUnit.SECONDS), is(true));
+        assertThat(LuceneIndexCommitter.getCommittedRevision(directory), is(Optional.of(33L)));
+    }
+
+    @Test
+    public void shouldNotScheduleCommitAfterDisposal() throws Exception {
+        when(revisionSupplier.getRevision()).thenReturn(33L);
+        committer.dispose();
+        addDocument();
+        committer.scheduleCommit();
+        commitService.shutdown();
+        assertThat(commitService.awaitTermination(10, TimeUnit.SECONDS), is(true));
+        try(var reader = DirectoryReader.open(directory)) {
+            assertThat(reader.numDocs(), is(0));
+        }
+    }
+
+    @Test
+    public void shouldStampCommitWithRevision() throws IOException {
+        when(revisionSupplier.getRevision()).thenReturn(33L);
+        addDocument();
+        committer.commit();
+        assertThat(LuceneIndexCommitter.getCommittedRevision(directory), is(Optional.of(33L)));
+    }
+
+    @Test
+    public void shouldReturnEmptyForCommitWithoutRevision() throws IOException {
+        addDocument();
+        indexWriter.commit();
+        assertThat(LuceneIndexCommitter.getCommittedRevision(directory), is(Optional.empty()));
+    }
+
+    @Test
+    public void shouldCommitOnDispose() throws IOException {
+        when(revisionSupplier.getRevision()).thenReturn(33L);
+        addDocument();
+        committer.dispose();
+        assertThat(LuceneIndexCommitter.getCommittedRevision(directory), is(Optional.of(33L)));
+        try(var reader = DirectoryReader.open(directory)) {
+            assertThat(reader.numDocs(), is(1));
+        }
+    }
+
+    private void addDocument() throws IOException {
+        var document = new Document();
+        document.add(new StringField("iri", "http://example.org/A", Field.Store.YES));
+        indexWriter.addDocument(document);
+    }
+}
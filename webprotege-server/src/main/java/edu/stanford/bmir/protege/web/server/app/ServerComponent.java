@@ -7,6 +7,8 @@ import edu.stanford.bmir.protege.web.server.dispatch.DispatchServlet;
 import edu.stanford.bmir.protege.web.server.download.ProjectDownloadServlet;
 import edu.stanford.bmir.protege.web.server.inject.*;
 import edu.stanford.bmir.protege.web.server.inject.project.ProjectModule;
+import edu.stanford.bmir.protege.web.server.mail.MailQueue;
+import edu.stanford.bmir.protege.web.server.project.ProjectAccessFlusher;
 import edu.stanford.bmir.protege.web.server.project.ProjectCacheManager;
 import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
 import edu.stanford.bmir.protege.web.server.upload.FileUploadServlet;
@@ -61,4 +63,8 @@ public interface ServerComponent {
 
     ProjectCacheManager getProjectCacheManager();
 
+    ProjectAccessFlusher getProjectAccessFlusher();
+
+    MailQueue getMailQueue();
+
 }
@@ -48,6 +48,8 @@ public class WebProtegeServletContextListener implements ServletContextListener
             servletContext.addListener(serverComponent.getSessionListener());
             serverComponent.getWebProtegeConfigurationChecker().performConfiguration();
             serverComponent.getProjectCacheManager().start();
+            serverComponent.getProjectAccessFlusher().start();
+            serverComponent.getMailQueue().start();
 
             Runtime runtime = Runtime.getRuntime();
             logger.info("Max  Memory: {} MB", (runtime.maxMemory() / (1024 * 1024)));
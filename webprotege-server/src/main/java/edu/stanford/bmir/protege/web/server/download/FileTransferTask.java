@@ -88,6 +88,17 @@ class FileTransferTask implements Callable<Void> {
         response.setContentType(MIME_TYPE);
     }
 
+    /**
+     * Sets the mime type and the client side file name on a response that a download will be streamed to.
+     * @param response The response.
+     * @param clientSideFileName The name of the file that should be created on the client side.
+     */
+    static void setDownloadHeaders(@Nonnull HttpServletResponse response,
+                                   @Nonnull String clientSideFileName) {
+        response.setContentType(MIME_TYPE);
+        response.setHeader(CONTENT_DISPOSITION_HEADER_FIELD, "attachment; filename=\"" + clientSideFileName + "\"");
+    }
+
     /**
      * Sets the file name.  Must be called before the file is streamed to the client with
      * {@link #streamFileToClient()}.
@@ -1,7 +1,6 @@
 package edu.stanford.bmir.protege.web.server.download;
 
 import com.google.common.base.Stopwatch;
-import com.google.common.util.concurrent.Striped;
 import edu.stanford.bmir.protege.web.server.app.ApplicationNameSupplier;
 import edu.stanford.bmir.protege.web.server.project.ProjectDetailsManager;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
@@ -20,11 +19,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.locks.Lock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -39,8 +39,13 @@ public class ProjectDownloadService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectDownloadService.class);
 
+    private static final long QUEUE_POSITION_LOGGING_INTERVAL_MS = 10_000;
+
+    @Nonnull
+    private final DownloadGenerationScheduler downloadGenerationScheduler;
+
     @Nonnull
-    private final ExecutorService downloadGeneratorExecutor;
+    private final DownloadMemoryEstimator downloadMemoryEstimator;
 
     @Nonnull
     private final ExecutorService fileTransferExecutor;
@@ -54,18 +59,23 @@ public class ProjectDownloadService {
     @Nonnull
     private final HeadRevisionNumberFinder headRevisionNumberFinder;
 
-    private final Striped<Lock> lockStripes = Striped.lazyWeakLock(10);
+    /**
+     * The downloads that are being created, keyed by the path that they will be cached at
+     */
+    private final ConcurrentMap<Path, InProgressDownload> inProgressDownloads = new ConcurrentHashMap<>();
 
     @Nonnull
     private final CreateDownloadTaskFactory createDownloadTaskFactory;
 
     @Inject
-    public ProjectDownloadService(@Nonnull @DownloadGeneratorExecutor ExecutorService downloadGeneratorExecutor,
+    public ProjectDownloadService(@Nonnull DownloadGenerationScheduler downloadGenerationScheduler,
+                                  @Nonnull DownloadMemoryEstimator downloadMemoryEstimator,
                                   @Nonnull @FileTransferExecutor ExecutorService fileTransferExecutor,
                                   @Nonnull ProjectDetailsManager projectDetailsManager,
                                   @Nonnull ProjectDownloadCache projectDownloadCache,
                                   @Nonnull HeadRevisionNumberFinder headRevisionNumberFinder, @Nonnull CreateDownloadTaskFactory createDownloadTaskFactory) {
-        this.downloadGeneratorExecutor = checkNotNull(downloadGeneratorExecutor);
+        this.downloadGenerationScheduler = checkNotNull(downloadGenerationScheduler);
+        this.downloadMemoryEstimator = checkNotNull(downloadMemoryEstimator);
         this.fileTransferExecutor = checkNotNull(fileTransferExecutor);
         this.projectDetailsManager = checkNotNull(projectDetailsManager);
         this.projectDownloadCache = checkNotNull(projectDownloadCache);
@@ -88,66 +98,149 @@ public class ProjectDownloadService {
         }
 
         Path downloadPath = projectDownloadCache.getCachedDownloadPath(projectId, realRevisionNumber, downloadFormat);
+        if(Files.exists(downloadPath)) {
+            logger.info("{} {} Download for the requested revision already exists.  Using cached download.",
+                        projectId,
+                        requester);
+            transferFileToClient(projectId,
+                                 requester,
+                                 revisionNumber,
+                                 downloadFormat,
+                                 downloadPath,
+                                 response);
+            return;
+        }
+        var inProgressDownload = createDownloadIfNecessary(requester,
+                                                           projectId,
+                                                           revisionNumber,
+                                                           downloadFormat,
+                                                           downloadPath);
+        transferInProgressDownloadToClient(projectId,
+                                           requester,
+                                           revisionNumber,
+                                           downloadFormat,
+                                           inProgressDownload,
+                                           response);
+    }
 
-        createDownloadIfNecessary(requester,
-                                  projectId,
-                                  revisionNumber,
-                                  downloadFormat,
-                                  downloadPath);
-
-        transferFileToClient(projectId,
-                             requester,
-                             revisionNumber,
-                             downloadFormat,
-                             downloadPath,
-                             response);
+    /**
+     * Gets the in progress download for the specified path, submitting a task to create the download if
+     * it is not already being created.  Concurrent requests for the same download share the same
+     * in progress download, so that the download is only created once.
+     */
+    @Nonnull
+    private InProgressDownload createDownloadIfNecessary(@Nonnull UserId requester,
+                                                         @Nonnull ProjectId projectId,
+                                                         @Nonnull RevisionNumber revisionNumber,
+                                                         @Nonnull DownloadFormat downloadFormat,
+                                                         @Nonnull Path downloadPath) {
+        var newDownload = new InProgressDownload(downloadPath);
+        var existingDownload = inProgressDownloads.putIfAbsent(downloadPath, newDownload);
+        if(existingDownload != null) {
+            logger.info("{} {} Download for the requested revision is already being created.  Joining download.",
+                        projectId,
+                        requester);
+            return existingDownload;
+        }
+        // If the download was completed after the cache was checked then the task will not recreate it
+        CreateDownloadTask task = createDownloadTaskFactory.create(projectId,
+                                                                   requester,
+                                                                   getProjectDisplayName(projectId),
+                                                                   revisionNumber,
+                                                                   downloadFormat,
+                                                                   downloadPath,
+                                                                   newDownload);
+        try {
+            var estimatedMemory = downloadMemoryEstimator.getEstimatedMemory(projectId);
+            var scheduledDownload = downloadGenerationScheduler.submit(projectId, estimatedMemory, task);
+            logger.info("{} {} Submitted request to create download to queue", projectId, requester);
+            var stopwatch = Stopwatch.createStarted();
+            scheduledDownload.getFuture().whenComplete((result, failure) -> {
+                inProgressDownloads.remove(downloadPath, newDownload);
+                if(failure != null) {
+                    // Covers downloads that fail before the task starts
+                    newDownload.failed(failure);
+                    logger.info("{} {} An error occurred whilst creating the download.  Cause: {}",
+                                projectId,
+                                requester,
+                                failure.getMessage(),
+                                failure);
+                }
+                else {
+                    logger.info("{} {} Created download after {} ms",
+                                projectId,
+                                requester,
+                                stopwatch.elapsed(MILLISECONDS));
+                }
+            });
+            logQueuePosition(projectId, requester, scheduledDownload, newDownload);
+        } catch(RejectedExecutionException e) {
+            logger.info("{} {} Generate download request rejected", projectId, requester);
+            inProgressDownloads.remove(downloadPath, newDownload);
+            newDownload.failed(e);
+        }
+        return newDownload;
     }
 
-    private void createDownloadIfNecessary(@Nonnull UserId requester,
-                                           @Nonnull ProjectId projectId,
-                                           @Nonnull RevisionNumber revisionNumber,
-                                           @Nonnull DownloadFormat downloadFormat,
-                                           @Nonnull Path downloadPath) {
-        // This thing always returns the same lock for the same project.
-        // This means that we won't create the *same* download more than once.  It
-        // does mean that multiple *different* downloads could possibly be created at the same time
-        Lock lock = lockStripes.get(projectId);
+    /**
+     * Logs the position of a download in the queue until it starts being written.
+     */
+    private void logQueuePosition(@Nonnull ProjectId projectId,
+                                  @Nonnull UserId requester,
+                                  @Nonnull DownloadGenerationScheduler.ScheduledDownload scheduledDownload,
+                                  @Nonnull InProgressDownload inProgressDownload) {
         try {
-            lock.lock();
-            if (Files.exists(downloadPath)) {
-                logger.info("{} {} Download for the requested revision already exists.  Using cached download.",
-                            projectId,
-                            requester);
-                return;
-            }
-            CreateDownloadTask task = createDownloadTaskFactory.create(projectId,
-                                                                       requester,
-                                                                       getProjectDisplayName(projectId),
-                                                                       revisionNumber,
-                                                                       downloadFormat,
-                                                                       downloadPath);
-            try {
-                var futureOfCreateDownload = downloadGeneratorExecutor.submit(task);
-                logger.info("{} {} Submitted request to create download to queue", projectId, requester);
-                var stopwatch = Stopwatch.createStarted();
-                logger.info("{} {} Waiting for download to be created", projectId, requester);
-                futureOfCreateDownload.get();
-                logger.info("{} {} Created download after {} ms", projectId, requester, stopwatch.elapsed(MILLISECONDS));
-            } catch(RejectedExecutionException e) {
-                logger.info("{} {} Generate download request rejected", projectId, requester);
-            } catch (InterruptedException e) {
-                logger.info("{} {} The download of this project was interrupted.", projectId, requester);
-            } catch (ExecutionException e) {
-                logger.info("{} {} An execution exception occurred whilst creating the download.  Cause: {}",
-                            projectId,
-                            requester,
-                            Optional.ofNullable(e.getCause()).map(Throwable::getMessage).orElse(""),
-                            e.getCause());
+            while(!inProgressDownload.awaitStarted(QUEUE_POSITION_LOGGING_INTERVAL_MS)) {
+                var queuePosition = downloadGenerationScheduler.getQueuePosition(scheduledDownload);
+                if(queuePosition > 0) {
+                    logger.info("{} {} Download is waiting at position {} in the queue", projectId, requester, queuePosition);
+                }
+                else {
+                    logger.info("{} {} Download is being generated", projectId, requester);
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Streams an in progress download to the client as it is generated.  If the download fails after part of it
+     * has been sent then an exception is thrown, so that the connection is aborted rather than the client
+     * receiving a truncated download that looks complete.
+     */
+    private void transferInProgressDownloadToClient(@Nonnull ProjectId projectId,
+                                                    @Nonnull UserId requester,
+                                                    @Nonnull RevisionNumber revisionNumber,
+                                                    @Nonnull DownloadFormat downloadFormat,
+                                                    @Nonnull InProgressDownload inProgressDownload,
+                                                    @Nonnull HttpServletResponse response) throws IOException {
+        try {
+            FileTransferTask.setDownloadHeaders(response, getClientSideFileName(projectId, revisionNumber, downloadFormat));
+            inProgressDownload.transferTo(response.getOutputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("{} {} The download of this project was interrupted.", projectId, requester);
+            abortResponse(response, new IOException("The download was interrupted", e));
+        } catch (IOException e) {
+            logger.info("{} {} The download could not be sent to the client.  Cause: {}",
+                        projectId,
+                        requester,
+                        e.getMessage());
+            abortResponse(response, e);
         }
-        finally {
-            lock.unlock();
+    }
+
+    private static void abortResponse(@Nonnull HttpServletResponse response,
+                                      @Nonnull IOException cause) throws IOException {
+        if(!response.isCommitted()) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
         }
+        // Part of the download has already been sent.  Propagating the exception makes the container abort the
+        // connection, rather than finishing the response.
+        throw cause;
     }
 
     private String getProjectDisplayName(@Nonnull ProjectId projectId) {
@@ -204,7 +297,6 @@ public class ProjectDownloadService {
      */
     public void shutDown() {
         logger.info("Shutting down Project Download Service");
-        downloadGeneratorExecutor.shutdown();
         fileTransferExecutor.shutdown();
         logger.info("Project Download Service has been shut down");
     }
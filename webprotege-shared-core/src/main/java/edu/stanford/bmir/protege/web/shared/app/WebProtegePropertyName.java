@@ -51,7 +51,16 @@ public enum WebProtegePropertyName {
     PROJECT_DORMANT_TIME("project.dormant.time", PropertyValue.ofInteger(180_000)),
 
     @WebProtegePropertiesDocumentation(description = "The edge limit for the entity graph", example = "1000")
-    ENTITY_GRAPH_EDGE_LIMIT("entitygraph.edgelimit", PropertyValue.ofInteger(1_000));
+    ENTITY_GRAPH_EDGE_LIMIT("entitygraph.edgelimit", PropertyValue.ofInteger(1_000)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of project downloads that can be generated at the same time", example = "4")
+    DOWNLOAD_GENERATOR_THREADS("download.generator.threads", PropertyValue.ofInteger(4)),
+
+    @WebProtegePropertiesDocumentation(description = "The percentage of the maximum heap size that can be used to generate project downloads", example = "50")
+    DOWNLOAD_GENERATOR_MEMORY_BUDGET("download.generator.memorybudget", PropertyValue.ofInteger(50)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of changes and entities, across all loaded projects, that are held in caches derived from project revisions", example = "2000000")
+    REVISION_CACHE_BUDGET("revision.cache.budget", PropertyValue.ofInteger(2_000_000));
 
     private static class PropertyValue {
 
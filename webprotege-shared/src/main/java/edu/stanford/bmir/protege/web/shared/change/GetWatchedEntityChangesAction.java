@@ -23,13 +23,22 @@ public class GetWatchedEntityChangesAction implements ProjectAction<GetWatchedEn
 
     private UserId userId;
 
+    private PageRequest pageRequest;
+
     private GetWatchedEntityChangesAction() {
     }
 
     public GetWatchedEntityChangesAction(ProjectId projectId,
                                          UserId userId) {
+        this(projectId, userId, PageRequest.requestFirstPage());
+    }
+
+    public GetWatchedEntityChangesAction(ProjectId projectId,
+                                         UserId userId,
+                                         PageRequest pageRequest) {
         this.projectId = checkNotNull(projectId);
         this.userId = checkNotNull(userId);
+        this.pageRequest = checkNotNull(pageRequest);
     }
 
     @Nonnull
@@ -43,9 +52,17 @@ public class GetWatchedEntityChangesAction implements ProjectAction<GetWatchedEn
         return userId;
     }
 
+    /**
+     * Gets the requested page of changes.  Pages are made up of revisions, newest first.
+     */
+    @Nonnull
+    public PageRequest getPageRequest() {
+        return pageRequest;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hashCode(projectId, userId);
+        return Objects.hashCode(projectId, userId, pageRequest);
     }
 
     @Override
@@ -58,7 +75,8 @@ public class GetWatchedEntityChangesAction implements ProjectAction<GetWatchedEn
         }
         GetWatchedEntityChangesAction other = (GetWatchedEntityChangesAction) obj;
         return this.projectId.equals(other.projectId)
-                && this.userId.equals(other.userId);
+                && this.userId.equals(other.userId)
+                && this.pageRequest.equals(other.pageRequest);
     }
 
 
@@ -67,6 +85,7 @@ public class GetWatchedEntityChangesAction implements ProjectAction<GetWatchedEn
         return toStringHelper("GetWatchedEntityChangesAction")
                 .addValue(projectId)
                 .addValue(userId)
+                .addValue(pageRequest)
                 .toString();
     }
 }
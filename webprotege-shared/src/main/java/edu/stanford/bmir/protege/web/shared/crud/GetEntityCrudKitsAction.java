@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.shared.crud;
 import com.google.common.base.MoreObjects;
 import edu.stanford.bmir.protege.web.shared.annotations.GwtSerializationConstructor;
 import edu.stanford.bmir.protege.web.shared.dispatch.ProjectAction;
+import edu.stanford.bmir.protege.web.shared.dispatch.ReadOnlyAction;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 
 import javax.annotation.Nonnull;
@@ -15,7 +16,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Bio-Medical Informatics Research Group<br>
  * Date: 8/19/13
  */
-public class GetEntityCrudKitsAction implements ProjectAction<GetEntityCrudKitsResult> {
+public class GetEntityCrudKitsAction implements ProjectAction<GetEntityCrudKitsResult>, ReadOnlyAction {
 
     private ProjectId projectId;
 
@@ -0,0 +1,15 @@
+package edu.stanford.bmir.protege.web.shared.dispatch;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ *     A marker interface for actions that only read project or application state and
+ *     that do not have any side effects.  Read-only actions that are submitted as part
+ *     of a {@link BatchAction} may be executed concurrently with each other on the server.
+ * </p>
+ */
+public interface ReadOnlyAction {
+
+}
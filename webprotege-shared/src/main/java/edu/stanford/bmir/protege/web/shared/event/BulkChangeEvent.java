@@ -0,0 +1,158 @@
+package edu.stanford.bmir.protege.web.shared.event;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.web.bindery.event.shared.Event;
+import edu.stanford.bmir.protege.web.shared.annotations.GwtSerializationConstructor;
+import edu.stanford.bmir.protege.web.shared.hierarchy.HierarchyId;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ * <p>
+ * An event that is posted in place of fine grained frame, hierarchy and browser text events when a large
+ * set of changes is applied to a project.  Rather than describing what changed, it describes which entities
+ * were affected so that clients can invalidate and re-fetch the state that they display for these entities.
+ * </p>
+ * <p>
+ * The event is sent to every client that has the project open, so the number of entities that it lists is
+ * bounded.  When the changes affect more entities than can be listed, the event only records that every entity,
+ * or every entity in a hierarchy, should be treated as changed.
+ * </p>
+ */
+public class BulkChangeEvent extends ProjectEvent<BulkChangeHandler> {
+
+    public transient static final Event.Type<BulkChangeHandler> ON_BULK_CHANGE = new Event.Type<>();
+
+    private UserId userId;
+
+    private RevisionNumber revisionNumber;
+
+    private ImmutableSet<OWLEntity> changedEntities;
+
+    private boolean allEntitiesChanged;
+
+    private ImmutableMap<HierarchyId, ImmutableSet<OWLEntity>> hierarchyEntities;
+
+    private ImmutableSet<HierarchyId> changedHierarchies;
+
+    /**
+     * Creates a {@link BulkChangeEvent}.
+     * @param projectId The project that was changed.
+     * @param userId The user that made the changes.
+     * @param revisionNumber The revision number of the project after the changes were applied.
+     * @param changedEntities The entities whose frames or browser text may have changed.
+     * @param allEntitiesChanged true if the changes affected too many entities to list them, in which case
+     *                           every entity should be treated as changed.
+     * @param hierarchyEntities For each hierarchy, the entities whose position in the hierarchy may have changed.
+     * @param changedHierarchies The hierarchies in which the changes affected too many entities to list them.
+     *                           Any part of these hierarchies may have changed.
+     */
+    public BulkChangeEvent(@Nonnull ProjectId projectId,
+                           @Nonnull UserId userId,
+                           @Nonnull RevisionNumber revisionNumber,
+                           @Nonnull ImmutableSet<OWLEntity> changedEntities,
+                           boolean allEntitiesChanged,
+                           @Nonnull ImmutableMap<HierarchyId, ImmutableSet<OWLEntity>> hierarchyEntities,
+                           @Nonnull ImmutableSet<HierarchyId> changedHierarchies) {
+        super(projectId);
+        this.userId = checkNotNull(userId);
+        this.revisionNumber = checkNotNull(revisionNumber);
+        this.changedEntities = checkNotNull(changedEntities);
+        this.allEntitiesChanged = allEntitiesChanged;
+        this.hierarchyEntities = checkNotNull(hierarchyEntities);
+        this.changedHierarchies = checkNotNull(changedHierarchies);
+    }
+
+    @GwtSerializationConstructor
+    private BulkChangeEvent() {
+    }
+
+    /**
+     * Gets the user that made the changes.
+     */
+    @Nonnull
+    public UserId getUserId() {
+        return userId;
+    }
+
+    @Nonnull
+    public RevisionNumber getRevisionNumber() {
+        return revisionNumber;
+    }
+
+    /**
+     * Gets the entities whose frames or browser text may have changed.  This is empty if the changes
+     * affected too many entities to list them.
+     * @see #isAllEntitiesChanged()
+     */
+    @Nonnull
+    public ImmutableSet<OWLEntity> getChangedEntities() {
+        return changedEntities;
+    }
+
+    /**
+     * Determines whether the changes affected too many entities to list them, in which case every entity
+     * should be treated as changed.
+     */
+    public boolean isAllEntitiesChanged() {
+        return allEntitiesChanged;
+    }
+
+    /**
+     * Gets the entities whose parents or children in the specified hierarchy may have changed.
+     * @param hierarchyId The hierarchy.
+     * @return The possibly empty set of entities.
+     */
+    @Nonnull
+    public ImmutableSet<OWLEntity> getHierarchyEntities(@Nonnull HierarchyId hierarchyId) {
+        ImmutableSet<OWLEntity> entities = hierarchyEntities.get(hierarchyId);
+        return entities != null ? entities : ImmutableSet.of();
+    }
+
+    /**
+     * Determines whether the changes affected too many entities in the specified hierarchy to list them,
+     * in which case any part of the hierarchy may have changed.
+     * @param hierarchyId The hierarchy.
+     */
+    public boolean isHierarchyChanged(@Nonnull HierarchyId hierarchyId) {
+        return changedHierarchies.contains(hierarchyId);
+    }
+
+    /**
+     * Determines whether the specified entity may have been affected by the changes.
+     */
+    public boolean isChanged(@Nonnull OWLEntity entity) {
+        return allEntitiesChanged || changedEntities.contains(entity);
+    }
+
+    @Override
+    public Event.Type<BulkChangeHandler> getAssociatedType() {
+        return ON_BULK_CHANGE;
+    }
+
+    @Override
+    protected void dispatch(BulkChangeHandler handler) {
+        handler.handleBulkChange(this);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("BulkChangeEvent")
+                          .addValue(getProjectId())
+                          .addValue(userId)
+                          .addValue(revisionNumber)
+                          .add("changedEntities", allEntitiesChanged ? "all" : changedEntities.size())
+                          .toString();
+    }
+}
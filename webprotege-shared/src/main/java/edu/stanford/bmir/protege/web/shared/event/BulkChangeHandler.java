@@ -0,0 +1,13 @@
+package edu.stanford.bmir.protege.web.shared.event;
+
+import com.google.gwt.event.shared.EventHandler;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+public interface BulkChangeHandler extends EventHandler {
+
+    void handleBulkChange(BulkChangeEvent event);
+}
@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.shared.frame;
 
 import edu.stanford.bmir.protege.web.shared.dispatch.ProjectAction;
+import edu.stanford.bmir.protege.web.shared.dispatch.ReadOnlyAction;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 
@@ -12,7 +13,7 @@ import javax.annotation.Nonnull;
  * Bio-Medical Informatics Research Group<br>
  * Date: 23/04/2013
  */
-public class GetAnnotationPropertyFrameAction implements ProjectAction<GetAnnotationPropertyFrameResult> {
+public class GetAnnotationPropertyFrameAction implements ProjectAction<GetAnnotationPropertyFrameResult>, ReadOnlyAction {
 
     private OWLAnnotationProperty subject;
 
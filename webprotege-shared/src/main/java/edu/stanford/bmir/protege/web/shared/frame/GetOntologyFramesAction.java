@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.shared.frame;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 import edu.stanford.bmir.protege.web.shared.dispatch.AbstractHasProjectAction;
+import edu.stanford.bmir.protege.web.shared.dispatch.ReadOnlyAction;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 
 /**
@@ -10,7 +11,7 @@ import edu.stanford.bmir.protege.web.shared.project.ProjectId;
  * Stanford Center for Biomedical Informatics Research
  * 25/07/15
  */
-public class GetOntologyFramesAction extends AbstractHasProjectAction<GetOntologyFramesResult> {
+public class GetOntologyFramesAction extends AbstractHasProjectAction<GetOntologyFramesResult> implements ReadOnlyAction {
 
     private GetOntologyFramesAction() {
     }
@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.shared.lang;
 import com.google.common.base.MoreObjects;
 import edu.stanford.bmir.protege.web.shared.annotations.GwtSerializationConstructor;
 import edu.stanford.bmir.protege.web.shared.dispatch.ProjectAction;
+import edu.stanford.bmir.protege.web.shared.dispatch.ReadOnlyAction;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 
 import javax.annotation.Nonnull;
@@ -14,7 +15,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Stanford Center for Biomedical Informatics Research
  * 2020-04-26
  */
-public class GetProjectLangTagsAction implements ProjectAction<GetProjectLangTagsResult> {
+public class GetProjectLangTagsAction implements ProjectAction<GetProjectLangTagsResult>, ReadOnlyAction {
 
     private ProjectId projectId;
 
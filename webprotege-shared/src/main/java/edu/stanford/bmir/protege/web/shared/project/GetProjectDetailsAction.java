@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.shared.project;
 
 import com.google.common.base.Objects;
 import edu.stanford.bmir.protege.web.shared.dispatch.Action;
+import edu.stanford.bmir.protege.web.shared.dispatch.ReadOnlyAction;
 
 import javax.annotation.Nonnull;
 
@@ -13,7 +14,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Stanford Center for Biomedical Informatics Research
  * 10/03/16
  */
-public class GetProjectDetailsAction implements Action<GetProjectDetailsResult>, HasProjectId {
+public class GetProjectDetailsAction implements Action<GetProjectDetailsResult>, HasProjectId, ReadOnlyAction {
 
     private ProjectId projectId;
 
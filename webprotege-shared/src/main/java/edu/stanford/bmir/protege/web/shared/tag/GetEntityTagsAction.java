@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.shared.tag;
 import com.google.common.base.Objects;
 import edu.stanford.bmir.protege.web.shared.annotations.GwtSerializationConstructor;
 import edu.stanford.bmir.protege.web.shared.dispatch.ProjectAction;
+import edu.stanford.bmir.protege.web.shared.dispatch.ReadOnlyAction;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.semanticweb.owlapi.model.OWLEntity;
 
@@ -16,7 +17,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Stanford Center for Biomedical Informatics Research
  * 18 Mar 2018
  */
-public class GetEntityTagsAction implements ProjectAction<GetEntityTagsResult> {
+public class GetEntityTagsAction implements ProjectAction<GetEntityTagsResult>, ReadOnlyAction {
 
     private ProjectId projectId;
 
@@ -19,16 +19,35 @@ public class GetUsageAction extends AbstractHasProjectIdAndSubject<OWLEntity> im
 
     private static final int DEFAULT_PAGE_SIZE = 500;
 
+    /**
+     * The largest page start for which the end of the page can be represented as an int
+     */
+    private static final int MAX_PAGE_START = Integer.MAX_VALUE - DEFAULT_PAGE_SIZE;
+
     @Nullable
     private UsageFilter usageFilter;
 
+    private int pageStart;
+
     @GwtSerializationConstructor
     private GetUsageAction() {
     }
 
     public GetUsageAction(OWLEntity subject, ProjectId projectId, Optional<UsageFilter> usageFilter) {
+        this(subject, projectId, usageFilter, 0);
+    }
+
+    /**
+     * Creates an action to get a page of usage references
+     * @param pageStart The position of the first usage reference in the page.  This is zero for the first
+     *                  page and {@link GetUsageResult#getNextPageStart()} for subsequent pages.  Negative
+     *                  values are treated as zero and values that are too large to start a page are treated as
+     *                  the largest page start.
+     */
+    public GetUsageAction(OWLEntity subject, ProjectId projectId, Optional<UsageFilter> usageFilter, int pageStart) {
         super(subject, projectId);
         this.usageFilter = usageFilter.orElse(null);
+        this.pageStart = pageStart;
     }
 
     public UsageFilter getUsageFilter() {
@@ -38,4 +57,14 @@ public class GetUsageAction extends AbstractHasProjectIdAndSubject<OWLEntity> im
     public int getPageSize() {
         return DEFAULT_PAGE_SIZE;
     }
+
+    /**
+     * Gets the page start.  This is clamped here, rather than in the constructor, because deserialized actions
+     * are not created with the constructor.
+     * @return The page start, which is between zero and the largest page start, so that the page start plus
+     * the page size does not overflow.
+     */
+    public int getPageStart() {
+        return Math.max(0, Math.min(pageStart, MAX_PAGE_START));
+    }
 }
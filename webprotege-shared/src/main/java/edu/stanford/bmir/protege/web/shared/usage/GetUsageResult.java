@@ -28,14 +28,21 @@ public class GetUsageResult implements Result, HasSignature, HasProjectId {
 
     private int totalUsageCount;
 
+    private int nextPageStart = -1;
+
     private GetUsageResult() {
     }
 
     public GetUsageResult(ProjectId projectId, EntityNode entityNode, Collection<UsageReference> usageReferences, int totalUsageCount) {
+        this(projectId, entityNode, usageReferences, totalUsageCount, Optional.empty());
+    }
+
+    public GetUsageResult(ProjectId projectId, EntityNode entityNode, Collection<UsageReference> usageReferences, int totalUsageCount, Optional<Integer> nextPageStart) {
         this.projectId = checkNotNull(projectId);
         this.entityNode = checkNotNull(entityNode);
         this.usageReferences = checkNotNull(usageReferences);
         this.totalUsageCount = checkNotNull(totalUsageCount);
+        this.nextPageStart = checkNotNull(nextPageStart).orElse(-1);
     }
 
     @Nonnull
@@ -53,6 +60,18 @@ public class GetUsageResult implements Result, HasSignature, HasProjectId {
         return totalUsageCount;
     }
 
+    /**
+     * Gets the page start for the next page of usage references.
+     * @return The page start to use in a {@link GetUsageAction} for the next page, or empty if this is the last page.
+     */
+    @Nonnull
+    public Optional<Integer> getNextPageStart() {
+        if(nextPageStart < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(nextPageStart);
+    }
+
     @Nonnull
     public Collection<UsageReference> getUsageReferences() {
         return new ArrayList<UsageReference>(usageReferences);
@@ -44,7 +44,7 @@ public class UsageReferenceComparator implements Comparator<UsageReference> {
         }
 
         int typeDiff = o1.getAxiomType().getIndex() - o2.getAxiomType().getIndex();
-        if(typeDiff != -1) {
+        if(typeDiff != 0) {
             return typeDiff;
         }
 
@@ -39,8 +39,8 @@ public class GetWatchedEntityChangesAction_TestCase {
 
     @Before
     public void setUp() throws Exception {
-        action = new GetWatchedEntityChangesAction(projectId, userId);
-        otherAction = new GetWatchedEntityChangesAction(projectId, userId);
+        action = new GetWatchedEntityChangesAction(projectId, userId, pageRequest);
+        otherAction = new GetWatchedEntityChangesAction(projectId, userId, pageRequest);
     }
 
     @Test(expected = NullPointerException.class)
@@ -53,6 +53,17 @@ public class GetWatchedEntityChangesAction_TestCase {
         new GetWatchedEntityChangesAction(projectId, null);
     }
 
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionIf_PageRequest_IsNull() {
+        new GetWatchedEntityChangesAction(projectId, userId, null);
+    }
+
+    @Test
+    public void shouldRequestFirstPageByDefault() {
+        GetWatchedEntityChangesAction defaultAction = new GetWatchedEntityChangesAction(projectId, userId);
+        assertThat(defaultAction.getPageRequest(), is(PageRequest.requestFirstPage()));
+    }
+
     @Test
     public void shouldBeEqualToSelf() {
         assertThat(action, is(equalTo(action)));
@@ -87,4 +98,9 @@ public class GetWatchedEntityChangesAction_TestCase {
     public void shouldReturnSupplied_UserId() {
         assertThat(action.getUserId(), is(userId));
     }
+
+    @Test
+    public void shouldReturnSupplied_PageRequest() {
+        assertThat(action.getPageRequest(), is(pageRequest));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package edu.stanford.bmir.protege.web.shared.usage;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * Stanford Center for Biomedical Informatics Research
+ * 19 Oct 2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class GetUsageAction_TestCase {
+
+    @Mock
+    private OWLEntity subject;
+
+    @Mock
+    private ProjectId projectId;
+
+    @Test
+    public void shouldReturnPageStart() {
+        GetUsageAction action = new GetUsageAction(subject, projectId, Optional.empty(), 500);
+        assertThat(action.getPageStart(), is(500));
+    }
+
+    @Test
+    public void shouldTreatNegativePageStartAsZero() {
+        GetUsageAction action = new GetUsageAction(subject, projectId, Optional.empty(), -1);
+        assertThat(action.getPageStart(), is(0));
+    }
+
+    @Test
+    public void shouldClampPageStartSoThatPageEndDoesNotOverflow() {
+        GetUsageAction action = new GetUsageAction(subject, projectId, Optional.empty(), Integer.MAX_VALUE);
+        int pageEnd = action.getPageStart() + action.getPageSize();
+        assertThat(pageEnd > action.getPageStart(), is(true));
+    }
+}